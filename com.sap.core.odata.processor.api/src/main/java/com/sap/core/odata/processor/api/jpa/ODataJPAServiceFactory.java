@@ -17,6 +17,8 @@ package com.sap.core.odata.processor.api.jpa;
 
 import com.sap.core.odata.api.ODataService;
 import com.sap.core.odata.api.ODataServiceFactory;
+import com.sap.core.odata.api.edm.Edm;
+import com.sap.core.odata.api.edm.provider.EdmCache;
 import com.sap.core.odata.api.edm.provider.EdmProvider;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.processor.ODataContext;
@@ -105,10 +107,67 @@ public abstract class ODataJPAServiceFactory extends ODataServiceFactory {
         .createODataProcessor(oDataJPAContext);
 
     // OData Entity Data Model Provider based on JPA
-    EdmProvider edmProvider = accessFactory
-        .createJPAEdmProvider(oDataJPAContext);
+    String edmCacheKey = getEdmCacheKey();
+    if (edmCacheKey == null) {
+      EdmProvider edmProvider = accessFactory
+          .createJPAEdmProvider(oDataJPAContext);
+      return createODataSingleProcessorService(edmProvider, odataJPAProcessor);
+    }
+
+    // The JPA model is built only once and shared by all requests
+    Edm edm = EdmCache.getEdm(edmCacheKey);
+    if (edm == null) {
+      edm = EdmCache.getEdm(edmCacheKey, accessFactory
+          .createJPAEdmProvider(createEdmContext(accessFactory)));
+    }
+
+    return createODataSingleProcessorService(edm, odataJPAProcessor);
+  }
+
+  /**
+   * Creates the context for a cached entity data model. It holds the
+   * model-related settings of the current context but no request-scoped
+   * objects like the entity manager or the OData context, so that the
+   * cached model does not keep them alive.
+   */
+  private ODataJPAContext createEdmContext(final ODataJPAAccessFactory accessFactory) {
+    ODataJPAContext edmContext = accessFactory.createODataJPAContext();
+    edmContext.setPersistenceUnitName(oDataJPAContext.getPersistenceUnitName());
+    edmContext.setEntityManagerFactory(oDataJPAContext.getEntityManagerFactory());
+    edmContext.setJPAEdmMappingModel(oDataJPAContext.getJPAEdmMappingModel());
+    edmContext.setJPAEdmExtension(oDataJPAContext.getJPAEdmExtension());
+    return edmContext;
+  }
+
+  /**
+   * Returns the key under which the entity data model built from the JPA
+   * model is cached in {@link com.sap.core.odata.api.edm.provider.EdmCache}.
+   * By default the model is not cached but built for every request. Override
+   * this method to share one model between all requests, e.g., by returning
+   * the factory class name and the persistence unit name. The cached model is
+   * built once from the persistence unit, the entity manager factory, the
+   * mapping model, and the EDM extension of the context; request-specific
+   * values of these settings are not taken into account. Call
+   * {@link #invalidateEdm()} if the JPA model changes.
+   * 
+   * @return the cache key or <code>null</code> if the model shall not be cached
+   * @throws ODataJPARuntimeException
+   */
+  protected String getEdmCacheKey() throws ODataJPARuntimeException {
+    return null;
+  }
 
-    return createODataSingleProcessorService(edmProvider, odataJPAProcessor);
+  /**
+   * Removes the cached entity data model so that it is built again from the
+   * JPA model with the next request.
+   * 
+   * @throws ODataJPARuntimeException
+   */
+  public final void invalidateEdm() throws ODataJPARuntimeException {
+    String edmCacheKey = getEdmCacheKey();
+    if (edmCacheKey != null) {
+      EdmCache.invalidate(edmCacheKey);
+    }
   }
 
   private void validatePreConditions() throws ODataJPARuntimeException {
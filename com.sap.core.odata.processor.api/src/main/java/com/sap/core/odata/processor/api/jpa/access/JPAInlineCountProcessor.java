@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.processor.api.jpa.access;
+
+import java.util.List;
+
+import com.sap.core.odata.api.uri.info.GetEntitySetLinksUriInfo;
+import com.sap.core.odata.api.uri.info.GetEntitySetUriInfo;
+import com.sap.core.odata.processor.api.jpa.exception.ODataJPAModelException;
+import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
+
+/**
+ * A JPA processor which determines the total count for $inlinecount=allpages
+ * with a separate count query, so that the results themselves can be restricted
+ * by $top and $skip in the database.
+ * <p>For $inlinecount=allpages the methods of {@link JPAProcessor} return all
+ * results, which the response builder restricts by $top and $skip after counting
+ * them; processors without this interface are always served that way.
+ * 
+ * @author SAP AG
+ */
+public interface JPAInlineCountProcessor extends JPAProcessor {
+
+  /**
+   * Processes OData request for querying an Entity Set. In contrast to
+   * {@link JPAProcessor#process(GetEntitySetUriInfo)} the results are always
+   * restricted by $top and $skip.
+   * 
+   * @param requestView
+   *            is an OData request for querying an entity set
+   * @return list of objects representing JPA entity types
+   * @throws ODataJPAModelException
+   * @throws ODataJPARuntimeException
+   */
+  public <T> List<T> processPage(GetEntitySetUriInfo requestView)
+      throws ODataJPAModelException, ODataJPARuntimeException;
+
+  /**
+   * Processes OData request for executing $links OData command for 1:N relation.
+   * In contrast to {@link JPAProcessor#process(GetEntitySetLinksUriInfo)} the
+   * results are always restricted by $top and $skip.
+   * 
+   * @param requestView
+   *            OData request for Entity Set Link URI
+   * @return a list of object representing JPA entities
+   * @throws ODataJPAModelException
+   * @throws ODataJPARuntimeException
+   */
+  public <T> List<T> processPage(GetEntitySetLinksUriInfo requestView)
+      throws ODataJPAModelException, ODataJPARuntimeException;
+
+  /**
+   * Counts the results of an OData request for querying an Entity Set,
+   * disregarding $top and $skip.
+   * 
+   * @param requestView
+   *            is an OData request for querying an entity set
+   * @return the total count for $inlinecount
+   * @throws ODataJPAModelException
+   * @throws ODataJPARuntimeException
+   */
+  public long count(GetEntitySetUriInfo requestView)
+      throws ODataJPAModelException, ODataJPARuntimeException;
+
+  /**
+   * Counts the results of an OData request for executing $links OData command
+   * for 1:N relation, disregarding $top and $skip.
+   * 
+   * @param requestView
+   *            OData request for Entity Set Link URI
+   * @return the total count for $inlinecount
+   * @throws ODataJPAModelException
+   * @throws ODataJPARuntimeException
+   */
+  public long count(GetEntitySetLinksUriInfo requestView)
+      throws ODataJPAModelException, ODataJPARuntimeException;
+}
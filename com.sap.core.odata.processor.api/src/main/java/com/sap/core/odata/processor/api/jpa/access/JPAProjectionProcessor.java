@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.processor.api.jpa.access;
+
+import java.util.List;
+
+import com.sap.core.odata.api.edm.EdmProperty;
+import com.sap.core.odata.api.uri.info.GetEntitySetUriInfo;
+import com.sap.core.odata.processor.api.jpa.exception.ODataJPAModelException;
+import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
+
+/**
+ * A JPA processor which can fetch only the properties selected by $select
+ * instead of whole JPA entities. The methods of {@link JPAProcessor} always
+ * return JPA entities; callers which can handle property values opt in to the
+ * projection by using this interface.
+ * 
+ * @author SAP AG
+ */
+public interface JPAProjectionProcessor extends JPAInlineCountProcessor {
+
+  /**
+   * Returns the properties fetched by {@link #processProjection(GetEntitySetUriInfo)}:
+   * the properties selected by $select followed by the key properties and the
+   * properties used for the ETag that have not been selected.
+   * 
+   * @param requestView
+   *            is an OData request for querying an entity set
+   * @return list of EDM properties or <code>null</code> if the request has to
+   *         be processed with whole JPA entities, e.g., without $select or with
+   *         $expand
+   * @throws ODataJPARuntimeException
+   */
+  public List<EdmProperty> getProjectedProperties(GetEntitySetUriInfo requestView)
+      throws ODataJPARuntimeException;
+
+  /**
+   * Processes OData request for querying an Entity Set with $select. The
+   * results are always restricted by $top and $skip; the total count for
+   * $inlinecount is determined with {@link #count(GetEntitySetUriInfo)}.
+   * 
+   * @param requestView
+   *            is an OData request for querying an entity set for which
+   *            {@link #getProjectedProperties(GetEntitySetUriInfo)} does not
+   *            return <code>null</code>
+   * @return list of arrays holding the values of the projected properties in
+   *         their order; complex property values are embeddable objects
+   * @throws ODataJPAModelException
+   * @throws ODataJPARuntimeException
+   */
+  public List<Object[]> processProjection(GetEntitySetUriInfo requestView)
+      throws ODataJPAModelException, ODataJPARuntimeException;
+}
@@ -15,6 +15,9 @@
  ******************************************************************************/
 package com.sap.core.odata.processor.api.jpa.jpql;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPAModelException;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.api.jpa.factory.ODataJPAFactory;
@@ -49,6 +52,10 @@ public abstract class JPQLContext implements JPQLContextView {
    * The type of JPQL context. Based on the type JPQL statements can be built.
    */
   protected JPQLContextType type;
+  /**
+   * Values bound to the positional parameters of the context's conditions
+   */
+  protected List<Object> parameters = new ArrayList<Object>();
 
   /**
    * sets JPA Entity Name into the context
@@ -104,6 +111,14 @@ public abstract class JPQLContext implements JPQLContextView {
     return type;
   }
 
+  /**
+   * gets the values bound to the positional parameters of the context
+   */
+  @Override
+  public final List<Object> getParameters() {
+    return parameters;
+  }
+
   /**
    * the method returns an instance of type
    * {@link com.sap.core.odata.processor.api.jpa.jpql.JPQLContext.JPQLContextBuilder}
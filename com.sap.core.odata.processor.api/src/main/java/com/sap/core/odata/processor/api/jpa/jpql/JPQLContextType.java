@@ -66,5 +66,11 @@ public enum JPQLContextType {
    * indicates that the JPQL context can be used for building JPA Method
    * context that can be used for invoking custom functions
    */
-  FUNCTION
+  FUNCTION,
+  /**
+   * indicates that the JPQL context can be used for building JPQL select
+   * statement that fetches only the properties selected by $select, see
+   * {@link com.sap.core.odata.processor.api.jpa.access.JPAProjectionProcessor}
+   */
+  SELECT_PROJECTION
 }
@@ -15,6 +15,8 @@
  ******************************************************************************/
 package com.sap.core.odata.processor.api.jpa.jpql;
 
+import java.util.List;
+
 /**
  * The interface provides a view on JPQL Context. The view can be used to access
  * different JPQL context type implementations.
@@ -48,4 +50,13 @@ public interface JPQLContextView {
    *         {@link com.sap.core.odata.processor.api.jpa.jpql.JPQLContextType}
    */
   public JPQLContextType getType();
+
+  /**
+   * The method returns the values bound to the positional parameters (?1,
+   * ?2, ...) of the conditions held by the JPQL context. The value at index
+   * <code>i</code> is bound to the parameter <code>?(i+1)</code>.
+   * 
+   * @return list of parameter values
+   */
+  public List<Object> getParameters();
 }
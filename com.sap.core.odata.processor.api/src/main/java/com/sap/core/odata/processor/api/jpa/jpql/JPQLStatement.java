@@ -15,6 +15,9 @@
  ******************************************************************************/
 package com.sap.core.odata.processor.api.jpa.jpql;
 
+import java.util.Collections;
+import java.util.List;
+
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.api.jpa.factory.ODataJPAFactory;
 
@@ -34,6 +37,7 @@ import com.sap.core.odata.processor.api.jpa.factory.ODataJPAFactory;
 public class JPQLStatement {
 
   protected String statement;
+  protected List<Object> parameters;
 
   /**
    * The method is used for creating an instance of JPQL Statement Builder for
@@ -53,8 +57,9 @@ public class JPQLStatement {
     return JPQLStatementBuilder.create(context);
   }
 
-  private JPQLStatement(final String statement) {
+  private JPQLStatement(final String statement, final List<Object> parameters) {
     this.statement = statement;
+    this.parameters = parameters;
   }
 
   /**
@@ -65,6 +70,20 @@ public class JPQLStatement {
     return statement;
   }
 
+  /**
+   * The method returns the values bound to the positional parameters of the
+   * JPQL statement. The value at index <code>i</code> is bound to the
+   * parameter <code>?(i+1)</code>. Literals from the OData request are not
+   * part of the statement string, so statements of the same shape share the
+   * same string and can be reused by the JPA provider.
+   * 
+   * @return list of parameter values; an empty list if the statement has no
+   *         parameters
+   */
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
   /**
    * The abstract class is extended by specific JPQL statement builders for
    * building JPQL statements like
@@ -92,7 +111,14 @@ public class JPQLStatement {
     }
 
     protected final JPQLStatement createStatement(final String statement) {
-      return new JPQLStatement(statement);
+      return createStatement(statement, null);
+    }
+
+    protected final JPQLStatement createStatement(final String statement, final List<Object> parameters) {
+      if (parameters == null) {
+        return new JPQLStatement(statement, Collections.<Object> emptyList());
+      }
+      return new JPQLStatement(statement, Collections.unmodifiableList(parameters));
     }
 
     /**
@@ -128,6 +154,7 @@ public class JPQLStatement {
     public static final String LEFT_OUTER_JOIN = "LEFT OUTER JOIN";
     public static final String OUTER = "OUTER";
     public static final String JOIN = "JOIN";
+    public static final String IN = "IN";
     public static final String ORDERBY = "ORDER BY";
     public static final String COUNT = "COUNT";
     public static final String OFFSET = ".000";
@@ -146,6 +173,7 @@ public class JPQLStatement {
     public static final char LEFT_BRACE = '{';
     public static final char RIGHT_BRACE = '}';
     public static final char LONG = 'L';
+    public static final char PARAMETER = '?';
   }
 
 }
@@ -15,8 +15,13 @@
  ******************************************************************************/
 package com.sap.core.odata.processor.core.jpa;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -47,6 +52,7 @@ import com.sap.core.odata.api.uri.expression.SortOrder;
 import com.sap.core.odata.api.uri.expression.UnaryExpression;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.api.jpa.jpql.JPQLStatement;
+import com.sap.core.odata.processor.api.jpa.model.JPAEdmMapping;
 
 /**
  * This class contains utility methods for parsing the filter expressions built by core library from user OData Query.
@@ -69,10 +75,27 @@ public class ODataExpressionParser {
    */
 
   public static String parseToJPAWhereExpression(final CommonExpression whereExpression, final String tableAlias) throws ODataException {
+    return parseToJPAWhereExpression(whereExpression, tableAlias, null);
+  }
+
+  /**
+   * This method returns the parsed where condition corresponding to the filter input in the user query.
+   * Literals are not inlined into the condition; each literal is replaced by a positional parameter
+   * (?1, ?2, ...) and its value is appended to the given parameter list.
+   * 
+   * @param whereExpression
+   * @param tableAlias
+   * @param parameters list collecting the values of the positional parameters;
+   * if <code>null</code> the literals are inlined
+   * 
+   * @return Parsed where condition String
+   * @throws ODataException
+   */
+  public static String parseToJPAWhereExpression(final CommonExpression whereExpression, final String tableAlias, final List<Object> parameters) throws ODataException {
     switch (whereExpression.getKind()) {
     case UNARY:
       final UnaryExpression unaryExpression = (UnaryExpression) whereExpression;
-      final String operand = parseToJPAWhereExpression(unaryExpression.getOperand(), tableAlias);
+      final String operand = parseToJPAWhereExpression(unaryExpression.getOperand(), tableAlias, parameters);
 
       switch (unaryExpression.getOperator()) {
       case NOT:
@@ -95,8 +118,12 @@ public class ODataExpressionParser {
       if ((binaryExpression.getLeftOperand().getKind() == ExpressionKind.METHOD) && ((binaryExpression.getOperator() == BinaryOperator.EQ) || (binaryExpression.getOperator() == BinaryOperator.NE)) && (((MethodExpression) binaryExpression.getLeftOperand()).getMethod() == MethodOperator.SUBSTRINGOF)) {
         methodFlag = 1;
       }
-      final String left = parseToJPAWhereExpression(binaryExpression.getLeftOperand(), tableAlias);
-      final String right = parseToJPAWhereExpression(binaryExpression.getRightOperand(), tableAlias);
+      final String left = parseToJPAWhereExpression(binaryExpression.getLeftOperand(), tableAlias, parameters);
+      final String right = parseToJPAWhereExpression(binaryExpression.getRightOperand(), tableAlias, parameters);
+      if (parameters != null) {
+        convertParameter(binaryExpression.getRightOperand(), right, binaryExpression.getLeftOperand(), parameters);
+        convertParameter(binaryExpression.getLeftOperand(), left, binaryExpression.getRightOperand(), parameters);
+      }
 
       switch (binaryExpression.getOperator()) {
       case AND:
@@ -145,22 +172,36 @@ public class ODataExpressionParser {
     case LITERAL:
       final LiteralExpression literal = (LiteralExpression) whereExpression;
       final EdmSimpleType literalType = (EdmSimpleType) literal.getEdmType();
+      if (parameters != null) {
+        return bindParameter(literalType.valueOfString(literal.getUriLiteral(), EdmLiteralKind.URI, null, literalType.getDefaultType()), parameters);
+      }
       String value = literalType.valueToString(literalType.valueOfString(literal.getUriLiteral(), EdmLiteralKind.URI, null, literalType.getDefaultType()), EdmLiteralKind.DEFAULT, null);
       return evaluateComparingExpression(value, literalType);
 
     case METHOD:
       final MethodExpression methodExpression = (MethodExpression) whereExpression;
-      String first = parseToJPAWhereExpression(methodExpression.getParameters().get(0), tableAlias);
+      String first = parseToJPAWhereExpression(methodExpression.getParameters().get(0), tableAlias, parameters);
       final String second = methodExpression.getParameterCount() > 1 ?
-          parseToJPAWhereExpression(methodExpression.getParameters().get(1), tableAlias) : null;
+          parseToJPAWhereExpression(methodExpression.getParameters().get(1), tableAlias, parameters) : null;
       String third = methodExpression.getParameterCount() > 2 ?
-          parseToJPAWhereExpression(methodExpression.getParameters().get(2), tableAlias) : null;
+          parseToJPAWhereExpression(methodExpression.getParameters().get(2), tableAlias, parameters) : null;
 
       switch (methodExpression.getMethod()) {
       case SUBSTRING:
         third = third != null ? ", " + third : "";
         return String.format("SUBSTRING(%s, %s + 1 %s)", first, second, third);
       case SUBSTRINGOF:
+        if (parameters != null && methodExpression.getParameters().get(0).getKind() == ExpressionKind.LITERAL) {
+          final int index = getParameterIndex(first);
+          parameters.set(index, "%" + parameters.get(index) + "%");
+          if (methodFlag == 1) {
+            methodFlag = 0;
+            return String.format("(CASE WHEN %s LIKE %s THEN TRUE ELSE FALSE END)", second, first);
+          }
+          else {
+            return String.format("(CASE WHEN %s LIKE %s THEN TRUE ELSE FALSE END) = true", second, first);
+          }
+        }
         first = first.substring(1, first.length() - 1);
         if (methodFlag == 1) {
           methodFlag = 0;
@@ -245,9 +286,25 @@ public class ODataExpressionParser {
    */
 
   public static String parseKeyPredicates(final List<KeyPredicate> keyPredicates, final String tableAlias) throws ODataJPARuntimeException {
+    return parseKeyPredicates(keyPredicates, tableAlias, null);
+  }
+
+  /**
+   * This method evaluated the where expression for read of an entity based on the keys specified in the query.
+   * The key values are bound as positional parameters (?1, ?2, ...) whose values are appended to the given
+   * parameter list.
+   * 
+   * @param keyPredicates
+   * @param tableAlias
+   * @param parameters list collecting the values of the positional parameters;
+   * if <code>null</code> the key values are inlined
+   * @return the evaluated where expression
+   */
+  public static String parseKeyPredicates(final List<KeyPredicate> keyPredicates, final String tableAlias, final List<Object> parameters) throws ODataJPARuntimeException {
     String literal = null;
     String propertyName = null;
     EdmSimpleType edmSimpleType = null;
+    EdmMapping mapping = null;
     StringBuilder keyFilters = new StringBuilder();
     int i = 0;
     for (KeyPredicate keyPredicate : keyPredicates) {
@@ -257,7 +314,8 @@ public class ODataExpressionParser {
       i++;
       literal = keyPredicate.getLiteral();
       try {
-        propertyName = keyPredicate.getProperty().getMapping().getInternalName();
+        mapping = keyPredicate.getProperty().getMapping();
+        propertyName = mapping.getInternalName();
         edmSimpleType = (EdmSimpleType) keyPredicate.getProperty().getType();
       } catch (EdmException e) {
         throw ODataJPARuntimeException.throwException(
@@ -265,11 +323,22 @@ public class ODataExpressionParser {
                 .getMessage()), e);
       }
 
-      literal = evaluateComparingExpression(literal, edmSimpleType);
+      if (parameters != null) {
+        try {
+          Object value = edmSimpleType.valueOfString(literal, EdmLiteralKind.DEFAULT, null, edmSimpleType.getDefaultType());
+          literal = bindParameter(convertParameter(value, getJPAType(mapping)), parameters);
+        } catch (EdmSimpleTypeException e) {
+          throw ODataJPARuntimeException.throwException(
+              ODataJPARuntimeException.GENERAL.addContent(e
+                  .getMessage()), e);
+        }
+      } else {
+        literal = evaluateComparingExpression(literal, edmSimpleType);
 
-      if (edmSimpleType == EdmSimpleTypeKind.DateTime.getEdmSimpleTypeInstance()
-          || edmSimpleType == EdmSimpleTypeKind.DateTimeOffset.getEdmSimpleTypeInstance()) {
-        literal = literal.substring(literal.indexOf('\''), literal.indexOf('}'));
+        if (edmSimpleType == EdmSimpleTypeKind.DateTime.getEdmSimpleTypeInstance()
+            || edmSimpleType == EdmSimpleTypeKind.DateTimeOffset.getEdmSimpleTypeInstance()) {
+          literal = literal.substring(literal.indexOf('\''), literal.indexOf('}'));
+        }
       }
 
       keyFilters.append(tableAlias + JPQLStatement.DELIMITER.PERIOD + propertyName + JPQLStatement.DELIMITER.SPACE + JPQLStatement.Operator.EQ + JPQLStatement.DELIMITER.SPACE + literal);
@@ -281,6 +350,85 @@ public class ODataExpressionParser {
     }
   }
 
+  /**
+   * This method appends the value to the parameter list and returns the positional parameter it is bound to.
+   */
+  private static String bindParameter(final Object value, final List<Object> parameters) {
+    parameters.add(value);
+    return String.valueOf(JPQLStatement.DELIMITER.PARAMETER) + parameters.size();
+  }
+
+  private static int getParameterIndex(final String parameter) {
+    return Integer.parseInt(parameter.substring(1)) - 1;
+  }
+
+  /**
+   * This method converts the value bound for a literal compared with a property to the Java type
+   * of the JPA attribute the property is mapped to.
+   */
+  private static void convertParameter(final CommonExpression literalExpression, final String parameter, final CommonExpression propertyExpression, final List<Object> parameters) throws EdmException {
+    if (literalExpression.getKind() != ExpressionKind.LITERAL) {
+      return;
+    }
+    EdmProperty property = null;
+    if (propertyExpression.getKind() == ExpressionKind.PROPERTY) {
+      property = (EdmProperty) ((PropertyExpression) propertyExpression).getEdmProperty();
+    } else if (propertyExpression.getKind() == ExpressionKind.MEMBER) {
+      property = (EdmProperty) ((PropertyExpression) ((MemberExpression) propertyExpression).getProperty()).getEdmProperty();
+    }
+    if (property != null) {
+      final int index = getParameterIndex(parameter);
+      parameters.set(index, convertParameter(parameters.get(index), getJPAType(property.getMapping())));
+    }
+  }
+
+  private static Class<?> getJPAType(final EdmMapping mapping) {
+    return mapping instanceof JPAEdmMapping ? ((JPAEdmMapping) mapping).getJPAType() : null;
+  }
+
+  private static Object convertParameter(final Object value, final Class<?> type) {
+    if (value == null || type == null || type.isInstance(value)) {
+      return value;
+    }
+    if (value instanceof Number) {
+      final Number number = (Number) value;
+      if (type == Long.class || type == long.class) {
+        return number.longValue();
+      } else if (type == Integer.class || type == int.class) {
+        return number.intValue();
+      } else if (type == Short.class || type == short.class) {
+        return number.shortValue();
+      } else if (type == Byte.class || type == byte.class) {
+        return number.byteValue();
+      } else if (type == Double.class || type == double.class) {
+        return number.doubleValue();
+      } else if (type == Float.class || type == float.class) {
+        return number.floatValue();
+      } else if (type == BigDecimal.class) {
+        return new BigDecimal(number.toString());
+      } else if (type == BigInteger.class) {
+        return new BigDecimal(number.toString()).toBigInteger();
+      }
+    } else if (value instanceof Calendar) {
+      final long millis = ((Calendar) value).getTimeInMillis();
+      if (type == Timestamp.class) {
+        return new Timestamp(millis);
+      } else if (type == Time.class) {
+        return new Time(millis);
+      } else if (type == java.sql.Date.class) {
+        return new java.sql.Date(millis);
+      } else if (type == Date.class) {
+        return new Date(millis);
+      }
+    } else if (type == String.class) {
+      return value.toString();
+    } else if (value instanceof String && (type == Character.class || type == char.class)
+        && ((String) value).length() == 1) {
+      return ((String) value).charAt(0);
+    }
+    return value;
+  }
+
   /**
    * This method evaluates the expression based on the type instance. Used for adding escape characters where necessary.
    * 
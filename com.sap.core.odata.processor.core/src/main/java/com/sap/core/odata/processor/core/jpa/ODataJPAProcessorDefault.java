@@ -18,6 +18,8 @@ package com.sap.core.odata.processor.core.jpa;
 import java.io.InputStream;
 import java.util.List;
 
+import com.sap.core.odata.api.commons.InlineCount;
+import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.processor.ODataResponse;
 import com.sap.core.odata.api.uri.info.DeleteUriInfo;
@@ -32,6 +34,8 @@ import com.sap.core.odata.api.uri.info.PostUriInfo;
 import com.sap.core.odata.api.uri.info.PutMergePatchUriInfo;
 import com.sap.core.odata.processor.api.jpa.ODataJPAContext;
 import com.sap.core.odata.processor.api.jpa.ODataJPAProcessor;
+import com.sap.core.odata.processor.api.jpa.access.JPAInlineCountProcessor;
+import com.sap.core.odata.processor.api.jpa.access.JPAProjectionProcessor;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPAException;
 
 public class ODataJPAProcessorDefault extends ODataJPAProcessor {
@@ -48,10 +52,31 @@ public class ODataJPAProcessorDefault extends ODataJPAProcessor {
   public ODataResponse readEntitySet(final GetEntitySetUriInfo uriParserResultView,
       final String contentType) throws ODataException {
 
-    List<?> jpaEntities = jpaProcessor.process(uriParserResultView);
+    // with $select only the needed properties are fetched if the JPA processor supports it
+    final List<EdmProperty> projectedProperties = jpaProcessor instanceof JPAProjectionProcessor ?
+        ((JPAProjectionProcessor) jpaProcessor).getProjectedProperties(uriParserResultView) : null;
+    if (projectedProperties != null) {
+      final JPAProjectionProcessor projectionProcessor = (JPAProjectionProcessor) jpaProcessor;
+      final List<Object[]> tuples = projectionProcessor.processProjection(uriParserResultView);
+      final Long totalCount = isPagedInlineCount(uriParserResultView.getInlineCount(),
+          uriParserResultView.getTop(), uriParserResultView.getSkip()) ?
+          projectionProcessor.count(uriParserResultView) : null;
+      return ODataJPAResponseBuilder.build(tuples, projectedProperties,
+          uriParserResultView, contentType, oDataJPAContext, totalCount);
+    }
+
+    List<?> jpaEntities = null;
+    Long totalCount = null;
+    if (isPagedInlineCount(uriParserResultView.getInlineCount(), uriParserResultView.getTop(), uriParserResultView.getSkip())) {
+      final JPAInlineCountProcessor inlineCountProcessor = (JPAInlineCountProcessor) jpaProcessor;
+      jpaEntities = inlineCountProcessor.processPage(uriParserResultView);
+      totalCount = inlineCountProcessor.count(uriParserResultView);
+    } else {
+      jpaEntities = jpaProcessor.process(uriParserResultView);
+    }
 
     ODataResponse oDataResponse = ODataJPAResponseBuilder.build(
-        jpaEntities, uriParserResultView, contentType, oDataJPAContext);
+        jpaEntities, uriParserResultView, contentType, oDataJPAContext, totalCount);
 
     return oDataResponse;
   }
@@ -178,10 +203,18 @@ public class ODataJPAProcessorDefault extends ODataJPAProcessor {
       final GetEntitySetLinksUriInfo uriParserResultView,
       final String contentType) throws ODataException {
 
-    List<Object> jpaEntity = jpaProcessor.process(uriParserResultView);
+    List<Object> jpaEntity = null;
+    Long totalCount = null;
+    if (isPagedInlineCount(uriParserResultView.getInlineCount(), uriParserResultView.getTop(), uriParserResultView.getSkip())) {
+      final JPAInlineCountProcessor inlineCountProcessor = (JPAInlineCountProcessor) jpaProcessor;
+      jpaEntity = inlineCountProcessor.processPage(uriParserResultView);
+      totalCount = inlineCountProcessor.count(uriParserResultView);
+    } else {
+      jpaEntity = jpaProcessor.process(uriParserResultView);
+    }
 
     ODataResponse oDataResponse = ODataJPAResponseBuilder.build(jpaEntity,
-        uriParserResultView, contentType, oDataJPAContext);
+        uriParserResultView, contentType, oDataJPAContext, totalCount);
 
     return oDataResponse;
   }
@@ -206,4 +239,13 @@ public class ODataJPAProcessorDefault extends ODataJPAProcessor {
     return ODataResponse.newBuilder().build();
   }
 
+  /*
+   * With $top or $skip, a JPAInlineCountProcessor pages the query in the database
+   * and determines the total count for $inlinecount=allpages with a separate count query.
+   * Results of other JPAProcessor implementations are paged by the response builder.
+   */
+  private boolean isPagedInlineCount(final InlineCount inlineCount, final Integer top, final Integer skip) {
+    return inlineCount == InlineCount.ALLPAGES && (top != null || skip != null)
+        && jpaProcessor instanceof JPAInlineCountProcessor;
+  }
 }
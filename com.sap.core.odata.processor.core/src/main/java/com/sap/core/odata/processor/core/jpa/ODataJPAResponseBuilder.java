@@ -38,6 +38,7 @@ import com.sap.core.odata.api.ep.EntityProvider;
 import com.sap.core.odata.api.ep.EntityProviderException;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties.ODataEntityProviderPropertiesBuilder;
+import com.sap.core.odata.api.ep.EntityRowLayout;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.exception.ODataHttpException;
 import com.sap.core.odata.api.exception.ODataNotFoundException;
@@ -66,49 +67,76 @@ public final class ODataJPAResponseBuilder {
   public static <T> ODataResponse build(final List<T> jpaEntities,
       final GetEntitySetUriInfo resultsView, final String contentType,
       final ODataJPAContext odataJPAContext) throws ODataJPARuntimeException {
+    return build(jpaEntities, resultsView, contentType, odataJPAContext, null);
+  }
+
+  /*
+   * Response for Read Entity Set; if totalCount, the count of the query without $top and $skip,
+   * is given, the JPA entities are already restricted by $top and $skip, otherwise they are
+   * restricted here for $inlinecount
+   */
+  public static <T> ODataResponse build(final List<T> jpaEntities,
+      final GetEntitySetUriInfo resultsView, final String contentType,
+      final ODataJPAContext odataJPAContext, final Long totalCount) throws ODataJPARuntimeException {
 
     EdmEntityType edmEntityType = null;
-    ODataResponse odataResponse = null;
     List<ArrayList<NavigationPropertySegment>> expandList = null;
 
     try {
       edmEntityType = resultsView.getTargetEntitySet().getEntityType();
       List<Map<String, Object>> edmEntityList = new ArrayList<Map<String, Object>>();
-      Map<String, Object> edmPropertyValueMap = null;
       JPAEntityParser jpaResultParser = JPAEntityParser.create();
       final List<SelectItem> selectedItems = resultsView.getSelect();
-      if (selectedItems != null && selectedItems.size() > 0) {
-        for (Object jpaEntity : jpaEntities) {
-          edmPropertyValueMap = jpaResultParser
-              .parse2EdmPropertyValueMap(
-                  jpaEntity,
-                  buildSelectItemList(selectedItems,
-                      edmEntityType));
-          edmEntityList.add(edmPropertyValueMap);
-        }
-      } else {
-        for (Object jpaEntity : jpaEntities) {
-          edmPropertyValueMap = jpaResultParser
-              .parse2EdmPropertyValueMap(jpaEntity, edmEntityType);
-          edmEntityList.add(edmPropertyValueMap);
-        }
-      }
+      final List<EdmProperty> selectPropertyList = selectedItems != null && selectedItems.size() > 0 ?
+          buildSelectItemList(selectedItems, edmEntityType) :
+          jpaResultParser.getEdmPropertyList(edmEntityType);
       expandList = resultsView.getExpand();
-      if (expandList != null && expandList.size() != 0) {
-        int count = 0;
-        for (Object jpaEntity : jpaEntities) {
-          Map<String, Object> relationShipMap = edmEntityList.get(count);
-          HashMap<String, Object> navigationMap = jpaResultParser.parse2EdmNavigationValueMap(
-              jpaEntity, constructListofNavProperty(expandList));
-          relationShipMap.putAll(navigationMap);
-          count++;
-        }
+      final List<EdmNavigationProperty> navigationPropertyList = expandList != null && expandList.size() != 0 ?
+          constructListofNavProperty(expandList) : null;
+      final EntityRowLayout rowLayout = jpaResultParser.createRowLayout(selectPropertyList, navigationPropertyList);
+      for (Object jpaEntity : jpaEntities) {
+        edmEntityList.add(jpaResultParser.parse2EdmEntityRow(jpaEntity, rowLayout,
+            selectPropertyList, navigationPropertyList));
       }
 
+      return writeFeed(edmEntityList, resultsView, contentType, odataJPAContext, totalCount);
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException
+          .throwException(ODataJPARuntimeException.GENERAL
+              .addContent(e.getMessage()), e);
+    }
+  }
+
+  /*
+   * Response for Read Entity Set with $select fetched by
+   * JPAProjectionProcessor.processProjection; the tuples hold the values of the
+   * projected properties in their order and are restricted by $top and $skip
+   * if totalCount is given, see build(List, GetEntitySetUriInfo, String, ODataJPAContext, Long)
+   */
+  public static ODataResponse build(final List<Object[]> tuples, final List<EdmProperty> projectedProperties,
+      final GetEntitySetUriInfo resultsView, final String contentType,
+      final ODataJPAContext odataJPAContext, final Long totalCount) throws ODataJPARuntimeException {
+
+    List<Map<String, Object>> edmEntityList = new ArrayList<Map<String, Object>>();
+    JPAEntityParser jpaResultParser = JPAEntityParser.create();
+    final EntityRowLayout rowLayout = jpaResultParser.createRowLayout(projectedProperties, null);
+    for (Object[] tuple : tuples) {
+      edmEntityList.add(jpaResultParser.parseTuple2EdmEntityRow(tuple, rowLayout, projectedProperties));
+    }
+
+    return writeFeed(edmEntityList, resultsView, contentType, odataJPAContext, totalCount);
+  }
+
+  private static ODataResponse writeFeed(final List<Map<String, Object>> edmEntityList,
+      final GetEntitySetUriInfo resultsView, final String contentType,
+      final ODataJPAContext odataJPAContext, final Long totalCount) throws ODataJPARuntimeException {
+
+    ODataResponse odataResponse = null;
+    try {
       EntityProviderWriteProperties feedProperties = null;
 
       feedProperties = getEntityProviderProperties(odataJPAContext,
-          resultsView, edmEntityList);
+          resultsView, edmEntityList, totalCount);
       odataResponse = EntityProvider.writeFeed(contentType,
           resultsView.getTargetEntitySet(), edmEntityList,
           feedProperties);
@@ -119,10 +147,6 @@ public final class ODataJPAResponseBuilder {
       throw ODataJPARuntimeException
           .throwException(ODataJPARuntimeException.GENERAL
               .addContent(e.getMessage()), e);
-    } catch (EdmException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
     }
 
     return odataResponse;
@@ -444,6 +468,18 @@ public final class ODataJPAResponseBuilder {
       final GetEntitySetLinksUriInfo resultsView, final String contentType,
       final ODataJPAContext oDataJPAContext)
       throws ODataJPARuntimeException {
+    return build(jpaEntities, resultsView, contentType, oDataJPAContext, null);
+  }
+
+  /*
+   * Response for Read Entity Links; if totalCount, the count of the query without $top and $skip,
+   * is given, the JPA entities are already restricted by $top and $skip, otherwise they are
+   * restricted here for $inlinecount
+   */
+  public static <T> ODataResponse build(final List<T> jpaEntities,
+      final GetEntitySetLinksUriInfo resultsView, final String contentType,
+      final ODataJPAContext oDataJPAContext, final Long totalCount)
+      throws ODataJPARuntimeException {
     EdmEntityType edmEntityType = null;
     ODataResponse odataResponse = null;
 
@@ -466,15 +502,8 @@ public final class ODataJPAResponseBuilder {
       }
 
       Integer count = null;
-      if (resultsView.getInlineCount() != null) {
-        if ((resultsView.getSkip() != null || resultsView.getTop() != null)) {
-          // when $skip and/or $top is present with $inlinecount
-          count = getInlineCountForNonFilterQueryLinks(edmEntityList, resultsView);
-        } else {
-          // In all other cases
-          count = resultsView.getInlineCount() == InlineCount.ALLPAGES ? edmEntityList
-              .size() : null;
-        }
+      if (resultsView.getInlineCount() == InlineCount.ALLPAGES) {
+        count = getInlineCount(resultsView.getTop(), resultsView.getSkip(), edmEntityList, totalCount);
       }
 
       ODataContext context = oDataJPAContext.getODataContext();
@@ -499,34 +528,28 @@ public final class ODataJPAResponseBuilder {
   }
 
   /*
-   * This method handles $inlinecount request. It also modifies the list of results in case of 
-   * $inlinecount and $top/$skip combinations. Specific to LinksUriInfo. //TODO
-   * 
-   * @param edmEntityList
-   * @param resultsView 
-   * 
-   * @return
+   * This method handles $inlinecount=allpages request; Inlinecount of None is handled
+   * by default - null. If the total count has been determined by a separate count query,
+   * the list of results is already restricted by $top and $skip in the database.
+   * Otherwise the list contains all results and is restricted here.
    */
-  private static Integer getInlineCountForNonFilterQueryLinks(final List<Map<String, Object>> edmEntityList, final GetEntitySetLinksUriInfo resultsView) {
-    // when $skip and/or $top is present with $inlinecount, first get the total count
-    Integer count = null;
-    if (resultsView.getInlineCount() == InlineCount.ALLPAGES) {
-      if (resultsView.getSkip() != null || resultsView.getTop() != null) {
-        count = edmEntityList.size();
-        // Now update the list
-        if (resultsView.getSkip() != null) {
-          // Index checks to avoid IndexOutOfBoundsException
-          if (resultsView.getSkip() > edmEntityList.size()) {
-            edmEntityList.clear();
-            return count;
-          }
-          edmEntityList.subList(0, resultsView.getSkip()).clear();
-        }
-        if (resultsView.getTop() != null && resultsView.getTop() >= 0 && resultsView.getTop() < edmEntityList.size()) {
-          edmEntityList.subList(0, resultsView.getTop());
-        }
+  private static Integer getInlineCount(final Integer top, final Integer skip,
+      final List<Map<String, Object>> edmEntityList, final Long totalCount) throws ODataJPARuntimeException {
+    if (totalCount != null) {
+      if (totalCount > Integer.MAX_VALUE) {
+        throw ODataJPARuntimeException.throwException(ODataJPARuntimeException.GENERAL
+            .addContent("Inline count " + totalCount + " exceeds the supported maximum"), null);
       }
-    }// Inlinecount of None is handled by default - null
+      return totalCount.intValue();
+    }
+    final int count = edmEntityList.size();
+    if (skip != null) {
+      // Index checks to avoid IndexOutOfBoundsException
+      edmEntityList.subList(0, Math.min(skip, count)).clear();
+    }
+    if (top != null && top >= 0 && top < edmEntityList.size()) {
+      edmEntityList.subList(top, edmEntityList.size()).clear();
+    }
     return count;
   }
 
@@ -536,20 +559,13 @@ public final class ODataJPAResponseBuilder {
    */
   private static EntityProviderWriteProperties getEntityProviderProperties(
       final ODataJPAContext odataJPAContext, final GetEntitySetUriInfo resultsView,
-      final List<Map<String, Object>> edmEntityList)
+      final List<Map<String, Object>> edmEntityList, final Long totalCount)
       throws ODataJPARuntimeException {
     ODataEntityProviderPropertiesBuilder entityFeedPropertiesBuilder = null;
 
     Integer count = null;
-    if (resultsView.getInlineCount() != null) {
-      if ((resultsView.getSkip() != null || resultsView.getTop() != null)) {
-        // when $skip and/or $top is present with $inlinecount
-        count = getInlineCountForNonFilterQueryEntitySet(edmEntityList, resultsView);
-      } else {
-        // In all other cases
-        count = resultsView.getInlineCount() == InlineCount.ALLPAGES ? edmEntityList
-            .size() : null;
-      }
+    if (resultsView.getInlineCount() == InlineCount.ALLPAGES) {
+      count = getInlineCount(resultsView.getTop(), resultsView.getSkip(), edmEntityList, totalCount);
     }
 
     try {
@@ -576,34 +592,6 @@ public final class ODataJPAResponseBuilder {
     return entityFeedPropertiesBuilder.build();
   }
 
-  /*
-   * This method handles $inlinecount request. It also modifies the list of results in case of 
-   * $inlinecount and $top/$skip combinations. Specific to Entity Set. //TODO
-   * 
-   */
-  private static Integer getInlineCountForNonFilterQueryEntitySet(final List<Map<String, Object>> edmEntityList, final GetEntitySetUriInfo resultsView) {
-    // when $skip and/or $top is present with $inlinecount, first get the total count
-    Integer count = null;
-    if (resultsView.getInlineCount() == InlineCount.ALLPAGES) {
-      if (resultsView.getSkip() != null || resultsView.getTop() != null) {
-        count = edmEntityList.size();
-        // Now update the list
-        if (resultsView.getSkip() != null) {
-          // Index checks to avoid IndexOutOfBoundsException
-          if (resultsView.getSkip() > edmEntityList.size()) {
-            edmEntityList.clear();
-            return count;
-          }
-          edmEntityList.subList(0, resultsView.getSkip()).clear();
-        }
-        if (resultsView.getTop() != null && resultsView.getTop() >= 0 && resultsView.getTop() < edmEntityList.size()) {
-          edmEntityList.retainAll(edmEntityList.subList(0, resultsView.getTop()));
-        }
-      }
-    }// Inlinecount of None is handled by default - null
-    return count;
-  }
-
   private static EntityProviderWriteProperties getEntityProviderProperties(
       final ODataJPAContext odataJPAContext, final GetEntityUriInfo resultsView)
       throws ODataJPARuntimeException {
@@ -709,8 +697,10 @@ public final class ODataJPAResponseBuilder {
       final List<ArrayList<NavigationPropertySegment>> expandList) {
     List<EdmNavigationProperty> navigationPropertyList = new ArrayList<EdmNavigationProperty>();
     for (ArrayList<NavigationPropertySegment> navpropSegment : expandList) {
-      navigationPropertyList.add(navpropSegment.get(0)
-          .getNavigationProperty());
+      final EdmNavigationProperty navigationProperty = navpropSegment.get(0).getNavigationProperty();
+      if (!navigationPropertyList.contains(navigationProperty)) {
+        navigationPropertyList.add(navigationProperty);
+      }
     }
     return navigationPropertyList;
   }
@@ -15,10 +15,17 @@
  ******************************************************************************/
 package com.sap.core.odata.processor.core.jpa.access.data;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.sap.core.odata.api.edm.EdmAssociationEnd;
 import com.sap.core.odata.api.edm.EdmException;
@@ -27,6 +34,8 @@ import com.sap.core.odata.api.edm.EdmNavigationProperty;
 import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.edm.EdmStructuralType;
 import com.sap.core.odata.api.edm.EdmTypeKind;
+import com.sap.core.odata.api.ep.EntityRow;
+import com.sap.core.odata.api.ep.EntityRowLayout;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.api.jpa.model.JPAEdmMapping;
 
@@ -39,15 +48,26 @@ public final class JPAEntityParser {
   public static final String ACCESS_MODIFIER_GET = "get";
   public static final String ACCESS_MODIFIER_SET = "set";
 
-  private HashMap<String, HashMap<String, Method>> jpaEntityAccessMap = null;
-  private HashMap<String, HashMap<String, String>> jpaEmbeddableKeyMap = null;
+  /*
+   * Access modifiers are resolved once per JPA class and method name and then
+   * reused for every entity of that class; the access modifier names of the
+   * properties are derived once per internal name. The parser is shared by all
+   * services, so the classes are referenced weakly and their methods, which
+   * refer to the classes, softly; otherwise the cache would keep the class
+   * loaders of undeployed applications alive. Lookups do not lock; entries of
+   * unloaded classes are removed when a new entry is added.
+   */
+  private final ConcurrentHashMap<ClassKey, SoftReference<ConcurrentHashMap<String, Method>>> jpaEntityAccessMap;
+  private final ReferenceQueue<Class<?>> unloadedClasses;
+  private final ConcurrentHashMap<String, String[]> jpaGetterNameMap;
 
   private static JPAEntityParser jpaEntityParser;
 
   private JPAEntityParser() {
-    jpaEntityAccessMap = new HashMap<String, HashMap<String, Method>>(
+    jpaEntityAccessMap = new ConcurrentHashMap<ClassKey, SoftReference<ConcurrentHashMap<String, Method>>>(
         MAX_SIZE);
-    jpaEmbeddableKeyMap = new HashMap<String, HashMap<String, String>>();
+    unloadedClasses = new ReferenceQueue<Class<?>>();
+    jpaGetterNameMap = new ConcurrentHashMap<String, String[]>();
   };
 
   public static final JPAEntityParser create() {
@@ -72,70 +92,22 @@ public final class JPAEntityParser {
       final Object jpaEntity, final List<EdmProperty> selectPropertyList)
       throws ODataJPARuntimeException {
     HashMap<String, Object> edmEntity = new HashMap<String, Object>();
-    String methodName = null;
-    Method method = null;
     for (int i = 0; i < selectPropertyList.size(); i++) {
-      String key = null;
-      Object propertyValue = null;
-      EdmProperty property = null;
-      property = selectPropertyList.get(i);
-
+      final EdmProperty property = selectPropertyList.get(i);
       try {
-        methodName = getAccessModifierName(property.getName(),
-            property.getMapping(), ACCESS_MODIFIER_GET);
-        String[] nameParts = methodName.split("\\.");
-        if (nameParts.length > 1) {
-          Object propertyVal = new Object();
-          propertyVal = jpaEntity;
-          for (String namePart : nameParts) {
-            method = propertyVal.getClass().getMethod(
-                namePart, (Class<?>[]) null);
-            method.setAccessible(true);
-            propertyVal = method.invoke(propertyVal);
-          }
-          edmEntity.put(property.getName(), propertyVal);
-        } else {
-          method = jpaEntity.getClass().getMethod(methodName,
-              (Class<?>[]) null);
-          method.setAccessible(true);
-          propertyValue = method.invoke(jpaEntity);
-          key = property.getName();
-          if (property.getType().getKind()
-              .equals(EdmTypeKind.COMPLEX)) {
-            try {
-              propertyValue = parse2EdmPropertyValueMap(
-                  propertyValue,
-                  (EdmStructuralType) property.getType());
-            } catch (ODataJPARuntimeException e) {
-              throw e;
-            }
-          }
-          edmEntity.put(key, propertyValue);
+        final String[] getterNames = getGetterNames(property.getName(), property.getMapping());
+        Object propertyValue = getPropertyValue(jpaEntity, getterNames);
+        if (getterNames.length == 1
+            && property.getType().getKind().equals(EdmTypeKind.COMPLEX)) {
+          propertyValue = parse2EdmPropertyValueMap(
+              propertyValue,
+              (EdmStructuralType) property.getType());
         }
+        edmEntity.put(property.getName(), propertyValue);
       } catch (EdmException e) {
         throw ODataJPARuntimeException.throwException(
             ODataJPARuntimeException.GENERAL.addContent(e
                 .getMessage()), e);
-      } catch (SecurityException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
-      } catch (NoSuchMethodException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
-      } catch (IllegalArgumentException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
-      } catch (IllegalAccessException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
-      } catch (InvocationTargetException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
       }
     }
 
@@ -161,140 +133,230 @@ public final class JPAEntityParser {
       return null;
     }
 
-    String jpaEntityAccessKey = jpaEntity.getClass().getName();
-
-    if (!jpaEntityAccessMap.containsKey(jpaEntityAccessKey)) {
-      jpaEntityAccessMap.put(jpaEntityAccessKey,
-          getAccessModifier(jpaEntity, structuralType, ACCESS_MODIFIER_GET));
-    }
-
     HashMap<String, Object> edmEntity = new HashMap<String, Object>();
-    HashMap<String, Method> getters = jpaEntityAccessMap
-        .get(jpaEntityAccessKey);
-    HashMap<String, String> embeddableKeys = jpaEmbeddableKeyMap
-        .get(jpaEntityAccessKey);
-
     try {
-      for (String key : getters.keySet()) {
-
+      for (String key : structuralType.getPropertyNames()) {
         EdmProperty property = (EdmProperty) structuralType
             .getProperty(key);
+        final String[] getterNames = getGetterNames(key, property.getMapping());
+        Object propertyValue = getPropertyValue(jpaEntity, getterNames);
 
-        Method method = getters.get(key);
-        Object propertyValue = null;
-
-        if (method != null) {
-          getters.get(key).setAccessible(true);
-          propertyValue = getters.get(key).invoke(jpaEntity);
-        }
-
-        if (property.getType().getKind().equals(EdmTypeKind.COMPLEX)) {
+        if (getterNames.length == 1
+            && property.getType().getKind().equals(EdmTypeKind.COMPLEX)) {
           propertyValue = parse2EdmPropertyValueMap(propertyValue,
               (EdmStructuralType) property.getType());
         }
 
         edmEntity.put(key, propertyValue);
-
-      }
-
-      if (embeddableKeys != null) {
-        for (String key : embeddableKeys.keySet()) {
-          String name = embeddableKeys.get(key);
-          String[] nameParts = name.split("\\.");
-          Object propertyValue = jpaEntity;
-          Method method = null;
-          for (String namePart : nameParts) {
-            method = propertyValue.getClass().getMethod(
-                namePart, (Class<?>[]) null);
-            method.setAccessible(true);
-            propertyValue = method.invoke(propertyValue);
-          }
-          edmEntity.put(key, propertyValue);
-        }
       }
     } catch (EdmException e) {
       throw ODataJPARuntimeException
           .throwException(ODataJPARuntimeException.GENERAL
               .addContent(e.getMessage()), e);
-    } catch (SecurityException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
-    } catch (NoSuchMethodException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
-    } catch (IllegalArgumentException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
-    } catch (IllegalAccessException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
-    } catch (InvocationTargetException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
     }
     return edmEntity;
   }
 
+  /**
+   * The method returns the values of a projection query result as an entity
+   * row. The tuple holds the values of the given properties in the same order.
+   * 
+   * @param tuple
+   * @param layout
+   *          created by {@link #createRowLayout(List, List)} with the same
+   *          property list
+   * @param propertyList
+   * @return the entity row
+   * @throws ODataJPARuntimeException
+   */
+  public final EntityRow parseTuple2EdmEntityRow(final Object[] tuple,
+      final EntityRowLayout layout, final List<EdmProperty> propertyList)
+      throws ODataJPARuntimeException {
+    EntityRow row = layout.createRow();
+    try {
+      for (int i = 0; i < propertyList.size(); i++) {
+        final EdmProperty property = propertyList.get(i);
+        Object propertyValue = tuple[i];
+        if (property.getType().getKind().equals(EdmTypeKind.COMPLEX)) {
+          propertyValue = parse2EdmPropertyValueMap(
+              propertyValue,
+              (EdmStructuralType) property.getType());
+        }
+        row.set(layout.indexOf(property.getName()), propertyValue);
+      }
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e
+              .getMessage()), e);
+    }
+    return row;
+  }
+
   // This method appends the associated entities as a java list to an expanded
   // map of a source entity
   public final HashMap<String, Object> parse2EdmNavigationValueMap(
       final Object jpaEntity, final List<EdmNavigationProperty> navigationPropertyList)
       throws ODataJPARuntimeException {
-    Object result = null;
-    String methodName = null;
     HashMap<String, Object> navigationMap = new HashMap<String, Object>();
     if (navigationPropertyList != null
         && navigationPropertyList.size() != 0) {
 
       try {
         for (EdmNavigationProperty navigationProperty : navigationPropertyList) {
-          methodName = getAccessModifierName(navigationProperty.getName(),
-              navigationProperty.getMapping(), ACCESS_MODIFIER_GET);
-          Method getterMethod = jpaEntity.getClass()
-              .getDeclaredMethod(methodName, (Class<?>[]) null);
-          getterMethod.setAccessible(true);
-          result = getterMethod.invoke(jpaEntity);
-          navigationMap.put(navigationProperty.getName(), result);
+          navigationMap.put(navigationProperty.getName(),
+              getPropertyValue(jpaEntity, getGetterNames(navigationProperty.getName(), navigationProperty.getMapping())));
         }
-      } catch (IllegalArgumentException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
-      } catch (IllegalAccessException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
-      } catch (InvocationTargetException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
       } catch (EdmException e) {
         throw ODataJPARuntimeException.throwException(
             ODataJPARuntimeException.GENERAL.addContent(e
                 .getMessage()), e);
-      } catch (SecurityException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
-      } catch (NoSuchMethodException e) {
-        throw ODataJPARuntimeException.throwException(
-            ODataJPARuntimeException.GENERAL.addContent(e
-                .getMessage()), e);
       }
     }
     return navigationMap;
   }
 
+  /**
+   * The method returns the value of a navigation property of jpaEntity, i.e.,
+   * the related entity or the collection of related entities.
+   * 
+   * @param jpaEntity
+   * @param navigationProperty
+   * @return the value of the navigation property
+   * @throws ODataJPARuntimeException
+   */
+  public final Object getNavigationPropertyValue(final Object jpaEntity,
+      final EdmNavigationProperty navigationProperty)
+      throws ODataJPARuntimeException {
+    try {
+      return getPropertyValue(jpaEntity,
+          getGetterNames(navigationProperty.getName(), navigationProperty.getMapping()));
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e
+              .getMessage()), e);
+    }
+  }
+
+  /**
+   * The method returns the properties of an EdmStructural Type in the order
+   * of the type.
+   * 
+   * @param structuralType
+   * @return list of properties of the given type
+   * @throws ODataJPARuntimeException
+   */
+  public final List<EdmProperty> getEdmPropertyList(
+      final EdmStructuralType structuralType)
+      throws ODataJPARuntimeException {
+    List<EdmProperty> propertyList = new ArrayList<EdmProperty>();
+    try {
+      for (String propertyName : structuralType.getPropertyNames()) {
+        propertyList.add((EdmProperty) structuralType.getProperty(propertyName));
+      }
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e
+              .getMessage()), e);
+    }
+    return propertyList;
+  }
+
+  /**
+   * The method returns a row layout with one slot per given property followed
+   * by one slot per given navigation property. The layout is meant to be
+   * shared by all rows of a result, see
+   * {@link #parse2EdmEntityRow(Object, EntityRowLayout, List, List)}.
+   * 
+   * @param selectPropertyList
+   * @param navigationPropertyList
+   *          may be null
+   * @return the row layout
+   * @throws ODataJPARuntimeException
+   */
+  public final EntityRowLayout createRowLayout(
+      final List<EdmProperty> selectPropertyList,
+      final List<EdmNavigationProperty> navigationPropertyList)
+      throws ODataJPARuntimeException {
+    List<String> names = new ArrayList<String>();
+    try {
+      for (EdmProperty property : selectPropertyList) {
+        if (!names.contains(property.getName())) {
+          names.add(property.getName());
+        }
+      }
+      if (navigationPropertyList != null) {
+        for (EdmNavigationProperty navigationProperty : navigationPropertyList) {
+          if (!names.contains(navigationProperty.getName())) {
+            names.add(navigationProperty.getName());
+          }
+        }
+      }
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e
+              .getMessage()), e);
+    }
+    return EntityRowLayout.create(names);
+  }
+
+  /**
+   * The method returns the values of the given properties and navigation
+   * properties of jpaEntity as an entity row. Unlike
+   * {@link #parse2EdmPropertyValueMap(Object, List)} no map is built per
+   * entity; the values are stored in the slots of the given layout, which
+   * must have been created by {@link #createRowLayout(List, List)} with the
+   * same lists. Duplicate property names are stored once.
+   * 
+   * @param jpaEntity
+   * @param layout
+   * @param selectPropertyList
+   * @param navigationPropertyList
+   *          may be null
+   * @return the entity row
+   * @throws ODataJPARuntimeException
+   */
+  public final EntityRow parse2EdmEntityRow(final Object jpaEntity,
+      final EntityRowLayout layout,
+      final List<EdmProperty> selectPropertyList,
+      final List<EdmNavigationProperty> navigationPropertyList)
+      throws ODataJPARuntimeException {
+    EntityRow row = layout.createRow();
+    // slots follow the order of the lists unless duplicate names were merged
+    final boolean sequential = layout.size() == selectPropertyList.size()
+        + (navigationPropertyList == null ? 0 : navigationPropertyList.size());
+    int slot = 0;
+    try {
+      for (int i = 0; i < selectPropertyList.size(); i++) {
+        final EdmProperty property = selectPropertyList.get(i);
+        final String[] getterNames = getGetterNames(property.getName(), property.getMapping());
+        Object propertyValue = getPropertyValue(jpaEntity, getterNames);
+        if (getterNames.length == 1
+            && property.getType().getKind().equals(EdmTypeKind.COMPLEX)) {
+          propertyValue = parse2EdmPropertyValueMap(
+              propertyValue,
+              (EdmStructuralType) property.getType());
+        }
+        row.set(sequential ? slot++ : layout.indexOf(property.getName()), propertyValue);
+      }
+      if (navigationPropertyList != null) {
+        for (EdmNavigationProperty navigationProperty : navigationPropertyList) {
+          row.set(sequential ? slot++ : layout.indexOf(navigationProperty.getName()),
+              getPropertyValue(jpaEntity,
+                  getGetterNames(navigationProperty.getName(), navigationProperty.getMapping())));
+        }
+      }
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e
+              .getMessage()), e);
+    }
+    return row;
+  }
+
   public HashMap<String, Method> getAccessModifier(final Object jpaEntity,
       final EdmStructuralType structuralType, final String accessModifier) throws ODataJPARuntimeException {
 
     HashMap<String, Method> accessModifierMap = new HashMap<String, Method>();
-    HashMap<String, String> embeddableKey = new HashMap<String, String>();
     try {
       for (String propertyName : structuralType.getPropertyNames()) {
 
@@ -303,35 +365,155 @@ public final class JPAEntityParser {
 
         String name = getAccessModifierName(property.getName(),
             property.getMapping(), accessModifier);
-        String[] nameParts = name.split("\\.");
-        if (nameParts.length > 1) {
-          embeddableKey.put(propertyName, name);
-        } else {
-          accessModifierMap.put(
-              propertyName,
-              jpaEntity.getClass().getMethod(name,
-                  (Class<?>[]) null));
+        if (name.indexOf('.') < 0) {
+          accessModifierMap.put(propertyName,
+              getAccessModifier(jpaEntity.getClass(), name));
+        }
+      }
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException
+          .throwException(ODataJPARuntimeException.GENERAL
+              .addContent(e.getMessage()), e);
+    }
+
+    return accessModifierMap;
+  }
+
+  /**
+   * The method returns the access modifier method of a JPA class with the given
+   * name and parameter types. The method is looked up only once per class;
+   * it is made accessible and reused for all entities of that class.
+   * 
+   * @param jpaType
+   * @param methodName
+   * @param parameterTypes
+   * @return the access modifier method
+   * @throws ODataJPARuntimeException
+   */
+  public Method getAccessModifier(final Class<?> jpaType, final String methodName, final Class<?>... parameterTypes)
+      throws ODataJPARuntimeException {
+    final ConcurrentHashMap<String, Method> accessModifiers = getAccessModifiers(jpaType);
+
+    String key = methodName;
+    if (parameterTypes != null && parameterTypes.length > 0) {
+      StringBuilder builder = new StringBuilder(methodName);
+      for (Class<?> parameterType : parameterTypes) {
+        builder.append(',').append(parameterType == null ? null : parameterType.getName());
+      }
+      key = builder.toString();
+    }
+
+    Method method = accessModifiers.get(key);
+    if (method == null) {
+      try {
+        try {
+          method = jpaType.getMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException e) {
+          method = jpaType.getDeclaredMethod(methodName, parameterTypes);
         }
+        method.setAccessible(true);
+      } catch (NoSuchMethodException e) {
+        throw ODataJPARuntimeException
+            .throwException(ODataJPARuntimeException.GENERAL
+                .addContent(e.getMessage()), e);
+      } catch (SecurityException e) {
+        throw ODataJPARuntimeException
+            .throwException(ODataJPARuntimeException.GENERAL
+                .addContent(e.getMessage()), e);
       }
-    } catch (NoSuchMethodException e) {
+      accessModifiers.put(key, method);
+    }
+    return method;
+  }
+
+  private ConcurrentHashMap<String, Method> getAccessModifiers(final Class<?> jpaType) {
+    final SoftReference<ConcurrentHashMap<String, Method>> reference = jpaEntityAccessMap.get(new ClassKey(jpaType, null));
+    ConcurrentHashMap<String, Method> accessModifiers = reference == null ? null : reference.get();
+    if (accessModifiers == null) {
+      // a table lost to a concurrent put is just resolved again
+      Reference<? extends Class<?>> unloadedClass;
+      while ((unloadedClass = unloadedClasses.poll()) != null) {
+        jpaEntityAccessMap.remove(unloadedClass);
+      }
+      accessModifiers = new ConcurrentHashMap<String, Method>();
+      jpaEntityAccessMap.put(new ClassKey(jpaType, unloadedClasses),
+          new SoftReference<ConcurrentHashMap<String, Method>>(accessModifiers));
+    }
+    return accessModifiers;
+  }
+
+  /*
+   * Weak reference to a JPA class which is equal to all references to the same class
+   */
+  private static final class ClassKey extends WeakReference<Class<?>> {
+    private final int hash;
+
+    private ClassKey(final Class<?> jpaType, final ReferenceQueue<Class<?>> queue) {
+      super(jpaType, queue);
+      hash = System.identityHashCode(jpaType);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      final Class<?> jpaType = get();
+      return jpaType != null && obj instanceof ClassKey && ((ClassKey) obj).get() == jpaType;
+    }
+  }
+
+  /*
+   * Returns the names of the getter methods leading from a JPA entity to the
+   * value of a property; properties of embeddables need more than one getter.
+   */
+  private String[] getGetterNames(final String propertyName, final EdmMapping mapping)
+      throws ODataJPARuntimeException {
+    final String name = mapping == null || mapping.getInternalName() == null ? propertyName : mapping.getInternalName();
+    String[] getterNames = name == null ? null : jpaGetterNameMap.get(name);
+    if (getterNames == null) {
+      final String getterName = getAccessModifierName(propertyName, mapping, ACCESS_MODIFIER_GET);
+      if (getterName == null) {
+        throw ODataJPARuntimeException
+            .throwException(ODataJPARuntimeException.GENERAL
+                .addContent(propertyName), null);
+      }
+      getterNames = getterName.split("\\.");
+      jpaGetterNameMap.put(name, getterNames);
+    }
+    return getterNames;
+  }
+
+  private Object getPropertyValue(final Object jpaEntity, final String[] getterNames)
+      throws ODataJPARuntimeException {
+    Object propertyValue = jpaEntity;
+    try {
+      for (String getterName : getterNames) {
+        if (propertyValue == null) {
+          break;
+        }
+        propertyValue = getAccessModifier(propertyValue.getClass(), getterName)
+            .invoke(propertyValue);
+      }
+    } catch (IllegalArgumentException e) {
       throw ODataJPARuntimeException
           .throwException(ODataJPARuntimeException.GENERAL
               .addContent(e.getMessage()), e);
-    } catch (SecurityException e) {
+    } catch (IllegalAccessException e) {
       throw ODataJPARuntimeException
           .throwException(ODataJPARuntimeException.GENERAL
               .addContent(e.getMessage()), e);
-    } catch (EdmException e) {
+    } catch (InvocationTargetException e) {
       throw ODataJPARuntimeException
           .throwException(ODataJPARuntimeException.GENERAL
               .addContent(e.getMessage()), e);
     }
-
-    if (!embeddableKey.isEmpty()) {
-      jpaEmbeddableKeyMap.put(jpaEntity.getClass().getName(),
-          embeddableKey);
-    }
-    return accessModifierMap;
+    return propertyValue;
   }
 
   private static String getAccessModifierName(final String propertyName, final EdmMapping mapping, final String accessModifier)
@@ -394,22 +576,15 @@ public final class JPAEntityParser {
           params = new Class<?>[] { List.class };
           break;
         case ONE:
+        case ZERO_TO_ONE:
           params = new Class<?>[] { ((JPAEdmMapping) end.getEntityType().getMapping()).getJPAType() };
+          break;
         default:
           break;
         }
       }
-      return jpaEntity.getClass().getMethod(name,
-          params);
+      return getAccessModifier(jpaEntity.getClass(), name, params);
 
-    } catch (NoSuchMethodException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
-    } catch (SecurityException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
     } catch (EdmException e) {
       throw ODataJPARuntimeException
           .throwException(ODataJPARuntimeException.GENERAL
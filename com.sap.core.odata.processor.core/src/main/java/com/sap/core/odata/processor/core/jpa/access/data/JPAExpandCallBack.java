@@ -26,8 +26,10 @@ import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.edm.EdmEntityType;
 import com.sap.core.odata.api.edm.EdmException;
 import com.sap.core.odata.api.edm.EdmNavigationProperty;
+import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties.ODataEntityProviderPropertiesBuilder;
+import com.sap.core.odata.api.ep.EntityRowLayout;
 import com.sap.core.odata.api.ep.callback.OnWriteEntryContent;
 import com.sap.core.odata.api.ep.callback.OnWriteFeedContent;
 import com.sap.core.odata.api.ep.callback.WriteCallbackContext;
@@ -56,7 +58,6 @@ public class JPAExpandCallBack implements OnWriteFeedContent, OnWriteEntryConten
       final WriteEntryCallbackContext context) {
     WriteEntryCallbackResult result = new WriteEntryCallbackResult();
     Map<String, Object> entry = context.getEntryData();
-    Map<String, Object> edmPropertyValueMap = null;
     List<EdmNavigationProperty> currentNavPropertyList = null;
     Map<String, ExpandSelectTreeNode> navigationLinks = null;
     JPAEntityParser jpaResultParser = JPAEntityParser.create();
@@ -66,16 +67,16 @@ public class JPAExpandCallBack implements OnWriteFeedContent, OnWriteEntryConten
       if (nextEntitySet == null) {
         nextEntitySet = context.getSourceEntitySet().getRelatedEntitySet(currentNavigationProperty);
       }
-      edmPropertyValueMap = jpaResultParser.parse2EdmPropertyValueMap(inlinedEntry, nextEntitySet.getEntityType());
-      result.setEntryData(edmPropertyValueMap);
       navigationLinks = context.getCurrentExpandSelectTreeNode().getLinks();
       if (navigationLinks.size() > 0)
       {
         currentNavPropertyList = new ArrayList<EdmNavigationProperty>();
         currentNavPropertyList.add(getNextNavigationProperty(context.getSourceEntitySet().getEntityType(), context.getNavigationProperty()));
-        HashMap<String, Object> navigationMap = jpaResultParser.parse2EdmNavigationValueMap(inlinedEntry, currentNavPropertyList);
-        edmPropertyValueMap.putAll(navigationMap);
-        result.setEntryData(edmPropertyValueMap);
+      }
+      if (inlinedEntry != null) {
+        final List<EdmProperty> propertyList = jpaResultParser.getEdmPropertyList(nextEntitySet.getEntityType());
+        final EntityRowLayout rowLayout = jpaResultParser.createRowLayout(propertyList, currentNavPropertyList);
+        result.setEntryData(jpaResultParser.parse2EdmEntityRow(inlinedEntry, rowLayout, propertyList, currentNavPropertyList));
       }
       result.setInlineProperties(getInlineEntityProviderProperties(context));
     } catch (EdmException e) {
@@ -91,9 +92,8 @@ public class JPAExpandCallBack implements OnWriteFeedContent, OnWriteEntryConten
   public WriteFeedCallbackResult retrieveFeedResult(
       final WriteFeedCallbackContext context) {
     WriteFeedCallbackResult result = new WriteFeedCallbackResult();
-    HashMap<String, Object> inlinedEntry = (HashMap<String, Object>) context.getEntryData();
+    Map<String, Object> inlinedEntry = context.getEntryData();
     List<Map<String, Object>> edmEntityList = new ArrayList<Map<String, Object>>();
-    Map<String, Object> edmPropertyValueMap = null;
     JPAEntityParser jpaResultParser = JPAEntityParser.create();
     List<EdmNavigationProperty> currentNavPropertyList = null;
     EdmNavigationProperty currentNavigationProperty = context.getNavigationProperty();
@@ -103,25 +103,18 @@ public class JPAExpandCallBack implements OnWriteFeedContent, OnWriteEntryConten
       if (nextEntitySet == null) {
         nextEntitySet = context.getSourceEntitySet().getRelatedEntitySet(currentNavigationProperty);
       }
-      for (Object object : listOfItems)
-      {
-        edmPropertyValueMap = jpaResultParser.parse2EdmPropertyValueMap(object, nextEntitySet.getEntityType());
-        edmEntityList.add(edmPropertyValueMap);
-      }
-      result.setFeedData(edmEntityList);
       if (context.getCurrentExpandSelectTreeNode().getLinks().size() > 0)
       {
         currentNavPropertyList = new ArrayList<EdmNavigationProperty>();
         currentNavPropertyList.add(getNextNavigationProperty(context.getSourceEntitySet().getEntityType(), context.getNavigationProperty()));
-        int count = 0;
-        for (Object object : listOfItems)
-        {
-          HashMap<String, Object> navigationMap = jpaResultParser.parse2EdmNavigationValueMap(object, currentNavPropertyList);
-          edmEntityList.get(count).putAll(navigationMap);
-          count++;
-        }
-        result.setFeedData(edmEntityList);
       }
+      final List<EdmProperty> propertyList = jpaResultParser.getEdmPropertyList(nextEntitySet.getEntityType());
+      final EntityRowLayout rowLayout = jpaResultParser.createRowLayout(propertyList, currentNavPropertyList);
+      for (Object object : listOfItems)
+      {
+        edmEntityList.add(jpaResultParser.parse2EdmEntityRow(object, rowLayout, propertyList, currentNavPropertyList));
+      }
+      result.setFeedData(edmEntityList);
       result.setInlineProperties(getInlineEntityProviderProperties(context));
     } catch (EdmException e) {
 
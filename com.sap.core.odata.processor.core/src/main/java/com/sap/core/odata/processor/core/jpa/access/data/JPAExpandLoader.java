@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.processor.core.jpa.access.data;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+
+import com.sap.core.odata.api.edm.EdmException;
+import com.sap.core.odata.api.edm.EdmMapping;
+import com.sap.core.odata.api.edm.EdmMultiplicity;
+import com.sap.core.odata.api.edm.EdmNavigationProperty;
+import com.sap.core.odata.api.uri.NavigationPropertySegment;
+import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
+import com.sap.core.odata.processor.api.jpa.jpql.JPQLStatement;
+
+/**
+ * Loads the navigation properties requested by $expand for a whole result
+ * before it is serialized. Instead of one lazy load per entity and navigation
+ * property, one query per navigation property and expand level selects the
+ * related entities of all entities of that level together with the
+ * identifiers of the entities:
+ * <pre>SELECT E1.id, E2 FROM Entity E1 LEFT OUTER JOIN E1.relationship E2 WHERE E1.id IN ?1</pre>
+ * The related entities are then set as values of the relationship with the
+ * setter of the navigation property, so the result does not depend on the
+ * persistence provider populating relationships as a side effect of a query.
+ * Entities without a single identifier attribute and relationships without
+ * a setter are left to lazy loading.
+ */
+public class JPAExpandLoader {
+
+  /*
+   * Upper bound of the identifiers bound to one IN list; many databases
+   * limit the number of values of an IN list.
+   */
+  private static final int BATCH_SIZE = 500;
+  private static final String ALIAS = "E1";
+  private static final String RELATED_ALIAS = "E2";
+
+  private final EntityManager em;
+  private final JPAEntityParser parser = JPAEntityParser.create();
+
+  public JPAExpandLoader(final EntityManager em) {
+    this.em = em;
+  }
+
+  /**
+   * Loads the navigation properties of the given expand paths for all entities.
+   * @param entities JPA entities of the result
+   * @param expandList expand paths as provided by the URI info
+   * @throws ODataJPARuntimeException
+   */
+  public void load(final List<?> entities, final List<ArrayList<NavigationPropertySegment>> expandList)
+      throws ODataJPARuntimeException {
+    if (entities == null || entities.isEmpty() || expandList == null || expandList.isEmpty()) {
+      return;
+    }
+    List<List<NavigationPropertySegment>> paths = new ArrayList<List<NavigationPropertySegment>>(expandList);
+    load(entities, paths, 0);
+  }
+
+  private void load(final Collection<?> entities, final List<List<NavigationPropertySegment>> paths, final int level)
+      throws ODataJPARuntimeException {
+    Map<EdmNavigationProperty, List<List<NavigationPropertySegment>>> byNavigationProperty =
+        new LinkedHashMap<EdmNavigationProperty, List<List<NavigationPropertySegment>>>();
+    for (List<NavigationPropertySegment> path : paths) {
+      if (path.size() > level) {
+        final EdmNavigationProperty navigationProperty = path.get(level).getNavigationProperty();
+        List<List<NavigationPropertySegment>> deeperPaths = byNavigationProperty.get(navigationProperty);
+        if (deeperPaths == null) {
+          deeperPaths = new ArrayList<List<NavigationPropertySegment>>();
+          byNavigationProperty.put(navigationProperty, deeperPaths);
+        }
+        if (path.size() > level + 1) {
+          deeperPaths.add(path);
+        }
+      }
+    }
+
+    for (Map.Entry<EdmNavigationProperty, List<List<NavigationPropertySegment>>> entry : byNavigationProperty.entrySet()) {
+      if (!fetch(entities, entry.getKey())) {
+        continue;
+      }
+      if (!entry.getValue().isEmpty()) {
+        final Collection<Object> related = getRelatedEntities(entities, entry.getKey());
+        if (!related.isEmpty()) {
+          load(related, entry.getValue(), level + 1);
+        }
+      }
+    }
+  }
+
+  /*
+   * Selects the related entities of all entities and sets them as values of
+   * the relationship; returns false if the entities could not be selected by
+   * identifier or the relationship has no setter.
+   */
+  private boolean fetch(final Collection<?> entities, final EdmNavigationProperty navigationProperty)
+      throws ODataJPARuntimeException {
+    final Object firstEntity = entities.iterator().next();
+    final EntityType<?> entityType = getEntityType(firstEntity.getClass());
+    if (entityType == null || !entityType.hasSingleIdAttribute()) {
+      return false;
+    }
+    final String relationshipName = getRelationshipName(navigationProperty);
+    final String idName = entityType.getId(entityType.getIdType().getJavaType()).getName();
+    final PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+
+    // within a persistence context there is one entity per identifier
+    Map<Object, Object> unloadedEntities = new LinkedHashMap<Object, Object>();
+    for (Object entity : entities) {
+      if (!util.isLoaded(entity, relationshipName)) {
+        unloadedEntities.put(util.getIdentifier(entity), entity);
+      }
+    }
+    if (unloadedEntities.isEmpty()) {
+      return true;
+    }
+    final boolean isToMany = isToMany(navigationProperty);
+    Method setter;
+    try {
+      setter = parser.getAccessModifier(firstEntity, navigationProperty, JPAEntityParser.ACCESS_MODIFIER_SET);
+    } catch (ODataJPARuntimeException e) {
+      return false;
+    }
+
+    final String statement = JPQLStatement.KEYWORD.SELECT + JPQLStatement.DELIMITER.SPACE
+        + ALIAS + JPQLStatement.DELIMITER.PERIOD + idName + JPQLStatement.DELIMITER.COMMA
+        + JPQLStatement.DELIMITER.SPACE + RELATED_ALIAS
+        + JPQLStatement.DELIMITER.SPACE + JPQLStatement.KEYWORD.FROM + JPQLStatement.DELIMITER.SPACE
+        + entityType.getName() + JPQLStatement.DELIMITER.SPACE + ALIAS
+        + JPQLStatement.DELIMITER.SPACE + JPQLStatement.KEYWORD.LEFT_OUTER_JOIN + JPQLStatement.DELIMITER.SPACE
+        + ALIAS + JPQLStatement.DELIMITER.PERIOD + relationshipName + JPQLStatement.DELIMITER.SPACE + RELATED_ALIAS
+        + JPQLStatement.DELIMITER.SPACE + JPQLStatement.KEYWORD.WHERE + JPQLStatement.DELIMITER.SPACE
+        + ALIAS + JPQLStatement.DELIMITER.PERIOD + idName
+        + JPQLStatement.DELIMITER.SPACE + JPQLStatement.KEYWORD.IN + JPQLStatement.DELIMITER.SPACE
+        + JPQLStatement.DELIMITER.PARAMETER + "1";
+    List<Object> ids = new ArrayList<Object>(unloadedEntities.keySet());
+    Map<Object, List<Object>> relatedEntities = new HashMap<Object, List<Object>>();
+    try {
+      for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+        Query query = em.createQuery(statement);
+        query.setParameter(1, ids.subList(start, Math.min(start + BATCH_SIZE, ids.size())));
+        for (Object row : query.getResultList()) {
+          final Object[] tuple = (Object[]) row;
+          List<Object> related = relatedEntities.get(tuple[0]);
+          if (related == null) {
+            related = new ArrayList<Object>();
+            relatedEntities.put(tuple[0], related);
+          }
+          if (tuple[1] != null) {
+            related.add(tuple[1]);
+          }
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.ERROR_JPQL_QUERY_CREATE, e);
+    } catch (PersistenceException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.ERROR_JPQL_QUERY_CREATE, e);
+    }
+
+    for (Map.Entry<Object, Object> entry : unloadedEntities.entrySet()) {
+      List<Object> related = relatedEntities.get(entry.getKey());
+      if (related == null) {
+        related = new ArrayList<Object>();
+      }
+      set(setter, entry.getValue(), isToMany ? related : related.isEmpty() ? null : related.get(0));
+    }
+    return true;
+  }
+
+  private void set(final Method setter, final Object entity, final Object value) throws ODataJPARuntimeException {
+    try {
+      setter.invoke(entity, value);
+    } catch (IllegalAccessException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e.getMessage()), e);
+    } catch (IllegalArgumentException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e.getMessage()), e);
+    } catch (InvocationTargetException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e.getTargetException().getMessage()), e.getTargetException());
+    }
+  }
+
+  private boolean isToMany(final EdmNavigationProperty navigationProperty) throws ODataJPARuntimeException {
+    try {
+      return navigationProperty.getRelationship().getEnd(navigationProperty.getToRole()).getMultiplicity()
+          == EdmMultiplicity.MANY;
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e
+              .getMessage()), e);
+    }
+  }
+
+  private Collection<Object> getRelatedEntities(final Collection<?> entities, final EdmNavigationProperty navigationProperty)
+      throws ODataJPARuntimeException {
+    Set<Object> related = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    for (Object entity : entities) {
+      final Object value = parser.getNavigationPropertyValue(entity, navigationProperty);
+      if (value instanceof Collection) {
+        related.addAll((Collection<?>) value);
+      } else if (value != null) {
+        related.add(value);
+      }
+    }
+    return related;
+  }
+
+  /*
+   * Persistence providers may hand out subclasses (e.g., proxies) of the
+   * entity classes; the metamodel only knows the entity classes themselves.
+   */
+  private EntityType<?> getEntityType(final Class<?> entityClass) {
+    for (Class<?> type = entityClass; type != null && type != Object.class; type = type.getSuperclass()) {
+      try {
+        return em.getMetamodel().entity(type);
+      } catch (IllegalArgumentException e) {
+        continue;
+      }
+    }
+    return null;
+  }
+
+  private String getRelationshipName(final EdmNavigationProperty navigationProperty)
+      throws ODataJPARuntimeException {
+    try {
+      final EdmMapping mapping = navigationProperty.getMapping();
+      return mapping == null || mapping.getInternalName() == null ?
+          navigationProperty.getName() : mapping.getInternalName();
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL.addContent(e
+              .getMessage()), e);
+    }
+  }
+}
@@ -19,13 +19,19 @@ import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
+import javax.persistence.TemporalType;
 
+import com.sap.core.odata.api.commons.InlineCount;
+import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.edm.EdmException;
 import com.sap.core.odata.api.edm.EdmMultiplicity;
+import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.uri.info.DeleteUriInfo;
 import com.sap.core.odata.api.uri.info.GetEntityCountUriInfo;
 import com.sap.core.odata.api.uri.info.GetEntityLinkUriInfo;
@@ -39,7 +45,7 @@ import com.sap.core.odata.api.uri.info.PutMergePatchUriInfo;
 import com.sap.core.odata.processor.api.jpa.ODataJPAContext;
 import com.sap.core.odata.processor.api.jpa.access.JPAFunction;
 import com.sap.core.odata.processor.api.jpa.access.JPAMethodContext;
-import com.sap.core.odata.processor.api.jpa.access.JPAProcessor;
+import com.sap.core.odata.processor.api.jpa.access.JPAProjectionProcessor;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPAModelException;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.api.jpa.jpql.JPQLContext;
@@ -48,8 +54,9 @@ import com.sap.core.odata.processor.api.jpa.jpql.JPQLStatement;
 import com.sap.core.odata.processor.core.jpa.cud.JPACreateRequest;
 import com.sap.core.odata.processor.core.jpa.cud.JPALink;
 import com.sap.core.odata.processor.core.jpa.cud.JPAUpdateRequest;
+import com.sap.core.odata.processor.core.jpa.jpql.JPQLSelectContext;
 
-public class JPAProcessorImpl implements JPAProcessor {
+public class JPAProcessorImpl implements JPAProjectionProcessor {
 
   ODataJPAContext oDataJPAContext;
   EntityManager em;
@@ -111,17 +118,54 @@ public class JPAProcessorImpl implements JPAProcessor {
   }
 
   /* Process Get Entity Set Request (Query) */
-  @SuppressWarnings("unchecked")
   @Override
   public <T> List<T> process(final GetEntitySetUriInfo uriParserResultView)
       throws ODataJPAModelException, ODataJPARuntimeException {
+    // $top/$skip with $inlinecount case handled in response builder to avoid multiple DB call
+    return query(uriParserResultView, uriParserResultView.getInlineCount() != InlineCount.ALLPAGES, false);
+  }
+
+  /* Process Get Entity Set Request (Query) restricted by $top and $skip; see count(GetEntitySetUriInfo) */
+  @Override
+  public <T> List<T> processPage(final GetEntitySetUriInfo uriParserResultView)
+      throws ODataJPAModelException, ODataJPARuntimeException {
+    return query(uriParserResultView, true, false);
+  }
+
+  /* Properties fetched for Get Entity Set Request with $select, see JPQLSelectContext */
+  @Override
+  public List<EdmProperty> getProjectedProperties(final GetEntitySetUriInfo uriParserResultView)
+      throws ODataJPARuntimeException {
+    if (uriParserResultView.getFunctionImport() != null) {
+      return null;
+    }
+    try {
+      return JPQLSelectContext.getProjectedProperties(uriParserResultView);
+    } catch (EdmException e) {
+      throw ODataJPARuntimeException.throwException(
+          ODataJPARuntimeException.GENERAL, e);
+    }
+  }
+
+  /* Process Get Entity Set Request (Query) with $select restricted by $top and $skip */
+  @Override
+  public List<Object[]> processProjection(final GetEntitySetUriInfo uriParserResultView)
+      throws ODataJPAModelException, ODataJPARuntimeException {
+    return query(uriParserResultView, true, true);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> List<T> query(final GetEntitySetUriInfo uriParserResultView, final boolean paged, final boolean projected)
+      throws ODataJPAModelException, ODataJPARuntimeException {
 
     if (uriParserResultView.getFunctionImport() != null) {
       return (List<T>) process((GetFunctionImportUriInfo) uriParserResultView);
     }
     JPQLContextType contextType = null;
     try {
-      if (!uriParserResultView.getStartEntitySet().getName()
+      if (projected) {
+        contextType = JPQLContextType.SELECT_PROJECTION;
+      } else if (!uriParserResultView.getStartEntitySet().getName()
           .equals(uriParserResultView.getTargetEntitySet().getName())) {
         contextType = JPQLContextType.JOIN;
       } else {
@@ -140,13 +184,12 @@ public class JPAProcessorImpl implements JPAProcessor {
         .build();
     Query query = null;
     try {
-      query = em.createQuery(jpqlStatement.toString());
-      // $top/$skip with $inlinecount case handled in response builder to avoid multiple DB call
-      if (uriParserResultView.getSkip() != null && uriParserResultView.getInlineCount() == null) {
+      query = createQuery(jpqlStatement);
+      if (paged && uriParserResultView.getSkip() != null) {
         query.setFirstResult(uriParserResultView.getSkip());
       }
 
-      if (uriParserResultView.getTop() != null && uriParserResultView.getInlineCount() == null) {
+      if (paged && uriParserResultView.getTop() != null) {
         if (uriParserResultView.getTop() == 0) {
           List<T> resultList = new ArrayList<T>();
           return resultList;
@@ -154,7 +197,11 @@ public class JPAProcessorImpl implements JPAProcessor {
           query.setMaxResults(uriParserResultView.getTop());
         }
       }
-      return query.getResultList();
+      List<T> resultList = query.getResultList();
+      if (!projected) {
+        new JPAExpandLoader(em).load(resultList, uriParserResultView.getExpand());
+      }
+      return resultList;
     } catch (IllegalArgumentException e) {
       throw ODataJPARuntimeException.throwException(
           ODataJPARuntimeException.ERROR_JPQL_QUERY_CREATE, e);
@@ -182,63 +229,55 @@ public class JPAProcessorImpl implements JPAProcessor {
           ODataJPARuntimeException.GENERAL, e);
     }
 
-    return readEntity(uriParserResultView, contextType);
+    Object selectedObject = readEntity(uriParserResultView, contextType);
+    if (selectedObject != null) {
+      new JPAExpandLoader(em).load(Collections.singletonList(selectedObject), uriParserResultView.getExpand());
+    }
+    return selectedObject;
   }
 
   /* Process $count for Get Entity Set Request */
   @Override
   public long process(final GetEntitySetCountUriInfo resultsView)
       throws ODataJPAModelException, ODataJPARuntimeException {
-
-    JPQLContextType contextType = null;
-    try {
-      if (!resultsView.getStartEntitySet().getName()
-          .equals(resultsView.getTargetEntitySet().getName())) {
-        contextType = JPQLContextType.JOIN_COUNT;
-      } else {
-        contextType = JPQLContextType.SELECT_COUNT;
-      }
-    } catch (EdmException e) {
-      ODataJPARuntimeException.throwException(
-          ODataJPARuntimeException.GENERAL, e);
-    }
-
-    JPQLContext jpqlContext = JPQLContext.createBuilder(contextType,
-        resultsView).build();
-
-    JPQLStatement jpqlStatement = JPQLStatement.createBuilder(jpqlContext)
-        .build();
-    Query query = null;
-    try {
-
-      query = em.createQuery(jpqlStatement.toString());
-      List<?> resultList = query.getResultList();
-      if (resultList != null && resultList.size() == 1) {
-        return Long.valueOf(resultList.get(0).toString());
-      }
-    } catch (IllegalArgumentException e) {
-      throw ODataJPARuntimeException.throwException(
-          ODataJPARuntimeException.ERROR_JPQL_QUERY_CREATE, e);
-    }
-    return 0;
+    return executeCount(resultsView, getCountContextType(resultsView.getStartEntitySet(), resultsView.getTargetEntitySet()));
   }
 
   /* Process $count for Get Entity Request */
   @Override
   public long process(final GetEntityCountUriInfo resultsView) throws ODataJPAModelException, ODataJPARuntimeException {
+    return executeCount(resultsView, getCountContextType(resultsView.getStartEntitySet(), resultsView.getTargetEntitySet()));
+  }
 
-    JPQLContextType contextType = null;
+  /* Process $inlinecount for Get Entity Set Request */
+  @Override
+  public long count(final GetEntitySetUriInfo resultsView)
+      throws ODataJPAModelException, ODataJPARuntimeException {
+    return executeCount(resultsView, getCountContextType(resultsView.getStartEntitySet(), resultsView.getTargetEntitySet()));
+  }
+
+  /* Process $inlinecount for Get Entity Set Link Request */
+  @Override
+  public long count(final GetEntitySetLinksUriInfo resultsView)
+      throws ODataJPAModelException, ODataJPARuntimeException {
+    return executeCount(resultsView, getCountContextType(resultsView.getStartEntitySet(), resultsView.getTargetEntitySet()));
+  }
+
+  /* Count queries join if the request navigates from its start entity set */
+  private JPQLContextType getCountContextType(final EdmEntitySet startEntitySet, final EdmEntitySet targetEntitySet)
+      throws ODataJPARuntimeException {
     try {
-      if (!resultsView.getStartEntitySet().getName()
-          .equals(resultsView.getTargetEntitySet().getName())) {
-        contextType = JPQLContextType.JOIN_COUNT;
-      } else {
-        contextType = JPQLContextType.SELECT_COUNT;
-      }
+      return startEntitySet.getName().equals(targetEntitySet.getName()) ?
+          JPQLContextType.SELECT_COUNT : JPQLContextType.JOIN_COUNT;
     } catch (EdmException e) {
-      ODataJPARuntimeException.throwException(
+      throw ODataJPARuntimeException.throwException(
           ODataJPARuntimeException.GENERAL, e);
     }
+  }
+
+  /* Common method for $count and $inlinecount */
+  private long executeCount(final Object resultsView, final JPQLContextType contextType)
+      throws ODataJPAModelException, ODataJPARuntimeException {
 
     JPQLContext jpqlContext = JPQLContext.createBuilder(contextType,
         resultsView).build();
@@ -248,7 +287,7 @@ public class JPAProcessorImpl implements JPAProcessor {
     Query query = null;
     try {
 
-      query = em.createQuery(jpqlStatement.toString());
+      query = createQuery(jpqlStatement);
       List<?> resultList = query.getResultList();
       if (resultList != null && resultList.size() == 1) {
         return Long.valueOf(resultList.get(0).toString());
@@ -382,6 +421,13 @@ public class JPAProcessorImpl implements JPAProcessor {
     return this.process((GetEntitySetUriInfo) uriParserResultView);
   }
 
+  /* Process Get Entity Set Link Request restricted by $top and $skip */
+  @Override
+  public <T> List<T> processPage(final GetEntitySetLinksUriInfo uriParserResultView)
+      throws ODataJPAModelException, ODataJPARuntimeException {
+    return this.processPage((GetEntitySetUriInfo) uriParserResultView);
+  }
+
   @Override
   public void process(final PostUriInfo uriInfo,
       final InputStream content, final String requestContentType, final String contentType)
@@ -391,6 +437,21 @@ public class JPAProcessorImpl implements JPAProcessor {
     link.save();
   }
 
+  /* Creates the query and binds the values of the statement's positional parameters */
+  private Query createQuery(final JPQLStatement jpqlStatement) {
+    Query query = em.createQuery(jpqlStatement.toString());
+    List<Object> parameters = jpqlStatement.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      Object value = parameters.get(i);
+      if (value instanceof Calendar) {
+        query.setParameter(i + 1, (Calendar) value, TemporalType.TIMESTAMP);
+      } else {
+        query.setParameter(i + 1, value);
+      }
+    }
+    return query;
+  }
+
   /* Common method for Read and Delete */
   private Object readEntity(final Object uriParserResultView, final JPQLContextType contextType)
       throws ODataJPAModelException, ODataJPARuntimeException {
@@ -406,7 +467,7 @@ public class JPAProcessorImpl implements JPAProcessor {
           selectJPQLContext).build();
       Query query = null;
       try {
-        query = em.createQuery(selectJPQLStatement.toString());
+        query = createQuery(selectJPQLStatement);
         if (!query.getResultList().isEmpty()) {
           selectedObject = query.getResultList().get(0);
         }
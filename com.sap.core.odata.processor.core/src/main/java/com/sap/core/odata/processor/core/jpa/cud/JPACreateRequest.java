@@ -43,6 +43,7 @@ import com.sap.core.odata.api.exception.ODataBadRequestException;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.uri.info.PostUriInfo;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
+import com.sap.core.odata.processor.core.jpa.access.data.JPAEntityParser;
 
 public class JPACreateRequest extends JPAWriteRequest {
 
@@ -191,34 +192,28 @@ public class JPACreateRequest extends JPAWriteRequest {
           Object propertyValue = jpaEntity;
           Class<?> propertyClass = null;
 
-          try {
-            for (EntityType<?> entity : metamodel.getEntities())
+          for (EntityType<?> entity : metamodel.getEntities())
+          {
+            if (entity.getName().equals(entityName))
             {
-              if (entity.getName().equals(entityName))
-              {
-                Attribute<?, ?> attribute = entity.getAttribute(nameParts[0].substring(3, 4).toLowerCase() + nameParts[0].substring(4));
-                propertyClass = attribute.getJavaType();
-                if (embeddableKeyObj == null) {
-                  try {
-                    embeddableKeyObj = propertyClass.newInstance();
-                  } catch (InstantiationException e) {
-                    throw ODataJPARuntimeException
-                        .throwException(ODataJPARuntimeException.GENERAL
-                            .addContent(e.getMessage()), e);
-                  }
+              Attribute<?, ?> attribute = entity.getAttribute(nameParts[0].substring(3, 4).toLowerCase() + nameParts[0].substring(4));
+              propertyClass = attribute.getJavaType();
+              if (embeddableKeyObj == null) {
+                try {
+                  embeddableKeyObj = propertyClass.newInstance();
+                } catch (InstantiationException e) {
+                  throw ODataJPARuntimeException
+                      .throwException(ODataJPARuntimeException.GENERAL
+                          .addContent(e.getMessage()), e);
                 }
-                break;
               }
+              break;
             }
-
-            method = propertyValue.getClass().getMethod(
-                nameParts[0], propertyClass);
-            populateEmbeddableKey(embeddableKeyObj, embeddableKey, nameParts[1], propertyValueMap);
-          } catch (NoSuchMethodException e) {
-            throw ODataJPARuntimeException
-                .throwException(ODataJPARuntimeException.GENERAL
-                    .addContent(e.getMessage()), e);
           }
+
+          method = JPAEntityParser.create().getAccessModifier(propertyValue.getClass(),
+              nameParts[0], propertyClass);
+          populateEmbeddableKey(embeddableKeyObj, embeddableKey, nameParts[1], propertyValueMap);
         }
         propertyName = "Embeddable Key";//$NON-NLS-1$
         method.invoke(jpaEntity, embeddableKeyObj);
@@ -249,18 +244,7 @@ public class JPACreateRequest extends JPAWriteRequest {
 
   private void populateEmbeddableKey(final Object embeddableKeyObject, final String key, final String setterName, final Map<String, Object> propertyValueMap) throws ODataJPARuntimeException {
     Class<?> propertyClass = jpaEmbeddableKeyObjectMap.get(key);
-    Method method = null;
-    try {
-      method = embeddableKeyObject.getClass().getMethod(setterName, propertyClass);
-    } catch (NoSuchMethodException e1) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e1.getMessage()), e1);
-    } catch (SecurityException e1) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e1.getMessage()), e1);
-    }
+    Method method = JPAEntityParser.create().getAccessModifier(embeddableKeyObject.getClass(), setterName, propertyClass);
     try {
       method.invoke(embeddableKeyObject, propertyValueMap.get(key));
     } catch (IllegalAccessException e) {
@@ -433,19 +417,9 @@ public class JPACreateRequest extends JPAWriteRequest {
           }
           multiplicityMap.put(entityName, EdmMultiplicity.ONE);
         }
-        try {
-          setters.put(
-              entityName,
-              jpaEntity.getClass().getDeclaredMethod(name, propertyClass));
-        } catch (NoSuchMethodException e) {
-          throw ODataJPARuntimeException
-              .throwException(ODataJPARuntimeException.GENERAL
-                  .addContent(e.getMessage()), e);
-        } catch (SecurityException e) {
-          throw ODataJPARuntimeException
-              .throwException(ODataJPARuntimeException.GENERAL
-                  .addContent(e.getMessage()), e);
-        }
+        setters.put(
+            entityName,
+            JPAEntityParser.create().getAccessModifier(jpaEntity.getClass(), name, propertyClass));
       }
     } catch (EdmException e) {
       throw ODataJPARuntimeException
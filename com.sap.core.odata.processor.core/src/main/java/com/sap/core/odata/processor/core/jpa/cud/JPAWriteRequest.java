@@ -32,6 +32,7 @@ import com.sap.core.odata.api.ep.entry.ODataEntry;
 import com.sap.core.odata.api.exception.ODataBadRequestException;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPAModelException;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
+import com.sap.core.odata.processor.core.jpa.access.data.JPAEntityParser;
 import com.sap.core.odata.processor.core.jpa.access.model.EdmTypeConvertor;
 import com.sap.core.odata.processor.core.jpa.model.JPAEdmMappingImpl;
 
@@ -95,17 +96,9 @@ public class JPAWriteRequest {
         } else {
           setters.put(
               propertyName,
-              jpaEntity.getClass().getMethod(name, propertyClass));
+              JPAEntityParser.create().getAccessModifier(jpaEntity.getClass(), name, propertyClass));
         }
       }
-    } catch (NoSuchMethodException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
-    } catch (SecurityException e) {
-      throw ODataJPARuntimeException
-          .throwException(ODataJPARuntimeException.GENERAL
-              .addContent(e.getMessage()), e);
     } catch (EdmException e) {
       throw ODataJPARuntimeException
           .throwException(ODataJPARuntimeException.GENERAL
@@ -81,7 +81,7 @@ public class ODataJPAEdmProvider extends EdmProvider {
   }
 
   @Override
-  public EntityContainerInfo getEntityContainerInfo(final String name)
+  public synchronized EntityContainerInfo getEntityContainerInfo(final String name)
       throws ODataException {
 
     if (entityContainerInfos.containsKey(name)) {
@@ -106,7 +106,7 @@ public class ODataJPAEdmProvider extends EdmProvider {
   }
 
   @Override
-  public EntityType getEntityType(final FullQualifiedName edmFQName)
+  public synchronized EntityType getEntityType(final FullQualifiedName edmFQName)
       throws ODataException {
 
     String strEdmFQName = edmFQName.toString();
@@ -139,7 +139,7 @@ public class ODataJPAEdmProvider extends EdmProvider {
   }
 
   @Override
-  public ComplexType getComplexType(final FullQualifiedName edmFQName)
+  public synchronized ComplexType getComplexType(final FullQualifiedName edmFQName)
       throws ODataException {
 
     if (edmFQName != null) {
@@ -166,7 +166,7 @@ public class ODataJPAEdmProvider extends EdmProvider {
   }
 
   @Override
-  public Association getAssociation(final FullQualifiedName edmFQName)
+  public synchronized Association getAssociation(final FullQualifiedName edmFQName)
       throws ODataException {
     if (edmFQName != null) {
       if (associations.containsKey(edmFQName.toString())) {
@@ -194,7 +194,7 @@ public class ODataJPAEdmProvider extends EdmProvider {
   }
 
   @Override
-  public EntitySet getEntitySet(final String entityContainer, final String name)
+  public synchronized EntitySet getEntitySet(final String entityContainer, final String name)
       throws ODataException {
 
     EntitySet returnedSet = null;
@@ -219,7 +219,7 @@ public class ODataJPAEdmProvider extends EdmProvider {
   }
 
   @Override
-  public AssociationSet getAssociationSet(final String entityContainer,
+  public synchronized AssociationSet getAssociationSet(final String entityContainer,
       final FullQualifiedName association, final String sourceEntitySetName,
       final String sourceEntitySetRole) throws ODataException {
 
@@ -252,7 +252,7 @@ public class ODataJPAEdmProvider extends EdmProvider {
   }
 
   @Override
-  public FunctionImport getFunctionImport(final String entityContainer, final String name)
+  public synchronized FunctionImport getFunctionImport(final String entityContainer, final String name)
       throws ODataException {
 
     if (functionImports.containsKey(name)) {
@@ -280,7 +280,7 @@ public class ODataJPAEdmProvider extends EdmProvider {
   }
 
   @Override
-  public List<Schema> getSchemas() throws ODataException {
+  public synchronized List<Schema> getSchemas() throws ODataException {
     if (schemas == null && jpaEdmModel != null) {
       jpaEdmModel.getBuilder().build();
       schemas = new ArrayList<Schema>();
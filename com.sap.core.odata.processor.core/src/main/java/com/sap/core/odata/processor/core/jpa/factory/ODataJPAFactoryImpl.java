@@ -79,6 +79,7 @@ public class ODataJPAFactoryImpl extends ODataJPAFactory {
       switch (context.getType()) {
       case SELECT:
       case SELECT_COUNT: // for $count, Same as select
+      case SELECT_PROJECTION: // for $select, Same as select
         builder = new JPQLSelectStatementBuilder(context);
         break;
       case SELECT_SINGLE:
@@ -124,6 +125,11 @@ public class ODataJPAFactoryImpl extends ODataJPAFactory {
             true);
         contextBuilder = selectCountContext.new JPQLSelectContextBuilder();
         break;
+      case SELECT_PROJECTION:
+        JPQLSelectContext selectProjectionContext = new JPQLSelectContext(
+            false, true);
+        contextBuilder = selectProjectionContext.new JPQLSelectContextBuilder();
+        break;
       case JOIN_COUNT:
         JPQLJoinSelectContext joinCountContext = new JPQLJoinSelectContext(
             true);
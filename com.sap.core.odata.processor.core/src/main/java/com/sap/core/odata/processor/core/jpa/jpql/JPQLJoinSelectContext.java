@@ -72,7 +72,9 @@ public class JPQLJoinSelectContext extends JPQLSelectContext implements
               .getEntityRelationShipAlias());
         }
 
-        setOrderByCollection(generateOrderByFileds());
+        if (!isCountOnly) {
+          setOrderByCollection(generateOrderByFileds());
+        }
 
         setSelectExpression(generateSelectExpression());
 
@@ -94,11 +96,10 @@ public class JPQLJoinSelectContext extends JPQLSelectContext implements
       String joinCondition = null;
       String entityAlias = generateJPAEntityAlias();
       joinCondition = ODataExpressionParser.parseKeyPredicates(
-          entitySetView.getKeyPredicates(),
-          entityAlias);
+          getKeyPredicates(),
+          entityAlias, parameters);
 
-      EdmEntityType entityType = entitySetView.getStartEntitySet()
-          .getEntityType();
+      EdmEntityType entityType = getStartEntitySet().getEntityType();
       Mapping mapping = (Mapping) entityType.getMapping();
       String entityTypeName = null;
       if (mapping != null) {
@@ -116,8 +117,7 @@ public class JPQLJoinSelectContext extends JPQLSelectContext implements
 
       jpaOuterJoinClauses.add(jpaOuterJoinClause);
 
-      for (NavigationSegment navigationSegment : entitySetView
-          .getNavigationSegments()) {
+      for (NavigationSegment navigationSegment : getNavigationSegments()) {
 
         EdmNavigationProperty navigationProperty = navigationSegment
             .getNavigationProperty();
@@ -126,7 +126,7 @@ public class JPQLJoinSelectContext extends JPQLSelectContext implements
 
         joinCondition = ODataExpressionParser.parseKeyPredicates(
             navigationSegment.getKeyPredicates(),
-            relationShipAlias);
+            relationShipAlias, parameters);
 
         jpaOuterJoinClause = new JPAJoinClause(
             getFromEntityName(navigationProperty),
@@ -82,7 +82,7 @@ public class JPQLJoinSelectSingleContext extends JPQLSelectSingleContext
       String joinCondition = null;
       String entityAlias = generateJPAEntityAlias();
       joinCondition = ODataExpressionParser.parseKeyPredicates(
-          entityView.getKeyPredicates(), entityAlias);
+          entityView.getKeyPredicates(), entityAlias, parameters);
 
       EdmEntityType entityType = entityView.getStartEntitySet()
           .getEntityType();
@@ -110,7 +110,7 @@ public class JPQLJoinSelectSingleContext extends JPQLSelectSingleContext
         joinCondition = ODataExpressionParser
             .parseKeyPredicates(
                 navigationSegment.getKeyPredicates(),
-                relationShipAlias);
+                relationShipAlias, parameters);
 
         jpaOuterJoinClause = new JPAJoinClause(
             getFromEntityName(navigationProperty), entityAlias,
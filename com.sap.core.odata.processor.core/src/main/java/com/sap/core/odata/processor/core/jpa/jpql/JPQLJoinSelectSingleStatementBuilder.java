@@ -35,7 +35,7 @@ public class JPQLJoinSelectSingleStatementBuilder extends JPQLStatementBuilder {
 
   @Override
   public JPQLStatement build() throws ODataJPARuntimeException {
-    jpqlStatement = createStatement(createJPQLQuery());
+    jpqlStatement = createStatement(createJPQLQuery(), context.getParameters());
     return jpqlStatement;
 
   }
@@ -15,18 +15,29 @@
  ******************************************************************************/
 package com.sap.core.odata.processor.core.jpa.jpql;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
+import com.sap.core.odata.api.edm.EdmConcurrencyMode;
+import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.edm.EdmEntityType;
 import com.sap.core.odata.api.edm.EdmException;
 import com.sap.core.odata.api.edm.EdmMapping;
+import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.exception.ODataException;
+import com.sap.core.odata.api.uri.KeyPredicate;
+import com.sap.core.odata.api.uri.NavigationSegment;
+import com.sap.core.odata.api.uri.SelectItem;
+import com.sap.core.odata.api.uri.expression.FilterExpression;
+import com.sap.core.odata.api.uri.info.GetEntitySetLinksUriInfo;
 import com.sap.core.odata.api.uri.info.GetEntitySetUriInfo;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPAModelException;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.api.jpa.jpql.JPQLContext;
 import com.sap.core.odata.processor.api.jpa.jpql.JPQLContextType;
 import com.sap.core.odata.processor.api.jpa.jpql.JPQLSelectContextView;
+import com.sap.core.odata.processor.api.jpa.jpql.JPQLStatement;
 import com.sap.core.odata.processor.core.jpa.ODataExpressionParser;
 
 public class JPQLSelectContext extends JPQLContext implements
@@ -37,11 +48,17 @@ public class JPQLSelectContext extends JPQLContext implements
   protected String whereCondition;
 
   protected boolean isCountOnly = false;//Support for $count
+  protected boolean isProjection = false;//Support for $select, see getProjectedProperties
 
   public JPQLSelectContext(final boolean isCountOnly) {
     this.isCountOnly = isCountOnly;
   }
 
+  public JPQLSelectContext(final boolean isCountOnly, final boolean isProjection) {
+    this.isCountOnly = isCountOnly;
+    this.isProjection = isProjection;
+  }
+
   protected final void setOrderByCollection(
       final HashMap<String, String> orderByCollection) {
     this.orderByCollection = orderByCollection;
@@ -70,26 +87,89 @@ public class JPQLSelectContext extends JPQLContext implements
     return whereCondition;
   }
 
+  /**
+   * Returns the properties to be selected instead of whole entities for an
+   * entity set request with $select: the selected properties followed by the
+   * key properties and the properties used for the ETag that have not been
+   * selected. A context of type {@link JPQLContextType#SELECT_PROJECTION}
+   * selects these properties, so that the query returns one array per entity
+   * with the values in this order; complex properties are returned as
+   * embeddable objects.
+   * Returns <code>null</code> if whole entities have to be selected, i.e., if
+   * there is no $select or it contains '*' or navigation properties, if
+   * $expand is requested, if the entity set is reached via navigation, if
+   * the entity type is a media link entry, or if just one property would be
+   * selected.
+   * 
+   * @param uriInfo
+   * @return the projected properties or <code>null</code>
+   * @throws EdmException
+   */
+  public static List<EdmProperty> getProjectedProperties(final GetEntitySetUriInfo uriInfo) throws EdmException {
+    final List<SelectItem> selectItems = uriInfo.getSelect();
+    if (selectItems == null || selectItems.isEmpty()
+        || uriInfo.getExpand() != null && !uriInfo.getExpand().isEmpty()
+        || !uriInfo.getStartEntitySet().getName().equals(uriInfo.getTargetEntitySet().getName())) {
+      return null;
+    }
+    final EdmEntityType entityType = uriInfo.getTargetEntitySet().getEntityType();
+    if (entityType.hasStream()) {
+      return null;
+    }
+
+    List<EdmProperty> properties = new ArrayList<EdmProperty>();
+    for (SelectItem selectItem : selectItems) {
+      if (selectItem.isStar() || selectItem.getProperty() == null
+          || selectItem.getNavigationPropertySegments() != null && !selectItem.getNavigationPropertySegments().isEmpty()) {
+        return null;
+      }
+      addProperty(properties, selectItem.getProperty());
+    }
+    for (EdmProperty keyProperty : entityType.getKeyProperties()) {
+      addProperty(properties, keyProperty);
+    }
+    for (String propertyName : entityType.getPropertyNames()) {
+      final EdmProperty property = (EdmProperty) entityType.getProperty(propertyName);
+      if (property.getFacets() != null && property.getFacets().getConcurrencyMode() == EdmConcurrencyMode.Fixed) {
+        addProperty(properties, property);
+      }
+    }
+    // a query selecting a single value returns the value itself instead of a tuple
+    return properties.size() < 2 ? null : properties;
+  }
+
+  private static void addProperty(final List<EdmProperty> properties, final EdmProperty property) throws EdmException {
+    for (EdmProperty existingProperty : properties) {
+      if (existingProperty.getName().equals(property.getName())) {
+        return;
+      }
+    }
+    properties.add(property);
+  }
+
   public class JPQLSelectContextBuilder
       extends
       com.sap.core.odata.processor.api.jpa.jpql.JPQLContext.JPQLContextBuilder {
 
     protected GetEntitySetUriInfo entitySetView;
+    // a $links request provides everything needed for counting
+    protected GetEntitySetLinksUriInfo entitySetLinksView;
 
     @Override
     public JPQLContext build() throws ODataJPAModelException,
         ODataJPARuntimeException {
-      if (entitySetView != null) {
+      if (entitySetView != null || entitySetLinksView != null) {
 
         try {
 
           if (isCountOnly) {
             setType(JPQLContextType.SELECT_COUNT);
+          } else if (isProjection) {
+            setType(JPQLContextType.SELECT_PROJECTION);
           } else {
             setType(JPQLContextType.SELECT);
           }
-          EdmEntityType entityType = entitySetView
-              .getTargetEntitySet().getEntityType();
+          EdmEntityType entityType = getTargetEntitySet().getEntityType();
           EdmMapping mapping = entityType.getMapping();
           if (mapping != null) {
             setJPAEntityName(mapping.getInternalName());
@@ -99,7 +179,9 @@ public class JPQLSelectContext extends JPQLContext implements
 
           setJPAEntityAlias(generateJPAEntityAlias());
 
-          setOrderByCollection(generateOrderByFileds());
+          if (!isCountOnly) {
+            setOrderByCollection(generateOrderByFileds());
+          }
 
           setSelectExpression(generateSelectExpression());
 
@@ -117,15 +199,50 @@ public class JPQLSelectContext extends JPQLContext implements
     protected void setResultsView(final Object resultsView) {
       if (resultsView instanceof GetEntitySetUriInfo) {
         entitySetView = (GetEntitySetUriInfo) resultsView;
+      } else if (isCountOnly && resultsView instanceof GetEntitySetLinksUriInfo) {
+        entitySetLinksView = (GetEntitySetLinksUriInfo) resultsView;
       }
 
     }
 
+    protected EdmEntitySet getStartEntitySet() {
+      return entitySetView != null ? entitySetView.getStartEntitySet() : entitySetLinksView.getStartEntitySet();
+    }
+
+    protected EdmEntitySet getTargetEntitySet() {
+      return entitySetView != null ? entitySetView.getTargetEntitySet() : entitySetLinksView.getTargetEntitySet();
+    }
+
+    protected List<KeyPredicate> getKeyPredicates() {
+      return entitySetView != null ? entitySetView.getKeyPredicates() : entitySetLinksView.getKeyPredicates();
+    }
+
+    protected List<NavigationSegment> getNavigationSegments() {
+      return entitySetView != null ? entitySetView.getNavigationSegments() : entitySetLinksView.getNavigationSegments();
+    }
+
+    protected FilterExpression getFilter() {
+      return entitySetView != null ? entitySetView.getFilter() : entitySetLinksView.getFilter();
+    }
+
     /*
-     * Generate Select Clause 
+     * Generate Select Clause; whole entities are selected if the request cannot be projected
      */
     protected String generateSelectExpression() throws EdmException {
-      return getJPAEntityAlias();
+      final List<EdmProperty> projectedProperties = isProjection ? getProjectedProperties(entitySetView) : null;
+      if (projectedProperties == null) {
+        return getJPAEntityAlias();
+      }
+      StringBuilder selectExpression = new StringBuilder();
+      for (EdmProperty property : projectedProperties) {
+        if (selectExpression.length() > 0) {
+          selectExpression.append(JPQLStatement.DELIMITER.COMMA).append(JPQLStatement.DELIMITER.SPACE);
+        }
+        final EdmMapping mapping = property.getMapping();
+        selectExpression.append(getJPAEntityAlias()).append(JPQLStatement.DELIMITER.PERIOD)
+            .append(mapping == null || mapping.getInternalName() == null ? property.getName() : mapping.getInternalName());
+      }
+      return selectExpression.toString();
     }
 
     /*
@@ -155,9 +272,10 @@ public class JPQLSelectContext extends JPQLContext implements
      * Generate Where Clause Expression
      */
     protected String generateWhereExpression() throws ODataException {
-      if (entitySetView.getFilter() != null) {
+      final FilterExpression filter = getFilter();
+      if (filter != null) {
         return ODataExpressionParser
-            .parseToJPAWhereExpression(entitySetView.getFilter(), getJPAEntityAlias());
+            .parseToJPAWhereExpression(filter, getJPAEntityAlias(), parameters);
       }
       return null;
     }
@@ -16,7 +16,9 @@
 package com.sap.core.odata.processor.core.jpa;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -37,6 +39,7 @@ import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.edm.EdmStructuralType;
 import com.sap.core.odata.api.edm.EdmType;
 import com.sap.core.odata.api.edm.EdmTypeKind;
+import com.sap.core.odata.api.ep.EntityRowLayout;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.core.jpa.access.data.JPAEntityParser;
 import com.sap.core.odata.processor.core.jpa.common.ODataJPATestConstants;
@@ -329,6 +332,59 @@ public class JPAEntityParserTest {
 
   }
 
+  // This unit tests the values of projected properties including a complex type
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testParseTuple2EdmEntityRow() {
+    JPAEntityParser resultParser = JPAEntityParser.create();
+    List<EdmProperty> propertyList = new ArrayList<EdmProperty>();
+    try {
+      EdmProperty edmComplexProperty = getTupleProperty("OrderName", "order", EdmTypeKind.SIMPLE);
+      EdmStructuralType edmComplexType = EasyMock.createMock(EdmStructuralType.class);
+      EasyMock.expect(edmComplexType.getKind()).andStubReturn(EdmTypeKind.COMPLEX);
+      EasyMock.expect(edmComplexType.getProperty("OrderName")).andStubReturn(edmComplexProperty);
+      List<String> propertyNames = new ArrayList<String>();
+      propertyNames.add("OrderName");
+      EasyMock.expect(edmComplexType.getPropertyNames()).andStubReturn(propertyNames);
+      EasyMock.replay(edmComplexType);
+      EdmProperty edmProperty = EasyMock.createMock(EdmProperty.class);
+      EasyMock.expect(edmProperty.getName()).andStubReturn("Order");
+      EasyMock.expect(edmProperty.getType()).andStubReturn(edmComplexType);
+      EasyMock.replay(edmProperty);
+      propertyList.add(edmProperty);
+      propertyList.add(getTupleProperty("Id", "id", EdmTypeKind.SIMPLE));
+    } catch (EdmException e) {
+      fail(ODataJPATestConstants.EXCEPTION_MSG_PART_1 + e.getMessage()
+          + ODataJPATestConstants.EXCEPTION_MSG_PART_2);
+    }
+
+    Object[] tuple = { new DemoRelatedEntity("DemoOrder"), "laptop" };
+    try {
+      EntityRowLayout layout = resultParser.createRowLayout(propertyList, null);
+      Map<String, Object> result = resultParser.parseTuple2EdmEntityRow(tuple, layout, propertyList);
+      assertEquals(2, result.size());
+      assertEquals("laptop", result.get("Id"));
+      assertEquals("DemoOrder", ((Map<String, Object>) result.get("Order")).get("OrderName"));
+    } catch (ODataJPARuntimeException e) {
+      fail(ODataJPATestConstants.EXCEPTION_MSG_PART_1 + e.getMessage()
+          + ODataJPATestConstants.EXCEPTION_MSG_PART_2);
+    }
+  }
+
+  private EdmProperty getTupleProperty(final String name, final String internalName, final EdmTypeKind kind)
+      throws EdmException {
+    EdmType edmType = EasyMock.createMock(EdmType.class);
+    EasyMock.expect(edmType.getKind()).andStubReturn(kind);
+    EdmMapping mapping = EasyMock.createMock(EdmMapping.class);
+    EasyMock.expect(mapping.getInternalName()).andStubReturn(internalName);
+    EdmProperty edmProperty = EasyMock.createMock(EdmProperty.class);
+    EasyMock.expect(edmProperty.getName()).andStubReturn(name);
+    EasyMock.expect(edmProperty.getMapping()).andStubReturn(mapping);
+    EasyMock.expect(edmProperty.getType()).andStubReturn(edmType);
+    EasyMock.replay(edmType, mapping, edmProperty);
+    return edmProperty;
+  }
+
   /*
    * TestCase - getGetterName is a private method in JPAResultParser. The
    * method is uses reflection to derive the property access methods from
@@ -522,6 +578,29 @@ public class JPAEntityParserTest {
     }
   }
 
+  @Test
+  public void testGetAccessModifierCached() throws Exception {
+    JPAEntityParser resultParser = JPAEntityParser.create();
+    demoItem jpaEntity = new demoItem("abc", 10);
+
+    Method getter = resultParser.getAccessModifier(demoItem.class, "getId");
+    assertSame(getter, resultParser.getAccessModifier(demoItem.class, "getId"));
+    assertEquals("abc", getter.invoke(jpaEntity));
+
+    Method setter = resultParser.getAccessModifier(demoItem.class, "setId", String.class);
+    assertNotSame(getter, setter);
+    assertSame(setter, resultParser.getAccessModifier(demoItem.class, "setId", String.class));
+    setter.invoke(jpaEntity, "xyz");
+    assertEquals("xyz", jpaEntity.getId());
+
+    try {
+      resultParser.getAccessModifier(demoItem.class, "getUnknown");
+      fail("Exception expected");
+    } catch (ODataJPARuntimeException e) {
+      assertTrue(true);
+    }
+  }
+
   @Test
   public void testForNullJPAEntity() {
     JPAEntityParser resultParser = JPAEntityParser.create();
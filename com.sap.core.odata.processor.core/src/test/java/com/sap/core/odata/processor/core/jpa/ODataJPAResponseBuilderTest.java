@@ -20,6 +20,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
@@ -28,6 +29,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Scanner;
 
 import org.easymock.EasyMock;
 import org.junit.Test;
@@ -43,15 +45,28 @@ import com.sap.core.odata.api.edm.EdmNavigationProperty;
 import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.edm.EdmSimpleType;
 import com.sap.core.odata.api.edm.EdmSimpleTypeException;
+import com.sap.core.odata.api.edm.EdmSimpleTypeKind;
 import com.sap.core.odata.api.edm.EdmType;
 import com.sap.core.odata.api.edm.EdmTypeKind;
+import com.sap.core.odata.api.edm.FullQualifiedName;
+import com.sap.core.odata.api.edm.provider.ComplexProperty;
+import com.sap.core.odata.api.edm.provider.ComplexType;
+import com.sap.core.odata.api.edm.provider.EdmProvider;
+import com.sap.core.odata.api.edm.provider.EntityContainerInfo;
+import com.sap.core.odata.api.edm.provider.EntitySet;
 import com.sap.core.odata.api.edm.provider.EntityType;
 import com.sap.core.odata.api.edm.provider.Facets;
+import com.sap.core.odata.api.edm.provider.Key;
+import com.sap.core.odata.api.edm.provider.Mapping;
+import com.sap.core.odata.api.edm.provider.Property;
+import com.sap.core.odata.api.edm.provider.PropertyRef;
+import com.sap.core.odata.api.edm.provider.SimpleProperty;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.exception.ODataNotFoundException;
 import com.sap.core.odata.api.processor.ODataContext;
 import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.rt.RuntimeDelegate;
 import com.sap.core.odata.api.uri.NavigationPropertySegment;
 import com.sap.core.odata.api.uri.PathInfo;
 import com.sap.core.odata.api.uri.SelectItem;
@@ -60,6 +75,7 @@ import com.sap.core.odata.api.uri.info.GetEntityUriInfo;
 import com.sap.core.odata.processor.api.jpa.ODataJPAContext;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.core.jpa.common.ODataJPATestConstants;
+import com.sap.core.odata.processor.core.jpa.jpql.JPQLSelectContext;
 import com.sap.core.odata.processor.core.jpa.model.JPAEdmTestModelView;
 
 public class ODataJPAResponseBuilderTest extends JPAEdmTestModelView {
@@ -78,9 +94,9 @@ public class ODataJPAResponseBuilderTest extends JPAEdmTestModelView {
     edmEntityList.add(edmEntity);
     // Invoking the private static method using reflection
     Class<?> clazz = ODataJPAResponseBuilder.class;
-    Object[] actualParameters = { oDataJPAContext, getEntitySetUriInfo, edmEntityList };
+    Object[] actualParameters = { oDataJPAContext, getEntitySetUriInfo, edmEntityList, null };
     Class<?>[] formalParameters = { ODataJPAContext.class,
-        GetEntitySetUriInfo.class, List.class };
+        GetEntitySetUriInfo.class, List.class, Long.class };
     EntityProviderWriteProperties providerProperties = null;
     try {
       ODataJPAResponseBuilder responseBuilder = (ODataJPAResponseBuilder) clazz
@@ -113,6 +129,28 @@ public class ODataJPAResponseBuilderTest extends JPAEdmTestModelView {
     }
   }
 
+  /*
+   * This Unit is supposed to test that the total count of a paged query is used for $inlinecount
+   */
+  @Test
+  public void testGetEntityProviderPropertiesInlineCount() throws Exception {
+    GetEntitySetUriInfo getEntitySetUriInfo = mockEntitySetUriInfoForExpand();
+    List<Map<String, Object>> edmEntityList = new ArrayList<Map<String, Object>>();
+    edmEntityList.add(new HashMap<String, Object>());
+    Method method = ODataJPAResponseBuilder.class.getDeclaredMethod("getEntityProviderProperties",
+        ODataJPAContext.class, GetEntitySetUriInfo.class, List.class, Long.class);
+    method.setAccessible(true);
+
+    EntityProviderWriteProperties providerProperties = (EntityProviderWriteProperties) method.invoke(
+        null, getODataJPAContext(), getEntitySetUriInfo, edmEntityList, Long.valueOf(42));
+    assertEquals(Integer.valueOf(42), providerProperties.getInlineCount());
+    assertEquals(1, edmEntityList.size());
+
+    providerProperties = (EntityProviderWriteProperties) method.invoke(
+        null, getODataJPAContext(), getEntitySetUriInfo, edmEntityList, null);
+    assertEquals(Integer.valueOf(1), providerProperties.getInlineCount());
+  }
+
   /*
    * This Unit is supposed to test the building of Entity Provider Properties for read with $expand
    */
@@ -223,6 +261,72 @@ public class ODataJPAResponseBuilderTest extends JPAEdmTestModelView {
 
   }
 
+  /*
+   * Without total count the JPA entities contain all results, which are counted and paged here
+   */
+  @Test
+  public void testBuildInlineCountWithoutTotalCount() throws Exception {
+    GetEntitySetUriInfo resultsView = EasyMock.createMock(GetEntitySetUriInfo.class);
+    EasyMock.expect(resultsView.getInlineCount()).andStubReturn(InlineCount.ALLPAGES);
+    EasyMock.expect(resultsView.getTargetEntitySet()).andStubReturn(getLocalTargetEntitySet());
+    EasyMock.expect(resultsView.getSelect()).andStubReturn(getSelectItemList());
+    EasyMock.expect(resultsView.getExpand()).andStubReturn(getExpandList());
+    EasyMock.expect(resultsView.getSkip()).andStubReturn(new Integer(1));
+    EasyMock.expect(resultsView.getTop()).andStubReturn(new Integer(1));
+    EasyMock.replay(resultsView);
+    List<Object> jpaEntities = new ArrayList<Object>();
+    jpaEntities.add(new SalesOrderHeader(1, 10));
+    jpaEntities.add(new SalesOrderHeader(2, 20));
+    jpaEntities.add(new SalesOrderHeader(3, 30));
+
+    ODataResponse response = ODataJPAResponseBuilder.build(jpaEntities, resultsView, "application/xml", getODataJPAContext());
+    final String feed = new Scanner((InputStream) response.getEntity(), "UTF-8").useDelimiter("\\A").next();
+    assertTrue(feed.contains("<m:count>3</m:count>"));
+    assertEquals(1, feed.split("<entry").length - 1);
+    assertTrue(feed.contains("SalesOderHeaders(2)"));
+  }
+
+  /*
+   * This Unit tests the response for query with $select built from the values of the projected properties
+   */
+  @Test
+  public void testBuildProjection() throws Exception {
+    final EdmEntitySet entitySet = RuntimeDelegate.createEdm(new ProjectionEdmProvider())
+        .getDefaultEntityContainer().getEntitySet("SalesOrders");
+    SelectItem selectItem = EasyMock.createMock(SelectItem.class);
+    EasyMock.expect(selectItem.isStar()).andStubReturn(false);
+    EasyMock.expect(selectItem.getProperty()).andStubReturn(
+        (EdmProperty) entitySet.getEntityType().getProperty("Address"));
+    EasyMock.expect(selectItem.getNavigationPropertySegments()).andStubReturn(
+        new ArrayList<NavigationPropertySegment>());
+    EasyMock.replay(selectItem);
+    List<SelectItem> selectItems = new ArrayList<SelectItem>();
+    selectItems.add(selectItem);
+    GetEntitySetUriInfo resultsView = EasyMock.createMock(GetEntitySetUriInfo.class);
+    EasyMock.expect(resultsView.getInlineCount()).andStubReturn(InlineCount.NONE);
+    EasyMock.expect(resultsView.getStartEntitySet()).andStubReturn(entitySet);
+    EasyMock.expect(resultsView.getTargetEntitySet()).andStubReturn(entitySet);
+    EasyMock.expect(resultsView.getSelect()).andStubReturn(selectItems);
+    EasyMock.expect(resultsView.getExpand()).andStubReturn(getExpandList());
+    EasyMock.replay(resultsView);
+
+    // the key property is fetched in addition to the selected complex property
+    final List<EdmProperty> projectedProperties = JPQLSelectContext.getProjectedProperties(resultsView);
+    assertEquals(2, projectedProperties.size());
+    assertEquals("ID", projectedProperties.get(1).getName());
+    List<Object[]> tuples = new ArrayList<Object[]>();
+    tuples.add(new Object[] { new SalesOrderAddress("Walldorf"), 1 });
+    tuples.add(new Object[] { new SalesOrderAddress("Berlin"), 2 });
+
+    ODataResponse response = ODataJPAResponseBuilder.build(tuples, projectedProperties, resultsView,
+        "application/xml", getODataJPAContext(), null);
+    final String feed = new Scanner((InputStream) response.getEntity(), "UTF-8").useDelimiter("\\A").next();
+    assertEquals(2, feed.split("<entry").length - 1);
+    assertTrue(feed.contains("SalesOrders(2)"));
+    assertTrue(feed.contains("<d:City>Walldorf</d:City>"));
+    assertTrue(feed.contains("<d:City>Berlin</d:City>"));
+  }
+
   @Test
   public void testBuildNegatives() {// Bad content type
     try {
@@ -551,6 +655,58 @@ public class ODataJPAResponseBuilderTest extends JPAEdmTestModelView {
 
   }
 
+  class SalesOrderAddress {
+    private String city;
+
+    public SalesOrderAddress(final String city) {
+      this.city = city;
+    }
+
+    public String getCity() {
+      return city;
+    }
+
+    public void setCity(final String city) {
+      this.city = city;
+    }
+
+  }
+
+  private static class ProjectionEdmProvider extends EdmProvider {
+    private static final String NAMESPACE = "SalesOrderProcessing";
+
+    @Override
+    public EntityContainerInfo getEntityContainerInfo(final String name) throws ODataException {
+      return new EntityContainerInfo().setName("SalesOrderProcessingContainer").setDefaultEntityContainer(true);
+    }
+
+    @Override
+    public EntitySet getEntitySet(final String entityContainer, final String name) throws ODataException {
+      return new EntitySet().setName("SalesOrders").setEntityType(new FullQualifiedName(NAMESPACE, "SalesOrder"));
+    }
+
+    @Override
+    public EntityType getEntityType(final FullQualifiedName edmFQName) throws ODataException {
+      List<Property> properties = new ArrayList<Property>();
+      properties.add(new SimpleProperty().setName("ID").setType(EdmSimpleTypeKind.Int32)
+          .setMapping(new Mapping().setInternalName("soId")));
+      properties.add(new ComplexProperty().setName("Address").setType(new FullQualifiedName(NAMESPACE, "Address"))
+          .setMapping(new Mapping().setInternalName("address")));
+      List<PropertyRef> keys = new ArrayList<PropertyRef>();
+      keys.add(new PropertyRef().setName("ID"));
+      return new EntityType().setName("SalesOrder")
+          .setProperties(properties).setKey(new Key().setKeys(keys));
+    }
+
+    @Override
+    public ComplexType getComplexType(final FullQualifiedName edmFQName) throws ODataException {
+      List<Property> properties = new ArrayList<Property>();
+      properties.add(new SimpleProperty().setName("City").setType(EdmSimpleTypeKind.String)
+          .setMapping(new Mapping().setInternalName("city")));
+      return new ComplexType().setName("Address").setProperties(properties);
+    }
+  }
+
   private List<Object> getJPAEntities() {
     List<Object> listJPAEntities = new ArrayList<Object>();
     SalesOrderHeader entity;
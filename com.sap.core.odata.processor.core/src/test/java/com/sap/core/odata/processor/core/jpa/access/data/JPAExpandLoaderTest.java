@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.processor.core.jpa.access.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.junit.Test;
+
+import com.sap.core.odata.api.edm.EdmAssociation;
+import com.sap.core.odata.api.edm.EdmAssociationEnd;
+import com.sap.core.odata.api.edm.EdmEntityType;
+import com.sap.core.odata.api.edm.EdmException;
+import com.sap.core.odata.api.edm.EdmMapping;
+import com.sap.core.odata.api.edm.EdmMultiplicity;
+import com.sap.core.odata.api.edm.EdmNavigationProperty;
+import com.sap.core.odata.api.uri.NavigationPropertySegment;
+import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
+import com.sap.core.odata.processor.core.jpa.model.JPAEdmMappingImpl;
+
+public class JPAExpandLoaderTest {
+
+  private static final String PARENT_QUERY = "SELECT E1.id, E2 FROM Parent E1 LEFT OUTER JOIN E1.children E2 WHERE E1.id IN ?1";
+  private static final String CHILD_QUERY = "SELECT E1.id, E2 FROM Child E1 LEFT OUTER JOIN E1.toys E2 WHERE E1.id IN ?1";
+  private static final String OWNER_QUERY = "SELECT E1.id, E2 FROM Child E1 LEFT OUTER JOIN E1.owner E2 WHERE E1.id IN ?1";
+
+  @Test
+  public void testLoadOneQueryPerLevel() throws Exception {
+    Parent parent1 = new Parent(1);
+    Parent parent2 = new Parent(2);
+    Child child1 = new Child(10);
+    Child child2 = new Child(11);
+    List<String> statements = new ArrayList<String>();
+    Map<String, List<Object>> results = new HashMap<String, List<Object>>();
+    results.put(PARENT_QUERY, Arrays.<Object> asList(new Object[] { 1L, child1 }, new Object[] { 1L, child2 },
+        new Object[] { 2L, null }));
+    results.put(CHILD_QUERY, Arrays.<Object> asList(new Object[] { 10L, "Toy" }, new Object[] { 11L, null }));
+    JPAExpandLoader loader = new JPAExpandLoader(mockEntityManager(statements, false, results, null));
+
+    loader.load(Arrays.asList(parent1, parent2, parent1), getExpandList());
+
+    assertEquals(Arrays.asList(PARENT_QUERY, CHILD_QUERY), statements);
+    assertEquals(Arrays.asList(child1, child2), parent1.getChildren());
+    assertTrue(parent2.getChildren().isEmpty());
+    assertEquals(Arrays.<Object> asList("Toy"), child1.getToys());
+    assertTrue(child2.getToys().isEmpty());
+  }
+
+  @Test
+  public void testLoadSetsToOneRelationship() throws Exception {
+    Parent parent = new Parent(1);
+    Child child1 = new Child(10);
+    Child child2 = new Child(11);
+    List<String> statements = new ArrayList<String>();
+    Map<String, List<Object>> results = new HashMap<String, List<Object>>();
+    results.put(OWNER_QUERY, Arrays.<Object> asList(new Object[] { 10L, parent }, new Object[] { 11L, null }));
+    JPAExpandLoader loader = new JPAExpandLoader(mockEntityManager(statements, false, results, null));
+
+    loader.load(Arrays.asList(child1, child2),
+        getExpandList(mockSegment("Owner", "owner", EdmMultiplicity.ZERO_TO_ONE, Parent.class)));
+
+    assertEquals(Arrays.asList(OWNER_QUERY), statements);
+    assertSame(parent, child1.getOwner());
+    assertNull(child2.getOwner());
+  }
+
+  @Test
+  public void testLoadSkipsLoadedRelationships() throws Exception {
+    List<String> statements = new ArrayList<String>();
+    JPAExpandLoader loader = new JPAExpandLoader(mockEntityManager(statements, true));
+
+    loader.load(Arrays.asList(new Parent(1)), getExpandList());
+
+    assertTrue(statements.isEmpty());
+  }
+
+  @Test
+  public void testLoadSkipsRelationshipsWithoutSetter() throws Exception {
+    List<String> statements = new ArrayList<String>();
+    JPAExpandLoader loader = new JPAExpandLoader(mockEntityManager(statements, false));
+
+    loader.load(Arrays.asList(new Parent(1)),
+        getExpandList(mockSegment("Toys", "toys", EdmMultiplicity.MANY, Object.class)));
+
+    assertTrue(statements.isEmpty());
+  }
+
+  @Test
+  public void testLoadWithoutExpand() throws Exception {
+    List<String> statements = new ArrayList<String>();
+    JPAExpandLoader loader = new JPAExpandLoader(mockEntityManager(statements, false));
+
+    loader.load(Arrays.asList(new Parent(1)), null);
+    loader.load(new ArrayList<Parent>(), getExpandList());
+
+    assertTrue(statements.isEmpty());
+  }
+
+  @Test(expected = ODataJPARuntimeException.class)
+  public void testLoadWrapsPersistenceException() throws Exception {
+    List<String> statements = new ArrayList<String>();
+    JPAExpandLoader loader = new JPAExpandLoader(mockEntityManager(statements, false,
+        new HashMap<String, List<Object>>(), new PersistenceException()));
+
+    loader.load(Arrays.asList(new Parent(1)), getExpandList());
+  }
+
+  private List<ArrayList<NavigationPropertySegment>> getExpandList() throws EdmException {
+    return getExpandList(mockSegment("Children", "children", EdmMultiplicity.MANY, Child.class),
+        mockSegment("Toys", "toys", EdmMultiplicity.MANY, Object.class));
+  }
+
+  private List<ArrayList<NavigationPropertySegment>> getExpandList(final NavigationPropertySegment... segments) {
+    ArrayList<NavigationPropertySegment> path = new ArrayList<NavigationPropertySegment>(Arrays.asList(segments));
+    List<ArrayList<NavigationPropertySegment>> expandList = new ArrayList<ArrayList<NavigationPropertySegment>>();
+    expandList.add(path);
+    return expandList;
+  }
+
+  private NavigationPropertySegment mockSegment(final String name, final String internalName,
+      final EdmMultiplicity multiplicity, final Class<?> jpaType) throws EdmException {
+    EdmMapping mapping = EasyMock.createMock(EdmMapping.class);
+    EasyMock.expect(mapping.getInternalName()).andStubReturn(internalName);
+    JPAEdmMappingImpl entityTypeMapping = new JPAEdmMappingImpl();
+    entityTypeMapping.setJPAType(jpaType);
+    EdmEntityType entityType = EasyMock.createMock(EdmEntityType.class);
+    EasyMock.expect(entityType.getMapping()).andStubReturn(entityTypeMapping);
+    EdmAssociationEnd end = EasyMock.createMock(EdmAssociationEnd.class);
+    EasyMock.expect(end.getMultiplicity()).andStubReturn(multiplicity);
+    EasyMock.expect(end.getEntityType()).andStubReturn(entityType);
+    EdmAssociation association = EasyMock.createMock(EdmAssociation.class);
+    EasyMock.expect(association.getEnd(name)).andStubReturn(end);
+    EdmNavigationProperty navigationProperty = EasyMock.createMock(EdmNavigationProperty.class);
+    EasyMock.expect(navigationProperty.getName()).andStubReturn(name);
+    EasyMock.expect(navigationProperty.getMapping()).andStubReturn(mapping);
+    EasyMock.expect(navigationProperty.getRelationship()).andStubReturn(association);
+    EasyMock.expect(navigationProperty.getToRole()).andStubReturn(name);
+    NavigationPropertySegment segment = EasyMock.createMock(NavigationPropertySegment.class);
+    EasyMock.expect(segment.getNavigationProperty()).andStubReturn(navigationProperty);
+    EasyMock.replay(mapping, entityType, end, association, navigationProperty, segment);
+    return segment;
+  }
+
+  private EntityManager mockEntityManager(final List<String> statements, final boolean loaded) {
+    return mockEntityManager(statements, loaded, new HashMap<String, List<Object>>(), null);
+  }
+
+  private EntityManager mockEntityManager(final List<String> statements, final boolean loaded,
+      final Map<String, List<Object>> results, final RuntimeException queryFailure) {
+    Metamodel metamodel = EasyMock.createMock(Metamodel.class);
+    EasyMock.expect(metamodel.entity(Parent.class)).andStubReturn(mockEntityType(Parent.class, "Parent"));
+    EasyMock.expect(metamodel.entity(Child.class)).andStubReturn(mockEntityType(Child.class, "Child"));
+
+    PersistenceUnitUtil util = EasyMock.createMock(PersistenceUnitUtil.class);
+    EasyMock.expect(util.isLoaded(EasyMock.anyObject(), EasyMock.<String> anyObject())).andStubReturn(loaded);
+    EasyMock.expect(util.getIdentifier(EasyMock.anyObject())).andStubAnswer(new IAnswer<Object>() {
+      @Override
+      public Object answer() throws Throwable {
+        return ((Identifiable) EasyMock.getCurrentArguments()[0]).getId();
+      }
+    });
+    EntityManagerFactory emf = EasyMock.createMock(EntityManagerFactory.class);
+    EasyMock.expect(emf.getPersistenceUnitUtil()).andStubReturn(util);
+
+    EntityManager em = EasyMock.createMock(EntityManager.class);
+    EasyMock.expect(em.getMetamodel()).andStubReturn(metamodel);
+    EasyMock.expect(em.getEntityManagerFactory()).andStubReturn(emf);
+    EasyMock.expect(em.createQuery(EasyMock.<String> anyObject())).andStubAnswer(new IAnswer<Query>() {
+      @Override
+      public Query answer() throws Throwable {
+        final String statement = (String) EasyMock.getCurrentArguments()[0];
+        statements.add(statement);
+        Query query = EasyMock.createNiceMock(Query.class);
+        if (queryFailure == null) {
+          final List<Object> result = results.get(statement);
+          EasyMock.expect(query.getResultList()).andStubReturn(result == null ? new ArrayList<Object>() : result);
+        } else {
+          EasyMock.expect(query.getResultList()).andStubThrow(queryFailure);
+        }
+        EasyMock.replay(query);
+        return query;
+      }
+    });
+    EasyMock.replay(metamodel, util, emf, em);
+    return em;
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private <X> EntityType<X> mockEntityType(final Class<X> entityClass, final String name) {
+    Type idType = EasyMock.createMock(Type.class);
+    EasyMock.expect(idType.getJavaType()).andStubReturn(Long.class);
+    SingularAttribute idAttribute = EasyMock.createMock(SingularAttribute.class);
+    EasyMock.expect(idAttribute.getName()).andStubReturn("id");
+    EntityType entityType = EasyMock.createMock(EntityType.class);
+    EasyMock.expect(entityType.getName()).andStubReturn(name);
+    EasyMock.expect(entityType.hasSingleIdAttribute()).andStubReturn(true);
+    EasyMock.expect(entityType.getIdType()).andStubReturn(idType);
+    EasyMock.expect(entityType.getId(Long.class)).andStubReturn(idAttribute);
+    EasyMock.replay(idType, idAttribute, entityType);
+    return entityType;
+  }
+
+  public interface Identifiable {
+    Long getId();
+  }
+
+  public static class Parent implements Identifiable {
+    private final Long id;
+    private List<Child> children = new ArrayList<Child>();
+
+    public Parent(final long id) {
+      this.id = id;
+    }
+
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    public List<Child> getChildren() {
+      return children;
+    }
+
+    public void setChildren(final List<Child> children) {
+      this.children = children;
+    }
+  }
+
+  public static class Child implements Identifiable {
+    private final Long id;
+    private List<Object> toys = new ArrayList<Object>();
+    private Parent owner;
+
+    public Child(final long id) {
+      this.id = id;
+    }
+
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    public List<Object> getToys() {
+      return toys;
+    }
+
+    public void setToys(final List<Object> toys) {
+      this.toys = toys;
+    }
+
+    public Parent getOwner() {
+      return owner;
+    }
+
+    public void setOwner(final Parent owner) {
+      this.owner = owner;
+    }
+  }
+}
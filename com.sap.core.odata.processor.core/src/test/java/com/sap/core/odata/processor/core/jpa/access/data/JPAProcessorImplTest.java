@@ -56,6 +56,7 @@ import com.sap.core.odata.api.uri.expression.OrderByExpression;
 import com.sap.core.odata.api.uri.info.DeleteUriInfo;
 import com.sap.core.odata.api.uri.info.GetEntityCountUriInfo;
 import com.sap.core.odata.api.uri.info.GetEntitySetCountUriInfo;
+import com.sap.core.odata.api.uri.info.GetEntitySetLinksUriInfo;
 import com.sap.core.odata.api.uri.info.GetEntitySetUriInfo;
 import com.sap.core.odata.processor.api.jpa.ODataJPAContext;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPAModelException;
@@ -105,6 +106,32 @@ public class JPAProcessorImplTest {
     }
   }
 
+  @Test
+  public void testCountGetEntitySetUriInfo() {
+    try {
+      Assert.assertEquals(11, objJPAProcessorImpl.count(getEntitySetUriInfo()));
+    } catch (ODataJPAModelException e) {
+      fail(ODataJPATestConstants.EXCEPTION_MSG_PART_1 + e.getMessage()
+          + ODataJPATestConstants.EXCEPTION_MSG_PART_2);
+    } catch (ODataJPARuntimeException e) {
+      fail(ODataJPATestConstants.EXCEPTION_MSG_PART_1 + e.getMessage()
+          + ODataJPATestConstants.EXCEPTION_MSG_PART_2);
+    }
+  }
+
+  @Test
+  public void testCountGetEntitySetLinksUriInfo() {
+    try {
+      Assert.assertEquals(11, objJPAProcessorImpl.count(getEntitySetLinksUriInfo()));
+    } catch (ODataJPAModelException e) {
+      fail(ODataJPATestConstants.EXCEPTION_MSG_PART_1 + e.getMessage()
+          + ODataJPATestConstants.EXCEPTION_MSG_PART_2);
+    } catch (ODataJPARuntimeException e) {
+      fail(ODataJPATestConstants.EXCEPTION_MSG_PART_1 + e.getMessage()
+          + ODataJPATestConstants.EXCEPTION_MSG_PART_2);
+    }
+  }
+
   @Test
   public void testProcessGetEntitySetUriInfo() {
     try {
@@ -118,6 +145,27 @@ public class JPAProcessorImplTest {
     }
   }
 
+  @Test
+  public void testProcessGetEntitySetUriInfoWithInlineCount() throws Exception {
+    // the results are paged by the response builder after counting them, so the query must not be paged
+    Query query = getQuery();
+    JPAProcessorImpl processor = new JPAProcessorImpl(getLocalmockODataJPAContext(getLocalEntityManager(query)));
+    Assert.assertEquals(getResultList(), processor.process(getEntitySetUriInfo(InlineCount.ALLPAGES, 1, 2)));
+    EasyMock.verify(query);
+  }
+
+  @Test
+  public void testProcessPageGetEntitySetUriInfo() throws Exception {
+    Query query = EasyMock.createMock(Query.class);
+    EasyMock.expect(query.setFirstResult(2)).andReturn(query);
+    EasyMock.expect(query.setMaxResults(1)).andReturn(query);
+    EasyMock.expect(query.getResultList()).andStubReturn(getResultList());
+    EasyMock.replay(query);
+    JPAProcessorImpl processor = new JPAProcessorImpl(getLocalmockODataJPAContext(getLocalEntityManager(query)));
+    Assert.assertEquals(getResultList(), processor.processPage(getEntitySetUriInfo(InlineCount.ALLPAGES, 1, 2)));
+    EasyMock.verify(query);
+  }
+
   @Test
   public void testProcessDeleteUriInfo() {
     try {
@@ -177,18 +225,35 @@ public class JPAProcessorImplTest {
   }
 
   private GetEntitySetUriInfo getEntitySetUriInfo() {
+    return getEntitySetUriInfo(getInlineCount(), getTop(), getSkip());
+  }
+
+  private GetEntitySetUriInfo getEntitySetUriInfo(final InlineCount inlineCount, final Integer top, final Integer skip) {
 
     UriInfo objUriInfo = EasyMock.createMock(UriInfo.class);
     EasyMock.expect(objUriInfo.getStartEntitySet()).andStubReturn(getLocalEdmEntitySet());
     EasyMock.expect(objUriInfo.getTargetEntitySet()).andStubReturn(getLocalEdmEntitySet());
     EasyMock.expect(objUriInfo.getSelect()).andStubReturn(null);
     EasyMock.expect(objUriInfo.getOrderBy()).andStubReturn(getOrderByExpression());
+    EasyMock.expect(objUriInfo.getTop()).andStubReturn(top);
+    EasyMock.expect(objUriInfo.getSkip()).andStubReturn(skip);
+    EasyMock.expect(objUriInfo.getInlineCount()).andStubReturn(inlineCount);
+    EasyMock.expect(objUriInfo.getFilter()).andStubReturn(getFilter());
+    //EasyMock.expect(objUriInfo.getFunctionImport()).andStubReturn(getFunctionImport());
+    EasyMock.expect(objUriInfo.getFunctionImport()).andStubReturn(null);
+    EasyMock.expect(objUriInfo.getExpand()).andStubReturn(null);
+    EasyMock.replay(objUriInfo);
+    return objUriInfo;
+  }
+
+  private GetEntitySetLinksUriInfo getEntitySetLinksUriInfo() {
+    GetEntitySetLinksUriInfo objUriInfo = EasyMock.createMock(GetEntitySetLinksUriInfo.class);
+    EasyMock.expect(objUriInfo.getStartEntitySet()).andStubReturn(getLocalEdmEntitySet());
+    EasyMock.expect(objUriInfo.getTargetEntitySet()).andStubReturn(getLocalEdmEntitySet());
     EasyMock.expect(objUriInfo.getTop()).andStubReturn(getTop());
     EasyMock.expect(objUriInfo.getSkip()).andStubReturn(getSkip());
     EasyMock.expect(objUriInfo.getInlineCount()).andStubReturn(getInlineCount());
     EasyMock.expect(objUriInfo.getFilter()).andStubReturn(getFilter());
-    //EasyMock.expect(objUriInfo.getFunctionImport()).andStubReturn(getFunctionImport());
-    EasyMock.expect(objUriInfo.getFunctionImport()).andStubReturn(null);
     EasyMock.replay(objUriInfo);
     return objUriInfo;
   }
@@ -274,11 +339,15 @@ public class JPAProcessorImplTest {
   }
 
   private ODataJPAContext getLocalmockODataJPAContext() {
+    return getLocalmockODataJPAContext(getLocalEntityManager());
+  }
+
+  private ODataJPAContext getLocalmockODataJPAContext(final EntityManager entityManager) {
     ODataJPAContext odataJPAContext = EasyMock.createMock(ODataJPAContext.class);
     EasyMock.expect(odataJPAContext.getPersistenceUnitName()).andStubReturn("salesorderprocessing");
     EasyMock.expect(odataJPAContext.getEntityManagerFactory()).andStubReturn(mockEntityManagerFactory());
     EasyMock.expect(odataJPAContext.getODataContext()).andStubReturn(getLocalODataContext());
-    EasyMock.expect(odataJPAContext.getEntityManager()).andStubReturn(getLocalEntityManager());
+    EasyMock.expect(odataJPAContext.getEntityManager()).andStubReturn(entityManager);
     EasyMock.replay(odataJPAContext);
     return odataJPAContext;
   }
@@ -292,8 +361,12 @@ public class JPAProcessorImplTest {
   }
 
   public EntityManager getLocalEntityManager() {
+    return getLocalEntityManager(getQuery());
+  }
+
+  private EntityManager getLocalEntityManager(final Query query) {
     EntityManager em = EasyMock.createMock(EntityManager.class);
-    EasyMock.expect(em.createQuery("SELECT E1 FROM SalesOrderHeaders E1")).andStubReturn(getQuery());
+    EasyMock.expect(em.createQuery("SELECT E1 FROM SalesOrderHeaders E1")).andStubReturn(query);
     EasyMock.expect(em.createQuery("SELECT COUNT ( E1 ) FROM SalesOrderHeaders E1")).andStubReturn(getQueryForSelectCount());
     EasyMock.expect(em.getTransaction()).andStubReturn(getLocalTransaction()); //For Delete
     em.flush();
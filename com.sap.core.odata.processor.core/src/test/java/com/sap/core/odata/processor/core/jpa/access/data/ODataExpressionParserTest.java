@@ -50,6 +50,7 @@ import com.sap.core.odata.api.uri.expression.UnaryOperator;
 import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.core.jpa.ODataExpressionParser;
 import com.sap.core.odata.processor.core.jpa.common.ODataJPATestConstants;
+import com.sap.core.odata.processor.core.jpa.model.JPAEdmMappingImpl;
 
 public class ODataExpressionParserTest {
 
@@ -562,6 +563,63 @@ public class ODataExpressionParserTest {
     assertEquals(EXPECTED_STR_8, str);
   }
 
+  @Test
+  public void testParseWhereExpressionWithParameters() {
+    List<Object> parameters = new ArrayList<Object>();
+    CommonExpression exp1 = getBinaryExpressionMockedObj(
+        BinaryOperator.GE, ExpressionKind.PROPERTY, SALES_ORDER, SAMPLE_DATA_1);
+    CommonExpression exp2 = getBinaryExpressionMockedObj(
+        BinaryOperator.NE, ExpressionKind.PROPERTY, SALES_ABC, SAMPLE_DATA_XYZ);
+    try {
+      assertEquals("gwt1.SalesOrder >= ?1 AND gwt1.SalesABC <> ?2", ODataExpressionParser.parseToJPAWhereExpression(
+          getBinaryExpression(exp1, BinaryOperator.AND, exp2), TABLE_ALIAS, parameters));
+    } catch (ODataException e) {
+      fail(ODataJPATestConstants.EXCEPTION_MSG_PART_1 + e.getMessage() + ODataJPATestConstants.EXCEPTION_MSG_PART_2);
+    }
+    assertEquals(2, parameters.size());
+    assertEquals(SAMPLE_DATA_1, parameters.get(0));
+    assertEquals(SAMPLE_DATA_XYZ, parameters.get(1));
+  }
+
+  @Test
+  public void testParseKeyPredicatesWithParameters() throws EdmException {
+    JPAEdmMappingImpl mapping1 = new JPAEdmMappingImpl();
+    mapping1.setInternalName(SAMPLE_DATA_FIELD1);
+    mapping1.setJPAType(long.class);
+    JPAEdmMappingImpl mapping2 = new JPAEdmMappingImpl();
+    mapping2.setInternalName(SAMPLE_DATA_FIELD2);
+    mapping2.setJPAType(String.class);
+
+    KeyPredicate keyPredicate1 = EasyMock.createMock(KeyPredicate.class);
+    EdmProperty kpProperty1 = EasyMock.createMock(EdmProperty.class);
+    EasyMock.expect(keyPredicate1.getLiteral()).andStubReturn("1");
+    EasyMock.expect(keyPredicate1.getProperty()).andStubReturn(kpProperty1);
+    EasyMock.expect(kpProperty1.getType()).andStubReturn(EdmSimpleTypeKind.Int32.getEdmSimpleTypeInstance());
+    EasyMock.expect(kpProperty1.getMapping()).andStubReturn(mapping1);
+    KeyPredicate keyPredicate2 = EasyMock.createMock(KeyPredicate.class);
+    EdmProperty kpProperty2 = EasyMock.createMock(EdmProperty.class);
+    EasyMock.expect(keyPredicate2.getLiteral()).andStubReturn("abc");
+    EasyMock.expect(keyPredicate2.getProperty()).andStubReturn(kpProperty2);
+    EasyMock.expect(kpProperty2.getType()).andStubReturn(EdmSimpleTypeKind.String.getEdmSimpleTypeInstance());
+    EasyMock.expect(kpProperty2.getMapping()).andStubReturn(mapping2);
+    EasyMock.replay(kpProperty1, keyPredicate1, kpProperty2, keyPredicate2);
+
+    ArrayList<KeyPredicate> keyPredicates = new ArrayList<KeyPredicate>();
+    keyPredicates.add(keyPredicate1);
+    keyPredicates.add(keyPredicate2);
+    List<Object> parameters = new ArrayList<Object>();
+
+    try {
+      assertEquals("gwt1.field1 = ?1 AND gwt1.field2 = ?2",
+          ODataExpressionParser.parseKeyPredicates(keyPredicates, TABLE_ALIAS, parameters));
+    } catch (ODataJPARuntimeException e) {
+      fail(ODataJPATestConstants.EXCEPTION_MSG_PART_1 + e.getMessage() + ODataJPATestConstants.EXCEPTION_MSG_PART_2);
+    }
+    assertEquals(2, parameters.size());
+    assertEquals(Long.valueOf(1), parameters.get(0));
+    assertEquals("abc", parameters.get(1));
+  }
+
   @Test
   public void testParseToJPASelectExpression() {
 
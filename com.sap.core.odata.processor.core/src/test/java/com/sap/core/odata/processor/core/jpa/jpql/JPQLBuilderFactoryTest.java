@@ -39,6 +39,7 @@ import org.junit.Test;
 import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.edm.EdmEntityType;
 import com.sap.core.odata.api.edm.EdmException;
+import com.sap.core.odata.api.edm.EdmLiteralKind;
 import com.sap.core.odata.api.edm.EdmMapping;
 import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.edm.EdmSimpleType;
@@ -203,6 +204,8 @@ public class JPQLBuilderFactoryTest {
     try {
       EasyMock.expect(kpProperty.getName()).andStubReturn("Field1");
       EasyMock.expect(kpProperty.getType()).andStubReturn(edmType);
+      EasyMock.<Class<?>> expect(edmType.getDefaultType()).andStubReturn(Integer.class);
+      EasyMock.expect(edmType.valueOfString("1", EdmLiteralKind.DEFAULT, null, Integer.class)).andStubReturn(1);
 
       EasyMock.expect(kpProperty.getMapping()).andStubReturn(edmMapping);
 
@@ -35,6 +35,7 @@ import com.sap.core.odata.api.edm.EdmAssociationEnd;
 import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.edm.EdmEntityType;
 import com.sap.core.odata.api.edm.EdmException;
+import com.sap.core.odata.api.edm.EdmLiteralKind;
 import com.sap.core.odata.api.edm.EdmMapping;
 import com.sap.core.odata.api.edm.EdmMultiplicity;
 import com.sap.core.odata.api.edm.EdmNavigationProperty;
@@ -187,6 +188,8 @@ public class JPQLJoinContextTest {
     EasyMock.expect(edmProperty.getName()).andStubReturn("soid");
     EdmSimpleType edmType = EasyMock.createMock(EdmSimpleType.class);
     EasyMock.expect(edmProperty.getType()).andStubReturn(edmType);
+    EasyMock.<Class<?>> expect(edmType.getDefaultType()).andStubReturn(Integer.class);
+    EasyMock.expect(edmType.valueOfString("1", EdmLiteralKind.DEFAULT, null, Integer.class)).andStubReturn(1);
     EasyMock.expect(keyPredicate.getProperty()).andStubReturn(edmProperty);
 
     EasyMock.replay(edmType, edmMapping, edmProperty, keyPredicate);
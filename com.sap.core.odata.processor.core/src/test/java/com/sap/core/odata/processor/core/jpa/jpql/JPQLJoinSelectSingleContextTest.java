@@ -34,6 +34,7 @@ import com.sap.core.odata.api.edm.EdmAssociationEnd;
 import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.edm.EdmEntityType;
 import com.sap.core.odata.api.edm.EdmException;
+import com.sap.core.odata.api.edm.EdmLiteralKind;
 import com.sap.core.odata.api.edm.EdmMapping;
 import com.sap.core.odata.api.edm.EdmMultiplicity;
 import com.sap.core.odata.api.edm.EdmNavigationProperty;
@@ -199,6 +200,8 @@ public class JPQLJoinSelectSingleContextTest {
     EasyMock.expect(edmProperty.getMapping()).andStubReturn(edmMapping);
     EasyMock.expect(edmProperty.getName()).andStubReturn("soid");
     EdmSimpleType edmType = EasyMock.createMock(EdmSimpleType.class);
+    EasyMock.<Class<?>> expect(edmType.getDefaultType()).andStubReturn(Integer.class);
+    EasyMock.expect(edmType.valueOfString("1", EdmLiteralKind.DEFAULT, null, Integer.class)).andStubReturn(1);
     if (toThrowException) {
       EasyMock.expect(edmProperty.getType()).andStubThrow(new EdmException(null));
     } else {
@@ -20,6 +20,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.easymock.EasyMock;
@@ -56,16 +57,17 @@ public class JPQLJoinSelectSingleStatementBuilderTest {
     EasyMock.expect(context.getKeyPredicates()).andStubReturn(createKeyPredicates());
     EasyMock.expect(context.getSelectExpression()).andStubReturn("gt1");
     EasyMock.expect(context.getJPAJoinClauses()).andStubReturn(joinClauseList);
+    EasyMock.expect(context.getParameters()).andStubReturn(Arrays.asList((Object) 1, "abc"));
     EasyMock.replay(context);
   }
 
   private List<JPAJoinClause> getJoinClauseList() {
     List<JPAJoinClause> joinClauseList = new ArrayList<JPAJoinClause>();
-    JPAJoinClause jpaOuterJoinClause = new JPAJoinClause("SOHeader", "soh", null, null, "soh.soId = 1", JPAJoinClause.JOIN.LEFT);
+    JPAJoinClause jpaOuterJoinClause = new JPAJoinClause("SOHeader", "soh", null, null, "soh.soId = ?1", JPAJoinClause.JOIN.LEFT);
     joinClauseList.add(jpaOuterJoinClause);
     jpaOuterJoinClause = new JPAJoinClause("SOHeader", "soh", "soItem", "soi", "soi.shId = soh.soId", JPAJoinClause.JOIN.LEFT);
     joinClauseList.add(jpaOuterJoinClause);
-    jpaOuterJoinClause = new JPAJoinClause("SOItem", "si", "material", "mat", "mat.id = 'abc'", JPAJoinClause.JOIN.LEFT);
+    jpaOuterJoinClause = new JPAJoinClause("SOItem", "si", "material", "mat", "mat.id = ?2", JPAJoinClause.JOIN.LEFT);
     joinClauseList.add(jpaOuterJoinClause);
     return joinClauseList;
   }
@@ -79,7 +81,8 @@ public class JPQLJoinSelectSingleStatementBuilderTest {
     JPQLJoinSelectSingleStatementBuilder jpqlJoinSelectsingleStatementBuilder = new JPQLJoinSelectSingleStatementBuilder(context);
     try {
       JPQLStatement jpqlStatement = jpqlJoinSelectsingleStatementBuilder.build();
-      assertEquals("SELECT gt1 FROM SOHeader soh JOIN soh.soItem soi JOIN soi.material mat WHERE soh.soId = 1 AND soi.shId = soh.soId AND mat.id = 'abc'", jpqlStatement.toString());
+      assertEquals("SELECT gt1 FROM SOHeader soh JOIN soh.soItem soi JOIN soi.material mat WHERE soh.soId = ?1 AND soi.shId = soh.soId AND mat.id = ?2", jpqlStatement.toString());
+      assertEquals(Arrays.asList((Object) 1, "abc"), jpqlStatement.getParameters());
     } catch (ODataJPARuntimeException e) {
       fail("Should not have come here");
     }
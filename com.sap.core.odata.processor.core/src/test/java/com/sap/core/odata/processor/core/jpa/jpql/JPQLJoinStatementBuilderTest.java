@@ -20,6 +20,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -50,7 +51,8 @@ public class JPQLJoinStatementBuilderTest {
     EasyMock.expect(context.getJPAEntityName()).andStubReturn("SOHeader");
     EasyMock.expect(context.getType()).andStubReturn(JPQLContextType.SELECT);
     EasyMock.expect(context.getSelectExpression()).andStubReturn("mat");
-    EasyMock.expect(context.getWhereExpression()).andStubReturn("soh.buyerId = 2");
+    EasyMock.expect(context.getWhereExpression()).andStubReturn("soh.buyerId = ?3");
+    EasyMock.expect(context.getParameters()).andStubReturn(Arrays.asList((Object) "Peter", "abc", 2));
     HashMap<String, String> orderByMap = new HashMap<String, String>();
     orderByMap.put("mat.buyerId", "asc");
     orderByMap.put("mat.city", "desc");
@@ -61,11 +63,11 @@ public class JPQLJoinStatementBuilderTest {
 
   private List<JPAJoinClause> getJoinClauseList() {
     List<JPAJoinClause> joinClauseList = new ArrayList<JPAJoinClause>();
-    JPAJoinClause jpaOuterJoinClause = new JPAJoinClause("SOHeader", "soh", null, null, "soh.createdBy = 'Peter'", JPAJoinClause.JOIN.LEFT);
+    JPAJoinClause jpaOuterJoinClause = new JPAJoinClause("SOHeader", "soh", null, null, "soh.createdBy = ?1", JPAJoinClause.JOIN.LEFT);
     joinClauseList.add(jpaOuterJoinClause);
     jpaOuterJoinClause = new JPAJoinClause("SOHeader", "soh", "soItem", "soi", "soi.shId = soh.soId", JPAJoinClause.JOIN.LEFT);
     joinClauseList.add(jpaOuterJoinClause);
-    jpaOuterJoinClause = new JPAJoinClause("SOItem", "si", "material", "mat", "mat.id = 'abc'", JPAJoinClause.JOIN.LEFT);
+    jpaOuterJoinClause = new JPAJoinClause("SOItem", "si", "material", "mat", "mat.id = ?2", JPAJoinClause.JOIN.LEFT);
     joinClauseList.add(jpaOuterJoinClause);
     return joinClauseList;
   }
@@ -79,7 +81,8 @@ public class JPQLJoinStatementBuilderTest {
     JPQLJoinStatementBuilder jpqlJoinStatementBuilder = new JPQLJoinStatementBuilder(context);
     try {
       JPQLStatement jpqlStatement = jpqlJoinStatementBuilder.build();
-      assertEquals("SELECT mat FROM SOHeader soh JOIN soh.soItem soi JOIN soi.material mat WHERE soh.buyerId = 2 AND soh.createdBy = 'Peter' AND soi.shId = soh.soId AND mat.id = 'abc' ORDER BY mat.buyerId asc , mat.city desc", jpqlStatement.toString());
+      assertEquals("SELECT mat FROM SOHeader soh JOIN soh.soItem soi JOIN soi.material mat WHERE soh.buyerId = ?3 AND soh.createdBy = ?1 AND soi.shId = soh.soId AND mat.id = ?2 ORDER BY mat.buyerId asc , mat.city desc", jpqlStatement.toString());
+      assertEquals(Arrays.asList((Object) "Peter", "abc", 2), jpqlStatement.getParameters());
     } catch (ODataJPARuntimeException e) {
       fail("Should not have come here");
     }
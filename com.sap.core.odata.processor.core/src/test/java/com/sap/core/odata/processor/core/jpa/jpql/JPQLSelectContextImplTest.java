@@ -27,13 +27,16 @@ import org.easymock.EasyMock;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.sap.core.odata.api.edm.EdmConcurrencyMode;
 import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.edm.EdmEntityType;
 import com.sap.core.odata.api.edm.EdmException;
+import com.sap.core.odata.api.edm.EdmFacets;
 import com.sap.core.odata.api.edm.EdmMapping;
 import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.edm.EdmType;
 import com.sap.core.odata.api.uri.KeyPredicate;
+import com.sap.core.odata.api.uri.NavigationPropertySegment;
 import com.sap.core.odata.api.uri.SelectItem;
 import com.sap.core.odata.api.uri.expression.ExpressionKind;
 import com.sap.core.odata.api.uri.expression.FilterExpression;
@@ -67,6 +70,14 @@ public class JPQLSelectContextImplTest {
   private void buildSelectContext(final boolean orderByIsNull,
       final boolean selectFieldsIsNull, final boolean filterIsNull,
       final boolean isTopNull, final boolean isSkipNull) {
+    buildSelectContext(orderByIsNull, selectFieldsIsNull, filterIsNull, isTopNull, isSkipNull,
+        JPQLContextType.SELECT, fields, new ArrayList<String>());
+  }
+
+  private void buildSelectContext(final boolean orderByIsNull,
+      final boolean selectFieldsIsNull, final boolean filterIsNull,
+      final boolean isTopNull, final boolean isSkipNull,
+      final JPQLContextType contextType, final String[] selectedFields, final List<String> propertyNames) {
     builder = null;
     selectContext = null;
     keyPredicates = new ArrayList<KeyPredicate>();
@@ -141,34 +152,40 @@ public class JPQLSelectContextImplTest {
       i = 0;
       List<SelectItem> selectItemList = new ArrayList<SelectItem>(2);
       do {
-        EdmMapping edmMapping = EasyMock.createMock(EdmMapping.class);
-        EasyMock.expect(edmMapping.getInternalName()).andStubReturn(
-            fields[i]);
-        EdmProperty edmProperty = EasyMock
-            .createMock(EdmProperty.class);
-        EasyMock.expect(edmProperty.getMapping()).andStubReturn(
-            edmMapping);
-        EasyMock.replay(edmMapping, edmProperty);
+        EdmProperty edmProperty = getLocalProperty(selectedFields[i], null);
 
         SelectItem selectItem = EasyMock.createMock(SelectItem.class);
         EasyMock.expect(selectItem.getProperty()).andStubReturn(
             edmProperty);
+        EasyMock.expect(selectItem.isStar()).andStubReturn(false);
+        EasyMock.expect(selectItem.getNavigationPropertySegments()).andStubReturn(
+            new ArrayList<NavigationPropertySegment>());
         EasyMock.replay(selectItem);
 
         selectItemList.add(selectItem);
 
-      } while (++i < 2);
+      } while (++i < selectedFields.length);
       EasyMock.expect(entityType.getMapping()).andStubReturn(null);
       EasyMock.expect(entityType.getName()).andStubReturn(entityTypeName);
       EasyMock.expect(entityType.getKeyProperties()).andStubReturn(getLocalKeyProperties());
+      EasyMock.expect(entityType.hasStream()).andStubReturn(false);
+      EasyMock.expect(entityType.getPropertyNames()).andStubReturn(propertyNames);
+      for (String propertyName : propertyNames) {
+        EasyMock.expect(entityType.getProperty(propertyName)).andStubReturn(
+            getLocalProperty(propertyName, propertyName.equals("Version") ? EdmConcurrencyMode.Fixed : null));
+      }
 
       EasyMock.replay(entityType);
       EasyMock.expect(entitySet.getEntityType())
           .andStubReturn(entityType);
+      EasyMock.expect(entitySet.getName()).andStubReturn("SalesOrderHeaders");
       EasyMock.replay(entitySet);
 
       EasyMock.expect(resultsView.getTargetEntitySet()).andStubReturn(
           entitySet);
+      EasyMock.expect(resultsView.getStartEntitySet()).andStubReturn(
+          entitySet);
+      EasyMock.expect(resultsView.getExpand()).andStubReturn(null);
       if (orderByIsNull) {
         EasyMock.expect(resultsView.getOrderBy()).andStubReturn(null);
       } else {
@@ -210,7 +227,7 @@ public class JPQLSelectContextImplTest {
     }
     try {
       builder = (JPQLSelectContextBuilder) JPQLContext.createBuilder(
-          JPQLContextType.SELECT, resultsView);
+          contextType, resultsView);
 
       selectContext = (JPQLSelectContext) builder.build();
     } catch (ODataJPAModelException e) {
@@ -220,6 +237,23 @@ public class JPQLSelectContextImplTest {
     }
   }
 
+  private EdmProperty getLocalProperty(final String name, final EdmConcurrencyMode concurrencyMode) throws EdmException {
+    EdmMapping edmMapping = EasyMock.createMock(EdmMapping.class);
+    EasyMock.expect(edmMapping.getInternalName()).andStubReturn(name);
+    EdmFacets facets = null;
+    if (concurrencyMode != null) {
+      facets = EasyMock.createMock(EdmFacets.class);
+      EasyMock.expect(facets.getConcurrencyMode()).andStubReturn(concurrencyMode);
+      EasyMock.replay(facets);
+    }
+    EdmProperty edmProperty = EasyMock.createMock(EdmProperty.class);
+    EasyMock.expect(edmProperty.getMapping()).andStubReturn(edmMapping);
+    EasyMock.expect(edmProperty.getName()).andStubReturn(name);
+    EasyMock.expect(edmProperty.getFacets()).andStubReturn(facets);
+    EasyMock.replay(edmMapping, edmProperty);
+    return edmProperty;
+  }
+
   private List<EdmProperty> getLocalKeyProperties() {
     List<EdmProperty> propertyList = new ArrayList<EdmProperty>();
     EdmProperty edmProperty = EasyMock.createMock(EdmProperty.class);
@@ -289,6 +323,56 @@ public class JPQLSelectContextImplTest {
     }
   }
 
+  @Test
+  public void testSelectFieldsNotProjected() {
+    buildSelectContext(false, false, true, true, true);
+
+    try {
+      selectContext = (JPQLSelectContext) builder.build();
+      assertEquals("E2", selectContext.getSelectExpression());
+    } catch (ODataJPAModelException e) {
+      fail();
+    } catch (ODataJPARuntimeException e) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testSelectFieldsProjected() {
+    buildSelectContext(false, false, true, true, true,
+        JPQLContextType.SELECT_PROJECTION, fields, new ArrayList<String>());
+
+    try {
+      selectContext = (JPQLSelectContext) builder.build();
+      assertEquals("E2.Field1, E2.Field2", selectContext.getSelectExpression());
+      assertEquals(JPQLContextType.SELECT_PROJECTION, selectContext.getType());
+    } catch (ODataJPAModelException e) {
+      fail();
+    } catch (ODataJPARuntimeException e) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testKeyAndConcurrencyFieldsProjected() {
+    List<String> propertyNames = new ArrayList<String>();
+    propertyNames.add("Field1");
+    propertyNames.add("Field2");
+    propertyNames.add("Version");
+    buildSelectContext(false, false, true, true, true,
+        JPQLContextType.SELECT_PROJECTION, new String[] { "Field2", "Field3" }, propertyNames);
+
+    assertEquals("E1.Field2, E1.Field3, E1.Field1, E1.Version", selectContext.getSelectExpression());
+  }
+
+  @Test
+  public void testSelectFieldsAsNullNotProjected() {
+    buildSelectContext(false, true, true, true, true,
+        JPQLContextType.SELECT_PROJECTION, fields, new ArrayList<String>());
+
+    assertEquals("E1", selectContext.getSelectExpression());
+  }
+
   @Test
   public void testGetOrderByCollection() {
     buildSelectContext(false, false, true, true, true);
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.easymock.EasyMock;
@@ -28,6 +29,7 @@ import org.junit.Test;
 import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.edm.EdmEntityType;
 import com.sap.core.odata.api.edm.EdmException;
+import com.sap.core.odata.api.edm.EdmLiteralKind;
 import com.sap.core.odata.api.edm.EdmMapping;
 import com.sap.core.odata.api.edm.EdmProperty;
 import com.sap.core.odata.api.edm.EdmSimpleType;
@@ -39,6 +41,7 @@ import com.sap.core.odata.processor.api.jpa.exception.ODataJPARuntimeException;
 import com.sap.core.odata.processor.api.jpa.jpql.JPQLContext;
 import com.sap.core.odata.processor.api.jpa.jpql.JPQLContext.JPQLContextBuilder;
 import com.sap.core.odata.processor.api.jpa.jpql.JPQLContextType;
+import com.sap.core.odata.processor.api.jpa.jpql.JPQLStatement;
 
 public class JPQLSelectSingleStatementBuilderTest {
 
@@ -77,6 +80,8 @@ public class JPQLSelectSingleStatementBuilderTest {
       EasyMock.expect(kpProperty.getType()).andStubReturn(edmType);
 
       EasyMock.expect(kpProperty.getMapping()).andStubReturn(edmMapping);
+      EasyMock.<Class<?>> expect(edmType.getDefaultType()).andStubReturn(Integer.class);
+      EasyMock.expect(edmType.valueOfString("1", EdmLiteralKind.DEFAULT, null, Integer.class)).andStubReturn(1);
 
     } catch (EdmException e2) {
       fail("this should not happen");
@@ -118,7 +123,9 @@ public class JPQLSelectSingleStatementBuilderTest {
     JPQLSelectSingleContext JPQLSelectSingleContextImpl = createSelectContext();
     JPQLSelectSingleStatementBuilder = new JPQLSelectSingleStatementBuilder(JPQLSelectSingleContextImpl);
 
-    assertEquals("SELECT E1 FROM SalesOrderHeader E1 WHERE E1.Field1 = 1", JPQLSelectSingleStatementBuilder.build().toString());
+    JPQLStatement jpqlStatement = JPQLSelectSingleStatementBuilder.build();
+    assertEquals("SELECT E1 FROM SalesOrderHeader E1 WHERE E1.Field1 = ?1", jpqlStatement.toString());
+    assertEquals(Arrays.asList((Object) 1), jpqlStatement.getParameters());
   }
 
 }
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.api;
+
+/**
+ * Receives the runtime metrics of each request.
+ * <p>The library measures the phases of every request and aggregates the
+ * measurements itself, independently of debug mode; see the MBean
+ * <code>com.sap.core.odata:type=ODataMetrics</code> once it has been registered.
+ * A service that wants to forward single measurements to its own monitoring
+ * returns an implementation of this interface from
+ * {@link ODataServiceFactory#getCallback(Class)}.</p>
+ * <p>The callback is called from all request threads concurrently and
+ * in the request path, so it must be thread-safe and fast.</p>
+ * @author SAP AG
+ */
+public interface ODataMetricsCallback extends ODataCallback {
+
+  /**
+   * Measured phases of request processing.
+   */
+  public enum Phase {
+    /** Parsing of the resource path and the query options. */
+    URI_PARSING,
+    /** Request validation, content negotiation, and completion of the response;
+     *  the time of the request handler without URI parsing and processing. */
+    DISPATCHING,
+    /** Execution of the processor method. */
+    PROCESSING,
+    /** Writing of a payload with the entity provider; for responses that are
+     *  not streamed this is part of {@link #PROCESSING}. */
+    SERIALIZATION,
+    /** Handling of one part of a batch request. */
+    BATCH_PART
+  }
+
+  /**
+   * Called after a phase of the current request has been completed.
+   * @param phase the completed phase
+   * @param durationNanos the duration of the phase in nanoseconds
+   */
+  void phaseCompleted(Phase phase, long durationNanos);
+
+  /**
+   * Called after a request has been handled; requests inside a batch request
+   * are reported as {@link Phase#BATCH_PART} instead.
+   * Writing of streamed response content is not included.
+   * @param statusCode the HTTP status code of the response
+   * @param durationNanos the duration of the request handling in nanoseconds
+   */
+  void requestCompleted(int statusCode, long durationNanos);
+}
@@ -15,6 +15,7 @@
  ******************************************************************************/
 package com.sap.core.odata.api;
 
+import com.sap.core.odata.api.edm.Edm;
 import com.sap.core.odata.api.edm.provider.EdmProvider;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.processor.ODataContext;
@@ -61,6 +62,18 @@ public abstract class ODataServiceFactory {
     return RuntimeDelegate.createODataSingleProcessorService(provider, processor);
   }
 
+  /**
+   * Create a default service instance based on <code>ODataSingleProcessor</code>
+   * for an already built entity data model, e.g., one shared via
+   * {@link com.sap.core.odata.api.edm.provider.EdmCache}.
+   * @param edm An entity data model which may be shared across requests.
+   * @param processor A custom processor implementation derived from <code>ODataSingleProcessor</code> .
+   * @return A new default <code>ODataSingleProcessorService</code> instance.
+   */
+  public ODataService createODataSingleProcessorService(final Edm edm, final ODataSingleProcessor processor) {
+    return RuntimeDelegate.createODataSingleProcessorService(edm, processor);
+  }
+
   /**
    * A service can return implementation classes for various callback interfaces.
    * @param callbackInterface a interface type to query for implementation
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.api.batch;
+
+import java.util.concurrent.Executor;
+
+import com.sap.core.odata.api.ODataCallback;
+
+/**
+ * <p>Optional callback of an {@link com.sap.core.odata.api.ODataServiceFactory}
+ * which enables the concurrent execution of query operations inside a batch request
+ * (see {@link BatchPartsHandler#handleBatchParts(java.util.List)}).</p>
+ * <p>Query operations which are not separated by a change set are executed
+ * concurrently; change sets are still executed one after another and only after
+ * all preceding query operations have been finished. The order of the responses
+ * is always the order of the requests.</p>
+ * <p>Each concurrently executed query operation gets its own service instance
+ * created by the service factory, so the factory has to create services which
+ * work on the same data.</p>
+ * @author SAP AG
+ */
+public interface BatchParallelCallback extends ODataCallback {
+
+  /**
+   * Returns the executor which runs the query operations. The executor
+   * is usually shared between batch requests.
+   * @return an executor or <code>null</code> for sequential execution
+   */
+  Executor getExecutor();
+
+  /**
+   * Returns the maximum number of query operations of one batch request
+   * which are executed at the same time.
+   * @return the maximum, values smaller than 2 result in sequential execution
+   */
+  int getMaxParallelParts();
+}
@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.api.edm;
+
+import com.sap.core.odata.api.exception.ODataException;
+
+/**
+ * @com.sap.core.odata.DoNotImplement
+ * Service metadata which provides an entity tag for its metadata document.
+ * Implementations of {@link EdmServiceMetadata} without this interface are served without entity tag.
+ * @author SAP AG
+ */
+public interface EdmTaggedServiceMetadata extends EdmServiceMetadata {
+
+  /**
+   * @return strong entity tag of the metadata document returned by {@link #getMetadata()}
+   * @throws ODataException
+   */
+  String getMetadataETag() throws ODataException;
+}
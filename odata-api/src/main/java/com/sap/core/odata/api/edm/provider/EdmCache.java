@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.api.edm.provider;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.sap.core.odata.api.edm.Edm;
+import com.sap.core.odata.api.rt.RuntimeDelegate;
+
+/**
+ * <p>Process-wide cache for entity data models built from an {@link EdmProvider}.</p>
+ * <p>A service factory is usually instantiated for every request, so without caching
+ * the entity data model is built again for each request. Service factories can
+ * instead register the model once under a service key and reuse it for all
+ * subsequent requests; the cached {@link Edm} instances can be used by concurrent
+ * requests. The cache never expires entries on its own, a service has to call
+ * {@link #invalidate(String)} if its metadata changes.</p>
+ * @author SAP AG
+ */
+public final class EdmCache {
+
+  private static final ConcurrentMap<String, Edm> CACHE = new ConcurrentHashMap<String, Edm>();
+
+  private EdmCache() {}
+
+  /**
+   * Returns the entity data model cached for the given service key.
+   * @param serviceKey key identifying the service, e.g., the factory class name
+   * @return the cached {@link Edm} or <code>null</code> if none is cached
+   */
+  public static Edm getEdm(final String serviceKey) {
+    return CACHE.get(serviceKey);
+  }
+
+  /**
+   * Returns the entity data model cached for the given service key. If none is
+   * cached yet, a new one is created from the given provider and cached.
+   * @param serviceKey key identifying the service, e.g., the factory class name
+   * @param provider provider used only if no model is cached for the key
+   * @return the cached {@link Edm}
+   */
+  public static Edm getEdm(final String serviceKey, final EdmProvider provider) {
+    Edm edm = CACHE.get(serviceKey);
+    if (edm == null) {
+      edm = RuntimeDelegate.createEdm(provider);
+      final Edm cached = CACHE.putIfAbsent(serviceKey, edm);
+      if (cached != null) {
+        edm = cached;
+      }
+    }
+    return edm;
+  }
+
+  /**
+   * Returns whether the given entity data model is cached for any service key,
+   * i.e., whether it is shared across requests.
+   * @param edm the entity data model
+   * @return <code>true</code> if the model is cached
+   */
+  public static boolean contains(final Edm edm) {
+    return edm != null && CACHE.containsValue(edm);
+  }
+
+  /**
+   * Removes the entity data model cached for the given service key so that the
+   * next request builds it again.
+   * @param serviceKey key identifying the service
+   */
+  public static void invalidate(final String serviceKey) {
+    CACHE.remove(serviceKey);
+  }
+
+  /**
+   * Removes all cached entity data models.
+   */
+  public static void invalidateAll() {
+    CACHE.clear();
+  }
+}
@@ -16,6 +16,7 @@
 package com.sap.core.odata.api.ep;
 
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -127,6 +128,23 @@ public final class EntityProvider {
      */
     ODataResponse writeFeed(String contentType, EdmEntitySet entitySet, List<Map<String, Object>> data, EntityProviderWriteProperties properties) throws EntityProviderException;
 
+    /**
+     * Write given <code>data</code> (which is given in form of an {@link Iterator} which provides a {@link Map} for each entity)
+     * in the specified format (given as <code>contentType</code>) based on given <code>entity data model for an entity set</code>
+     * (given as {@link EdmEntitySet}) and <code>properties</code> for this entity provider (given as {@link EntityProviderWriteProperties}).
+     * <p>The entries are pulled one after another from the iterator and each entry is written as soon as it has been
+     * retrieved, so that it is not necessary to hold the complete feed data in memory.</p>
+     * 
+     * @param contentType format in which the feed should be written
+     * @param entitySet entity data model for given entity data set
+     * @param data iterator over the entries, each in form of a {@link Map} (such a {@link Map}
+     *              contains all properties [as <code>property name</code> to <code>property value</code> mapping).
+     * @param properties additional properties necessary for writing of data 
+     * @return resulting {@link ODataResponse} with written feed content.
+     * @throws EntityProviderException if writing of data (serialization) fails
+     */
+    ODataResponse writeFeed(String contentType, EdmEntitySet entitySet, Iterator<Map<String, Object>> data, EntityProviderWriteProperties properties) throws EntityProviderException;
+
     /**
      * Write given <code>data</code> (which is given in form of a {@link Map} for which contains all properties 
      * as <code>property name</code> to <code>property value</code> mapping) for the entry in the specified
@@ -441,6 +459,25 @@ public final class EntityProvider {
     return createEntityProvider().writeFeed(contentType, entitySet, data, properties);
   }
 
+  /**
+   * Write given <code>data</code> (which is given in form of an {@link Iterator} which provides a {@link Map} for each entity)
+   * in the specified format (given as <code>contentType</code>) based on given <code>entity data model for an entity set</code>
+   * (given as {@link EdmEntitySet}) and <code>properties</code> for this entity provider (given as {@link EntityProviderWriteProperties}).
+   * <p>The entries are pulled one after another from the iterator and each entry is written as soon as it has been
+   * retrieved, so that it is not necessary to hold the complete feed data in memory.</p>
+   * 
+   * @param contentType format in which the feed should be written
+   * @param entitySet entity data model for given entity data set
+   * @param data iterator over the entries, each in form of a {@link Map} (such a {@link Map}
+   *              contains all properties [as <code>property name</code> to <code>property value</code> mapping).
+   * @param properties additional properties necessary for writing of data 
+   * @return resulting {@link ODataResponse} with written feed content.
+   * @throws EntityProviderException if writing of data (serialization) fails
+   */
+  public static ODataResponse writeFeed(final String contentType, final EdmEntitySet entitySet, final Iterator<Map<String, Object>> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
+    return createEntityProvider().writeFeed(contentType, entitySet, data, properties);
+  }
+
   /**
    * Write given <code>data</code> (which is given in form of a {@link Map} for which contains all properties 
    * as <code>property name</code> to <code>property value</code> mapping) for the entry in the specified
@@ -37,6 +37,8 @@ public class EntityProviderWriteProperties {
   private ExpandSelectTreeNode expandSelectTree;
   private Map<String, ODataCallback> callbacks = Collections.emptyMap();
   private URI selfLink;
+  private boolean streaming;
+  private int flushInterval;
 
   private EntityProviderWriteProperties() {}
 
@@ -101,6 +103,27 @@ public class EntityProviderWriteProperties {
     return nextLink;
   }
 
+  /**
+   * Determines whether a feed is written directly into the response output stream
+   * (see {@link com.sap.core.odata.api.processor.ODataStreamingEntity}) instead of
+   * being serialized completely before the response is returned.
+   * @return <code>true</code> if the feed is streamed
+   */
+  public final boolean isStreaming() {
+    return streaming;
+  }
+
+  /**
+   * Gets the number of feed entries after which the serialized output is flushed.
+   * A value of <code>0</code> (the default) means that output is flushed only at
+   * the end of the document; in between, data is passed on whenever the buffers
+   * of the underlying writers are full.
+   * @return the flush interval in entries
+   */
+  public final int getFlushInterval() {
+    return flushInterval;
+  }
+
   public static ODataEntityProviderPropertiesBuilder serviceRoot(final URI serviceRoot) {
     return new ODataEntityProviderPropertiesBuilder().serviceRoot(serviceRoot);
   }
@@ -177,6 +200,29 @@ public class EntityProviderWriteProperties {
       return this;
     }
 
+    /**
+     * Write feeds directly into the response output stream when the response is sent,
+     * instead of serializing them completely in advance. Errors during serialization
+     * can then no longer be reported as error documents.
+     * @param streaming <code>true</code> to stream feeds
+     * @return properties builder
+     */
+    public ODataEntityProviderPropertiesBuilder streaming(final boolean streaming) {
+      properties.streaming = streaming;
+      return this;
+    }
+
+    /**
+     * Flush the serialized output of a feed after every <code>flushInterval</code> entries,
+     * e.g., to pass data of a streamed feed on to the client early.
+     * @param flushInterval number of entries; <code>0</code> flushes only at the end of the document
+     * @return properties builder
+     */
+    public ODataEntityProviderPropertiesBuilder flushInterval(final int flushInterval) {
+      properties.flushInterval = flushInterval;
+      return this;
+    }
+
     public ODataEntityProviderPropertiesBuilder fromProperties(final EntityProviderWriteProperties properties) {
       this.properties.mediaResourceMimeType = properties.getMediaResourceMimeType();
       this.properties.inlineCountType = properties.getInlineCountType();
@@ -185,6 +231,8 @@ public class EntityProviderWriteProperties {
       this.properties.expandSelectTree = properties.getExpandSelectTree();
       this.properties.callbacks = properties.getCallbacks();
       this.properties.selfLink = properties.getSelfLink();
+      this.properties.streaming = properties.isStreaming();
+      this.properties.flushInterval = properties.getFlushInterval();
       return this;
     }
 
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.api.ep;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>Property values of one entity, stored in an array whose slots are defined
+ * by a shared {@link EntityRowLayout}.</p>
+ * <p>The entity providers read the values of a row by slot index instead of
+ * looking them up by name. Because a row is also a {@link Map} keyed by
+ * property name, it can be passed everywhere a <code>Map&lt;String, Object&gt;</code>
+ * is expected. The map view is fully modifiable: properties which are not part
+ * of the layout are kept in a separate map, and a removed property of the layout
+ * is no longer contained in the map view while its slot reads as <code>null</code>.</p>
+ * <p>Rows are not thread-safe.</p>
+ */
+public final class EntityRow extends AbstractMap<String, Object> {
+
+  /** Marks a slot whose property has been removed from the map view. */
+  private static final Object ABSENT = new Object();
+
+  private final EntityRowLayout layout;
+  private final Object[] values;
+  private int absentCount;
+  private Map<String, Object> overflow;
+
+  EntityRow(final EntityRowLayout layout) {
+    this.layout = layout;
+    values = new Object[layout.size()];
+  }
+
+  /**
+   * @return the layout of this row
+   */
+  public EntityRowLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * @param index slot index
+   * @return the value stored in the given slot
+   */
+  public Object get(final int index) {
+    final Object value = values[index];
+    return value == ABSENT ? null : value;
+  }
+
+  /**
+   * @param index slot index
+   * @param value the new value of the given slot
+   * @return this row for method chaining
+   */
+  public EntityRow set(final int index, final Object value) {
+    if (values[index] == ABSENT) {
+      absentCount--;
+    }
+    values[index] = value;
+    return this;
+  }
+
+  @Override
+  public Object get(final Object key) {
+    final int index = key instanceof String ? layout.indexOf((String) key) : -1;
+    if (index >= 0) {
+      return get(index);
+    }
+    return overflow == null ? null : overflow.get(key);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    final int index = key instanceof String ? layout.indexOf((String) key) : -1;
+    if (index >= 0) {
+      return values[index] != ABSENT;
+    }
+    return overflow != null && overflow.containsKey(key);
+  }
+
+  @Override
+  public Object put(final String key, final Object value) {
+    final int index = layout.indexOf(key);
+    if (index < 0) {
+      if (overflow == null) {
+        overflow = new HashMap<String, Object>();
+      }
+      return overflow.put(key, value);
+    }
+    final Object previous = get(index);
+    set(index, value);
+    return previous;
+  }
+
+  @Override
+  public Object remove(final Object key) {
+    final int index = key instanceof String ? layout.indexOf((String) key) : -1;
+    if (index >= 0) {
+      final Object previous = get(index);
+      removeSlot(index);
+      return previous;
+    }
+    return overflow == null ? null : overflow.remove(key);
+  }
+
+  @Override
+  public int size() {
+    return values.length - absentCount + (overflow == null ? 0 : overflow.size());
+  }
+
+  private void removeSlot(final int index) {
+    if (values[index] != ABSENT) {
+      values[index] = ABSENT;
+      absentCount++;
+    }
+  }
+
+  private int nextSlot(final int from) {
+    int index = from;
+    while (index < values.length && values[index] == ABSENT) {
+      index++;
+    }
+    return index;
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<String, Object>>() {
+      @Override
+      public Iterator<Map.Entry<String, Object>> iterator() {
+        return new Iterator<Map.Entry<String, Object>>() {
+          private int next = nextSlot(0);
+          private int current = -1;
+          private Iterator<Map.Entry<String, Object>> overflowEntries;
+
+          @Override
+          public boolean hasNext() {
+            return next < values.length || getOverflowEntries().hasNext();
+          }
+
+          @Override
+          public Map.Entry<String, Object> next() {
+            if (next < values.length) {
+              current = next;
+              next = nextSlot(next + 1);
+              return new Entry(current);
+            }
+            current = -1;
+            return getOverflowEntries().next();
+          }
+
+          @Override
+          public void remove() {
+            if (current >= 0) {
+              if (values[current] == ABSENT) {
+                throw new IllegalStateException();
+              }
+              removeSlot(current);
+            } else {
+              getOverflowEntries().remove();
+            }
+          }
+
+          private Iterator<Map.Entry<String, Object>> getOverflowEntries() {
+            if (overflowEntries == null) {
+              overflowEntries = overflow == null ?
+                  Collections.<Map.Entry<String, Object>> emptySet().iterator() :
+                  overflow.entrySet().iterator();
+            }
+            return overflowEntries;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return EntityRow.this.size();
+      }
+    };
+  }
+
+  private class Entry implements Map.Entry<String, Object> {
+    private final int index;
+
+    Entry(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    public String getKey() {
+      return layout.getName(index);
+    }
+
+    @Override
+    public Object getValue() {
+      return get(index);
+    }
+
+    @Override
+    public Object setValue(final Object value) {
+      final Object previous = get(index);
+      set(index, value);
+      return previous;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+      final Object value = getValue();
+      return getKey().equals(other.getKey())
+          && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+    }
+
+    @Override
+    public int hashCode() {
+      final Object value = getValue();
+      return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+}
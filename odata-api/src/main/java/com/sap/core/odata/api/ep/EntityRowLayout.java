@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.api.ep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Assigns a fixed slot to each property name of an entity so that
+ * {@link EntityRow} instances can keep their values in a plain array.</p>
+ * <p>A layout is immutable and is meant to be created once per entity type
+ * (or per projection) and shared by all rows of that type, also across threads.</p>
+ */
+public final class EntityRowLayout {
+
+  private final String[] names;
+  private final Map<String, Integer> slots;
+
+  private EntityRowLayout(final List<String> propertyNames) {
+    names = propertyNames.toArray(new String[propertyNames.size()]);
+    slots = new HashMap<String, Integer>(names.length * 2);
+    for (int index = 0; index < names.length; index++) {
+      if (slots.put(names[index], index) != null) {
+        throw new IllegalArgumentException("Duplicate property name '" + names[index] + "'");
+      }
+    }
+  }
+
+  /**
+   * Creates a layout with one slot per given property name, in the given order.
+   * @param propertyNames names of the properties, must not contain duplicates
+   * @return the layout
+   */
+  public static EntityRowLayout create(final List<String> propertyNames) {
+    return new EntityRowLayout(propertyNames);
+  }
+
+  /**
+   * Creates a layout with one slot per given property name, in the given order.
+   * @param propertyNames names of the properties, must not contain duplicates
+   * @return the layout
+   */
+  public static EntityRowLayout create(final String... propertyNames) {
+    List<String> names = new ArrayList<String>(propertyNames.length);
+    Collections.addAll(names, propertyNames);
+    return new EntityRowLayout(names);
+  }
+
+  /**
+   * @return the number of slots
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * @param index slot index
+   * @return the name of the property stored in the given slot
+   */
+  public String getName(final int index) {
+    return names[index];
+  }
+
+  /**
+   * @param name property name
+   * @return the slot index of the property or <code>-1</code> if the layout does not contain it
+   */
+  public int indexOf(final String name) {
+    final Integer index = slots.get(name);
+    return index == null ? -1 : index.intValue();
+  }
+
+  /**
+   * Creates an empty row for this layout; all values are <code>null</code>.
+   * @return a new {@link EntityRow}
+   */
+  public EntityRow createRow() {
+    return new EntityRow(this);
+  }
+
+  /**
+   * Creates a row for this layout and copies the values of all properties
+   * known to the layout from the given map; other map entries are ignored.
+   * @param data property values keyed by property name
+   * @return a new {@link EntityRow}
+   */
+  public EntityRow createRow(final Map<String, ?> data) {
+    EntityRow row = new EntityRow(this);
+    for (int index = 0; index < names.length; index++) {
+      row.set(index, data.get(names[index]));
+    }
+    return row;
+  }
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.api.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * <p>A response entity which is not held in memory but written directly
+ * into the output stream of the response message.</p>
+ * <p>Such an entity is written only once, when the response is sent to the client,
+ * so it is not possible to change the response status or its headers
+ * if an error occurs while writing.</p>
+ * @author SAP AG
+ */
+public interface ODataStreamingEntity {
+
+  /**
+   * Writes the content of this entity into the given output stream.
+   * The stream must not be closed by this method.
+   * @param out output stream the content is written to
+   * @throws IOException if writing fails
+   */
+  void write(OutputStream out) throws IOException;
+}
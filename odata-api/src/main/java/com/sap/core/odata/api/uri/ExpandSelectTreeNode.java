@@ -35,7 +35,8 @@ public interface ExpandSelectTreeNode {
   /**
    * <p>Gets the list of explicitly selected {@link EdmProperty properties}.</p>
    * <p>This list does not contain any navigation properties.
-   * It is empty if {@link #isAll()} returns <code>true</code>.</p>
+   * It is empty if {@link #isAll()} returns <code>true</code>.
+   * It is unmodifiable because the tree may be shared with other requests.</p>
    * @return List of selected properties
    */
   public List<EdmProperty> getProperties();
@@ -165,6 +165,7 @@ public interface UriInfo extends GetServiceDocumentUriInfo,
   /**
    * Gets the value of the $filter system query option as root object of the
    * expression tree built during URI parsing.
+   * The tree may be shared with other requests and must not be modified.
    * @return the filter expression or null
    */
   @Override
@@ -180,6 +181,7 @@ public interface UriInfo extends GetServiceDocumentUriInfo,
   /**
    * Gets the value of the $orderby system query option as root object of the
    * expression tree built during URI parsing.
+   * The tree may be shared with other requests and must not be modified.
    * @return the order-by expression or null
    */
   @Override
@@ -209,6 +211,7 @@ public interface UriInfo extends GetServiceDocumentUriInfo,
   /**
    * Gets the value of the $expand system query option as a list of
    * lists of navigation-property segments, or an empty list if not used.
+   * The lists may be shared with other requests and are unmodifiable.
    * @return List of a list of {@link NavigationPropertySegment} to be expanded
    */
   @Override
@@ -217,6 +220,7 @@ public interface UriInfo extends GetServiceDocumentUriInfo,
   /**
    * Gets the value of the $select system query option as a list of select items,
    * or an empty list if not used.
+   * The list may be shared with other requests and is unmodifiable.
    * @return List of {@link SelectItem} to be selected
    */
   @Override
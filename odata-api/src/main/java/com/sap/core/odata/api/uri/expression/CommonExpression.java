@@ -56,7 +56,9 @@ public interface CommonExpression extends Visitable {
   EdmType getEdmType();
 
   /**
-   * Set the edmType of this expression node
+   * Set the edmType of this expression node.
+   * <p>Expression trees returned by the URI parser may be shared with other
+   * requests; parse the expression again before changing its types.</p>
    * @param edmType Type to be set
    * @return A self reference for method chaining"
    */
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.core.odata.api.batch.BatchPart;
+import com.sap.core.odata.api.ep.EntityProviderBatchProperties;
+import com.sap.core.odata.core.batch.BatchRequestParser;
+
+/**
+ * Parsing of a multipart/mixed batch request with a query operation,
+ * a change set and another query operation.
+ * @author SAP AG
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BatchRequestParserBenchmark {
+
+  private static final String CONTENT_TYPE = "multipart/mixed;boundary=batch_8194-cf13-1f56";
+
+  private EntityProviderBatchProperties batchProperties;
+  private byte[] content;
+
+  @Setup
+  public void setup() throws Exception {
+    batchProperties = EntityProviderBatchProperties.init()
+        .pathInfo(BenchmarkHelper.getPathInfo("$batch"))
+        .build();
+    final InputStream in = BatchRequestParserBenchmark.class.getResourceAsStream("/batchWithPost.txt");
+    content = BenchmarkHelper.toByteArray(in);
+  }
+
+  @Benchmark
+  public List<BatchPart> parse() throws Exception {
+    return new BatchRequestParser(CONTENT_TYPE, batchProperties).parse(new ByteArrayInputStream(content));
+  }
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.uri.PathSegment;
+import com.sap.core.odata.core.ODataPathSegmentImpl;
+import com.sap.core.odata.core.PathInfoImpl;
+
+/**
+ * Helper methods shared by the benchmarks.
+ * @author SAP AG
+ */
+final class BenchmarkHelper {
+
+  static final String SERVICE_ROOT = "http://localhost/odata/";
+
+  private BenchmarkHelper() {}
+
+  /**
+   * Splits the resource path of a relative request URI (without service root)
+   * into OData path segments.
+   * @param requestUri e.g. <code>Employees('1')/ne_Room?$format=json</code>
+   * @return list of path segments
+   */
+  static List<PathSegment> getPathSegments(final String requestUri) {
+    final int queryStart = requestUri.indexOf('?');
+    final String path = queryStart < 0 ? requestUri : requestUri.substring(0, queryStart);
+    List<PathSegment> pathSegments = new ArrayList<PathSegment>();
+    for (final String segment : path.split("/", -1)) {
+      pathSegments.add(new ODataPathSegmentImpl(segment, null));
+    }
+    return pathSegments;
+  }
+
+  /**
+   * Extracts the (unencoded) query parameters of a relative request URI.
+   * @param requestUri e.g. <code>Employees?$top=2&amp;$skip=1</code>
+   * @return map of query-parameter names to values
+   */
+  static Map<String, String> getQueryParameters(final String requestUri) {
+    Map<String, String> queryParameters = new HashMap<String, String>();
+    final int queryStart = requestUri.indexOf('?');
+    if (queryStart >= 0) {
+      for (final String option : requestUri.substring(queryStart + 1).split("&")) {
+        final int equals = option.indexOf('=');
+        if (equals < 0) {
+          queryParameters.put(option, "");
+        } else {
+          queryParameters.put(option.substring(0, equals), option.substring(equals + 1));
+        }
+      }
+    }
+    return queryParameters;
+  }
+
+  static PathInfoImpl getPathInfo(final String requestUri) throws URISyntaxException {
+    PathInfoImpl pathInfo = new PathInfoImpl();
+    pathInfo.setServiceRoot(new URI(SERVICE_ROOT));
+    pathInfo.setODataPathSegment(getPathSegments(requestUri));
+    pathInfo.setPrecedingPathSegment(new ArrayList<PathSegment>());
+    final int queryStart = requestUri.indexOf('?');
+    pathInfo.setRequestUri(new URI("http", null, "localhost", -1,
+        "/odata/" + (queryStart < 0 ? requestUri : requestUri.substring(0, queryStart)),
+        queryStart < 0 ? null : requestUri.substring(queryStart + 1), null));
+    return pathInfo;
+  }
+
+  /**
+   * Reads the complete body of a response so that lazily produced content
+   * is part of the measurement.
+   * @param response an OData response
+   * @return number of bytes (or characters) of the response body
+   */
+  static long consume(final ODataResponse response) throws IOException {
+    final Object entity = response.getEntity();
+    if (entity instanceof InputStream) {
+      final InputStream in = (InputStream) entity;
+      final byte[] buffer = new byte[8192];
+      long length = 0;
+      try {
+        int count;
+        while ((count = in.read(buffer)) >= 0) {
+          length += count;
+        }
+      } finally {
+        in.close();
+      }
+      return length;
+    } else if (entity instanceof String) {
+      return ((String) entity).length();
+    } else {
+      return entity == null ? 0 : 1;
+    }
+  }
+
+  static byte[] toByteArray(final InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    try {
+      int count;
+      while ((count = in.read(buffer)) >= 0) {
+        out.write(buffer, 0, count);
+      }
+    } finally {
+      in.close();
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.core.odata.api.edm.EdmLiteral;
+import com.sap.core.odata.api.edm.EdmLiteralKind;
+import com.sap.core.odata.api.edm.EdmSimpleType;
+import com.sap.core.odata.api.edm.EdmSimpleTypeKind;
+
+/**
+ * Conversion of literals into values of EDM simple types, both for the
+ * default (XML and JSON payload) representation and for URI literals.
+ * @author SAP AG
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EdmSimpleTypeBenchmark {
+
+  private static final Map<EdmSimpleTypeKind, String[]> LITERALS = new HashMap<EdmSimpleTypeKind, String[]>();
+  static {
+    LITERALS.put(EdmSimpleTypeKind.Binary, new String[] { "T0RhdGE=", "X'4F44617461'" });
+    LITERALS.put(EdmSimpleTypeKind.DateTime, new String[] { "2012-02-29T01:02:03.456", "datetime'2012-02-29T01:02:03.456'" });
+    LITERALS.put(EdmSimpleTypeKind.DateTimeOffset, new String[] { "2012-02-29T01:02:03+01:30", "datetimeoffset'2012-02-29T01:02:03+01:30'" });
+    LITERALS.put(EdmSimpleTypeKind.Decimal, new String[] { "-1234567.8901", "-1234567.8901M" });
+    LITERALS.put(EdmSimpleTypeKind.Double, new String[] { "-1.2345678901E+300", "-1.2345678901E+300D" });
+    LITERALS.put(EdmSimpleTypeKind.Guid, new String[] { "12345678-ABCD-EF12-3456-7890ABCDEF12", "guid'12345678-ABCD-EF12-3456-7890ABCDEF12'" });
+    LITERALS.put(EdmSimpleTypeKind.Int32, new String[] { "-2147483648", "-2147483648" });
+    LITERALS.put(EdmSimpleTypeKind.String, new String[] { "Walter Winter", "'Walter Winter'" });
+    LITERALS.put(EdmSimpleTypeKind.Time, new String[] { "PT23H32M3.456S", "time'PT23H32M3.456S'" });
+  }
+
+  @Param({ "Binary", "DateTime", "DateTimeOffset", "Decimal", "Double", "Guid", "Int32", "String", "Time" })
+  private EdmSimpleTypeKind kind;
+
+  private EdmSimpleType type;
+  private String literal;
+  private String uriLiteral;
+
+  @Setup
+  public void setup() {
+    type = kind.getEdmSimpleTypeInstance();
+    literal = LITERALS.get(kind)[0];
+    uriLiteral = LITERALS.get(kind)[1];
+  }
+
+  @Benchmark
+  public Object valueOfString() throws Exception {
+    return type.valueOfString(literal, EdmLiteralKind.DEFAULT, null, type.getDefaultType());
+  }
+
+  @Benchmark
+  public boolean validate() {
+    return type.validate(literal, EdmLiteralKind.DEFAULT, null);
+  }
+
+  @Benchmark
+  public EdmLiteral parseUriLiteral() throws Exception {
+    return EdmSimpleTypeKind.parseUriLiteral(uriLiteral);
+  }
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.core.odata.api.edm.EdmEntitySet;
+import com.sap.core.odata.api.ep.EntityProvider;
+import com.sap.core.odata.api.ep.EntityProviderReadProperties;
+import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
+import com.sap.core.odata.api.ep.entry.ODataEntry;
+import com.sap.core.odata.api.rt.RuntimeDelegate;
+import com.sap.core.odata.testutil.mock.EdmTestProvider;
+
+/**
+ * Serialization of feeds and deserialization of entries in Atom and JSON format
+ * for the "Rooms" entity set of the {@link EdmTestProvider} model.
+ * @author SAP AG
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EntityProviderBenchmark {
+
+  @Param({ "application/atom+xml", "application/json" })
+  private String contentType;
+
+  @Param({ "1", "100" })
+  private int feedSize;
+
+  private EdmEntitySet entitySet;
+  private EntityProviderWriteProperties writeProperties;
+  private EntityProviderReadProperties readProperties;
+  private List<Map<String, Object>> feedData;
+  private byte[] entryContent;
+
+  @Setup
+  public void setup() throws Exception {
+    entitySet = RuntimeDelegate.createEdm(new EdmTestProvider()).getDefaultEntityContainer().getEntitySet("Rooms");
+    writeProperties = EntityProviderWriteProperties.serviceRoot(new URI(BenchmarkHelper.SERVICE_ROOT)).build();
+    readProperties = EntityProviderReadProperties.init().mergeSemantic(false).build();
+
+    feedData = new ArrayList<Map<String, Object>>(feedSize);
+    for (int i = 1; i <= feedSize; i++) {
+      feedData.add(getRoomData(i));
+    }
+
+    entryContent = BenchmarkHelper.toByteArray(
+        (InputStream) EntityProvider.writeEntry(contentType, entitySet, getRoomData(1), writeProperties).getEntity());
+  }
+
+  private static Map<String, Object> getRoomData(final int index) {
+    Map<String, Object> roomData = new HashMap<String, Object>();
+    roomData.put("Id", String.valueOf(index));
+    roomData.put("Name", "Room " + index);
+    roomData.put("Seats", Short.valueOf((short) (index % 100)));
+    roomData.put("Version", Short.valueOf((short) 1));
+    return roomData;
+  }
+
+  @Benchmark
+  public long writeFeed() throws Exception {
+    return BenchmarkHelper.consume(EntityProvider.writeFeed(contentType, entitySet, feedData, writeProperties));
+  }
+
+  @Benchmark
+  public ODataEntry readEntry() throws Exception {
+    return EntityProvider.readEntry(contentType, entitySet, new ByteArrayInputStream(entryContent), readProperties);
+  }
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.core.odata.api.edm.EdmEntityType;
+import com.sap.core.odata.api.rt.RuntimeDelegate;
+import com.sap.core.odata.api.uri.expression.FilterExpression;
+import com.sap.core.odata.core.uri.expression.FilterParserImpl;
+import com.sap.core.odata.core.uri.expression.TokenList;
+import com.sap.core.odata.core.uri.expression.Tokenizer;
+import com.sap.core.odata.testutil.mock.EdmTestProvider;
+
+/**
+ * Parsing of <code>$filter</code> expressions on the "Employees" entity type
+ * of the {@link EdmTestProvider} model; long expressions are chains of
+ * <code>or</code>ed comparisons as generated by clients selecting many keys.
+ * @author SAP AG
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FilterParserBenchmark {
+
+  @Param({
+      "Age gt 30",
+      "EmployeeName eq 'Walter Winter' and Location/City/PostalCode ne '69124'",
+      "substringof('x',tolower(EmployeeName)) or (Age add 5 le 42 and EntryDate lt datetime'2013-01-01T00:00:00')",
+      "not (Age sub 1 mul 2 div 3 mod 4 eq -7) and ne_Room/Seats ge 10 and length(concat(EmployeeId,RoomId)) eq 12" })
+  private String expression;
+
+  private EdmEntityType entityType;
+
+  @Setup
+  public void setup() throws Exception {
+    entityType = RuntimeDelegate.createEdm(new EdmTestProvider()).getDefaultEntityContainer()
+        .getEntitySet("Employees").getEntityType();
+    // load the metadata before measuring
+    new FilterParserImpl(entityType).parseFilterString(expression);
+  }
+
+  @State(Scope.Benchmark)
+  public static class LongExpression {
+
+    @Param({ "10", "100" })
+    private int comparisons;
+
+    private String expression;
+
+    @Setup
+    public void setup() {
+      StringBuilder builder = new StringBuilder();
+      for (int i = 1; i <= comparisons; i++) {
+        if (i > 1) {
+          builder.append(" or ");
+        }
+        builder.append("EmployeeId eq '").append(i).append('\'');
+      }
+      expression = builder.toString();
+    }
+  }
+
+  @Benchmark
+  public FilterExpression parseFilterString() throws Exception {
+    return new FilterParserImpl(entityType).parseFilterString(expression);
+  }
+
+  @Benchmark
+  public TokenList tokenize() throws Exception {
+    return new Tokenizer(expression).tokenize();
+  }
+
+  @Benchmark
+  public TokenList tokenizeLongExpression(final LongExpression longExpression) throws Exception {
+    return new Tokenizer(longExpression.expression).tokenize();
+  }
+
+  @Benchmark
+  public FilterExpression parseLongFilterString(final LongExpression longExpression) throws Exception {
+    return new FilterParserImpl(entityType).parseFilterString(longExpression.expression);
+  }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.core.odata.api.ODataService;
+import com.sap.core.odata.api.ODataServiceFactory;
+import com.sap.core.odata.api.commons.ODataHttpMethod;
+import com.sap.core.odata.api.processor.ODataRequest;
+import com.sap.core.odata.core.ODataContextImpl;
+import com.sap.core.odata.core.ODataRequestHandler;
+import com.sap.core.odata.ref.processor.ScenarioServiceFactory;
+
+/**
+ * GET requests handled end to end by the {@link ODataRequestHandler}
+ * (URI parsing, dispatching, processing and serialization) against the
+ * reference scenario, without the JAX-RS layer.
+ * @author SAP AG
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RequestHandlerBenchmark {
+
+  @Param({
+      "$metadata",
+      "Employees",
+      "Employees?$format=json",
+      "Employees('2')?$expand=ne_Room,ne_Team",
+      "Rooms?$filter=Seats gt 1&$orderby=Name&$top=5",
+      "Employees('2')/Location/City/CityName/$value" })
+  private String requestUri;
+
+  private ODataServiceFactory serviceFactory;
+  private ODataService service;
+  private ODataRequest request;
+
+  @Setup
+  public void setup() throws Exception {
+    serviceFactory = new ScenarioServiceFactory();
+    request = ODataRequest.method(ODataHttpMethod.GET)
+        .pathInfo(BenchmarkHelper.getPathInfo(requestUri))
+        .queryParameters(BenchmarkHelper.getQueryParameters(requestUri))
+        .acceptHeaders(Collections.<String> emptyList())
+        .acceptableLanguages(Arrays.asList(new Locale("*")))
+        .requestHeaders(Collections.<String, List<String>> emptyMap())
+        .build();
+    // The reference data are created once; the measured requests only read them.
+    service = serviceFactory.createService(new ODataContextImpl(request, serviceFactory));
+  }
+
+  @Benchmark
+  public long handle() throws Exception {
+    ODataContextImpl context = new ODataContextImpl(request, serviceFactory);
+    context.setService(service);
+    service.getProcessor().setContext(context);
+    return BenchmarkHelper.consume(new ODataRequestHandler(serviceFactory, service, context).handle(request));
+  }
+}
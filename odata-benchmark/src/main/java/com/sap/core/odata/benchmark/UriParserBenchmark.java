@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.core.odata.api.edm.Edm;
+import com.sap.core.odata.api.rt.RuntimeDelegate;
+import com.sap.core.odata.api.uri.PathSegment;
+import com.sap.core.odata.api.uri.UriInfo;
+import com.sap.core.odata.core.uri.UriParserImpl;
+import com.sap.core.odata.testutil.mock.EdmTestProvider;
+
+/**
+ * URI parsing including system query options on the {@link EdmTestProvider} model.
+ * @author SAP AG
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UriParserBenchmark {
+
+  @Param({
+      "$metadata",
+      "Employees('1')/Location/City/CityName/$value",
+      "Rooms('1')/nr_Employees?$select=EmployeeName,Age&$expand=ne_Team",
+      "Employees?$filter=Age gt 30 and startswith(EmployeeName,'W')&$orderby=EmployeeName desc&$top=10" })
+  private String requestUri;
+
+  private Edm edm;
+  private List<PathSegment> pathSegments;
+  private Map<String, String> queryParameters;
+
+  @Setup
+  public void setup() throws Exception {
+    edm = RuntimeDelegate.createEdm(new EdmTestProvider());
+    pathSegments = BenchmarkHelper.getPathSegments(requestUri);
+    queryParameters = BenchmarkHelper.getQueryParameters(requestUri);
+    // load the metadata before measuring
+    new UriParserImpl(edm).parse(pathSegments, queryParameters);
+  }
+
+  @Benchmark
+  public UriInfo parse() throws Exception {
+    return new UriParserImpl(edm).parse(pathSegments, queryParameters);
+  }
+}
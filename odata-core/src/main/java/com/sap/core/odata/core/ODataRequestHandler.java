@@ -19,9 +19,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import com.sap.core.odata.api.ODataMetricsCallback.Phase;
 import com.sap.core.odata.api.ODataService;
 import com.sap.core.odata.api.ODataServiceFactory;
 import com.sap.core.odata.api.ODataServiceVersion;
+import com.sap.core.odata.api.commons.HttpHeaders;
 import com.sap.core.odata.api.commons.HttpStatusCodes;
 import com.sap.core.odata.api.commons.ODataHttpHeaders;
 import com.sap.core.odata.api.commons.ODataHttpMethod;
@@ -51,7 +53,9 @@ import com.sap.core.odata.api.uri.UriParser;
 import com.sap.core.odata.core.commons.ContentType;
 import com.sap.core.odata.core.commons.ContentType.ODataFormat;
 import com.sap.core.odata.core.debug.ODataDebugResponseWrapper;
+import com.sap.core.odata.core.ep.util.SerializedDocument;
 import com.sap.core.odata.core.exception.ODataRuntimeException;
+import com.sap.core.odata.core.metrics.RequestMetrics;
 import com.sap.core.odata.core.uri.UriInfoImpl;
 import com.sap.core.odata.core.uri.UriParserImpl;
 import com.sap.core.odata.core.uri.UriType;
@@ -64,11 +68,20 @@ public class ODataRequestHandler {
   private final ODataServiceFactory serviceFactory;
   private final ODataService service;
   private final ODataContext context;
+  private final RequestMetrics metrics;
 
   public ODataRequestHandler(final ODataServiceFactory factory, final ODataService service, final ODataContext context) {
     serviceFactory = factory;
     this.service = service;
     this.context = context;
+    metrics = new RequestMetrics(factory);
+  }
+
+  /**
+   * @return the recorder of the runtime metrics of the handled request
+   */
+  public RequestMetrics getMetrics() {
+    return metrics;
   }
 
   /**
@@ -82,6 +95,10 @@ public class ODataRequestHandler {
     UriInfoImpl uriInfo = null;
     Exception exception = null;
     ODataResponse odataResponse;
+    final long startTime = System.nanoTime();
+    long parsingTime = -1;
+    long processingTime = -1;
+    final RequestMetrics previousMetrics = metrics.bind();
     final int timingHandle = context.startRuntimeMeasurement("ODataRequestHandler", "handle");
     try {
       UriParser uriParser = new UriParserImpl(service.getEntityDataModel());
@@ -93,7 +110,9 @@ public class ODataRequestHandler {
 
       final List<PathSegment> pathSegments = context.getPathInfo().getODataSegments();
       int timingHandle2 = context.startRuntimeMeasurement("UriParserImpl", "parse");
+      long phaseStart = System.nanoTime();
       uriInfo = (UriInfoImpl) uriParser.parse(pathSegments, request.getQueryParameters());
+      parsingTime = System.nanoTime() - phaseStart;
       context.stopRuntimeMeasurement(timingHandle2);
 
       final ODataHttpMethod method = request.getMethod();
@@ -108,7 +127,9 @@ public class ODataRequestHandler {
       final String acceptContentType = new ContentNegotiator().doContentNegotiation(uriInfo, request.getAcceptHeaders(), getSupportedContentTypes(uriInfo));
 
       timingHandle2 = context.startRuntimeMeasurement("Dispatcher", "dispatch");
+      phaseStart = System.nanoTime();
       odataResponse = dispatcher.dispatch(method, uriInfo, request.getBody(), request.getContentType(), acceptContentType);
+      processingTime = System.nanoTime() - phaseStart;
       context.stopRuntimeMeasurement(timingHandle2);
 
       final String location = (method == ODataHttpMethod.POST && (uriType == UriType.URI1 || uriType == UriType.URI6B)) ? odataResponse.getIdLiteral() : null;
@@ -121,18 +142,47 @@ public class ODataRequestHandler {
       extendedResponse = extendedResponse.idLiteral(location).status(s);
       odataResponse = extendedResponse.build();
 
+      if (method == ODataHttpMethod.GET && (uriType == UriType.URI0 || uriType == UriType.URI8)
+          && s == HttpStatusCodes.OK
+          && SerializedDocument.matches(context.getRequestHeader(HttpHeaders.IF_NONE_MATCH), odataResponse.getETag())) {
+        odataResponse = ODataResponse.status(HttpStatusCodes.NOT_MODIFIED)
+            .eTag(odataResponse.getETag())
+            .header(ODataHttpHeaders.DATASERVICEVERSION, odataResponse.getHeader(ODataHttpHeaders.DATASERVICEVERSION))
+            .build();
+      }
+
     } catch (final Exception e) {
       exception = e;
       odataResponse = new ODataExceptionWrapper(context, request.getQueryParameters(), request.getAcceptHeaders())
           .wrapInExceptionResponse(e);
+    } finally {
+      RequestMetrics.unbind(previousMetrics);
     }
     context.stopRuntimeMeasurement(timingHandle);
+    recordMetrics(System.nanoTime() - startTime, parsingTime, processingTime, odataResponse);
 
     final String debugValue = getDebugValue(context, request.getQueryParameters());
     return debugValue == null ?
         odataResponse : new ODataDebugResponseWrapper(context, odataResponse, uriInfo, exception, debugValue).wrapResponse();
   }
 
+  private void recordMetrics(final long requestTime, final long parsingTime, final long processingTime, final ODataResponse response) {
+    long dispatchingTime = requestTime;
+    if (parsingTime >= 0) {
+      metrics.recordPhase(Phase.URI_PARSING, parsingTime);
+      dispatchingTime -= parsingTime;
+    }
+    if (processingTime >= 0) {
+      metrics.recordPhase(Phase.PROCESSING, processingTime);
+      dispatchingTime -= processingTime;
+    }
+    metrics.recordPhase(Phase.DISPATCHING, dispatchingTime);
+    // requests inside a batch request are recorded as batch parts
+    if (!context.isInBatchMode()) {
+      metrics.recordRequest(response.getStatus() == null ? HttpStatusCodes.OK.getStatusCode() : response.getStatus().getStatusCode(), requestTime);
+    }
+  }
+
   private String getServerDataServiceVersion() throws ODataException {
     return service.getVersion() == null ? ODataServiceVersion.V20 : service.getVersion();
   }
@@ -22,11 +22,19 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
+import com.sap.core.odata.api.ODataMetricsCallback.Phase;
 import com.sap.core.odata.api.ODataService;
 import com.sap.core.odata.api.ODataServiceFactory;
-import com.sap.core.odata.api.batch.BatchHandler;
+import com.sap.core.odata.api.batch.BatchParallelCallback;
 import com.sap.core.odata.api.batch.BatchPart;
+import com.sap.core.odata.api.batch.BatchPartsHandler;
 import com.sap.core.odata.api.batch.BatchResponsePart;
 import com.sap.core.odata.api.commons.HttpHeaders;
 import com.sap.core.odata.api.commons.ODataHttpMethod;
@@ -39,16 +47,19 @@ import com.sap.core.odata.core.ODataContextImpl;
 import com.sap.core.odata.core.ODataPathSegmentImpl;
 import com.sap.core.odata.core.ODataRequestHandler;
 import com.sap.core.odata.core.PathInfoImpl;
+import com.sap.core.odata.core.metrics.RequestMetrics;
 
-public class BatchHandlerImpl implements BatchHandler {
+public class BatchHandlerImpl implements BatchPartsHandler {
   private static final int BAD_REQUEST = 400;
   private ODataServiceFactory factory;
   private ODataService service;
   private Map<String, String> contentIdMap;
+  private final RequestMetrics metrics;
 
   public BatchHandlerImpl(final ODataServiceFactory factory, final ODataService service) {
     this.factory = factory;
     this.service = service;
+    metrics = new RequestMetrics(factory);
   }
 
   @Override
@@ -56,22 +67,105 @@ public class BatchHandlerImpl implements BatchHandler {
     if (batchPart.isChangeSet()) {
       List<ODataRequest> changeSetRequests = batchPart.getRequests();
       contentIdMap = new HashMap<String, String>();
-      return service.getBatchProcessor().executeChangeSet(this, changeSetRequests);
+      final long startTime = System.nanoTime();
+      final BatchResponsePart responsePart = service.getBatchProcessor().executeChangeSet(this, changeSetRequests);
+      metrics.recordPhase(Phase.BATCH_PART, System.nanoTime() - startTime);
+      return responsePart;
     } else {
       if (batchPart.getRequests().size() != 1) {
         throw new ODataException("Query Operation should contain one request");
       }
       ODataRequest request = batchPart.getRequests().get(0);
-      ODataRequestHandler handler = createHandler(request);
-      String mimeHeaderContentId = request.getRequestHeaderValue(BatchConstants.MIME_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH));
-      String requestHeaderContentId = request.getRequestHeaderValue(BatchConstants.REQUEST_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH));
-      ODataResponse response = setContentIdHeader(handler.handle(request), mimeHeaderContentId, requestHeaderContentId);
-      List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
-      responses.add(response);
-      return BatchResponsePart.responses(responses).changeSet(false).build();
+      return handleQueryRequest(request, createHandler(request));
     }
   }
 
+  @Override
+  public List<BatchResponsePart> handleBatchParts(final List<BatchPart> batchParts) throws ODataException {
+    List<BatchResponsePart> responseParts = new ArrayList<BatchResponsePart>(batchParts.size());
+    final BatchParallelCallback callback = factory.getCallback(BatchParallelCallback.class);
+    final Executor executor = callback == null ? null : callback.getExecutor();
+    if (executor == null || callback.getMaxParallelParts() < 2) {
+      for (BatchPart batchPart : batchParts) {
+        responseParts.add(handleBatchPart(batchPart));
+      }
+      return responseParts;
+    }
+
+    final ODataContext parentContext = service.getProcessor().getContext();
+    final Semaphore permits = new Semaphore(callback.getMaxParallelParts());
+    List<FutureTask<BatchResponsePart>> runningParts = new ArrayList<FutureTask<BatchResponsePart>>();
+    for (final BatchPart batchPart : batchParts) {
+      if (batchPart.isChangeSet()) {
+        collectResponseParts(runningParts, responseParts);
+        responseParts.add(handleBatchPart(batchPart));
+      } else {
+        if (batchPart.getRequests().size() != 1) {
+          throw new ODataException("Query Operation should contain one request");
+        }
+        try {
+          permits.acquire();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new ODataException(e);
+        }
+        FutureTask<BatchResponsePart> task = new FutureTask<BatchResponsePart>(new Callable<BatchResponsePart>() {
+          @Override
+          public BatchResponsePart call() throws ODataException {
+            try {
+              ODataRequest request = batchPart.getRequests().get(0);
+              return handleQueryRequest(request, createParallelHandler(request, parentContext));
+            } finally {
+              permits.release();
+            }
+          }
+        });
+        runningParts.add(task);
+        try {
+          executor.execute(task);
+        } catch (RejectedExecutionException e) {
+          task.run();
+        }
+      }
+    }
+    collectResponseParts(runningParts, responseParts);
+    return responseParts;
+  }
+
+  private static void collectResponseParts(final List<FutureTask<BatchResponsePart>> runningParts, final List<BatchResponsePart> responseParts) throws ODataException {
+    try {
+      for (FutureTask<BatchResponsePart> runningPart : runningParts) {
+        responseParts.add(runningPart.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ODataException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ODataException) {
+        throw (ODataException) e.getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new ODataException(e.getCause());
+    } finally {
+      for (FutureTask<BatchResponsePart> runningPart : runningParts) {
+        runningPart.cancel(true);
+      }
+      runningParts.clear();
+    }
+  }
+
+  private BatchResponsePart handleQueryRequest(final ODataRequest request, final ODataRequestHandler handler) {
+    final long startTime = System.nanoTime();
+    String mimeHeaderContentId = request.getRequestHeaderValue(BatchConstants.MIME_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH));
+    String requestHeaderContentId = request.getRequestHeaderValue(BatchConstants.REQUEST_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH));
+    ODataResponse response = setContentIdHeader(handler.handle(request), mimeHeaderContentId, requestHeaderContentId);
+    List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
+    responses.add(response);
+    metrics.recordPhase(Phase.BATCH_PART, System.nanoTime() - startTime);
+    return BatchResponsePart.responses(responses).changeSet(false).build();
+  }
+
   @Override
   public ODataResponse handleRequest(final ODataRequest suppliedRequest) throws ODataException {
     ODataRequest request;
@@ -171,4 +265,17 @@ public class BatchHandlerImpl implements BatchHandler {
     return new ODataRequestHandler(factory, service, context);
   }
 
+  /**
+   * Creates a request handler with an own service instance, so that
+   * concurrently handled requests do not share the processor and its context.
+   */
+  private ODataRequestHandler createParallelHandler(final ODataRequest request, final ODataContext parentContext) throws ODataException {
+    ODataContextImpl context = new ODataContextImpl(request, factory);
+    context.setBatchParentContext(parentContext);
+    ODataService partService = factory.createService(context);
+    context.setService(partService);
+    partService.getProcessor().setContext(context);
+    return new ODataRequestHandler(factory, partService, context);
+  }
+
 }
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+
+import com.sap.core.odata.core.exception.ODataRuntimeException;
+
+/**
+ * Reads a multipart body line by line directly from the raw input stream.
+ * <p>Lines are kept as bytes; they are decoded only when the parser needs
+ * them as text. Part bodies are copied byte by byte without any decoding,
+ * so binary content is preserved and the whole input is read exactly once.</p>
+ * @author SAP AG
+ */
+class BatchLineReader {
+
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+  private static final int BUFFER_SIZE = 8192;
+
+  private final InputStream in;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position = 0;
+  private int limit = 0;
+
+  private byte[] line = new byte[256];
+  private int lineLength = -1;
+  private String decodedLine;
+  private int lineNumber = 0;
+
+  public BatchLineReader(final InputStream in) {
+    this.in = in;
+  }
+
+  /**
+   * @return whether there is a further line
+   */
+  public boolean hasNext() throws IOException {
+    fillLine();
+    return lineLength >= 0;
+  }
+
+  /**
+   * Returns the current line without consuming it.
+   * @return the line without line break, or <code>null</code> at the end of the input
+   */
+  public String peek() throws IOException {
+    fillLine();
+    if (lineLength < 0) {
+      return null;
+    }
+    if (decodedLine == null) {
+      decodedLine = new String(line, 0, contentLength(), "UTF-8");
+    }
+    return decodedLine;
+  }
+
+  /**
+   * Returns and consumes the current line.
+   * @return the line without line break, or <code>null</code> at the end of the input
+   */
+  public String next() throws IOException {
+    final String result = peek();
+    consume();
+    return result;
+  }
+
+  /**
+   * Checks whether the current line is a delimiter line for the given boundary,
+   * optionally followed by <code>--</code> and trailing whitespace.
+   * @param delimiter the delimiter as bytes, i.e., <code>--</code> followed by the boundary
+   * @param close whether the close delimiter (with trailing <code>--</code>) is expected
+   */
+  public boolean isDelimiter(final byte[] delimiter, final boolean close) throws IOException {
+    fillLine();
+    final int length = contentLength();
+    if (length < delimiter.length) {
+      return false;
+    }
+    for (int i = 0; i < delimiter.length; i++) {
+      if (line[i] != delimiter[i]) {
+        return false;
+      }
+    }
+    int index = delimiter.length;
+    if (close) {
+      if (length < index + 2 || line[index] != '-' || line[index + 1] != '-') {
+        return false;
+      }
+      index += 2;
+    }
+    for (; index < length; index++) {
+      if (!Character.isWhitespace(line[index])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads all lines up to (but excluding) the next line that is a delimiter
+   * for one of the given boundaries or the end of the input.
+   * The line break directly preceding the delimiter line belongs to the delimiter.
+   * @param delimiters the delimiters as bytes
+   * @return the content as stream
+   */
+  public InputStream readBody(final byte[]... delimiters) throws IOException {
+    byte[] content = new byte[0];
+    int length = 0;
+    int lineBreak = 0;
+    while (hasNext() && !isAnyDelimiter(delimiters)) {
+      final int required = length + lineLength;
+      if (required > content.length) {
+        final byte[] newContent = new byte[Math.max(required, content.length * 2)];
+        System.arraycopy(content, 0, newContent, 0, length);
+        content = newContent;
+      }
+      System.arraycopy(line, 0, content, length, lineLength);
+      length = required;
+      lineBreak = lineLength - contentLength();
+      consume();
+    }
+    return new ByteArrayInputStream(content, 0, length - lineBreak);
+  }
+
+  /**
+   * @return the number of consumed lines
+   */
+  public int getLineNumber() {
+    return lineNumber;
+  }
+
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private boolean isAnyDelimiter(final byte[]... delimiters) throws IOException {
+    for (final byte[] delimiter : delimiters) {
+      if (isDelimiter(delimiter, false) || isDelimiter(delimiter, true)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void consume() {
+    if (lineLength >= 0) {
+      lineLength = -1;
+      decodedLine = null;
+      lineNumber++;
+    }
+  }
+
+  private int contentLength() {
+    int length = lineLength;
+    if (length > 0 && line[length - 1] == LF) {
+      length--;
+      if (length > 0 && line[length - 1] == CR) {
+        length--;
+      }
+    }
+    return length;
+  }
+
+  private void fillLine() throws IOException {
+    if (lineLength >= 0) {
+      return;
+    }
+    int length = 0;
+    while (true) {
+      if (position == limit) {
+        limit = in.read(buffer);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          lineLength = length > 0 ? length : -1;
+          return;
+        }
+      }
+      int end = position;
+      while (end < limit && buffer[end] != LF) {
+        end++;
+      }
+      final boolean found = end < limit;
+      if (found) {
+        end++;
+      }
+      final int count = end - position;
+      if (length + count > line.length) {
+        final byte[] newLine = new byte[Math.max(length + count, line.length * 2)];
+        System.arraycopy(line, 0, newLine, 0, length);
+        line = newLine;
+      }
+      System.arraycopy(buffer, position, line, length, count);
+      length += count;
+      position = end;
+      if (found) {
+        lineLength = length;
+        return;
+      }
+    }
+  }
+
+  static byte[] getDelimiter(final String boundary) {
+    try {
+      return ("--" + boundary).getBytes("UTF-8");
+    } catch (final UnsupportedEncodingException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+}
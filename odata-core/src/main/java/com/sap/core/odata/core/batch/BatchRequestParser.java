@@ -18,7 +18,6 @@ package com.sap.core.odata.core.batch;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -28,9 +27,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
-import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 import com.sap.core.odata.api.batch.BatchException;
@@ -47,30 +44,23 @@ import com.sap.core.odata.core.commons.Decoder;
 import com.sap.core.odata.core.exception.ODataRuntimeException;
 
 /**
+ * Parses a batch request body.
+ * <p>The input stream is read line by line with a {@link BatchLineReader};
+ * boundaries, headers, and request lines are recognized without regular
+ * expressions, and request bodies are copied as raw bytes.</p>
  * @author SAP AG
  */
 public class BatchRequestParser {
-  private static final String LF = "\n";
-  private static final String REG_EX_OPTIONAL_WHITESPACE = "\\s?";
-  private static final String REG_EX_ZERO_OR_MORE_WHITESPACES = "\\s*";
-  private static final String ANY_CHARACTERS = ".*";
-
-  private static final Pattern REG_EX_BLANK_LINE = Pattern.compile("(|" + REG_EX_ZERO_OR_MORE_WHITESPACES + ")");
-  private static final Pattern REG_EX_HEADER = Pattern.compile("([a-zA-Z\\-]+):" + REG_EX_OPTIONAL_WHITESPACE + "(.*)" + REG_EX_ZERO_OR_MORE_WHITESPACES);
-  private static final Pattern REG_EX_VERSION = Pattern.compile("(?:HTTP/[0-9]\\.[0-9])");
-  private static final Pattern REG_EX_ANY_BOUNDARY_STRING = Pattern.compile("--" + ANY_CHARACTERS + REG_EX_ZERO_OR_MORE_WHITESPACES);
-  private static final Pattern REG_EX_REQUEST_LINE = Pattern.compile("(GET|POST|PUT|DELETE|MERGE|PATCH)\\s(.*)\\s?" + REG_EX_VERSION + REG_EX_ZERO_OR_MORE_WHITESPACES);
-  private static final Pattern REG_EX_BOUNDARY_PARAMETER = Pattern.compile(REG_EX_OPTIONAL_WHITESPACE + "boundary=(\".*\"|.*)" + REG_EX_ZERO_OR_MORE_WHITESPACES);
-  private static final Pattern REG_EX_CONTENT_TYPE = Pattern.compile(REG_EX_OPTIONAL_WHITESPACE + BatchConstants.MULTIPART_MIXED);
-  private static final Pattern REG_EX_QUERY_PARAMETER = Pattern.compile("((?:\\$|)[^=]+)=([^=]+)");
-
-  private static final String REG_EX_BOUNDARY = "([a-zA-Z0-9_\\-\\.'\\+]{1,70})|\"([a-zA-Z0-9_\\-\\.'\\+\\s\\(\\),/:=\\?]{1,69}[a-zA-Z0-9_\\-\\.'\\+\\(\\),/:=\\?])\""; // See RFC 2046
+  private static final String HTTP_VERSION_PREFIX = "HTTP/";
+  private static final String BOUNDARY_PARAMETER = "boundary=";
+
+  private static final Pattern REG_EX_BOUNDARY = Pattern.compile("([a-zA-Z0-9_\\-\\.'\\+]{1,70})|\"([a-zA-Z0-9_\\-\\.'\\+\\s\\(\\),/:=\\?]{1,69}[a-zA-Z0-9_\\-\\.'\\+\\(\\),/:=\\?])\""); // See RFC 2046
   private String baseUri;
   private PathInfo batchRequestPathInfo;
   private String contentTypeMime;
   private String boundary;
   private String currentMimeHeaderContentId;
-  private int currentLineNumber = 0;
+  private BatchLineReader reader;
   private static Set<String> HTTP_CHANGESET_METHODS;
   private static Set<String> HTTP_BATCH_METHODS;
 
@@ -92,15 +82,16 @@ public class BatchRequestParser {
   }
 
   public List<BatchPart> parse(final InputStream in) throws BatchException {
-    Scanner scanner = new Scanner(in, "UTF-8").useDelimiter(LF);
+    reader = new BatchLineReader(in);
     baseUri = getBaseUri();
     List<BatchPart> requestList;
     try {
-      requestList = parseBatchRequest(scanner);
+      requestList = parseBatchRequest();
+    } catch (IOException e) {
+      throw new ODataRuntimeException(e);
     } finally {// NOPMD (suppress DoNotThrowExceptionInFinally)
-      scanner.close();
       try {
-        in.close();
+        reader.close();
       } catch (IOException e) {
         throw new ODataRuntimeException(e);
       }
@@ -108,45 +99,42 @@ public class BatchRequestParser {
     return requestList;
   }
 
-  private List<BatchPart> parseBatchRequest(final Scanner scanner) throws BatchException {
+  private List<BatchPart> parseBatchRequest() throws BatchException, IOException {
     List<BatchPart> requests = new LinkedList<BatchPart>();
     if (contentTypeMime != null) {
       boundary = getBoundary(contentTypeMime);
-      parsePreamble(scanner);
-      String closeDelimiter = "--" + boundary + "--" + REG_EX_ZERO_OR_MORE_WHITESPACES;
-      while (scanner.hasNext() && !scanner.hasNext(closeDelimiter)) {
-        requests.add(parseMultipart(scanner, boundary, false));
-        parseNewLine(scanner);
+      final byte[] delimiter = BatchLineReader.getDelimiter(boundary);
+      parsePreamble();
+      while (reader.hasNext() && !reader.isDelimiter(delimiter, true)) {
+        requests.add(parseMultipart(boundary, false));
+        parseNewLine();
       }
-      if (scanner.hasNext(closeDelimiter)) {
-        scanner.next(closeDelimiter);
-        currentLineNumber++;
+      if (reader.hasNext()) {
+        reader.next();
       } else {
-        throw new BatchException(BatchException.MISSING_CLOSE_DELIMITER.addContent(currentLineNumber));
+        throw new BatchException(BatchException.MISSING_CLOSE_DELIMITER.addContent(reader.getLineNumber()));
       }
     } else {
       throw new BatchException(BatchException.MISSING_CONTENT_TYPE);
     }
     return requests;
-
   }
 
   //The method parses additional information prior to the first boundary delimiter line
-  private void parsePreamble(final Scanner scanner) {
-    while (scanner.hasNext() && !scanner.hasNext(REG_EX_ANY_BOUNDARY_STRING)) {
-      scanner.next();
-      currentLineNumber++;
+  private void parsePreamble() throws IOException {
+    while (reader.hasNext() && !reader.peek().startsWith("--")) {
+      reader.next();
     }
   }
 
-  private BatchPart parseMultipart(final Scanner scanner, final String boundary, final boolean isChangeSet) throws BatchException {
+  private BatchPart parseMultipart(final String boundary, final boolean isChangeSet) throws BatchException, IOException {
     Map<String, String> mimeHeaders = new HashMap<String, String>();
     BatchPart multipart = null;
     List<ODataRequest> requests = new ArrayList<ODataRequest>();
-    if (scanner.hasNext("--" + boundary + REG_EX_ZERO_OR_MORE_WHITESPACES)) {
-      scanner.next();
-      currentLineNumber++;
-      mimeHeaders = parseHeaders(scanner);
+    final byte[] delimiter = BatchLineReader.getDelimiter(boundary);
+    if (reader.hasNext() && reader.isDelimiter(delimiter, false)) {
+      reader.next();
+      mimeHeaders = parseHeaders();
       currentMimeHeaderContentId = mimeHeaders.get(BatchConstants.HTTP_CONTENT_ID.toLowerCase(Locale.ENGLISH));
 
       String contentType = mimeHeaders.get(HttpHeaders.CONTENT_TYPE.toLowerCase(Locale.ENGLISH));
@@ -156,9 +144,9 @@ public class BatchRequestParser {
       if (isChangeSet) {
         if (BatchConstants.HTTP_APPLICATION_HTTP.equalsIgnoreCase(contentType)) {
           validateEncoding(mimeHeaders.get(BatchConstants.HTTP_CONTENT_TRANSFER_ENCODING.toLowerCase(Locale.ENGLISH)));
-          parseNewLine(scanner);// mandatory
+          parseNewLine();// mandatory
 
-          requests.add(parseRequest(scanner, isChangeSet));
+          requests.add(parseRequest(boundary, isChangeSet));
           multipart = new BatchPartImpl(false, requests);
         } else {
           throw new BatchException(BatchException.INVALID_CONTENT_TYPE.addContent(BatchConstants.HTTP_APPLICATION_HTTP));
@@ -166,150 +154,131 @@ public class BatchRequestParser {
       } else {
         if (BatchConstants.HTTP_APPLICATION_HTTP.equalsIgnoreCase(contentType)) {
           validateEncoding(mimeHeaders.get(BatchConstants.HTTP_CONTENT_TRANSFER_ENCODING.toLowerCase(Locale.ENGLISH)));
-          parseNewLine(scanner);// mandatory
-          requests.add(parseRequest(scanner, isChangeSet));
+          parseNewLine();// mandatory
+          requests.add(parseRequest(boundary, isChangeSet));
           multipart = new BatchPartImpl(false, requests);
-        } else if (contentType.matches(REG_EX_OPTIONAL_WHITESPACE + BatchConstants.MULTIPART_MIXED + ANY_CHARACTERS)) {
+        } else if (isMultipartMixed(contentType)) {
           String changeSetBoundary = getBoundary(contentType);
           if (boundary.equals(changeSetBoundary)) {
-            throw new BatchException(BatchException.INVALID_CHANGESET_BOUNDARY.addContent(currentLineNumber));
+            throw new BatchException(BatchException.INVALID_CHANGESET_BOUNDARY.addContent(reader.getLineNumber()));
           }
           List<ODataRequest> changeSetRequests = new LinkedList<ODataRequest>();
-          parseNewLine(scanner);// mandatory
-          Pattern changeSetCloseDelimiter = Pattern.compile("--" + changeSetBoundary + "--" + REG_EX_ZERO_OR_MORE_WHITESPACES);
-          while (!scanner.hasNext(changeSetCloseDelimiter)) {
-            BatchPart part = parseMultipart(scanner, changeSetBoundary, true);
+          parseNewLine();// mandatory
+          final byte[] changeSetDelimiter = BatchLineReader.getDelimiter(changeSetBoundary);
+          while (!reader.isDelimiter(changeSetDelimiter, true)) {
+            BatchPart part = parseMultipart(changeSetBoundary, true);
             if (part.getRequests().size() == 1) {
               changeSetRequests.add(part.getRequests().get(0));
             }
           }
-          scanner.next(changeSetCloseDelimiter);
-          currentLineNumber++;
+          reader.next();
           multipart = new BatchPartImpl(true, changeSetRequests);
         } else {
           throw new BatchException(BatchException.INVALID_CONTENT_TYPE.addContent(BatchConstants.MULTIPART_MIXED + " or " + BatchConstants.HTTP_APPLICATION_HTTP));
         }
       }
-    } else if (scanner.hasNext(boundary + REG_EX_ZERO_OR_MORE_WHITESPACES)) {
-      currentLineNumber++;
-      throw new BatchException(BatchException.INVALID_BOUNDARY_DELIMITER.addContent(currentLineNumber));
-    } else if (scanner.hasNext(REG_EX_ANY_BOUNDARY_STRING)) {
-      currentLineNumber++;
-      throw new BatchException(BatchException.NO_MATCH_WITH_BOUNDARY_STRING.addContent(boundary).addContent(currentLineNumber));
+    } else if (reader.hasNext() && reader.peek().trim().equals(boundary)) {
+      throw new BatchException(BatchException.INVALID_BOUNDARY_DELIMITER.addContent(reader.getLineNumber() + 1));
+    } else if (reader.hasNext() && reader.peek().startsWith("--")) {
+      throw new BatchException(BatchException.NO_MATCH_WITH_BOUNDARY_STRING.addContent(boundary).addContent(reader.getLineNumber() + 1));
     } else {
-      currentLineNumber++;
-      throw new BatchException(BatchException.MISSING_BOUNDARY_DELIMITER.addContent(currentLineNumber));
+      throw new BatchException(BatchException.MISSING_BOUNDARY_DELIMITER.addContent(reader.getLineNumber() + 1));
     }
     return multipart;
-
   }
 
-  private ODataRequest parseRequest(final Scanner scanner, final boolean isChangeSet) throws BatchException {
-    try {
+  private ODataRequest parseRequest(final String changeSetBoundary, final boolean isChangeSet) throws BatchException, IOException {
     ODataRequest request;
-    if (scanner.hasNext(REG_EX_REQUEST_LINE)) {
-      scanner.next(REG_EX_REQUEST_LINE);
-      currentLineNumber++;
-      String method = null;
-      String uri = null;
-      MatchResult result = scanner.match();
-      if (result.groupCount() == 2) {
-        method = result.group(1);
-        uri = result.group(2).trim();
-      } else {
-        currentLineNumber++;
-        throw new BatchException(BatchException.INVALID_REQUEST_LINE.addContent(scanner.next()).addContent(currentLineNumber));
-      }
-      PathInfo pathInfo = parseRequestUri(uri);
-      Map<String, String> queryParameters = parseQueryParameters(uri);
-      if (isChangeSet) {
-        if (!HTTP_CHANGESET_METHODS.contains(method)) {
-          throw new BatchException(BatchException.INVALID_CHANGESET_METHOD.addContent(currentLineNumber));
-        }
-      } else if (!HTTP_BATCH_METHODS.contains(method)) {
-        throw new BatchException(BatchException.INVALID_QUERY_OPERATION_METHOD.addContent(currentLineNumber));
-      }
-      ODataHttpMethod httpMethod = ODataHttpMethod.valueOf(method);
-      Map<String, List<String>> headers = parseRequestHeaders(scanner);
-      if (currentMimeHeaderContentId != null) {
-        List<String> headerList = new ArrayList<String>();
-        headerList.add(currentMimeHeaderContentId);
-        headers.put(BatchConstants.MIME_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH), headerList);
+    final String requestLine = reader.hasNext() ? reader.next().trim() : "";
+    final int methodEnd = requestLine.indexOf(' ');
+    final int versionStart = requestLine.lastIndexOf(HTTP_VERSION_PREFIX);
+    if (methodEnd <= 0 || versionStart <= methodEnd || !isHttpVersion(requestLine.substring(versionStart))) {
+      throw new BatchException(BatchException.INVALID_REQUEST_LINE.addContent(requestLine).addContent(reader.getLineNumber()));
+    }
+    final String method = requestLine.substring(0, methodEnd);
+    final String uri = requestLine.substring(methodEnd + 1, versionStart).trim();
+    if (!HTTP_CHANGESET_METHODS.contains(method) && !HTTP_BATCH_METHODS.contains(method)) {
+      throw new BatchException(BatchException.INVALID_REQUEST_LINE.addContent(requestLine).addContent(reader.getLineNumber()));
+    }
+    PathInfo pathInfo = parseRequestUri(uri);
+    Map<String, String> queryParameters = parseQueryParameters(uri);
+    if (isChangeSet) {
+      if (!HTTP_CHANGESET_METHODS.contains(method)) {
+        throw new BatchException(BatchException.INVALID_CHANGESET_METHOD.addContent(reader.getLineNumber()));
       }
+    } else if (!HTTP_BATCH_METHODS.contains(method)) {
+      throw new BatchException(BatchException.INVALID_QUERY_OPERATION_METHOD.addContent(reader.getLineNumber()));
+    }
+    ODataHttpMethod httpMethod = ODataHttpMethod.valueOf(method);
+    Map<String, List<String>> headers = parseRequestHeaders();
+    if (currentMimeHeaderContentId != null) {
+      List<String> headerList = new ArrayList<String>();
+      headerList.add(currentMimeHeaderContentId);
+      headers.put(BatchConstants.MIME_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH), headerList);
+    }
 
-      String contentType = getContentTypeHeader(headers);
-      List<String> acceptHeaders = getAcceptHeader(headers);
-      List<Locale> acceptLanguages = getAcceptLanguageHeader(headers);
-      parseNewLine(scanner);
-      InputStream body;
-        body = new ByteArrayInputStream("".getBytes("UTF-8"));
-      if (isChangeSet) {
-        body = parseBody(scanner);
-      }
-      if (contentType != null) {
-        request = ODataRequest.method(httpMethod)
-            .queryParameters(queryParameters)
-            .requestHeaders(headers)
-            .pathInfo(pathInfo)
-            .acceptableLanguages(acceptLanguages)
-            .contentType(contentType)
-            .body(body)
-            .acceptHeaders(acceptHeaders)
-            .build();
-      } else {
-        request = ODataRequest.method(httpMethod)
-            .queryParameters(queryParameters)
-            .requestHeaders(headers)
-            .pathInfo(pathInfo)
-            .acceptableLanguages(acceptLanguages)
-            .body(body)
-            .acceptHeaders(acceptHeaders)
-            .build();
-      }
+    String contentType = getContentTypeHeader(headers);
+    List<String> acceptHeaders = getAcceptHeader(headers);
+    List<Locale> acceptLanguages = getAcceptLanguageHeader(headers);
+    parseNewLine();
+    InputStream body;
+    if (isChangeSet) {
+      body = reader.readBody(BatchLineReader.getDelimiter(changeSetBoundary), BatchLineReader.getDelimiter(boundary));
     } else {
-      currentLineNumber++;
-      throw new BatchException(BatchException.INVALID_REQUEST_LINE.addContent(scanner.next()).addContent(currentLineNumber));
+      body = new ByteArrayInputStream(new byte[0]);
     }
-    return request;
-    } catch (UnsupportedEncodingException e) {
-      throw new ODataRuntimeException(e);
+    if (contentType != null) {
+      request = ODataRequest.method(httpMethod)
+          .queryParameters(queryParameters)
+          .requestHeaders(headers)
+          .pathInfo(pathInfo)
+          .acceptableLanguages(acceptLanguages)
+          .contentType(contentType)
+          .body(body)
+          .acceptHeaders(acceptHeaders)
+          .build();
+    } else {
+      request = ODataRequest.method(httpMethod)
+          .queryParameters(queryParameters)
+          .requestHeaders(headers)
+          .pathInfo(pathInfo)
+          .acceptableLanguages(acceptLanguages)
+          .body(body)
+          .acceptHeaders(acceptHeaders)
+          .build();
     }
+    return request;
   }
 
-  private Map<String, List<String>> parseRequestHeaders(final Scanner scanner) throws BatchException {
+  private Map<String, List<String>> parseRequestHeaders() throws BatchException, IOException {
     Map<String, List<String>> headers = new HashMap<String, List<String>>();
-    while (scanner.hasNext() && !scanner.hasNext(REG_EX_BLANK_LINE)) {
-      if (scanner.hasNext(REG_EX_HEADER)) {
-        scanner.next(REG_EX_HEADER);
-        currentLineNumber++;
-        MatchResult result = scanner.match();
-        if (result.groupCount() == 2) {
-          String headerName = result.group(1).trim().toLowerCase(Locale.ENGLISH);
-          String headerValue = result.group(2).trim();
-          if (HttpHeaders.ACCEPT.equalsIgnoreCase(headerName)) {
-            List<String> acceptHeaders = parseAcceptHeaders(headerValue);
-            headers.put(headerName, acceptHeaders);
-          } else if (HttpHeaders.ACCEPT_LANGUAGE.equalsIgnoreCase(headerName)) {
-            List<String> acceptLanguageHeaders = parseAcceptableLanguages(headerValue);
-            headers.put(headerName, acceptLanguageHeaders);
-          }
-          else if (!BatchConstants.HTTP_CONTENT_ID.equalsIgnoreCase(headerName)) {
-            if (headers.containsKey(headerName)) {
-              headers.get(headerName).add(headerValue);
-            } else {
-              List<String> headerList = new ArrayList<String>();
-              headerList.add(headerValue);
-              headers.put(headerName, headerList);
-            }
-          } else {
-            List<String> headerList = new ArrayList<String>();
-            headerList.add(headerValue);
-            headers.put(BatchConstants.REQUEST_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH), headerList);
-          }
+    while (reader.hasNext() && !isBlank(reader.peek())) {
+      final String line = reader.next();
+      final int colon = getHeaderNameEnd(line);
+      if (colon < 0) {
+        throw new BatchException(BatchException.INVALID_HEADER.addContent(line).addContent(reader.getLineNumber()));
+      }
+      String headerName = line.substring(0, colon).toLowerCase(Locale.ENGLISH);
+      String headerValue = line.substring(colon + 1).trim();
+      if (HttpHeaders.ACCEPT.equalsIgnoreCase(headerName)) {
+        List<String> acceptHeaders = parseAcceptHeaders(headerValue);
+        headers.put(headerName, acceptHeaders);
+      } else if (HttpHeaders.ACCEPT_LANGUAGE.equalsIgnoreCase(headerName)) {
+        List<String> acceptLanguageHeaders = parseAcceptableLanguages(headerValue);
+        headers.put(headerName, acceptLanguageHeaders);
+      }
+      else if (!BatchConstants.HTTP_CONTENT_ID.equalsIgnoreCase(headerName)) {
+        if (headers.containsKey(headerName)) {
+          headers.get(headerName).add(headerValue);
+        } else {
+          List<String> headerList = new ArrayList<String>();
+          headerList.add(headerValue);
+          headers.put(headerName, headerList);
         }
       } else {
-        currentLineNumber++;
-        throw new BatchException(BatchException.INVALID_HEADER.addContent(scanner.next()).addContent(currentLineNumber));
+        List<String> headerList = new ArrayList<String>();
+        headerList.add(headerValue);
+        headers.put(BatchConstants.REQUEST_HEADER_CONTENT_ID.toLowerCase(Locale.ENGLISH), headerList);
       }
     }
     return headers;
@@ -319,76 +288,72 @@ public class BatchRequestParser {
     PathInfoImpl pathInfo = new PathInfoImpl();
     pathInfo.setServiceRoot(batchRequestPathInfo.getServiceRoot());
     pathInfo.setPrecedingPathSegment(batchRequestPathInfo.getPrecedingSegments());
-    Scanner uriScanner = new Scanner(uri);
-    Pattern regexRequestUri = Pattern.compile("(?:" + baseUri + ")?/?([^?]+)(\\?.*)?");
-    if (uriScanner.hasNext(regexRequestUri)) {
-      uriScanner.next(regexRequestUri);
-      MatchResult result = uriScanner.match();
-      if (result.groupCount() == 2) {
-        String odataPathSegmentsAsString = result.group(1);
-        String queryParametersAsString = result.group(2) != null ? result.group(2) : "";
-        pathInfo.setODataPathSegment(parseODataPathSegments(odataPathSegmentsAsString));
-        try {
-          if (!odataPathSegmentsAsString.startsWith("$")) {
-            String requestUri = baseUri + "/" + odataPathSegmentsAsString + queryParametersAsString;
-            pathInfo.setRequestUri(new URI(requestUri));
-          }
-        } catch (URISyntaxException e) {
-          uriScanner.close();
-          throw new BatchException(BatchException.INVALID_URI, e);
-        }
-      } else {
-        uriScanner.close();
-        throw new BatchException(BatchException.INVALID_URI);
-      }
-    } else {
-      uriScanner.close();
+    final String relativeUri = getRelativeUri(uri);
+    final int queryStart = relativeUri.indexOf('?');
+    String odataPathSegmentsAsString = queryStart < 0 ? relativeUri : relativeUri.substring(0, queryStart);
+    String queryParametersAsString = queryStart < 0 ? "" : relativeUri.substring(queryStart);
+    if (odataPathSegmentsAsString.length() == 0) {
       throw new BatchException(BatchException.INVALID_URI);
     }
-    uriScanner.close();
+    pathInfo.setODataPathSegment(parseODataPathSegments(odataPathSegmentsAsString));
+    try {
+      if (!odataPathSegmentsAsString.startsWith("$")) {
+        String requestUri = baseUri + "/" + odataPathSegmentsAsString + queryParametersAsString;
+        pathInfo.setRequestUri(new URI(requestUri));
+      }
+    } catch (URISyntaxException e) {
+      throw new BatchException(BatchException.INVALID_URI, e);
+    }
     return pathInfo;
   }
 
   private Map<String, String> parseQueryParameters(final String uri) throws BatchException {
-    Scanner uriScanner = new Scanner(uri);
     Map<String, String> queryParametersMap = new HashMap<String, String>();
-    Pattern regex = Pattern.compile("(?:" + baseUri + ")?/?" + "[^?]+" + "\\?(.*)");
-    if (uriScanner.hasNext(regex)) {
-      uriScanner.next(regex);
-      MatchResult uriResult = uriScanner.match();
-      if (uriResult.groupCount() == 1) {
-        String queryParams = uriResult.group(1);
-        Scanner queryParamsScanner = new Scanner(queryParams).useDelimiter("&");
-        while (queryParamsScanner.hasNext(REG_EX_QUERY_PARAMETER)) {
-          queryParamsScanner.next(REG_EX_QUERY_PARAMETER);
-          MatchResult result = queryParamsScanner.match();
-          if (result.groupCount() == 2) {
-            String systemQueryOption = result.group(1);
-            String value = result.group(2);
-            queryParametersMap.put(systemQueryOption, Decoder.decode(value));
-          } else {
-            queryParamsScanner.close();
-            throw new BatchException(BatchException.INVALID_QUERY_PARAMETER);
-          }
+    final String relativeUri = getRelativeUri(uri);
+    final int queryStart = relativeUri.indexOf('?');
+    if (queryStart > 0) {
+      int start = queryStart + 1;
+      while (start < relativeUri.length()) {
+        int end = relativeUri.indexOf('&', start);
+        if (end < 0) {
+          end = relativeUri.length();
         }
-        queryParamsScanner.close();
-
-      } else {
-        uriScanner.close();
-        throw new BatchException(BatchException.INVALID_URI);
+        final String queryParameter = relativeUri.substring(start, end);
+        final int equals = queryParameter.indexOf('=');
+        if (equals <= 0 || equals == queryParameter.length() - 1 || queryParameter.indexOf('=', equals + 1) >= 0) {
+          break;
+        }
+        queryParametersMap.put(queryParameter.substring(0, equals), Decoder.decode(queryParameter.substring(equals + 1)));
+        start = end + 1;
       }
     }
-    uriScanner.close();
     return queryParametersMap;
   }
 
+  private String getRelativeUri(final String uri) {
+    String relativeUri = uri;
+    if (baseUri != null && relativeUri.startsWith(baseUri)) {
+      relativeUri = relativeUri.substring(baseUri.length());
+    }
+    if (relativeUri.startsWith("/")) {
+      relativeUri = relativeUri.substring(1);
+    }
+    return relativeUri;
+  }
+
   private List<PathSegment> parseODataPathSegments(final String odataPathSegmentsAsString) {
-    Scanner pathSegmentScanner = new Scanner(odataPathSegmentsAsString).useDelimiter("/");
     List<PathSegment> odataPathSegments = new ArrayList<PathSegment>();
-    while (pathSegmentScanner.hasNext()) {
-      odataPathSegments.add(new ODataPathSegmentImpl(pathSegmentScanner.next(), null));
+    int start = 0;
+    while (start < odataPathSegmentsAsString.length()) {
+      int end = odataPathSegmentsAsString.indexOf('/', start);
+      if (end < 0) {
+        end = odataPathSegmentsAsString.length();
+      }
+      if (end > start) {
+        odataPathSegments.add(new ODataPathSegmentImpl(odataPathSegmentsAsString.substring(start, end), null));
+      }
+      start = end + 1;
     }
-    pathSegmentScanner.close();
     return odataPathSegments;
   }
 
@@ -400,54 +365,27 @@ public class BatchRequestParser {
     return AcceptParser.parseAcceptableLanguages(headerValue);
   }
 
-  private InputStream parseBody(final Scanner scanner) {
-    try {
-    String body = null;
-    InputStream requestBody;
-    while (scanner.hasNext() && !scanner.hasNext(REG_EX_ANY_BOUNDARY_STRING)) {
-      if (!scanner.hasNext(REG_EX_ZERO_OR_MORE_WHITESPACES)) {
-        if (body == null) {
-          body = scanner.next();
+  private String getBoundary(final String contentType) throws BatchException {
+    final String[] parameters = contentType.split(";");
+    if (!parameters[0].trim().equalsIgnoreCase(BatchConstants.MULTIPART_MIXED)) {
+      throw new BatchException(BatchException.INVALID_CONTENT_TYPE.addContent(BatchConstants.MULTIPART_MIXED));
+    }
+    for (int i = 1; i < parameters.length; i++) {
+      final String parameter = parameters[i].trim();
+      if (parameter.regionMatches(true, 0, BOUNDARY_PARAMETER, 0, BOUNDARY_PARAMETER.length())) {
+        final String value = parameter.substring(BOUNDARY_PARAMETER.length()).trim();
+        if (REG_EX_BOUNDARY.matcher(value).matches()) {
+          return value.charAt(0) == '"' ? value.substring(1, value.length() - 1) : value;
         } else {
-          body = body + LF + scanner.next();
+          throw new BatchException(BatchException.INVALID_BOUNDARY);
         }
-      } else {
-        scanner.next();
       }
-      currentLineNumber++;
-    }
-    if (body != null) {
-        requestBody = new ByteArrayInputStream(body.getBytes("UTF-8"));
-    } else {
-      requestBody = new ByteArrayInputStream("".getBytes("UTF-8"));
-    }
-    return requestBody;
-    } catch (UnsupportedEncodingException e) {
-      throw new ODataRuntimeException(e);
     }
+    throw new BatchException(BatchException.MISSING_PARAMETER_IN_CONTENT_TYPE);
   }
 
-  private String getBoundary(final String contentType) throws BatchException {
-    Scanner contentTypeScanner = new Scanner(contentType).useDelimiter(";\\s?");
-    if (contentTypeScanner.hasNext(REG_EX_CONTENT_TYPE)) {
-      contentTypeScanner.next(REG_EX_CONTENT_TYPE);
-    } else {
-      contentTypeScanner.close();
-      throw new BatchException(BatchException.INVALID_CONTENT_TYPE.addContent(BatchConstants.MULTIPART_MIXED));
-    }
-    if (contentTypeScanner.hasNext(REG_EX_BOUNDARY_PARAMETER)) {
-      contentTypeScanner.next(REG_EX_BOUNDARY_PARAMETER);
-      MatchResult result = contentTypeScanner.match();
-      contentTypeScanner.close();
-      if (result.groupCount() == 1 && result.group(1).trim().matches(REG_EX_BOUNDARY)) {
-        return trimQuota(result.group(1).trim());
-      } else {
-        throw new BatchException(BatchException.INVALID_BOUNDARY);
-      }
-    } else {
-      contentTypeScanner.close();
-      throw new BatchException(BatchException.MISSING_PARAMETER_IN_CONTENT_TYPE);
-    }
+  private boolean isMultipartMixed(final String contentType) {
+    return contentType.trim().regionMatches(true, 0, BatchConstants.MULTIPART_MIXED, 0, BatchConstants.MULTIPART_MIXED.length());
   }
 
   private void validateEncoding(final String encoding) throws BatchException {
@@ -456,38 +394,56 @@ public class BatchRequestParser {
     }
   }
 
-  private Map<String, String> parseHeaders(final Scanner scanner) throws BatchException {
+  private Map<String, String> parseHeaders() throws BatchException, IOException {
     Map<String, String> headers = new HashMap<String, String>();
-    while (scanner.hasNext() && !(scanner.hasNext(REG_EX_BLANK_LINE))) {
-      if (scanner.hasNext(REG_EX_HEADER)) {
-        scanner.next(REG_EX_HEADER);
-        currentLineNumber++;
-        MatchResult result = scanner.match();
-        if (result.groupCount() == 2) {
-          String headerName = result.group(1).trim().toLowerCase(Locale.ENGLISH);
-          String headerValue = result.group(2).trim();
-          headers.put(headerName, headerValue);
-        }
-      } else {
-        throw new BatchException(BatchException.INVALID_HEADER.addContent(scanner.next()));
+    while (reader.hasNext() && !isBlank(reader.peek())) {
+      final String line = reader.next();
+      final int colon = getHeaderNameEnd(line);
+      if (colon < 0) {
+        throw new BatchException(BatchException.INVALID_HEADER.addContent(line));
       }
+      headers.put(line.substring(0, colon).toLowerCase(Locale.ENGLISH), line.substring(colon + 1).trim());
     }
     return headers;
   }
 
-  private void parseNewLine(final Scanner scanner) throws BatchException {
-    if (scanner.hasNext() && scanner.hasNext(REG_EX_BLANK_LINE)) {
-      scanner.next();
-      currentLineNumber++;
+  private void parseNewLine() throws BatchException, IOException {
+    if (reader.hasNext() && isBlank(reader.peek())) {
+      reader.next();
     } else {
-      currentLineNumber++;
-      if (scanner.hasNext()) {
-        throw new BatchException(BatchException.MISSING_BLANK_LINE.addContent(scanner.next()).addContent(currentLineNumber));
+      if (reader.hasNext()) {
+        throw new BatchException(BatchException.MISSING_BLANK_LINE.addContent(reader.peek()).addContent(reader.getLineNumber() + 1));
       } else {
-        throw new BatchException(BatchException.TRUNCATED_BODY.addContent(currentLineNumber));
+        throw new BatchException(BatchException.TRUNCATED_BODY.addContent(reader.getLineNumber() + 1));
+      }
+    }
+  }
 
+  /**
+   * Returns the position of the colon terminating the header name,
+   * or <code>-1</code> if the line does not start with a valid header name.
+   */
+  private static int getHeaderNameEnd(final String line) {
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (c == ':') {
+        return i > 0 ? i : -1;
+      } else if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '-')) {
+        return -1;
       }
     }
+    return -1;
+  }
+
+  private static boolean isHttpVersion(final String version) {
+    return version.length() == HTTP_VERSION_PREFIX.length() + 3
+        && Character.isDigit(version.charAt(HTTP_VERSION_PREFIX.length()))
+        && version.charAt(HTTP_VERSION_PREFIX.length() + 1) == '.'
+        && Character.isDigit(version.charAt(HTTP_VERSION_PREFIX.length() + 2));
+  }
+
+  private static boolean isBlank(final String line) {
+    return line.trim().length() == 0;
   }
 
   private String getBaseUri() throws BatchException {
@@ -508,17 +464,6 @@ public class BatchRequestParser {
     return null;
   }
 
-  private String trimQuota(String boundary) {
-    if (boundary.matches("\".*\"")) {
-      boundary = boundary.replace("\"", "");
-    }
-    boundary = boundary.replaceAll("\\)", "\\\\)");
-    boundary = boundary.replaceAll("\\(", "\\\\(");
-    boundary = boundary.replaceAll("\\?", "\\\\?");
-    boundary = boundary.replaceAll("\\+", "\\\\+");
-    return boundary;
-  }
-
   private List<String> getAcceptHeader(final Map<String, List<String>> headers) {
     List<String> acceptHeaders = new ArrayList<String>();
     List<String> requestAcceptHeaderList = headers.get(HttpHeaders.ACCEPT.toLowerCase(Locale.ENGLISH));
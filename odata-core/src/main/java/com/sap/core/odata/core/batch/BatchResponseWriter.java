@@ -15,8 +15,10 @@
  ******************************************************************************/
 package com.sap.core.odata.core.batch;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,50 +26,65 @@ import com.sap.core.odata.api.batch.BatchException;
 import com.sap.core.odata.api.batch.BatchResponsePart;
 import com.sap.core.odata.api.commons.HttpHeaders;
 import com.sap.core.odata.api.commons.HttpStatusCodes;
-import com.sap.core.odata.api.exception.ODataMessageException;
 import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.processor.ODataStreamingEntity;
 
+/**
+ * Writes the multipart response of a batch request.
+ * <p>The response is not built in memory; the returned entity writes the
+ * parts one after the other directly into the output stream of the response.
+ * The body of a single part is buffered as bytes to determine its length,
+ * so at most one part body is held in memory at a time.</p>
+ * @author SAP AG
+ */
 public class BatchResponseWriter {
   private static final String COLON = ":";
   private static final String SP = " ";
   private static final String LF = "\r\n";
-  private StringBuilder writer = new StringBuilder();
+  private static final String DEFAULT_CHARSET = "UTF-8";
+  private static final int BUFFER_SIZE = 8192;
+
+  private final ByteArrayOutputStream bodyBuffer = new ByteArrayOutputStream(BUFFER_SIZE);
+  private final byte[] copyBuffer = new byte[BUFFER_SIZE];
 
   public ODataResponse writeResponse(final List<BatchResponsePart> batchResponseParts) throws BatchException {
-    String boundary = generateBoundary("batch");
-    appendResponseBody(batchResponseParts, boundary);
-    String batchResponseBody = writer.toString();
-    return ODataResponse.entity(batchResponseBody).status(HttpStatusCodes.ACCEPTED).
+    final String boundary = generateBoundary("batch");
+    final ODataStreamingEntity entity = new ODataStreamingEntity() {
+      @Override
+      public void write(final OutputStream out) throws IOException {
+        appendResponseBody(out, batchResponseParts, boundary);
+      }
+    };
+    return ODataResponse.entity(entity).status(HttpStatusCodes.ACCEPTED).
         header(HttpHeaders.CONTENT_TYPE, BatchConstants.MULTIPART_MIXED + "; boundary=" + boundary)
-        .header(HttpHeaders.CONTENT_LENGTH, "" + batchResponseBody.length()).build();
-
+        .build();
   }
 
-  private void appendChangeSet(final BatchResponsePart batchResponsePart) throws BatchException {
+  private void appendChangeSet(final OutputStream out, final BatchResponsePart batchResponsePart) throws IOException {
     String boundary = generateBoundary("changeset");
-    writer.append(HttpHeaders.CONTENT_TYPE).append(COLON).append(SP).append("multipart/mixed; boundary=" + boundary).append(LF).append(LF);
+    write(out, new StringBuilder().append(HttpHeaders.CONTENT_TYPE).append(COLON).append(SP).append("multipart/mixed; boundary=").append(boundary).append(LF).append(LF));
     for (ODataResponse response : batchResponsePart.getResponses()) {
-      writer.append("--").append(boundary).append(LF);
-      appendResponseBodyPart(response);
+      write(out, new StringBuilder().append("--").append(boundary).append(LF));
+      appendResponseBodyPart(out, response);
     }
-    writer.append("--").append(boundary).append("--").append(LF).append(LF);
+    write(out, new StringBuilder().append("--").append(boundary).append("--").append(LF).append(LF));
   }
 
-  private void appendResponseBody(final List<BatchResponsePart> batchResponseParts, final String boundary) throws BatchException {
-
+  private void appendResponseBody(final OutputStream out, final List<BatchResponsePart> batchResponseParts, final String boundary) throws IOException {
     for (BatchResponsePart batchResponsePart : batchResponseParts) {
-      writer.append("--").append(boundary).append(LF);
+      write(out, new StringBuilder().append("--").append(boundary).append(LF));
       if (batchResponsePart.isChangeSet()) {
-        appendChangeSet(batchResponsePart);
+        appendChangeSet(out, batchResponsePart);
       } else {
         ODataResponse response = batchResponsePart.getResponses().get(0);
-        appendResponseBodyPart(response);
+        appendResponseBodyPart(out, response);
       }
     }
-    writer.append("--").append(boundary).append("--");
+    write(out, new StringBuilder().append("--").append(boundary).append("--"));
   }
 
-  private void appendResponseBodyPart(final ODataResponse response) throws BatchException {
+  private void appendResponseBodyPart(final OutputStream out, final ODataResponse response) throws IOException {
+    StringBuilder writer = new StringBuilder();
     writer.append(HttpHeaders.CONTENT_TYPE).append(COLON).append(SP).append(BatchConstants.HTTP_APPLICATION_HTTP).append(LF);
     writer.append(BatchConstants.HTTP_CONTENT_TRANSFER_ENCODING).append(COLON).append(SP).append("binary").append(LF);
     if (response.getHeader(BatchConstants.MIME_HEADER_CONTENT_ID) != null) {
@@ -75,22 +92,24 @@ public class BatchResponseWriter {
     }
     writer.append(LF);
     writer.append("HTTP/1.1").append(SP).append(response.getStatus().getStatusCode()).append(SP).append(response.getStatus().getInfo()).append(LF);
-    appendHeader(response);
-    if (!HttpStatusCodes.NO_CONTENT.equals(response.getStatus())) {
-      String body;
-      if (response.getEntity() instanceof InputStream) {
-        InputStream in = (InputStream) response.getEntity();
-        body = readBody(in);
-      } else {
-        body = response.getEntity().toString();
+    appendHeader(writer, response);
+    try {
+      if (!HttpStatusCodes.NO_CONTENT.equals(response.getStatus())) {
+        readBody(response.getEntity());
+        writer.append(HttpHeaders.CONTENT_LENGTH).append(COLON).append(SP).append(bodyBuffer.size()).append(LF).append(LF);
+        write(out, writer);
+        bodyBuffer.writeTo(out);
+        writer = new StringBuilder();
       }
-      writer.append(HttpHeaders.CONTENT_LENGTH).append(COLON).append(SP).append(body.length()).append(LF).append(LF);
-      writer.append(body);
+      writer.append(LF).append(LF);
+      write(out, writer);
+    } finally {
+      bodyBuffer.reset();
+      response.close();
     }
-    writer.append(LF).append(LF);
   }
 
-  private void appendHeader(final ODataResponse response) {
+  private void appendHeader(final StringBuilder writer, final ODataResponse response) {
     for (String name : response.getHeaderNames()) {
       if (!BatchConstants.MIME_HEADER_CONTENT_ID.equalsIgnoreCase(name) && !BatchConstants.REQUEST_HEADER_CONTENT_ID.equalsIgnoreCase(name)) {
         writer.append(name).append(COLON).append(SP).append(response.getHeader(name)).append(LF);
@@ -104,30 +123,24 @@ public class BatchResponseWriter {
     return value + "_" + UUID.randomUUID().toString();
   }
 
-  private String readBody(final InputStream in) throws BatchException {
-    byte[] tmp = new byte[2048];
-    int count;
-    BatchException cachedException = null;
-    StringBuffer b = new StringBuffer();
-    try {
-      count = in.read(tmp);
-      while (count >= 0) {
-        b.append(new String(tmp, 0, count));
-        count = in.read(tmp);
-      }
-    } catch (IOException e) {
-      cachedException = new BatchException(ODataMessageException.COMMON, e);
-      throw cachedException;
-    } finally {// NOPMD (suppress DoNotThrowExceptionInFinally)
-      try {
-        in.close();
-      } catch (IOException e) {
-        if (cachedException != null) {
-          throw cachedException;
-        }
+  /**
+   * Reads the given entity as bytes into the body buffer.
+   */
+  private void readBody(final Object entity) throws IOException {
+    if (entity instanceof InputStream) {
+      final InputStream in = (InputStream) entity;
+      int count;
+      while ((count = in.read(copyBuffer)) >= 0) {
+        bodyBuffer.write(copyBuffer, 0, count);
       }
+    } else if (entity instanceof ODataStreamingEntity) {
+      ((ODataStreamingEntity) entity).write(bodyBuffer);
+    } else if (entity != null) {
+      bodyBuffer.write(entity.toString().getBytes(DEFAULT_CHARSET));
     }
-    return b.toString();
   }
 
+  private void write(final OutputStream out, final CharSequence content) throws IOException {
+    out.write(content.toString().getBytes(DEFAULT_CHARSET));
+  }
 }
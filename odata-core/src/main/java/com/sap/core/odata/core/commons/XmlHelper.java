@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.commons;
+
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+
+/**
+ * Provides shared, pre-configured StAX factories.
+ * <p>Looking up a factory with <code>newInstance()</code> searches system properties,
+ * property files, and the class path on every call; therefore the factories are
+ * created once and shared. Both are thread-safe for creating readers and writers
+ * but must not be re-configured by their users.</p>
+ * <p>The StAX implementation is found by the standard lookup mechanism, so an
+ * implementation like Woodstox is used when it is on the class path. To use a
+ * specific implementation for this library only, set the system property
+ * {@link #XML_INPUT_FACTORY} or {@link #XML_OUTPUT_FACTORY} to the name of the
+ * factory class, or replace the factories programmatically.</p>
+ * @author SAP AG
+ */
+public class XmlHelper {
+
+  /** System property with the class name of the {@link XMLInputFactory} to be used. */
+  public static final String XML_INPUT_FACTORY = "com.sap.core.odata.XMLInputFactory";
+  /** System property with the class name of the {@link XMLOutputFactory} to be used. */
+  public static final String XML_OUTPUT_FACTORY = "com.sap.core.odata.XMLOutputFactory";
+
+  private static volatile XMLInputFactory inputFactory = createInputFactory();
+  private static volatile XMLOutputFactory outputFactory = createOutputFactory();
+
+  /**
+   * Returns the shared {@link XMLInputFactory}; it is not validating
+   * and namespace-aware.
+   * @return the input factory
+   */
+  public static XMLInputFactory getXMLInputFactory() {
+    return inputFactory;
+  }
+
+  /**
+   * Replaces the shared {@link XMLInputFactory}.
+   * The factory is configured to be not validating and namespace-aware.
+   * @param factory the input factory, or <code>null</code> to use the default lookup
+   */
+  public static void setXMLInputFactory(final XMLInputFactory factory) {
+    inputFactory = factory == null ? createInputFactory() : configure(factory);
+  }
+
+  /**
+   * Returns the shared {@link XMLOutputFactory}.
+   * @return the output factory
+   */
+  public static XMLOutputFactory getXMLOutputFactory() {
+    return outputFactory;
+  }
+
+  /**
+   * Replaces the shared {@link XMLOutputFactory}.
+   * @param factory the output factory, or <code>null</code> to use the default lookup
+   */
+  public static void setXMLOutputFactory(final XMLOutputFactory factory) {
+    outputFactory = factory == null ? createOutputFactory() : factory;
+  }
+
+  private static XMLInputFactory createInputFactory() {
+    final String className = System.getProperty(XML_INPUT_FACTORY);
+    return configure(className == null ?
+        XMLInputFactory.newInstance() : createInstance(className, XMLInputFactory.class));
+  }
+
+  private static XMLInputFactory configure(final XMLInputFactory factory) {
+    factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    return factory;
+  }
+
+  private static XMLOutputFactory createOutputFactory() {
+    final String className = System.getProperty(XML_OUTPUT_FACTORY);
+    return className == null ?
+        XMLOutputFactory.newInstance() : createInstance(className, XMLOutputFactory.class);
+  }
+
+  private static <T> T createInstance(final String className, final Class<T> factoryClass) {
+    try {
+      return factoryClass.cast(Class.forName(className).newInstance());
+    } catch (final ClassNotFoundException e) {
+      throw new FactoryConfigurationError(e, "StAX factory " + className + " not found");
+    } catch (final InstantiationException e) {
+      throw new FactoryConfigurationError(e, "StAX factory " + className + " could not be instantiated");
+    } catch (final IllegalAccessException e) {
+      throw new FactoryConfigurationError(e, "StAX factory " + className + " could not be instantiated");
+    } catch (final ClassCastException e) {
+      throw new FactoryConfigurationError(e, className + " is not a " + factoryClass.getName());
+    }
+  }
+}
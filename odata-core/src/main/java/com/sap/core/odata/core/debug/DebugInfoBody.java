@@ -23,7 +23,9 @@ import org.apache.commons.codec.binary.Base64;
 import com.sap.core.odata.api.commons.HttpContentType;
 import com.sap.core.odata.api.ep.EntityProviderException;
 import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.processor.ODataStreamingEntity;
 import com.sap.core.odata.core.ep.BasicEntityProvider;
+import com.sap.core.odata.core.ep.util.CircleStreamBuffer;
 import com.sap.core.odata.core.ep.util.JsonStreamWriter;
 
 /**
@@ -45,29 +47,40 @@ public class DebugInfoBody implements DebugInfo {
   @Override
   public void appendJson(final JsonStreamWriter jsonStreamWriter) throws IOException {
     final String contentType = response.getContentHeader();
+    final Object entity = getEntity();
     if (contentType.startsWith("image/")) {
-      if (response.getEntity() instanceof InputStream) {
-        jsonStreamWriter.stringValueRaw(Base64.encodeBase64String(getBinaryFromInputStream((InputStream) response.getEntity())));
-      } else if (response.getEntity() instanceof String) {
-        jsonStreamWriter.stringValueRaw(getContentString());
+      if (entity instanceof InputStream) {
+        jsonStreamWriter.stringValueRaw(Base64.encodeBase64String(getBinaryFromInputStream((InputStream) entity)));
+      } else if (entity instanceof String) {
+        jsonStreamWriter.stringValueRaw(getContentString(entity));
       } else {
-        throw new ClassCastException("Unsupported content entity class: " + response.getEntity().getClass().getName());
+        throw new ClassCastException("Unsupported content entity class: " + entity.getClass().getName());
       }
     } else if (contentType.startsWith(HttpContentType.APPLICATION_JSON)) {
-      jsonStreamWriter.unquotedValue(getContentString());
+      jsonStreamWriter.unquotedValue(getContentString(entity));
     } else {
-      jsonStreamWriter.stringValue(getContentString());
+      jsonStreamWriter.stringValue(getContentString(entity));
     }
   }
 
-  private String getContentString() {
+  private Object getEntity() throws IOException {
+    if (response.getEntity() instanceof ODataStreamingEntity) {
+      CircleStreamBuffer buffer = new CircleStreamBuffer();
+      ((ODataStreamingEntity) response.getEntity()).write(buffer.getOutputStream());
+      buffer.closeWrite();
+      return buffer.getInputStream();
+    }
+    return response.getEntity();
+  }
+
+  private String getContentString(final Object entity) {
     String content;
-    if (response.getEntity() instanceof String) {
-      content = (String) response.getEntity();
-    } else if (response.getEntity() instanceof InputStream) {
-      content = getStringFromInputStream((InputStream) response.getEntity());
+    if (entity instanceof String) {
+      content = (String) entity;
+    } else if (entity instanceof InputStream) {
+      content = getStringFromInputStream((InputStream) entity);
     } else {
-      throw new ClassCastException("Unsupported content entity class: " + response.getEntity().getClass().getName());
+      throw new ClassCastException("Unsupported content entity class: " + entity.getClass().getName());
     }
     return content;
   }
@@ -91,9 +91,45 @@ public abstract class AbstractSimpleType implements EdmSimpleType {
 
   @Override
   public final String valueToString(final Object value, final EdmLiteralKind literalKind, final EdmFacets facets) throws EdmSimpleTypeException {
+    if (!checkValueToString(value, literalKind, facets)) {
+      return null;
+    }
+
+    final String result = internalValueToString(value, literalKind, facets);
+    return literalKind == EdmLiteralKind.URI ? toUriLiteral(result) : result;
+  }
+
+  /**
+   * Appends the literal representation of a value to a buffer.
+   * <p>This is the same as appending the result of
+   * {@link #valueToString(Object, EdmLiteralKind, EdmFacets)} but avoids the
+   * intermediate String for those types which can format their values directly,
+   * so a caller can re-use one buffer for all values it writes.</p>
+   * @param value the value
+   * @param literalKind the kind of the literal representation
+   * @param facets additional constraints for the value (may be <code>null</code>)
+   * @param target the buffer the literal is appended to
+   * @return <code>false</code> if the value is <code>null</code>;
+   *         nothing has been appended to the buffer in that case
+   * @throws EdmSimpleTypeException if the value is not valid for this type
+   */
+  public final boolean appendValueToString(final Object value, final EdmLiteralKind literalKind, final EdmFacets facets, final StringBuilder target) throws EdmSimpleTypeException {
+    if (!checkValueToString(value, literalKind, facets)) {
+      return false;
+    }
+
+    if (literalKind == EdmLiteralKind.URI) {
+      target.append(toUriLiteral(internalValueToString(value, literalKind, facets)));
+    } else {
+      internalAppendValueToString(value, literalKind, facets, target);
+    }
+    return true;
+  }
+
+  private boolean checkValueToString(final Object value, final EdmLiteralKind literalKind, final EdmFacets facets) throws EdmSimpleTypeException {
     if (value == null) {
       if (facets == null || facets.isNullable() == null || facets.isNullable()) {
-        return null;
+        return false;
       } else {
         throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_NULL_NOT_ALLOWED);
       }
@@ -103,12 +139,19 @@ public abstract class AbstractSimpleType implements EdmSimpleType {
       throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_KIND_MISSING);
     }
 
-    final String result = internalValueToString(value, literalKind, facets);
-    return literalKind == EdmLiteralKind.URI ? toUriLiteral(result) : result;
+    return true;
   }
 
   protected abstract <T> String internalValueToString(T value, EdmLiteralKind literalKind, EdmFacets facets) throws EdmSimpleTypeException;
 
+  /**
+   * Appends the literal representation of a non-<code>null</code> value to a buffer.
+   * Types that can format their values without an intermediate String override this method.
+   */
+  protected <T> void internalAppendValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets, final StringBuilder target) throws EdmSimpleTypeException {
+    target.append(internalValueToString(value, literalKind, facets));
+  }
+
   @Override
   public String toUriLiteral(final String literal) throws EdmSimpleTypeException {
     return literal;
@@ -56,8 +56,22 @@ public class EdmBinary extends AbstractSimpleType {
   }
 
   private static boolean validateLiteral(final String value, final EdmLiteralKind literalKind) {
-    return literalKind == EdmLiteralKind.URI ?
-        value.matches("(?:X|binary)'(?:\\p{XDigit}{2})*'") : Base64.isBase64(value);
+    return literalKind == EdmLiteralKind.URI ? validateUriLiteral(value) : Base64.isBase64(value);
+  }
+
+  private static boolean validateUriLiteral(final String value) {
+    // The URI literal has the form (X|binary)'(hh)*' with hexadecimal digits h.
+    final int start = value.startsWith("X'") ? 2 : value.startsWith("binary'") ? 7 : -1;
+    final int end = value.length() - 1;
+    if (start < 0 || end < start || value.charAt(end) != '\'' || (end - start) % 2 != 0) {
+      return false;
+    }
+    for (int index = start; index < end; index++) {
+      if (!EdmGuid.isHexDigit(value.charAt(index))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   private static boolean validateMaxLength(final String value, final EdmLiteralKind literalKind, final EdmFacets facets) {
@@ -75,10 +75,19 @@ public class EdmByte extends AbstractSimpleType {
 
   @Override
   protected <T> String internalValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets) throws EdmSimpleTypeException {
+    checkValue(value);
+    return value.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets, final StringBuilder result) throws EdmSimpleTypeException {
+    checkValue(value);
+    result.append(((Number) value).intValue());
+  }
+
+  private static void checkValue(final Object value) throws EdmSimpleTypeException {
     if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
-      if (((Number) value).longValue() >= 0 && ((Number) value).longValue() <= 255) {
-        return value.toString();
-      } else {
+      if (((Number) value).longValue() < 0 || ((Number) value).longValue() > 255) {
         throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_ILLEGAL_CONTENT.addContent(value));
       }
     } else {
@@ -18,8 +18,6 @@ package com.sap.core.odata.core.edm;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.sap.core.odata.api.edm.EdmFacets;
 import com.sap.core.odata.api.edm.EdmLiteralKind;
@@ -31,12 +29,26 @@ import com.sap.core.odata.api.edm.EdmSimpleTypeException;
  */
 public class EdmDateTime extends AbstractSimpleType {
 
-  private static final Pattern PATTERN = Pattern.compile(
-      "(\\p{Digit}{1,4})-(\\p{Digit}{1,2})-(\\p{Digit}{1,2})"
-          + "T(\\p{Digit}{1,2}):(\\p{Digit}{1,2})(?::(\\p{Digit}{1,2})(\\.(\\p{Digit}{0,3}?)0*)?)?");
-  private static final Pattern JSON_PATTERN = Pattern.compile("/Date\\((-?\\p{Digit}+)\\)/");
+  // indexes of the fields of a parsed date/time literal, see parseFields
+  protected static final int YEAR = 0;
+  protected static final int MONTH = 1;
+  protected static final int DAY = 2;
+  protected static final int HOUR = 3;
+  protected static final int MINUTE = 4;
+  protected static final int SECOND = 5;
+  protected static final int MILLISECOND = 6;
+  protected static final int FIELDS = 7;
+  /** The separators following year, month, day, hour, and minute. */
+  private static final String SEPARATORS = "--T::";
+  private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
   private static final EdmDateTime instance = new EdmDateTime();
 
+  private static final int MILLIS_PER_MINUTE = 60 * 1000;
+  private static final int MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+  private static final int MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+  /** Start of the Gregorian calendar, 1582-10-15T00:00:00Z, in milliseconds since 1970-01-01T00:00:00Z. */
+  private static final long GREGORIAN_CUTOVER = -12219292800000L;
+
   public static EdmDateTime getInstance() {
     return instance;
   }
@@ -50,43 +62,53 @@ public class EdmDateTime extends AbstractSimpleType {
   protected <T> T internalValueOfString(final String value, final EdmLiteralKind literalKind, final EdmFacets facets, final Class<T> returnType) throws EdmSimpleTypeException {
     // In JSON, we allow also the XML literal form, so there is on purpose
     // no exception if the JSON pattern does not match.
-    if (literalKind == EdmLiteralKind.JSON) {
-      final Matcher matcher = JSON_PATTERN.matcher(value);
-      if (matcher.matches()) {
-        long millis;
-        try {
-          millis = Long.parseLong(matcher.group(1));
-        } catch (final NumberFormatException e) {
-          throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value), e);
-        }
-        if (returnType.isAssignableFrom(Long.class)) {
-          return returnType.cast(millis);
-        } else if (returnType.isAssignableFrom(Date.class)) {
-          return returnType.cast(new Date(millis));
-        } else if (returnType.isAssignableFrom(Calendar.class)) {
-          Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-          dateTimeValue.clear();
-          dateTimeValue.setTimeInMillis(millis);
-          return returnType.cast(dateTimeValue);
-        } else {
-          throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_TYPE_NOT_SUPPORTED.addContent(returnType));
-        }
+    if (literalKind == EdmLiteralKind.JSON && isJsonLiteral(value)) {
+      long millis;
+      try {
+        millis = Long.parseLong(value.substring(6, value.length() - 2));
+      } catch (final NumberFormatException e) {
+        throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value), e);
+      }
+      if (returnType.isAssignableFrom(Long.class)) {
+        return returnType.cast(millis);
+      } else if (returnType.isAssignableFrom(Date.class)) {
+        return returnType.cast(new Date(millis));
+      } else if (returnType.isAssignableFrom(Calendar.class)) {
+        Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+        dateTimeValue.clear();
+        dateTimeValue.setTimeInMillis(millis);
+        return returnType.cast(dateTimeValue);
+      } else {
+        throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_TYPE_NOT_SUPPORTED.addContent(returnType));
       }
     }
 
-    Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-    dateTimeValue.clear();
-
+    String literal = value;
     if (literalKind == EdmLiteralKind.URI) {
       if (value.length() > 10 && value.startsWith("datetime'") && value.endsWith("'")) {
-        parseLiteral(value.substring(9, value.length() - 1), facets, dateTimeValue);
+        literal = value.substring(9, value.length() - 1);
       } else {
         throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
       }
-    } else {
-      parseLiteral(value, facets, dateTimeValue);
     }
 
+    final int[] fields = new int[FIELDS];
+    parseFields(literal, facets, fields);
+
+    // Without a Calendar to return, dates of the Gregorian calendar
+    // are validated and converted arithmetically.
+    if (!returnType.isAssignableFrom(Calendar.class) && fields[0] > 1582) {
+      if (returnType.isAssignableFrom(Long.class)) {
+        return returnType.cast(toMillis(literal, fields));
+      } else if (returnType.isAssignableFrom(Date.class)) {
+        return returnType.cast(new Date(toMillis(literal, fields)));
+      }
+    }
+
+    Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+    dateTimeValue.clear();
+    setFields(literal, fields, dateTimeValue);
+
     if (returnType.isAssignableFrom(Calendar.class)) {
       return returnType.cast(dateTimeValue);
     } else if (returnType.isAssignableFrom(Long.class)) {
@@ -99,39 +121,91 @@ public class EdmDateTime extends AbstractSimpleType {
   }
 
   /**
-   * Parses a formatted date/time value and sets the values of a
-   * {@link Calendar} object accordingly. 
-   * @param value         the formatted date/time value as String
-   * @param facets        additional constraints for parsing (optional)
-   * @param dateTimeValue the Calendar object to be set to the parsed value
-   * @throws EdmSimpleTypeException
+   * Checks whether a value has the form <code>/Date(</code><em>milliseconds</em><code>)/</code>
+   * where the number of milliseconds consists of digits and an optional leading minus sign.
    */
-  protected static void parseLiteral(final String value, final EdmFacets facets, final Calendar dateTimeValue) throws EdmSimpleTypeException {
-    final Matcher matcher = PATTERN.matcher(value);
-    if (!matcher.matches()) {
-      throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
+  private static boolean isJsonLiteral(final String value) {
+    final int length = value.length();
+    if (length < 9 || !value.startsWith("/Date(") || !value.endsWith(")/")) {
+      return false;
     }
+    final int start = value.charAt(6) == '-' ? 7 : 6;
+    return start < length - 2 && scanDigits(value, start, length - 2) == length - 2;
+  }
 
-    dateTimeValue.set(
-        Short.parseShort(matcher.group(1)),
-        Byte.parseByte(matcher.group(2)) - 1, // month is zero-based
-        Byte.parseByte(matcher.group(3)),
-        Byte.parseByte(matcher.group(4)),
-        Byte.parseByte(matcher.group(5)),
-        matcher.group(6) == null ? 0 : Byte.parseByte(matcher.group(6)));
-
-    if (matcher.group(7) != null) {
-      if (matcher.group(7).length() == 1 || matcher.group(7).length() > 8) {
+  /**
+   * Parses a formatted date/time value into its fields. The literal grammar is
+   * <code>yyyy-mm-ddThh:mm[:ss[.fffffff]]</code> where all numbers but the
+   * optional fraction may have fewer digits; the fraction may have at most
+   * three significant digits.
+   * @param value  the formatted date/time value as String
+   * @param facets additional constraints for parsing (optional)
+   * @param fields array receiving year, month (one-based), day, hour, minute,
+   *               second, and millisecond
+   * @throws EdmSimpleTypeException if the value is not a date/time literal
+   *                                or the fraction does not match the facets
+   */
+  protected static void parseFields(final String value, final EdmFacets facets, final int[] fields) throws EdmSimpleTypeException {
+    final int length = value.length();
+    int index = 0;
+    for (int field = 0; field <= SECOND; field++) {
+      final int end = scanDigits(value, index, Math.min(length, index + (field == 0 ? 4 : 2)));
+      if (end == index) {
         throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
       }
-      final String decimals = matcher.group(8);
-      if (facets != null && facets.getPrecision() != null && facets.getPrecision() < decimals.length()) {
-        throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_FACETS_NOT_MATCHED.addContent(value, facets));
+      fields[field] = parseDigits(value, index, end);
+      index = end;
+      if (index == length && field >= MINUTE) {
+        // Seconds and fraction are optional.
+        if (field == MINUTE) {
+          fields[SECOND] = 0;
+        }
+        fields[MILLISECOND] = 0;
+        return;
+      }
+      if (field < SECOND) {
+        if (index == length || value.charAt(index) != SEPARATORS.charAt(field)) {
+          throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
+        }
+        index++;
       }
-      final String milliSeconds = decimals + "000".substring(decimals.length());
-      dateTimeValue.set(Calendar.MILLISECOND, Short.parseShort(milliSeconds));
     }
 
+    // A fraction of up to seven digits follows; only milliseconds may be non-zero.
+    final int digits = length - index - 1;
+    if (value.charAt(index) != '.' || digits == 0 || digits > 7
+        || scanDigits(value, index + 1, length) != length) {
+      throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
+    }
+    int decimals = digits;
+    while (decimals > 0 && value.charAt(index + decimals) == '0') {
+      decimals--;
+    }
+    if (decimals > 3) {
+      throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
+    }
+    if (facets != null && facets.getPrecision() != null && facets.getPrecision() < decimals) {
+      throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_FACETS_NOT_MATCHED.addContent(value, facets));
+    }
+    int milliseconds = 0;
+    for (int i = 1; i <= 3; i++) {
+      milliseconds = milliseconds * 10 + (i <= decimals ? value.charAt(index + i) - '0' : 0);
+    }
+    fields[MILLISECOND] = milliseconds;
+  }
+
+  /**
+   * Sets the fields of a {@link Calendar} object and validates them.
+   * @param value         the formatted date/time value as String, used for error messages
+   * @param fields        the parsed fields as returned by {@link #parseFields}
+   * @param dateTimeValue the Calendar object to be set to the parsed value
+   * @throws EdmSimpleTypeException if the fields do not form a valid date/time
+   */
+  protected static void setFields(final String value, final int[] fields, final Calendar dateTimeValue) throws EdmSimpleTypeException {
+    dateTimeValue.set(fields[YEAR], fields[MONTH] - 1, fields[DAY], // month is zero-based
+        fields[HOUR], fields[MINUTE], fields[SECOND]);
+    dateTimeValue.set(Calendar.MILLISECOND, fields[MILLISECOND]);
+
     // The Calendar class does not check any values until a get method is called,
     // so we do just that to validate the fields set above, not because we want
     // to return something else.  For strict checks, the lenient mode is switched
@@ -145,8 +219,66 @@ public class EdmDateTime extends AbstractSimpleType {
     dateTimeValue.setLenient(true);
   }
 
+  /**
+   * Validates the fields of a date/time in the Gregorian calendar, i.e., after 1582,
+   * and converts them into milliseconds since 1970-01-01T00:00:00Z.
+   * @param value  the formatted date/time value as String, used for error messages
+   * @param fields the parsed fields as returned by {@link #parseFields}
+   * @return the number of milliseconds
+   * @throws EdmSimpleTypeException if the fields do not form a valid date/time
+   */
+  protected static long toMillis(final String value, final int[] fields) throws EdmSimpleTypeException {
+    final int year = fields[YEAR];
+    final int month = fields[MONTH];
+    final int day = fields[DAY];
+    if (month < 1 || month > 12 || day < 1
+        || day > (month == 2 && (year % 4 == 0 && year % 100 != 0 || year % 400 == 0) ? 29 : DAYS_IN_MONTH[month - 1])
+        || fields[HOUR] > 23 || fields[MINUTE] > 59 || fields[SECOND] > 59) {
+      throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
+    }
+
+    // Days since 0000-03-01 in the proleptic Gregorian calendar, see appendDateTime.
+    final int y = month <= 2 ? year - 1 : year;
+    final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    final long days = 365L * y + y / 4 - y / 100 + y / 400 + dayOfYear - 719468;
+    return days * MILLIS_PER_DAY
+        + fields[HOUR] * MILLIS_PER_HOUR + fields[MINUTE] * MILLIS_PER_MINUTE
+        + fields[SECOND] * 1000 + fields[MILLISECOND];
+  }
+
+  /**
+   * Returns the index of the first character at or after <code>start</code>
+   * and before <code>end</code> that is not an ASCII digit, or <code>end</code>.
+   */
+  protected static int scanDigits(final String value, final int start, final int end) {
+    int index = start;
+    while (index < end && value.charAt(index) >= '0' && value.charAt(index) <= '9') {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Returns the number formed by the ASCII digits between <code>start</code>
+   * (inclusive) and <code>end</code> (exclusive).
+   */
+  protected static int parseDigits(final String value, final int start, final int end) {
+    int number = 0;
+    for (int index = start; index < end; index++) {
+      number = number * 10 + value.charAt(index) - '0';
+    }
+    return number;
+  }
+
   @Override
   protected <T> String internalValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets) throws EdmSimpleTypeException {
+    StringBuilder result = new StringBuilder(23); // 23 characters are enough for millisecond precision.
+    internalAppendValueToString(value, literalKind, facets, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets, final StringBuilder result) throws EdmSimpleTypeException {
     long timeInMillis;
     if (value instanceof Date) {
       timeInMillis = ((Date) value).getTime();
@@ -159,34 +291,74 @@ public class EdmDateTime extends AbstractSimpleType {
     }
 
     if (literalKind == EdmLiteralKind.JSON) {
-      return "/Date(" + timeInMillis + ")/";
+      result.append("/Date(").append(timeInMillis).append(")/");
+      return;
     }
 
-    Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-    dateTimeValue.setTimeInMillis(timeInMillis);
+    appendDateTime(result, timeInMillis);
+
+    try {
+      appendMilliseconds(result, timeInMillis, facets);
+    } catch (final IllegalArgumentException e) {
+      throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_FACETS_NOT_MATCHED.addContent(value, facets), e);
+    }
+  }
+
+  /**
+   * Appends date and time (up to the seconds) of the given point in time in GMT
+   * to the given string builder.
+   * From the Gregorian calendar reform on, the fields are computed directly
+   * from the number of milliseconds; earlier dates are left to {@link Calendar}
+   * which uses the Julian calendar for them.
+   * @param result a {@link StringBuilder}
+   * @param timeInMillis milliseconds since 1970-01-01T00:00:00Z
+   */
+  private static void appendDateTime(final StringBuilder result, final long timeInMillis) {
+    int year;
+    int month;
+    int day;
+    int millisOfDay;
+    if (timeInMillis >= GREGORIAN_CUTOVER) {
+      long days = timeInMillis / MILLIS_PER_DAY;
+      millisOfDay = (int) (timeInMillis % MILLIS_PER_DAY);
+      if (millisOfDay < 0) {
+        days--;
+        millisOfDay += MILLIS_PER_DAY;
+      }
+      // Convert days since 1970-01-01 into year, month, and day,
+      // counting years from March so that the leap day is at their end.
+      final long daysSince0000 = days + 719468;
+      final long era = daysSince0000 / 146097;
+      final int dayOfEra = (int) (daysSince0000 - era * 146097);
+      final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+      final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+      final int shiftedMonth = (5 * dayOfYear + 2) / 153;
+      day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+      month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+      year = (int) (era * 400) + yearOfEra + (month <= 2 ? 1 : 0);
+    } else {
+      Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+      dateTimeValue.setTimeInMillis(timeInMillis);
+      year = dateTimeValue.get(Calendar.YEAR);
+      month = dateTimeValue.get(Calendar.MONTH) + 1; // month is zero-based
+      day = dateTimeValue.get(Calendar.DAY_OF_MONTH);
+      millisOfDay = dateTimeValue.get(Calendar.HOUR_OF_DAY) * MILLIS_PER_HOUR
+          + dateTimeValue.get(Calendar.MINUTE) * MILLIS_PER_MINUTE
+          + dateTimeValue.get(Calendar.SECOND) * 1000;
+    }
 
-    StringBuilder result = new StringBuilder(23); // 23 characters are enough for millisecond precision.
-    final int year = dateTimeValue.get(Calendar.YEAR);
     appendTwoDigits(result, year / 100);
     appendTwoDigits(result, year % 100);
     result.append('-');
-    appendTwoDigits(result, dateTimeValue.get(Calendar.MONTH) + 1); // month is zero-based
+    appendTwoDigits(result, month);
     result.append('-');
-    appendTwoDigits(result, dateTimeValue.get(Calendar.DAY_OF_MONTH));
+    appendTwoDigits(result, day);
     result.append('T');
-    appendTwoDigits(result, dateTimeValue.get(Calendar.HOUR_OF_DAY));
+    appendTwoDigits(result, millisOfDay / MILLIS_PER_HOUR);
     result.append(':');
-    appendTwoDigits(result, dateTimeValue.get(Calendar.MINUTE));
+    appendTwoDigits(result, millisOfDay / MILLIS_PER_MINUTE % 60);
     result.append(':');
-    appendTwoDigits(result, dateTimeValue.get(Calendar.SECOND));
-
-    try {
-      appendMilliseconds(result, timeInMillis, facets);
-    } catch (final IllegalArgumentException e) {
-      throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_FACETS_NOT_MATCHED.addContent(value, facets), e);
-    }
-
-    return result.toString();
+    appendTwoDigits(result, millisOfDay / 1000 % 60);
   }
 
   /**
@@ -18,8 +18,6 @@ package com.sap.core.odata.core.edm;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.sap.core.odata.api.edm.EdmFacets;
 import com.sap.core.odata.api.edm.EdmLiteralKind;
@@ -34,12 +32,6 @@ import com.sap.core.odata.api.edm.EdmSimpleTypeException;
  */
 public class EdmDateTimeOffset extends AbstractSimpleType {
 
-  private static final Pattern PATTERN = Pattern.compile(
-      "\\p{Digit}{1,4}-\\p{Digit}{1,2}-\\p{Digit}{1,2}"
-          + "T\\p{Digit}{1,2}:\\p{Digit}{1,2}(?::\\p{Digit}{1,2}(?:\\.\\p{Digit}{1,7})?)?"
-          + "(Z|([-+]\\p{Digit}{1,2}:\\p{Digit}{2}))?");
-  private static final Pattern JSON_PATTERN = Pattern.compile(
-      "/Date\\((-?\\p{Digit}+)(?:(\\+|-)(\\p{Digit}{1,4}))?\\)/");
   private static final EdmDateTimeOffset instance = new EdmDateTimeOffset();
 
   public static EdmDateTimeOffset getInstance() {
@@ -61,74 +53,136 @@ public class EdmDateTimeOffset extends AbstractSimpleType {
       }
     }
 
-    Calendar dateTimeValue = null;
+    long millis;
+    String timeZone = "GMT";
 
-    if (literalKind == EdmLiteralKind.JSON) {
-      final Matcher matcher = JSON_PATTERN.matcher(value);
-      if (matcher.matches()) {
-        long millis;
-        try {
-          millis = Long.parseLong(matcher.group(1));
-        } catch (final NumberFormatException e) {
-          throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value), e);
+    final int jsonOffsetIndex = literalKind == EdmLiteralKind.JSON ? scanJsonLiteral(value) : -1;
+    if (jsonOffsetIndex >= 0) {
+      final int end = value.length() - 2;
+      try {
+        millis = Long.parseLong(value.substring(6, jsonOffsetIndex));
+      } catch (final NumberFormatException e) {
+        throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value), e);
+      }
+      if (jsonOffsetIndex < end) {
+        final int offsetInMinutes = EdmDateTime.parseDigits(value, jsonOffsetIndex + 1, end);
+        if (offsetInMinutes >= 24 * 60) {
+          throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
         }
-        String timeZone = "GMT";
-        if (matcher.group(2) != null) {
-          final int offsetInMinutes = Integer.parseInt(matcher.group(3));
-          if (offsetInMinutes >= 24 * 60) {
+        if (offsetInMinutes != 0) {
+          final char sign = value.charAt(jsonOffsetIndex);
+          StringBuilder timeZoneBuilder = new StringBuilder(9).append("GMT").append(sign).append(offsetInMinutes / 60).append(':');
+          appendDigits(timeZoneBuilder, offsetInMinutes % 60, 2);
+          timeZone = timeZoneBuilder.toString();
+          // Convert the local-time milliseconds to UTC.
+          millis -= (sign == '+' ? 1 : -1) * offsetInMinutes * 60 * 1000;
+        }
+      }
+
+    } else {
+      int end = value.length();
+      int offsetInMillis = 0;
+      final int timeIndex = value.indexOf('T');
+      if (end > 0 && value.charAt(end - 1) == 'Z') {
+        end--;
+      } else if (timeIndex >= 0) {
+        final int signIndex = Math.max(value.lastIndexOf('+'), value.lastIndexOf('-'));
+        if (signIndex > timeIndex) {
+          // The offset has the form [-+]h[h]:mm.
+          final int colonIndex = EdmDateTime.scanDigits(value, signIndex + 1, Math.min(end, signIndex + 3));
+          if (colonIndex == signIndex + 1 || colonIndex != end - 3 || value.charAt(colonIndex) != ':'
+              || EdmDateTime.scanDigits(value, colonIndex + 1, end) != end) {
             throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
           }
-          if (offsetInMinutes != 0) {
-            timeZone += matcher.group(2) + String.valueOf(offsetInMinutes / 60)
-                + ":" + String.format("%02d", offsetInMinutes % 60);
-            // Convert the local-time milliseconds to UTC.
-            millis -= (matcher.group(2).equals("+") ? 1 : -1) * offsetInMinutes * 60 * 1000;
+          final int hours = EdmDateTime.parseDigits(value, signIndex + 1, colonIndex);
+          final int minutes = EdmDateTime.parseDigits(value, colonIndex + 1, end);
+          if (hours != 0 || minutes != 0) {
+            if (hours > 23 || minutes > 59) {
+              throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
+            }
+            timeZone = "GMT" + value.substring(signIndex);
+            offsetInMillis = (value.charAt(signIndex) == '+' ? 1 : -1) * (hours * 60 + minutes) * 60 * 1000;
           }
+          end = signIndex;
         }
-        dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone(timeZone));
-        dateTimeValue.clear();
-        dateTimeValue.setTimeInMillis(millis);
-      }
-    }
-
-    if (dateTimeValue == null) {
-      final Matcher matcher = PATTERN.matcher(value);
-      if (!matcher.matches()) {
-        throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
       }
 
-      final String timeZoneOffset = matcher.group(1) != null && matcher.group(2) != null && !matcher.group(2).matches("[-+]0+:0+") ? matcher.group(2) : null;
-      dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT" + timeZoneOffset));
-      if (dateTimeValue.get(Calendar.ZONE_OFFSET) == 0 && timeZoneOffset != null) {
-        throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
+      final String dateTime = value.substring(0, end);
+      final int[] fields = new int[EdmDateTime.FIELDS];
+      EdmDateTime.parseFields(dateTime, facets, fields);
+      // Without a Calendar to return, dates of the Gregorian calendar
+      // are validated and converted arithmetically.
+      if (returnType.isAssignableFrom(Calendar.class) || fields[EdmDateTime.YEAR] <= 1582) {
+        Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone(timeZone));
+        dateTimeValue.clear();
+        EdmDateTime.setFields(dateTime, fields, dateTimeValue);
+        if (returnType.isAssignableFrom(Calendar.class)) {
+          return returnType.cast(dateTimeValue);
+        }
+        millis = dateTimeValue.getTimeInMillis();
+      } else {
+        millis = EdmDateTime.toMillis(dateTime, fields) - offsetInMillis;
       }
-      dateTimeValue.clear();
-      EdmDateTime.parseLiteral(value.substring(0, matcher.group(1) == null ? value.length() : matcher.start(1)), facets, dateTimeValue);
     }
 
     if (returnType.isAssignableFrom(Calendar.class)) {
+      Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone(timeZone));
+      dateTimeValue.clear();
+      dateTimeValue.setTimeInMillis(millis);
       return returnType.cast(dateTimeValue);
     } else if (returnType.isAssignableFrom(Long.class)) {
-      return returnType.cast(dateTimeValue.getTimeInMillis());
+      return returnType.cast(millis);
     } else if (returnType.isAssignableFrom(Date.class)) {
-      return returnType.cast(dateTimeValue.getTime());
+      return returnType.cast(new Date(millis));
     } else {
       throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_TYPE_NOT_SUPPORTED.addContent(returnType));
     }
   }
 
+  /**
+   * Checks whether a value has the form <code>/Date(</code><em>milliseconds</em>[<em>offset</em>]<code>)/</code>
+   * where the number of milliseconds consists of digits and an optional leading minus sign
+   * and the optional offset in minutes consists of a sign and up to four digits.
+   * @return the index of the offset sign or of the closing parenthesis if there is no offset,
+   *         or -1 if the value does not have this form
+   */
+  private static int scanJsonLiteral(final String value) {
+    final int end = value.length() - 2;
+    if (end < 7 || !value.startsWith("/Date(") || !value.endsWith(")/")) {
+      return -1;
+    }
+    final int start = value.charAt(6) == '-' ? 7 : 6;
+    final int index = EdmDateTime.scanDigits(value, start, end);
+    if (index == start) {
+      return -1;
+    } else if (index == end) {
+      return index;
+    } else if ((value.charAt(index) == '+' || value.charAt(index) == '-')
+        && end - index - 1 >= 1 && end - index - 1 <= 4
+        && EdmDateTime.scanDigits(value, index + 1, end) == end) {
+      return index;
+    } else {
+      return -1;
+    }
+  }
+
   @Override
   protected <T> String internalValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets) throws EdmSimpleTypeException {
-    Long milliSeconds; // number of milliseconds since 1970-01-01T00:00:00Z
+    StringBuilder result = new StringBuilder(29); // 29 characters are enough for millisecond precision and an offset.
+    internalAppendValueToString(value, literalKind, facets, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets, final StringBuilder result) throws EdmSimpleTypeException {
+    long milliSeconds; // number of milliseconds since 1970-01-01T00:00:00Z
     int offset; // offset in milliseconds from GMT to the requested time zone
     if (value instanceof Date) {
       milliSeconds = ((Date) value).getTime();
       // Although java.util.Date, as stated in its documentation,
       // "is intended to reflect coordinated universal time (UTC)",
       // its toString() method uses the default time zone. And so do we.
-      Calendar dateTimeValue = Calendar.getInstance();
-      dateTimeValue.setTime((Date) value);
-      offset = dateTimeValue.get(Calendar.ZONE_OFFSET) + dateTimeValue.get(Calendar.DST_OFFSET);
+      offset = TimeZone.getDefault().getOffset(milliSeconds);
     } else if (value instanceof Calendar) {
       final Calendar dateTimeValue = (Calendar) ((Calendar) value).clone();
       milliSeconds = dateTimeValue.getTimeInMillis();
@@ -144,16 +198,37 @@ public class EdmDateTimeOffset extends AbstractSimpleType {
     final int offsetInMinutes = offset / 60 / 1000;
 
     if (literalKind == EdmLiteralKind.JSON) {
-      return "/Date(" + milliSeconds + (offset == 0 ? "" : String.format("%+05d", offsetInMinutes)) + ")/";
+      result.append("/Date(").append(milliSeconds);
+      if (offset != 0) {
+        result.append(offsetInMinutes < 0 ? '-' : '+');
+        appendDigits(result, Math.abs(offsetInMinutes), 4);
+      }
+      result.append(")/");
 
     } else {
-      final String localTimeString = EdmDateTime.getInstance().valueToString(milliSeconds, EdmLiteralKind.DEFAULT, facets);
-      final int offsetHours = offsetInMinutes / 60;
-      final int offsetMinutes = Math.abs(offsetInMinutes % 60);
-      final String offsetString = offset == 0 ? "Z" : String.format("%+03d:%02d", offsetHours, offsetMinutes);
+      EdmDateTime.getInstance().appendValueToString(milliSeconds, EdmLiteralKind.DEFAULT, facets, result);
+      if (offset == 0) {
+        result.append('Z');
+      } else {
+        final int offsetHours = offsetInMinutes / 60;
+        result.append(offsetHours < 0 ? '-' : '+');
+        appendDigits(result, Math.abs(offsetHours), 2);
+        result.append(':');
+        appendDigits(result, Math.abs(offsetInMinutes % 60), 2);
+      }
+    }
+  }
 
-      return localTimeString + offsetString;
+  /**
+   * Appends a non-negative number with leading zeros up to the given minimum number of digits.
+   */
+  private static void appendDigits(final StringBuilder result, final int number, final int digits) {
+    for (int limit = 10, d = 1; d < digits; limit *= 10, d++) {
+      if (number < limit) {
+        result.append('0');
+      }
     }
+    result.append(number);
   }
 
   @Override
@@ -17,8 +17,6 @@ package com.sap.core.odata.core.edm;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.sap.core.odata.api.edm.EdmFacets;
 import com.sap.core.odata.api.edm.EdmLiteralKind;
@@ -34,7 +32,6 @@ public class EdmDecimal extends AbstractSimpleType {
   // value-range limitation according to the CSDL document
   private static final int MAX_DIGITS = 29;
 
-  private static final Pattern PATTERN = Pattern.compile("(?:\\+|-)?(?:0*(\\p{Digit}{1,29}?))(?:\\.(\\p{Digit}{1,29}?)0*)?(M|m)?");
   private static final EdmDecimal instance = new EdmDecimal();
 
   public static EdmDecimal getInstance() {
@@ -70,34 +67,77 @@ public class EdmDecimal extends AbstractSimpleType {
       return false;
     }
 
-    return validateLiteral(value, literalKind) && validatePrecisionAndScale(value, facets);
+    final int digits = scanLiteral(value, literalKind);
+    return digits >= 0 && validatePrecisionAndScale(digits, facets);
   }
 
-  private static boolean validateLiteral(final String value, final EdmLiteralKind literalKind) {
-    final Matcher matcher = PATTERN.matcher(value);
-    return matcher.matches()
-        && (literalKind == EdmLiteralKind.URI) != (matcher.group(3) == null);
+  /**
+   * Scans a decimal literal of the form <code>[+|-]d+[.d+][M|m]</code> where the suffix
+   * is required in URIs and forbidden otherwise.
+   * @return the number of significant integer digits shifted left by eight bits,
+   *         combined with the number of significant decimals,
+   *         or -1 if the value is not a valid literal
+   */
+  private static int scanLiteral(final String value, final EdmLiteralKind literalKind) {
+    int end = value.length();
+    if (literalKind == EdmLiteralKind.URI) {
+      if (end == 0 || value.charAt(end - 1) != 'M' && value.charAt(end - 1) != 'm') {
+        return -1;
+      }
+      end--;
+    }
+    int index = end > 0 && (value.charAt(0) == '+' || value.charAt(0) == '-') ? 1 : 0;
+
+    final int integerEnd = EdmDateTime.scanDigits(value, index, end);
+    if (integerEnd == index) {
+      return -1;
+    }
+    // Leading zeroes are not significant.
+    while (index < integerEnd - 1 && value.charAt(index) == '0') {
+      index++;
+    }
+    if (integerEnd - index > MAX_DIGITS) {
+      return -1;
+    }
+    final int integerDigits = integerEnd - index == 1 && value.charAt(index) == '0' ? 0 : integerEnd - index;
+
+    int decimals = 0;
+    if (integerEnd < end) {
+      final int decimalsEnd = EdmDateTime.scanDigits(value, integerEnd + 1, end);
+      if (value.charAt(integerEnd) != '.' || decimalsEnd != end || decimalsEnd == integerEnd + 1) {
+        return -1;
+      }
+      // Trailing zeroes are not significant but at least one digit is.
+      decimals = decimalsEnd - integerEnd - 1;
+      while (decimals > 1 && value.charAt(integerEnd + decimals) == '0') {
+        decimals--;
+      }
+      if (decimals > MAX_DIGITS) {
+        return -1;
+      }
+    }
+
+    return integerDigits << 8 | decimals;
   }
 
-  private static final boolean validatePrecisionAndScale(final String value, final EdmFacets facets) {
+  private static final boolean validatePrecisionAndScale(final int digits, final EdmFacets facets) {
     if (facets == null || facets.getPrecision() == null && facets.getScale() == null) {
       return true;
     }
 
-    final Matcher matcher = PATTERN.matcher(value);
-    matcher.matches();
-    final int significantIntegerDigits = matcher.group(1).equals("0") ? 0 : matcher.group(1).length();
-    final int decimals = matcher.group(2) == null ? 0 : matcher.group(2).length();
+    final int significantIntegerDigits = digits >> 8;
+    final int decimals = digits & 0xFF;
     return (facets.getPrecision() == null || facets.getPrecision() >= significantIntegerDigits + decimals)
         && (facets.getScale() == null || facets.getScale() >= decimals);
   }
 
   @Override
   protected <T> T internalValueOfString(final String value, final EdmLiteralKind literalKind, final EdmFacets facets, final Class<T> returnType) throws EdmSimpleTypeException {
-    if (!validateLiteral(value, literalKind)) {
+    final int digits = scanLiteral(value, literalKind);
+    if (digits < 0) {
       throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
     }
-    if (!validatePrecisionAndScale(value, facets)) {
+    if (!validatePrecisionAndScale(digits, facets)) {
       throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_FACETS_NOT_MATCHED.addContent(value, facets));
     }
 
@@ -17,8 +17,6 @@ package com.sap.core.odata.core.edm;
 
 import java.math.BigDecimal;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.sap.core.odata.api.edm.EdmFacets;
 import com.sap.core.odata.api.edm.EdmLiteralKind;
@@ -35,8 +33,6 @@ public class EdmDouble extends AbstractSimpleType {
   private static final int MAX_PRECISION = 15;
   private static final int MAX_SCALE = 308;
 
-  private static final Pattern PATTERN = Pattern.compile(
-      "(?:\\+|-)?\\p{Digit}{1,15}(?:\\.\\p{Digit}{1,15})?(?:(?:E|e)(?:\\+|-)?\\p{Digit}{1,3})?(D|d)?");
   private static final EdmDouble instance = new EdmDouble();
 
   public static EdmDouble getInstance() {
@@ -74,9 +70,7 @@ public class EdmDouble extends AbstractSimpleType {
       result = Double.NaN;
     } else {
       // Now only "normal" numbers remain.
-      final Matcher matcher = PATTERN.matcher(value);
-      if (!matcher.matches()
-          || (literalKind == EdmLiteralKind.URI) == (matcher.group(1) == null)) {
+      if (!isFloatingPointLiteral(value, literalKind == EdmLiteralKind.URI, 'D', MAX_PRECISION, 3)) {
         throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
       }
 
@@ -126,6 +120,52 @@ public class EdmDouble extends AbstractSimpleType {
     }
   }
 
+  /**
+   * Checks whether a value is a floating-point literal of the form
+   * <code>[+|-]d+[.d+][(E|e)[+|-]d+][suffix]</code>.
+   * @param value             the value to check
+   * @param withSuffix        whether the type suffix is required (in URIs) or forbidden (otherwise)
+   * @param suffix            the upper-case type suffix; the lower-case variant is also accepted
+   * @param maxDigits         the maximum number of digits before and after the decimal point, respectively
+   * @param maxExponentDigits the maximum number of digits in the exponent
+   * @return <code>true</code> if the value is a valid literal
+   */
+  protected static boolean isFloatingPointLiteral(final String value, final boolean withSuffix, final char suffix, final int maxDigits, final int maxExponentDigits) {
+    int end = value.length();
+    if (withSuffix) {
+      if (end == 0 || value.charAt(end - 1) != suffix && value.charAt(end - 1) != Character.toLowerCase(suffix)) {
+        return false;
+      }
+      end--;
+    }
+    int index = end > 0 && (value.charAt(0) == '+' || value.charAt(0) == '-') ? 1 : 0;
+
+    int digitsEnd = EdmDateTime.scanDigits(value, index, end);
+    if (digitsEnd == index || digitsEnd - index > maxDigits) {
+      return false;
+    }
+    index = digitsEnd;
+    if (index < end && value.charAt(index) == '.') {
+      digitsEnd = EdmDateTime.scanDigits(value, ++index, end);
+      if (digitsEnd == index || digitsEnd - index > maxDigits) {
+        return false;
+      }
+      index = digitsEnd;
+    }
+    if (index < end && (value.charAt(index) == 'E' || value.charAt(index) == 'e')) {
+      index++;
+      if (index < end && (value.charAt(index) == '+' || value.charAt(index) == '-')) {
+        index++;
+      }
+      digitsEnd = EdmDateTime.scanDigits(value, index, end);
+      if (digitsEnd == index || digitsEnd - index > maxExponentDigits) {
+        return false;
+      }
+      index = digitsEnd;
+    }
+    return index == end;
+  }
+
   @Override
   protected <T> String internalValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets) throws EdmSimpleTypeException {
     if (value instanceof Long) {
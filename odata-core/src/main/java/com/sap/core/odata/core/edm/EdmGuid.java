@@ -27,7 +27,8 @@ import com.sap.core.odata.api.edm.EdmSimpleTypeException;
  */
 public class EdmGuid extends AbstractSimpleType {
 
-  private static final String PATTERN = "\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}";
+  /** The length of the literal form 8-4-4-4-12 of hexadecimal digits and hyphens. */
+  private static final int LENGTH = 36;
   private static final EdmGuid instance = new EdmGuid();
 
   public static EdmGuid getInstance() {
@@ -47,7 +48,23 @@ public class EdmGuid extends AbstractSimpleType {
   }
 
   private boolean validateLiteral(final String value, final EdmLiteralKind literalKind) {
-    return value.matches(literalKind == EdmLiteralKind.URI ? toUriLiteral(PATTERN) : PATTERN);
+    return literalKind == EdmLiteralKind.URI ?
+        value.length() == LENGTH + 6 && value.startsWith("guid'") && value.endsWith("'") && isGuid(value, 5) :
+        value.length() == LENGTH && isGuid(value, 0);
+  }
+
+  private static boolean isGuid(final String value, final int start) {
+    for (int index = 0; index < LENGTH; index++) {
+      final char c = value.charAt(start + index);
+      if (index == 8 || index == 13 || index == 18 || index == 23 ? c != '-' : !isHexDigit(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  protected static boolean isHexDigit(final char c) {
+    return c >= '0' && c <= '9' || c >= 'A' && c <= 'F' || c >= 'a' && c <= 'f';
   }
 
   @Override
@@ -15,8 +15,8 @@
  ******************************************************************************/
 package com.sap.core.odata.core.edm;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.sap.core.odata.api.edm.Edm;
 import com.sap.core.odata.api.edm.EdmAssociation;
@@ -33,42 +33,67 @@ import com.sap.core.odata.api.exception.ODataException;
  */
 public abstract class EdmImpl implements Edm {
 
-  private Map<String, EdmEntityContainer> edmEntityContainers;
-  private Map<FullQualifiedName, EdmEntityType> edmEntityTypes;
-  private Map<FullQualifiedName, EdmComplexType> edmComplexTypes;
-  private Map<FullQualifiedName, EdmAssociation> edmAssociations;
+  private ConcurrentMap<String, EdmEntityContainer> edmEntityContainers;
+  private volatile EdmEntityContainer defaultEntityContainer;
+  private ConcurrentMap<FullQualifiedName, EdmEntityType> edmEntityTypes;
+  private ConcurrentMap<FullQualifiedName, EdmComplexType> edmComplexTypes;
+  private ConcurrentMap<FullQualifiedName, EdmAssociation> edmAssociations;
+  private final ConcurrentMap<Object, Object> attachments = new ConcurrentHashMap<Object, Object>();
 
   protected EdmServiceMetadata edmServiceMetadata;
 
   public EdmImpl(final EdmServiceMetadata edmServiceMetadata) {
-    edmEntityContainers = new HashMap<String, EdmEntityContainer>();
-    edmEntityTypes = new HashMap<FullQualifiedName, EdmEntityType>();
-    edmComplexTypes = new HashMap<FullQualifiedName, EdmComplexType>();
-    edmAssociations = new HashMap<FullQualifiedName, EdmAssociation>();
+    edmEntityContainers = new ConcurrentHashMap<String, EdmEntityContainer>();
+    edmEntityTypes = new ConcurrentHashMap<FullQualifiedName, EdmEntityType>();
+    edmComplexTypes = new ConcurrentHashMap<FullQualifiedName, EdmComplexType>();
+    edmAssociations = new ConcurrentHashMap<FullQualifiedName, EdmAssociation>();
     this.edmServiceMetadata = edmServiceMetadata;
   }
 
+  /**
+   * Returns the objects other components attach to this model, e.g., caches of
+   * data derived from it, so that they are dropped together with the model.
+   * Each component uses its own key.
+   * @return the modifiable map of attachments
+   */
+  public ConcurrentMap<Object, Object> getAttachments() {
+    return attachments;
+  }
+
   @Override
   public EdmEntityContainer getEntityContainer(final String name) throws EdmException {
-    if (edmEntityContainers.containsKey(name)) {
-      return edmEntityContainers.get(name);
+    EdmEntityContainer edmEntityContainer = name == null ? defaultEntityContainer : edmEntityContainers.get(name);
+    if (edmEntityContainer != null) {
+      return edmEntityContainer;
     }
 
-    EdmEntityContainer edmEntityContainer = null;
-
     try {
       edmEntityContainer = createEntityContainer(name);
       if (edmEntityContainer != null) {
-        if (name == null && edmEntityContainers.containsKey(edmEntityContainer.getName())) {
-          //ensure that the same default entity container is stored in the HashMap under null and its name 
-          edmEntityContainer = edmEntityContainers.get(edmEntityContainer.getName());
-          edmEntityContainers.put(name, edmEntityContainer);
-        } else if (edmEntityContainers.containsKey(null) && edmEntityContainers.get(null) != null && name.equals(edmEntityContainers.get(null).getName())) {
-          //ensure that the same default entity container is stored in the HashMap under null and its name        
-          edmEntityContainer = edmEntityContainers.get(null);
-          edmEntityContainers.put(name, edmEntityContainer);
+        if (name == null) {
+          //ensure that the same default entity container is returned for null and its name
+          final String containerName = edmEntityContainer.getName();
+          if (containerName != null) {
+            final EdmEntityContainer namedContainer = edmEntityContainers.get(containerName);
+            if (namedContainer == null) {
+              final EdmEntityContainer existing = edmEntityContainers.putIfAbsent(containerName, edmEntityContainer);
+              if (existing != null) {
+                edmEntityContainer = existing;
+              }
+            } else {
+              edmEntityContainer = namedContainer;
+            }
+          }
+          defaultEntityContainer = edmEntityContainer;
         } else {
-          edmEntityContainers.put(name, edmEntityContainer);
+          if (defaultEntityContainer != null && name.equals(defaultEntityContainer.getName())) {
+            //ensure that the same default entity container is returned for null and its name
+            edmEntityContainer = defaultEntityContainer;
+          }
+          final EdmEntityContainer existing = edmEntityContainers.putIfAbsent(name, edmEntityContainer);
+          if (existing != null) {
+            edmEntityContainer = existing;
+          }
         }
       }
     } catch (ODataException e) {
@@ -81,16 +106,18 @@ public abstract class EdmImpl implements Edm {
   @Override
   public EdmEntityType getEntityType(final String namespace, final String name) throws EdmException {
     FullQualifiedName fqName = new FullQualifiedName(namespace, name);
-    if (edmEntityTypes.containsKey(fqName)) {
-      return edmEntityTypes.get(fqName);
+    EdmEntityType edmEntityType = edmEntityTypes.get(fqName);
+    if (edmEntityType != null) {
+      return edmEntityType;
     }
 
-    EdmEntityType edmEntityType = null;
-
     try {
       edmEntityType = createEntityType(fqName);
       if (edmEntityType != null) {
-        edmEntityTypes.put(fqName, edmEntityType);
+        final EdmEntityType existing = edmEntityTypes.putIfAbsent(fqName, edmEntityType);
+        if (existing != null) {
+          edmEntityType = existing;
+        }
       }
     } catch (ODataException e) {
       throw new EdmException(EdmException.COMMON, e);
@@ -102,16 +129,18 @@ public abstract class EdmImpl implements Edm {
   @Override
   public EdmComplexType getComplexType(final String namespace, final String name) throws EdmException {
     FullQualifiedName fqName = new FullQualifiedName(namespace, name);
-    if (edmComplexTypes.containsKey(fqName)) {
-      return edmComplexTypes.get(fqName);
+    EdmComplexType edmComplexType = edmComplexTypes.get(fqName);
+    if (edmComplexType != null) {
+      return edmComplexType;
     }
 
-    EdmComplexType edmComplexType = null;
-
     try {
       edmComplexType = createComplexType(fqName);
       if (edmComplexType != null) {
-        edmComplexTypes.put(fqName, edmComplexType);
+        final EdmComplexType existing = edmComplexTypes.putIfAbsent(fqName, edmComplexType);
+        if (existing != null) {
+          edmComplexType = existing;
+        }
       }
     } catch (ODataException e) {
       throw new EdmException(EdmException.COMMON, e);
@@ -123,16 +152,18 @@ public abstract class EdmImpl implements Edm {
   @Override
   public EdmAssociation getAssociation(final String namespace, final String name) throws EdmException {
     FullQualifiedName fqName = new FullQualifiedName(namespace, name);
-    if (edmAssociations.containsKey(fqName)) {
-      return edmAssociations.get(fqName);
+    EdmAssociation edmAssociation = edmAssociations.get(fqName);
+    if (edmAssociation != null) {
+      return edmAssociation;
     }
 
-    EdmAssociation edmAssociation = null;
-
     try {
       edmAssociation = createAssociation(fqName);
       if (edmAssociation != null) {
-        edmAssociations.put(fqName, edmAssociation);
+        final EdmAssociation existing = edmAssociations.putIfAbsent(fqName, edmAssociation);
+        if (existing != null) {
+          edmAssociation = existing;
+        }
       }
     } catch (ODataException e) {
       throw new EdmException(EdmException.COMMON, e);
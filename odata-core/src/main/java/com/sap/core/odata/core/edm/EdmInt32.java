@@ -79,12 +79,21 @@ public class EdmInt32 extends AbstractSimpleType {
 
   @Override
   protected <T> String internalValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets) throws EdmSimpleTypeException {
+    checkValue(value);
+    return value.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets, final StringBuilder result) throws EdmSimpleTypeException {
+    checkValue(value);
+    result.append(((Number) value).intValue());
+  }
+
+  private static void checkValue(final Object value) throws EdmSimpleTypeException {
     if (value instanceof Byte || value instanceof Short || value instanceof Integer) {
-      return value.toString();
+      return;
     } else if (value instanceof Long) {
-      if ((Long) value >= Integer.MIN_VALUE && (Long) value <= Integer.MAX_VALUE) {
-        return value.toString();
-      } else {
+      if ((Long) value < Integer.MIN_VALUE || (Long) value > Integer.MAX_VALUE) {
         throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_ILLEGAL_CONTENT.addContent(value));
       }
     } else {
@@ -68,12 +68,21 @@ public class EdmSByte extends AbstractSimpleType {
 
   @Override
   protected <T> String internalValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets) throws EdmSimpleTypeException {
+    checkValue(value);
+    return value.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets, final StringBuilder result) throws EdmSimpleTypeException {
+    checkValue(value);
+    result.append(((Number) value).intValue());
+  }
+
+  private static void checkValue(final Object value) throws EdmSimpleTypeException {
     if (value instanceof Byte) {
-      return value.toString();
+      return;
     } else if (value instanceof Short || value instanceof Integer || value instanceof Long) {
-      if (((Number) value).longValue() >= Byte.MIN_VALUE && ((Number) value).longValue() <= Byte.MAX_VALUE) {
-        return value.toString();
-      } else {
+      if (((Number) value).longValue() < Byte.MIN_VALUE || ((Number) value).longValue() > Byte.MAX_VALUE) {
         throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_ILLEGAL_CONTENT.addContent(value));
       }
     } else {
@@ -17,8 +17,6 @@ package com.sap.core.odata.core.edm;
 
 import java.math.BigDecimal;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.sap.core.odata.api.edm.EdmFacets;
 import com.sap.core.odata.api.edm.EdmLiteralKind;
@@ -35,8 +33,6 @@ public class EdmSingle extends AbstractSimpleType {
   private static final int MAX_PRECISION = 7;
   private static final int MAX_SCALE = 38;
 
-  private static final Pattern PATTERN = Pattern.compile(
-      "(?:\\+|-)?\\p{Digit}{1,7}(?:\\.\\p{Digit}{1,7})?(?:(?:E|e)(?:\\+|-)?\\p{Digit}{1,2})?(F|f)?");
   private static final EdmSingle instance = new EdmSingle();
 
   public static EdmSingle getInstance() {
@@ -73,9 +69,7 @@ public class EdmSingle extends AbstractSimpleType {
       result = Float.NaN;
     } else {
       // Now only "normal" numbers remain.
-      final Matcher matcher = PATTERN.matcher(value);
-      if (!matcher.matches()
-          || (literalKind == EdmLiteralKind.URI) == (matcher.group(1) == null)) {
+      if (!EdmDouble.isFloatingPointLiteral(value, literalKind == EdmLiteralKind.URI, 'F', MAX_PRECISION, 2)) {
         throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(value));
       }
 
@@ -15,8 +15,6 @@
  ******************************************************************************/
 package com.sap.core.odata.core.edm;
 
-import java.util.regex.Pattern;
-
 import com.sap.core.odata.api.edm.EdmFacets;
 import com.sap.core.odata.api.edm.EdmLiteralKind;
 import com.sap.core.odata.api.edm.EdmSimpleTypeException;
@@ -27,7 +25,6 @@ import com.sap.core.odata.api.edm.EdmSimpleTypeException;
  */
 public class EdmString extends AbstractSimpleType {
 
-  private static final Pattern PATTERN_ASCII = Pattern.compile("\\p{ASCII}*");
   private static final EdmString instance = new EdmString();
 
   public static EdmString getInstance() {
@@ -53,7 +50,7 @@ public class EdmString extends AbstractSimpleType {
     }
 
     if (facets != null
-        && (facets.isUnicode() != null && !facets.isUnicode() && !PATTERN_ASCII.matcher(result).matches()
+        && (facets.isUnicode() != null && !facets.isUnicode() && !isAscii(result)
         || facets.getMaxLength() != null && facets.getMaxLength() < result.length())) {
       throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_FACETS_NOT_MATCHED.addContent(value, facets));
     }
@@ -70,7 +67,7 @@ public class EdmString extends AbstractSimpleType {
     final String result = value instanceof String ? (String) value : String.valueOf(value);
 
     if (facets != null
-        && (facets.isUnicode() != null && !facets.isUnicode() && !PATTERN_ASCII.matcher(result).matches()
+        && (facets.isUnicode() != null && !facets.isUnicode() && !isAscii(result)
         || facets.getMaxLength() != null && facets.getMaxLength() < result.length())) {
       throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_FACETS_NOT_MATCHED.addContent(value, facets));
     }
@@ -94,4 +91,13 @@ public class EdmString extends AbstractSimpleType {
     uriLiteral.append('\'');
     return uriLiteral.toString();
   }
+
+  private static boolean isAscii(final String value) {
+    for (int index = 0; index < value.length(); index++) {
+      if (value.charAt(index) > 0x7F) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -18,8 +18,6 @@ package com.sap.core.odata.core.edm;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.sap.core.odata.api.edm.EdmFacets;
 import com.sap.core.odata.api.edm.EdmLiteralKind;
@@ -35,8 +33,6 @@ import com.sap.core.odata.api.edm.EdmSimpleTypeException;
  */
 public class EdmTime extends AbstractSimpleType {
 
-  private static final Pattern PATTERN = Pattern.compile(
-      "PT(?:(\\p{Digit}{1,2})H)?(?:(\\p{Digit}{1,4})M)?(?:(\\p{Digit}{1,5})(?:\\.(\\p{Digit}+?)0*)?S)?");
   private static final EdmTime instance = new EdmTime();
 
   public static EdmTime getInstance() {
@@ -73,36 +69,62 @@ public class EdmTime extends AbstractSimpleType {
   }
 
   private Calendar parseLiteral(final String literal, final EdmFacets facets) throws EdmSimpleTypeException {
-    final Matcher matcher = PATTERN.matcher(literal);
-    if (!matcher.matches()
-        || (matcher.group(1) == null && matcher.group(2) == null && matcher.group(3) == null)) {
+    // The literal has the form PT[h[h]H][m[mmm]M][s[ssss][.f*]S] with at least one of the three parts.
+    final int length = literal.length();
+    if (length < 4 || !literal.startsWith("PT")) {
       throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(literal));
     }
 
     Calendar dateTimeValue = Calendar.getInstance();
     dateTimeValue.clear();
 
-    if (matcher.group(1) != null) {
-      dateTimeValue.set(Calendar.HOUR_OF_DAY, Integer.parseInt(matcher.group(1)));
-    }
-    if (matcher.group(2) != null) {
-      dateTimeValue.set(Calendar.MINUTE, Integer.parseInt(matcher.group(2)));
-    }
-    if (matcher.group(3) != null) {
-      dateTimeValue.set(Calendar.SECOND, Integer.parseInt(matcher.group(3)));
-    }
-
-    if (matcher.group(4) != null) {
-      if (facets == null || facets.getPrecision() == null || facets.getPrecision() >= matcher.group(4).length()) {
-        if (matcher.group(4).length() <= 3) {
-          dateTimeValue.set(Calendar.MILLISECOND,
-              Short.parseShort(matcher.group(4) + "000".substring(0, 3 - matcher.group(4).length())));
+    int index = 2;
+    int part = 0; // the number of the last part found: 1 for hours, 2 for minutes, 3 for seconds
+    while (index < length) {
+      final int end = EdmDateTime.scanDigits(literal, index, length);
+      final int digits = end - index;
+      final char designator = end < length ? literal.charAt(end) : ' ';
+      if (digits > 0 && designator == 'H' && part < 1 && digits <= 2) {
+        dateTimeValue.set(Calendar.HOUR_OF_DAY, EdmDateTime.parseDigits(literal, index, end));
+        part = 1;
+        index = end;
+      } else if (digits > 0 && designator == 'M' && part < 2 && digits <= 4) {
+        dateTimeValue.set(Calendar.MINUTE, EdmDateTime.parseDigits(literal, index, end));
+        part = 2;
+        index = end;
+      } else if (digits > 0 && (designator == 'S' || designator == '.') && part < 3 && digits <= 5) {
+        dateTimeValue.set(Calendar.SECOND, EdmDateTime.parseDigits(literal, index, end));
+        part = 3;
+        if (designator == '.') {
+          index = end + 1;
+          final int fractionEnd = EdmDateTime.scanDigits(literal, index, length);
+          if (fractionEnd == index || fractionEnd != length - 1 || literal.charAt(fractionEnd) != 'S') {
+            throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(literal));
+          }
+          // Trailing zeroes are not significant but at least one digit is.
+          int decimals = fractionEnd - index;
+          while (decimals > 1 && literal.charAt(index + decimals - 1) == '0') {
+            decimals--;
+          }
+          if (facets != null && facets.getPrecision() != null && facets.getPrecision() < decimals) {
+            throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_FACETS_NOT_MATCHED.addContent(literal, facets));
+          }
+          if (decimals > 3) {
+            throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(literal));
+          }
+          int milliseconds = EdmDateTime.parseDigits(literal, index, index + decimals);
+          for (int i = decimals; i < 3; i++) {
+            milliseconds *= 10;
+          }
+          dateTimeValue.set(Calendar.MILLISECOND, milliseconds);
+          index = fractionEnd;
         } else {
-          throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(literal));
+          index = end;
         }
       } else {
-        throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_FACETS_NOT_MATCHED.addContent(literal, facets));
+        throw new EdmSimpleTypeException(EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT.addContent(literal));
       }
+      index++;
     }
 
     if (dateTimeValue.get(Calendar.DAY_OF_YEAR) == 1) {
@@ -114,39 +136,54 @@ public class EdmTime extends AbstractSimpleType {
 
   @Override
   protected <T> String internalValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets) throws EdmSimpleTypeException {
-    Calendar dateTimeValue;
+    StringBuilder result = new StringBuilder(15); // 15 characters are enough for millisecond precision.
+    internalAppendValueToString(value, literalKind, facets, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValueToString(final T value, final EdmLiteralKind literalKind, final EdmFacets facets, final StringBuilder result) throws EdmSimpleTypeException {
+    int millisOfDay;
     if (value instanceof Date) {
-      dateTimeValue = Calendar.getInstance();
-      dateTimeValue.clear();
-      dateTimeValue.setTime((Date) value);
+      final long timeInMillis = ((Date) value).getTime();
+      millisOfDay = getMillisOfDay(timeInMillis + TimeZone.getDefault().getOffset(timeInMillis));
     } else if (value instanceof Calendar) {
-      dateTimeValue = (Calendar) ((Calendar) value).clone();
+      final Calendar dateTimeValue = (Calendar) ((Calendar) value).clone();
+      millisOfDay = ((dateTimeValue.get(Calendar.HOUR_OF_DAY) * 60
+          + dateTimeValue.get(Calendar.MINUTE)) * 60
+          + dateTimeValue.get(Calendar.SECOND)) * 1000
+          + dateTimeValue.get(Calendar.MILLISECOND);
     } else if (value instanceof Long) {
-      dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-      dateTimeValue.clear();
-      dateTimeValue.setTimeInMillis((Long) value);
+      millisOfDay = getMillisOfDay((Long) value);
     } else {
       throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_TYPE_NOT_SUPPORTED.addContent(value.getClass()));
     }
 
-    StringBuilder result = new StringBuilder(15); // 15 characters are enough for millisecond precision.
     result.append('P');
     result.append('T');
-    result.append(dateTimeValue.get(Calendar.HOUR_OF_DAY));
+    result.append(millisOfDay / (60 * 60 * 1000));
     result.append('H');
-    result.append(dateTimeValue.get(Calendar.MINUTE));
+    result.append(millisOfDay / (60 * 1000) % 60);
     result.append('M');
-    result.append(dateTimeValue.get(Calendar.SECOND));
+    result.append(millisOfDay / 1000 % 60);
 
     try {
-      EdmDateTime.appendMilliseconds(result, dateTimeValue.get(Calendar.MILLISECOND), facets);
+      EdmDateTime.appendMilliseconds(result, millisOfDay % 1000, facets);
     } catch (final IllegalArgumentException e) {
       throw new EdmSimpleTypeException(EdmSimpleTypeException.VALUE_FACETS_NOT_MATCHED.addContent(value, facets), e);
     }
 
     result.append('S');
+  }
 
-    return result.toString();
+  /**
+   * Returns the number of milliseconds since the start of the day.
+   * @param timeInMillis milliseconds since 1970-01-01T00:00:00 in the time zone of interest
+   */
+  private static int getMillisOfDay(final long timeInMillis) {
+    final int millisPerDay = 24 * 60 * 60 * 1000;
+    final int millisOfDay = (int) (timeInMillis % millisPerDay);
+    return millisOfDay < 0 ? millisOfDay + millisPerDay : millisOfDay;
   }
 
   @Override
@@ -15,8 +15,8 @@
  ******************************************************************************/
 package com.sap.core.odata.core.edm.provider;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.sap.core.odata.api.edm.EdmAnnotatable;
 import com.sap.core.odata.api.edm.EdmAnnotations;
@@ -41,18 +41,18 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
   private EdmImplProv edm;
   private EntityContainerInfo entityContainer;
-  private Map<String, EdmEntitySet> edmEntitySets;
-  private Map<String, EdmAssociationSet> edmAssociationSets;
-  private Map<String, EdmFunctionImport> edmFunctionImports;
+  private ConcurrentMap<String, EdmEntitySet> edmEntitySets;
+  private ConcurrentMap<String, EdmAssociationSet> edmAssociationSets;
+  private ConcurrentMap<String, EdmFunctionImport> edmFunctionImports;
   private EdmEntityContainer edmExtendedEntityContainer;
   private boolean isDefaultContainer;
 
   public EdmEntityContainerImplProv(final EdmImplProv edm, final EntityContainerInfo entityContainer) throws EdmException {
     this.edm = edm;
     this.entityContainer = entityContainer;
-    edmEntitySets = new HashMap<String, EdmEntitySet>();
-    edmAssociationSets = new HashMap<String, EdmAssociationSet>();
-    edmFunctionImports = new HashMap<String, EdmFunctionImport>();
+    edmEntitySets = new ConcurrentHashMap<String, EdmEntitySet>();
+    edmAssociationSets = new ConcurrentHashMap<String, EdmAssociationSet>();
+    edmFunctionImports = new ConcurrentHashMap<String, EdmFunctionImport>();
     isDefaultContainer = entityContainer.isDefaultEntityContainer();
 
     if (entityContainer.getExtendz() != null) {
@@ -70,7 +70,7 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
   @Override
   public EdmEntitySet getEntitySet(final String name) throws EdmException {
-    EdmEntitySet edmEntitySet = edmEntitySets.get(name);
+    EdmEntitySet edmEntitySet = name == null ? null : edmEntitySets.get(name);
     if (edmEntitySet != null) {
       return edmEntitySet;
     }
@@ -84,11 +84,19 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
     if (entitySet != null) {
       edmEntitySet = createEntitySet(entitySet);
-      edmEntitySets.put(name, edmEntitySet);
+      if (name != null) {
+        final EdmEntitySet existing = edmEntitySets.putIfAbsent(name, edmEntitySet);
+        if (existing != null) {
+          edmEntitySet = existing;
+        }
+      }
     } else if (edmExtendedEntityContainer != null) {
       edmEntitySet = edmExtendedEntityContainer.getEntitySet(name);
-      if (edmEntitySet != null) {
-        edmEntitySets.put(name, edmEntitySet);
+      if (edmEntitySet != null && name != null) {
+        final EdmEntitySet existing = edmEntitySets.putIfAbsent(name, edmEntitySet);
+        if (existing != null) {
+          edmEntitySet = existing;
+        }
       }
     }
 
@@ -97,7 +105,7 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
   @Override
   public EdmFunctionImport getFunctionImport(final String name) throws EdmException {
-    EdmFunctionImport edmFunctionImport = edmFunctionImports.get(name);
+    EdmFunctionImport edmFunctionImport = name == null ? null : edmFunctionImports.get(name);
     if (edmFunctionImport != null) {
       return edmFunctionImport;
     }
@@ -111,11 +119,19 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
     if (functionImport != null) {
       edmFunctionImport = createFunctionImport(functionImport);
-      edmFunctionImports.put(name, edmFunctionImport);
+      if (name != null) {
+        final EdmFunctionImport existing = edmFunctionImports.putIfAbsent(name, edmFunctionImport);
+        if (existing != null) {
+          edmFunctionImport = existing;
+        }
+      }
     } else if (edmExtendedEntityContainer != null) {
       edmFunctionImport = edmExtendedEntityContainer.getFunctionImport(name);
-      if (edmFunctionImport != null) {
-        edmFunctionImports.put(name, edmFunctionImport);
+      if (edmFunctionImport != null && name != null) {
+        final EdmFunctionImport existing = edmFunctionImports.putIfAbsent(name, edmFunctionImport);
+        if (existing != null) {
+          edmFunctionImport = existing;
+        }
       }
     }
 
@@ -146,11 +162,19 @@ public class EdmEntityContainerImplProv implements EdmEntityContainer, EdmAnnota
 
     if (associationSet != null) {
       edmAssociationSet = createAssociationSet(associationSet);
-      edmAssociationSets.put(key, edmAssociationSet);
+      final EdmAssociationSet existing = edmAssociationSets.putIfAbsent(key, edmAssociationSet);
+      if (existing != null) {
+        edmAssociationSet = existing;
+      }
       return edmAssociationSet;
     } else if (edmExtendedEntityContainer != null) {
       edmAssociationSet = edmExtendedEntityContainer.getAssociationSet(sourceEntitySet, navigationProperty);
-      edmAssociationSets.put(key, edmAssociationSet);
+      if (edmAssociationSet != null) {
+        final EdmAssociationSet existing = edmAssociationSets.putIfAbsent(key, edmAssociationSet);
+        if (existing != null) {
+          edmAssociationSet = existing;
+        }
+      }
       return edmAssociationSet;
     } else {
       throw new EdmException(EdmException.COMMON);
@@ -21,6 +21,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.sap.core.odata.api.edm.EdmAnnotatable;
 import com.sap.core.odata.api.edm.EdmAnnotations;
@@ -42,9 +44,9 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
 
   private FunctionImport functionImport;
   private EdmEntityContainer edmEntityContainer;
-  private Map<String, EdmParameter> edmParameters;
+  private ConcurrentMap<String, EdmParameter> edmParameters;
   private Map<String, FunctionImportParameter> parameters;
-  private List<String> parametersList;
+  private volatile List<String> parametersList;
 
   public EdmFunctionImportImplProv(final EdmImplProv edm, final FunctionImport functionImport, final EdmEntityContainer edmEntityContainer) throws EdmException {
     super(edm, functionImport.getName());
@@ -53,7 +55,7 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
 
     buildFunctionImportParametersInternal();
 
-    edmParameters = new HashMap<String, EdmParameter>();
+    edmParameters = new ConcurrentHashMap<String, EdmParameter>();
   }
 
   private void buildFunctionImportParametersInternal() {
@@ -71,10 +73,8 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
 
   @Override
   public EdmParameter getParameter(final String name) throws EdmException {
-    EdmParameter parameter = null;
-    if (edmParameters.containsKey(name)) {
-      parameter = edmParameters.get(name);
-    } else {
+    EdmParameter parameter = name == null ? null : edmParameters.get(name);
+    if (parameter == null) {
       parameter = createParameter(name);
     }
 
@@ -86,7 +86,10 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
     if (parameters.containsKey(name)) {
       FunctionImportParameter parameter = parameters.get(name);
       edmParameter = new EdmParameterImplProv(edm, parameter);
-      edmParameters.put(name, edmParameter);
+      final EdmParameter existing = edmParameters.putIfAbsent(name, edmParameter);
+      if (existing != null) {
+        edmParameter = existing;
+      }
     }
     return edmParameter;
   }
@@ -94,13 +97,14 @@ public class EdmFunctionImportImplProv extends EdmNamedImplProv implements EdmFu
   @Override
   public List<String> getParameterNames() throws EdmException {
     if (parametersList == null) {
-      parametersList = new ArrayList<String>();
+      List<String> parameterNames = new ArrayList<String>();
 
       Set<String> keySet = parameters.keySet();
       Iterator<String> iterator = keySet.iterator();
       while (iterator.hasNext()) {
-        parametersList.add(iterator.next());
+        parameterNames.add(iterator.next());
       }
+      parametersList = parameterNames;
     }
 
     return parametersList;
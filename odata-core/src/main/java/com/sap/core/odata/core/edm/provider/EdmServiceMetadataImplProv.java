@@ -22,13 +22,12 @@ import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import com.sap.core.odata.api.ODataServiceVersion;
 import com.sap.core.odata.api.edm.EdmEntitySetInfo;
-import com.sap.core.odata.api.edm.EdmServiceMetadata;
+import com.sap.core.odata.api.edm.EdmTaggedServiceMetadata;
 import com.sap.core.odata.api.edm.provider.DataServices;
 import com.sap.core.odata.api.edm.provider.EdmProvider;
 import com.sap.core.odata.api.edm.provider.EntityContainer;
@@ -38,18 +37,21 @@ import com.sap.core.odata.api.edm.provider.Property;
 import com.sap.core.odata.api.edm.provider.Schema;
 import com.sap.core.odata.api.ep.EntityProviderException;
 import com.sap.core.odata.api.exception.ODataException;
+import com.sap.core.odata.core.commons.XmlHelper;
 import com.sap.core.odata.core.ep.producer.XmlMetadataProducer;
 import com.sap.core.odata.core.ep.util.CircleStreamBuffer;
+import com.sap.core.odata.core.ep.util.SerializedDocument;
 
 /**
  * @author SAP AG
  */
-public class EdmServiceMetadataImplProv implements EdmServiceMetadata {
+public class EdmServiceMetadataImplProv implements EdmTaggedServiceMetadata {
 
   private EdmProvider edmProvider;
-  private String dataServiceVersion;
-  private List<Schema> schemas;
-  private List<EdmEntitySetInfo> entitySetInfos;
+  private volatile String dataServiceVersion;
+  private volatile List<Schema> schemas;
+  private volatile List<EdmEntitySetInfo> entitySetInfos;
+  private volatile SerializedDocument metadataDocument;
 
   public EdmServiceMetadataImplProv(final EdmProvider edmProvider) {
     this.edmProvider = edmProvider;
@@ -57,6 +59,26 @@ public class EdmServiceMetadataImplProv implements EdmServiceMetadata {
 
   @Override
   public InputStream getMetadata() throws ODataException {
+    return getMetadataDocument().getContent();
+  }
+
+  @Override
+  public String getMetadataETag() throws ODataException {
+    return getMetadataDocument().getETag();
+  }
+
+  private SerializedDocument getMetadataDocument() throws ODataException {
+    if (metadataDocument == null) {
+      try {
+        metadataDocument = SerializedDocument.create(writeMetadata());
+      } catch (IOException e) {
+        throw new EntityProviderException(EntityProviderException.COMMON, e);
+      }
+    }
+    return metadataDocument;
+  }
+
+  private InputStream writeMetadata() throws ODataException {
     if (schemas == null) {
       schemas = edmProvider.getSchemas();
     }
@@ -68,7 +90,7 @@ public class EdmServiceMetadataImplProv implements EdmServiceMetadata {
 
     try {
       writer = new OutputStreamWriter(csb.getOutputStream(), "UTF-8");
-      XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+      XMLStreamWriter xmlStreamWriter = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(writer);
       XmlMetadataProducer.writeMetadata(metadata, xmlStreamWriter, null);
       return csb.getInputStream();
     } catch (XMLStreamException e) {
@@ -99,31 +121,32 @@ public class EdmServiceMetadataImplProv implements EdmServiceMetadata {
     }
 
     if (dataServiceVersion == null) {
-      dataServiceVersion = ODataServiceVersion.V10;
-
-      if (schemas != null) {
-        for (Schema schema : schemas) {
-          List<EntityType> entityTypes = schema.getEntityTypes();
-          if (entityTypes != null) {
-            for (EntityType entityType : entityTypes) {
-              List<Property> properties = entityType.getProperties();
-              if (properties != null) {
-                for (Property property : properties) {
-                  if (property.getCustomizableFeedMappings() != null) {
-                    if (property.getCustomizableFeedMappings().getFcKeepInContent() != null) {
-                      if (!property.getCustomizableFeedMappings().getFcKeepInContent()) {
-                        dataServiceVersion = ODataServiceVersion.V20;
-                        return dataServiceVersion;
-                      }
+      dataServiceVersion = determineDataServiceVersion();
+    }
+    return dataServiceVersion;
+  }
+
+  private String determineDataServiceVersion() {
+    if (schemas != null) {
+      for (Schema schema : schemas) {
+        List<EntityType> entityTypes = schema.getEntityTypes();
+        if (entityTypes != null) {
+          for (EntityType entityType : entityTypes) {
+            List<Property> properties = entityType.getProperties();
+            if (properties != null) {
+              for (Property property : properties) {
+                if (property.getCustomizableFeedMappings() != null) {
+                  if (property.getCustomizableFeedMappings().getFcKeepInContent() != null) {
+                    if (!property.getCustomizableFeedMappings().getFcKeepInContent()) {
+                      return ODataServiceVersion.V20;
                     }
                   }
                 }
-                if (entityType.getCustomizableFeedMappings() != null) {
-                  if (entityType.getCustomizableFeedMappings().getFcKeepInContent() != null) {
-                    if (entityType.getCustomizableFeedMappings().getFcKeepInContent()) {
-                      dataServiceVersion = ODataServiceVersion.V20;
-                      return dataServiceVersion;
-                    }
+              }
+              if (entityType.getCustomizableFeedMappings() != null) {
+                if (entityType.getCustomizableFeedMappings().getFcKeepInContent() != null) {
+                  if (entityType.getCustomizableFeedMappings().getFcKeepInContent()) {
+                    return ODataServiceVersion.V20;
                   }
                 }
               }
@@ -132,13 +155,13 @@ public class EdmServiceMetadataImplProv implements EdmServiceMetadata {
         }
       }
     }
-    return dataServiceVersion;
+    return ODataServiceVersion.V10;
   }
 
   @Override
   public List<EdmEntitySetInfo> getEntitySetInfos() throws ODataException {
     if (entitySetInfos == null) {
-      entitySetInfos = new ArrayList<EdmEntitySetInfo>();
+      List<EdmEntitySetInfo> infos = new ArrayList<EdmEntitySetInfo>();
 
       if (schemas == null) {
         schemas = edmProvider.getSchemas();
@@ -148,11 +171,12 @@ public class EdmServiceMetadataImplProv implements EdmServiceMetadata {
         for (EntityContainer entityContainer : schema.getEntityContainers()) {
           for (EntitySet entitySet : entityContainer.getEntitySets()) {
             EdmEntitySetInfo entitySetInfo = new EdmEntitySetInfoImplProv(entitySet, entityContainer);
-            entitySetInfos.add(entitySetInfo);
+            infos.add(entitySetInfo);
           }
         }
       }
 
+      entitySetInfos = infos;
     }
 
     return entitySetInfos;
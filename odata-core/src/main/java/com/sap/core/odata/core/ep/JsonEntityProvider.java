@@ -16,9 +16,11 @@
 package com.sap.core.odata.core.ep;
 
 import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -42,6 +44,7 @@ import com.sap.core.odata.api.ep.entry.ODataEntry;
 import com.sap.core.odata.api.ep.feed.ODataFeed;
 import com.sap.core.odata.api.processor.ODataResponse;
 import com.sap.core.odata.api.processor.ODataResponse.ODataResponseBuilder;
+import com.sap.core.odata.api.processor.ODataStreamingEntity;
 import com.sap.core.odata.api.servicedocument.ServiceDocument;
 import com.sap.core.odata.core.ep.aggregator.EntityInfoAggregator;
 import com.sap.core.odata.core.ep.aggregator.EntityPropertyInfo;
@@ -181,13 +184,20 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
 
   @Override
   public ODataResponse writeFeed(final EdmEntitySet entitySet, final List<Map<String, Object>> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
+    return writeFeed(entitySet, data.iterator(), properties);
+  }
+
+  @Override
+  public ODataResponse writeFeed(final EdmEntitySet entitySet, final Iterator<Map<String, Object>> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
     final EntityInfoAggregator entityInfo = EntityInfoAggregator.create(entitySet, properties.getExpandSelectTree());
+    if (properties.isStreaming()) {
+      return writeStreamingFeed(entityInfo, data, properties);
+    }
+
     CircleStreamBuffer buffer = new CircleStreamBuffer();
 
     try {
-      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET));
-      new JsonFeedEntityProducer(properties).append(writer, entityInfo, data, true);
-      writer.flush();
+      appendFeed(buffer.getOutputStream(), entityInfo, data, properties);
       buffer.closeWrite();
 
       return ODataResponse.entity(buffer.getInputStream()).contentHeader(HttpContentType.APPLICATION_JSON).build();
@@ -200,6 +210,26 @@ public class JsonEntityProvider implements ContentTypeBasedEntityProvider {
     }
   }
 
+  private ODataResponse writeStreamingFeed(final EntityInfoAggregator entityInfo, final Iterator<Map<String, Object>> data, final EntityProviderWriteProperties properties) {
+    final ODataStreamingEntity entity = new ODataStreamingEntity() {
+      @Override
+      public void write(final OutputStream out) throws IOException {
+        try {
+          appendFeed(out, entityInfo, data, properties);
+        } catch (EntityProviderException e) {
+          throw new IOException(e);
+        }
+      }
+    };
+    return ODataResponse.entity(entity).contentHeader(HttpContentType.APPLICATION_JSON).build();
+  }
+
+  private void appendFeed(final OutputStream outStream, final EntityInfoAggregator entityInfo, final Iterator<Map<String, Object>> data, final EntityProviderWriteProperties properties) throws EntityProviderException, IOException {
+    BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outStream, DEFAULT_CHARSET));
+    new JsonFeedEntityProducer(properties).append(writer, entityInfo, data, true);
+    writer.flush();
+  }
+
   @Override
   public ODataResponse writeLink(final EdmEntitySet entitySet, final Map<String, Object> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
     final EntityInfoAggregator entityInfo = EntityInfoAggregator.create(entitySet, properties.getExpandSelectTree());
@@ -16,9 +16,11 @@
 package com.sap.core.odata.core.ep;
 
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import com.sap.core.odata.api.ODataMetricsCallback.Phase;
 import com.sap.core.odata.api.batch.BatchException;
 import com.sap.core.odata.api.batch.BatchPart;
 import com.sap.core.odata.api.batch.BatchResponsePart;
@@ -38,6 +40,7 @@ import com.sap.core.odata.api.ep.feed.ODataFeed;
 import com.sap.core.odata.api.exception.ODataNotAcceptableException;
 import com.sap.core.odata.api.processor.ODataErrorContext;
 import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.processor.ODataStreamingEntity;
 import com.sap.core.odata.api.servicedocument.ServiceDocument;
 import com.sap.core.odata.core.batch.BatchRequestParser;
 import com.sap.core.odata.core.batch.BatchResponseWriter;
@@ -45,6 +48,7 @@ import com.sap.core.odata.core.commons.ContentType;
 import com.sap.core.odata.core.edm.parser.EdmxProvider;
 import com.sap.core.odata.core.edm.provider.EdmImplProv;
 import com.sap.core.odata.core.exception.ODataRuntimeException;
+import com.sap.core.odata.core.metrics.RequestMetrics;
 
 /**
  * @author SAP AG
@@ -75,6 +79,14 @@ public class ProviderFacadeImpl implements EntityProviderInterface {
     }
   }
 
+  private static ODataResponse recordSerialization(final ODataResponse response, final long startTime) {
+    // streamed content is measured when it is written to the client
+    if (!(response.getEntity() instanceof ODataStreamingEntity)) {
+      RequestMetrics.recordCurrent(Phase.SERIALIZATION, startTime);
+    }
+    return response;
+  }
+
   @Override
   public ODataResponse writeErrorDocument(final ODataErrorContext context) {
     try {
@@ -86,7 +98,7 @@ public class ProviderFacadeImpl implements EntityProviderInterface {
 
   @Override
   public ODataResponse writeServiceDocument(final String contentType, final Edm edm, final String serviceRoot) throws EntityProviderException {
-    return create(contentType).writeServiceDocument(edm, serviceRoot);
+    return ServiceDocumentCache.writeServiceDocument(create(contentType), contentType, edm, serviceRoot);
   }
 
   @Override
@@ -106,32 +118,44 @@ public class ProviderFacadeImpl implements EntityProviderInterface {
 
   @Override
   public ODataResponse writeFeed(final String contentType, final EdmEntitySet entitySet, final List<Map<String, Object>> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
-    return create(contentType).writeFeed(entitySet, data, properties);
+    final long startTime = System.nanoTime();
+    return recordSerialization(create(contentType).writeFeed(entitySet, data, properties), startTime);
+  }
+
+  @Override
+  public ODataResponse writeFeed(final String contentType, final EdmEntitySet entitySet, final Iterator<Map<String, Object>> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
+    final long startTime = System.nanoTime();
+    return recordSerialization(create(contentType).writeFeed(entitySet, data, properties), startTime);
   }
 
   @Override
   public ODataResponse writeEntry(final String contentType, final EdmEntitySet entitySet, final Map<String, Object> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
-    return create(contentType).writeEntry(entitySet, data, properties);
+    final long startTime = System.nanoTime();
+    return recordSerialization(create(contentType).writeEntry(entitySet, data, properties), startTime);
   }
 
   @Override
   public ODataResponse writeProperty(final String contentType, final EdmProperty edmProperty, final Object value) throws EntityProviderException {
-    return create(contentType).writeProperty(edmProperty, value);
+    final long startTime = System.nanoTime();
+    return recordSerialization(create(contentType).writeProperty(edmProperty, value), startTime);
   }
 
   @Override
   public ODataResponse writeLink(final String contentType, final EdmEntitySet entitySet, final Map<String, Object> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
-    return create(contentType).writeLink(entitySet, data, properties);
+    final long startTime = System.nanoTime();
+    return recordSerialization(create(contentType).writeLink(entitySet, data, properties), startTime);
   }
 
   @Override
   public ODataResponse writeLinks(final String contentType, final EdmEntitySet entitySet, final List<Map<String, Object>> data, final EntityProviderWriteProperties properties) throws EntityProviderException {
-    return create(contentType).writeLinks(entitySet, data, properties);
+    final long startTime = System.nanoTime();
+    return recordSerialization(create(contentType).writeLinks(entitySet, data, properties), startTime);
   }
 
   @Override
   public ODataResponse writeFunctionImport(final String contentType, final EdmFunctionImport functionImport, final Object data, final EntityProviderWriteProperties properties) throws EntityProviderException {
-    return create(contentType).writeFunctionImport(functionImport, data, properties);
+    final long startTime = System.nanoTime();
+    return recordSerialization(create(contentType).writeFunctionImport(functionImport, data, properties), startTime);
   }
 
   @Override
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.ep;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import com.sap.core.odata.api.commons.ODataHttpHeaders;
+import com.sap.core.odata.api.edm.Edm;
+import com.sap.core.odata.api.edm.provider.EdmCache;
+import com.sap.core.odata.api.ep.EntityProviderException;
+import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.processor.ODataResponse.ODataResponseBuilder;
+import com.sap.core.odata.core.edm.EdmImpl;
+import com.sap.core.odata.core.ep.util.SerializedDocument;
+
+/**
+ * Keeps serialized service documents of entity data models shared across
+ * requests, so that each service document is produced only once for each
+ * content type and service root. The documents are attached to their
+ * {@link EdmImpl} and dropped together with it. Documents of models kept in
+ * {@link EdmCache} are cached from the first request on; a model built for
+ * every request is asked only once for its service document, so documents of
+ * other models are only cached from the second request for the same model on.
+ * @author SAP AG
+ */
+final class ServiceDocumentCache {
+
+  /** Upper bound of cached variants (content type and service root) per entity data model. */
+  static final int MAX_ENTRIES_PER_EDM = 16;
+
+  /** Attached to a model whose service document has been requested once. */
+  private static final Object REQUESTED_ONCE = new Object();
+
+  private ServiceDocumentCache() {}
+
+  static ODataResponse writeServiceDocument(final ContentTypeBasedEntityProvider provider, final String contentType,
+      final Edm edm, final String serviceRoot) throws EntityProviderException {
+    final Map<String, CachedServiceDocument> documents = getDocuments(edm);
+    if (documents == null) {
+      return provider.writeServiceDocument(edm, serviceRoot);
+    }
+
+    final String key = contentType + ' ' + serviceRoot;
+    CachedServiceDocument document;
+    synchronized (documents) {
+      document = documents.get(key);
+    }
+    if (document == null) {
+      final ODataResponse response = provider.writeServiceDocument(edm, serviceRoot);
+      if (!(response.getEntity() instanceof InputStream)) {
+        return response;
+      }
+      try {
+        document = new CachedServiceDocument(SerializedDocument.create((InputStream) response.getEntity(), contentType),
+            response.getContentHeader(), response.getHeader(ODataHttpHeaders.DATASERVICEVERSION));
+      } catch (final IOException e) {
+        throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass().getSimpleName()), e);
+      }
+      synchronized (documents) {
+        final CachedServiceDocument cached = documents.get(key);
+        if (cached == null) {
+          documents.put(key, document);
+        } else {
+          document = cached;
+        }
+      }
+    }
+    return document.createResponse();
+  }
+
+  /**
+   * Returns the documents attached to the model or <code>null</code> if
+   * the model is not known to be shared (yet) and its documents must not be cached.
+   */
+  @SuppressWarnings("unchecked")
+  private static Map<String, CachedServiceDocument> getDocuments(final Edm edm) {
+    if (!(edm instanceof EdmImpl)) {
+      return null;
+    }
+    final ConcurrentMap<Object, Object> attachments = ((EdmImpl) edm).getAttachments();
+    Object documents = attachments.get(ServiceDocumentCache.class);
+    if (documents == null) {
+      documents = attachments.putIfAbsent(ServiceDocumentCache.class, REQUESTED_ONCE);
+      if (documents == null) {
+        if (!EdmCache.contains(edm)) {
+          return null;
+        }
+        documents = REQUESTED_ONCE;
+      }
+    }
+    if (documents == REQUESTED_ONCE) {
+      final RecentDocuments recentDocuments = new RecentDocuments();
+      documents = attachments.replace(ServiceDocumentCache.class, REQUESTED_ONCE, recentDocuments) ?
+          recentDocuments : attachments.get(ServiceDocumentCache.class);
+    }
+    return (Map<String, CachedServiceDocument>) documents;
+  }
+
+  /**
+   * Keeps the most recently used documents, so that requests for further service
+   * roots replace rarely used documents instead of disabling the cache.
+   * Access must be synchronized on the map.
+   */
+  private static final class RecentDocuments extends LinkedHashMap<String, CachedServiceDocument> {
+    private static final long serialVersionUID = 1L;
+
+    RecentDocuments() {
+      super(MAX_ENTRIES_PER_EDM, 0.75f, true);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, CachedServiceDocument> eldest) {
+      return size() > MAX_ENTRIES_PER_EDM;
+    }
+  }
+
+  private static final class CachedServiceDocument {
+    private final SerializedDocument document;
+    private final String contentHeader;
+    private final String dataServiceVersion;
+
+    CachedServiceDocument(final SerializedDocument document, final String contentHeader, final String dataServiceVersion) {
+      this.document = document;
+      this.contentHeader = contentHeader;
+      this.dataServiceVersion = dataServiceVersion;
+    }
+
+    ODataResponse createResponse() {
+      ODataResponseBuilder builder = ODataResponse.entity(document.getContent())
+          .contentHeader(contentHeader)
+          .eTag(document.getETag());
+      if (dataServiceVersion != null) {
+        builder = builder.header(ODataHttpHeaders.DATASERVICEVERSION, dataServiceVersion);
+      }
+      return builder.build();
+    }
+  }
+}
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import com.sap.core.odata.api.edm.Edm;
 import com.sap.core.odata.api.edm.EdmCustomizableFeedMappings;
 import com.sap.core.odata.api.edm.EdmException;
 import com.sap.core.odata.api.edm.EdmFacets;
@@ -32,6 +33,7 @@ import com.sap.core.odata.api.edm.EdmType;
 public class EntityComplexPropertyInfo extends EntityPropertyInfo {
 
   protected List<EntityPropertyInfo> entityPropertyInfo;
+  private String typeName;
 
   EntityComplexPropertyInfo(final String name, final EdmType type, final EdmFacets facets, final EdmCustomizableFeedMappings customizableFeedMapping, final List<EntityPropertyInfo> childEntityInfos) {
     super(name, type, facets, customizableFeedMapping, null, null);
@@ -62,6 +64,19 @@ public class EntityComplexPropertyInfo extends EntityPropertyInfo {
     return Collections.unmodifiableList(entityPropertyInfo);
   }
 
+  /**
+   * Returns the full-qualified name of the complex type, computed once
+   * and reused for every serialized value.
+   * @return namespace and name of the type, separated by {@link Edm#DELIMITER}
+   * @throws EdmException
+   */
+  public String getTypeName() throws EdmException {
+    if (typeName == null) {
+      typeName = getType().getNamespace() + Edm.DELIMITER + getType().getName();
+    }
+    return typeName;
+  }
+
   public EntityPropertyInfo getPropertyInfo(final String name) {
     for (EntityPropertyInfo info : entityPropertyInfo) {
       if (info.getName().equals(name)) {
@@ -24,7 +24,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.sap.core.odata.api.edm.Edm;
 import com.sap.core.odata.api.edm.EdmComplexType;
 import com.sap.core.odata.api.edm.EdmConcurrencyMode;
 import com.sap.core.odata.api.edm.EdmCustomizableFeedMappings;
@@ -41,6 +43,7 @@ import com.sap.core.odata.api.edm.EdmType;
 import com.sap.core.odata.api.edm.EdmTypeKind;
 import com.sap.core.odata.api.ep.EntityProviderException;
 import com.sap.core.odata.api.uri.ExpandSelectTreeNode;
+import com.sap.core.odata.core.commons.Encoder;
 
 /**
  * Aggregator to get easy and fast access to all for serialization and de-serialization necessary {@link EdmEntitySet} informations.
@@ -78,6 +81,18 @@ public class EntityInfoAggregator {
   private List<String> selectedNavigationPropertyNames;
   private List<String> expandedNavigationPropertyNames;
 
+  /*
+   * pre-resolved serialization data: the selected properties and navigation properties in the order of the
+   * entity type, the URI path of the entity set, the entity type name and the inline aggregators
+   */
+  private List<EntityPropertyInfo> selectedPropertyInfos;
+  private List<String> selectedNavigationPropertyNamesInTypeOrder;
+  private Set<String> expandedNavigationPropertyNameSet;
+  private List<EntityPropertyInfo> etagPropertyInfos = Collections.emptyList();
+  private String entitySetPath;
+  private String entityTypeName;
+  private final Map<String, EntityInfoAggregator> inlineEntityInfos = new ConcurrentHashMap<String, EntityInfoAggregator>();
+
   private Map<String, EntityPropertyInfo> targetPath2EntityPropertyInfo = new HashMap<String, EntityPropertyInfo>();
   private List<String> noneSyndicationTargetPaths = new ArrayList<String>();
 
@@ -87,6 +102,7 @@ public class EntityInfoAggregator {
 
   private EdmEntityType entityType;
   private EdmEntitySet entitySet;
+  private ExpandSelectTreeNode expandSelectTree;
 
   /**
    * Constructor is private to force creation over {@link #create(EdmEntitySet)} method.
@@ -271,12 +287,70 @@ public class EntityInfoAggregator {
   }
 
   public Collection<EntityPropertyInfo> getETagPropertyInfos() {
-    List<EntityPropertyInfo> keyProperties = new ArrayList<EntityPropertyInfo>();
-    for (String etagPropertyName : etagPropertyNames) {
-      EntityPropertyInfo e = propertyInfo.get(etagPropertyName);
-      keyProperties.add(e);
+    return etagPropertyInfos;
+  }
+
+  /**
+   * @return unmodifiable list of the infos of all selected properties, in the order of the entity type
+   */
+  public List<EntityPropertyInfo> getSelectedPropertyInfos() {
+    return selectedPropertyInfos;
+  }
+
+  /**
+   * @return unmodifiable list of selected navigation property names, in the order of the entity type
+   */
+  public List<String> getSelectedNavigationPropertyNamesInTypeOrder() {
+    return selectedNavigationPropertyNamesInTypeOrder;
+  }
+
+  /**
+   * @param navigationPropertyName name of a navigation property
+   * @return <code>true</code> if the navigation property is expanded, otherwise <code>false</code>
+   */
+  public boolean isExpanded(final String navigationPropertyName) {
+    return expandedNavigationPropertyNameSet.contains(navigationPropertyName);
+  }
+
+  /**
+   * @return URI-encoded path of the entity set, i.e., the entity set name qualified by the
+   *         entity container name if the container is not the default container
+   */
+  public String getEntitySetPath() {
+    return entitySetPath;
+  }
+
+  /**
+   * @return namespace-qualified name of the entity type
+   * @throws EdmException
+   */
+  public String getEntityTypeName() throws EdmException {
+    if (entityTypeName == null) {
+      entityTypeName = entityType.getNamespace() + Edm.DELIMITER + entityType.getName();
+    }
+    return entityTypeName;
+  }
+
+  /**
+   * Returns the aggregator for the inline content of an expanded navigation property.
+   * The aggregator is kept and reused for all entries serialized with this aggregator
+   * as long as the inline entity set and the expand/select tree are the same.
+   * @param navigationPropertyName name of the expanded navigation property
+   * @param inlineEntitySet entity set of the inline content
+   * @param inlineExpandSelectTree expand/select tree of the inline content
+   * @return aggregator for the inline content
+   * @throws EntityProviderException
+   */
+  public EntityInfoAggregator getInlineEntityInfo(final String navigationPropertyName, final EdmEntitySet inlineEntitySet,
+      final ExpandSelectTreeNode inlineExpandSelectTree) throws EntityProviderException {
+    EntityInfoAggregator inlineEntityInfo = inlineEntityInfos.get(navigationPropertyName);
+    if (inlineEntityInfo == null
+        || inlineEntityInfo.entitySet != inlineEntitySet
+        || inlineEntityInfo.expandSelectTree != inlineExpandSelectTree) {
+      inlineEntityInfo = create(inlineEntitySet, inlineExpandSelectTree);
+      inlineEntityInfos.put(navigationPropertyName, inlineEntityInfo);
     }
-    return keyProperties;
+    return inlineEntityInfo;
   }
 
   /**
@@ -287,10 +361,11 @@ public class EntityInfoAggregator {
 
     if (keyPropertyInfos == null) {
       try {
-        keyPropertyInfos = new ArrayList<EntityPropertyInfo>();
+        List<EntityPropertyInfo> infos = new ArrayList<EntityPropertyInfo>();
         for (String keyPropertyName : entityType.getKeyPropertyNames()) {
-          keyPropertyInfos.add(propertyInfo.get(keyPropertyName));
+          infos.add(propertyInfo.get(keyPropertyName));
         }
+        keyPropertyInfos = infos;
       } catch (EdmException e) {
         throw new EntityProviderException(EntityProviderException.COMMON, e);
       }
@@ -305,6 +380,7 @@ public class EntityInfoAggregator {
   private void initialize(final EdmEntitySet entitySet, final ExpandSelectTreeNode expandSelectTree) throws EntityProviderException {
     try {
       this.entitySet = entitySet;
+      this.expandSelectTree = expandSelectTree;
       entityType = entitySet.getEntityType();
       entitySetName = entitySet.getName();
       isDefaultEntityContainer = entitySet.getEntityContainer().isDefaultEntityContainer();
@@ -340,11 +416,44 @@ public class EntityInfoAggregator {
         }
       }
 
+      initializeSerializationData();
+
     } catch (EdmException e) {
       throw new EntityProviderException(EntityProviderException.COMMON, e);
     }
   }
 
+  private void initializeSerializationData() {
+    final Set<String> selected = new HashSet<String>(selectedPropertyNames);
+    List<EntityPropertyInfo> infos = new ArrayList<EntityPropertyInfo>();
+    for (final String name : propertyNames) {
+      if (selected.contains(name)) {
+        infos.add(propertyInfo.get(name));
+      }
+    }
+    selectedPropertyInfos = Collections.unmodifiableList(infos);
+
+    final Set<String> selectedNavigation = new HashSet<String>(selectedNavigationPropertyNames);
+    List<String> names = new ArrayList<String>();
+    for (final String name : navigationPropertyNames) {
+      if (selectedNavigation.contains(name)) {
+        names.add(name);
+      }
+    }
+    selectedNavigationPropertyNamesInTypeOrder = Collections.unmodifiableList(names);
+    expandedNavigationPropertyNameSet = new HashSet<String>(expandedNavigationPropertyNames);
+
+    infos = new ArrayList<EntityPropertyInfo>();
+    for (final String name : etagPropertyNames) {
+      infos.add(propertyInfo.get(name));
+    }
+    etagPropertyInfos = Collections.unmodifiableList(infos);
+
+    entitySetPath = isDefaultEntityContainer ?
+        Encoder.encode(entitySetName) :
+        Encoder.encode(entityContainerName) + Edm.DELIMITER + Encoder.encode(entitySetName);
+  }
+
   private Map<String, EntityPropertyInfo> createPropertyInfoObjects(final EdmStructuralType type, final List<String> propertyNames) throws EntityProviderException {
     try {
       Map<String, EntityPropertyInfo> infos = new HashMap<String, EntityPropertyInfo>();
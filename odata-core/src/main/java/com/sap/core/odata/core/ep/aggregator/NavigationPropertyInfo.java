@@ -15,18 +15,24 @@
  ******************************************************************************/
 package com.sap.core.odata.core.ep.aggregator;
 
+import com.sap.core.odata.api.edm.Edm;
 import com.sap.core.odata.api.edm.EdmException;
 import com.sap.core.odata.api.edm.EdmMultiplicity;
 import com.sap.core.odata.api.edm.EdmNavigationProperty;
+import com.sap.core.odata.core.commons.Encoder;
 
 public final class NavigationPropertyInfo {
   private String name;
   private EdmMultiplicity multiplicity;
+  private String encodedName;
+  private String relation;
 
   static NavigationPropertyInfo create(final EdmNavigationProperty property) throws EdmException {
     NavigationPropertyInfo info = new NavigationPropertyInfo();
     info.name = property.getName();
     info.multiplicity = property.getMultiplicity();
+    info.encodedName = Encoder.encode(info.name);
+    info.relation = Edm.NAMESPACE_REL_2007_08 + info.name;
     return info;
   }
 
@@ -42,4 +48,19 @@ public final class NavigationPropertyInfo {
   public String getName() {
     return name;
   }
+
+  /**
+   * @return the name of the navigation property, percent-encoded for use as URI path segment
+   */
+  public String getEncodedName() {
+    return encodedName;
+  }
+
+  /**
+   * @return the link relation of the navigation property
+   *         (the OData related-link namespace followed by the name)
+   */
+  public String getRelation() {
+    return relation;
+  }
 }
@@ -34,6 +34,7 @@ import com.sap.core.odata.api.servicedocument.ExtensionAttribute;
 import com.sap.core.odata.api.servicedocument.ExtensionElement;
 import com.sap.core.odata.api.servicedocument.Fixed;
 import com.sap.core.odata.api.servicedocument.Workspace;
+import com.sap.core.odata.core.commons.XmlHelper;
 import com.sap.core.odata.core.ep.util.FormatXml;
 import com.sap.core.odata.core.servicedocument.AcceptImpl;
 import com.sap.core.odata.core.servicedocument.AtomInfoImpl;
@@ -291,9 +292,7 @@ public class AtomServiceDocumentConsumer {
 
   private XMLStreamReader createStreamReader(final InputStream in) throws EntityProviderException {
     if (in != null) {
-      XMLInputFactory factory = XMLInputFactory.newInstance();
-      factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
-      factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+      XMLInputFactory factory = XmlHelper.getXMLInputFactory();
       XMLStreamReader streamReader;
       try {
         streamReader = factory.createXMLStreamReader(in);
@@ -41,6 +41,7 @@ import com.sap.core.odata.api.edm.EdmTargetPath;
 import com.sap.core.odata.api.edm.EdmType;
 import com.sap.core.odata.api.ep.EntityProviderException;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
+import com.sap.core.odata.api.ep.EntityRow;
 import com.sap.core.odata.api.ep.callback.OnWriteEntryContent;
 import com.sap.core.odata.api.ep.callback.OnWriteFeedContent;
 import com.sap.core.odata.api.ep.callback.WriteEntryCallbackContext;
@@ -63,9 +64,16 @@ import com.sap.core.odata.core.ep.util.FormatXml;
  */
 public class AtomEntryEntityProducer {
 
+  private static final String CONTENT_TYPE_XML = ContentType.APPLICATION_XML.toString();
+  private static final String CONTENT_TYPE_FEED = ContentType.APPLICATION_ATOM_XML_FEED.toString();
+  private static final String CONTENT_TYPE_ENTRY = ContentType.APPLICATION_ATOM_XML_ENTRY.toString();
+  private static final String CONTENT_TYPE_OCTET_STREAM = ContentType.APPLICATION_OCTET_STREAM.toString();
+
   private String etag;
   private String location;
   private final EntityProviderWriteProperties properties;
+  private final XmlPropertyEntityProducer propertyProducer = new XmlPropertyEntityProducer();
+  private final EntityRowSlots rowSlots = new EntityRowSlots();
 
   public AtomEntryEntityProducer(final EntityProviderWriteProperties properties) throws EntityProviderException {
     this.properties = properties == null ? EntityProviderWriteProperties.serviceRoot(null).build() : properties;
@@ -109,14 +117,12 @@ public class AtomEntryEntityProducer {
         // write properties/content
         appendCustomProperties(writer, eia, data);
         writer.writeStartElement(FormatXml.ATOM_CONTENT);
-        writer.writeAttribute(FormatXml.ATOM_TYPE, ContentType.APPLICATION_XML.toString());
+        writer.writeAttribute(FormatXml.ATOM_TYPE, CONTENT_TYPE_XML);
         appendProperties(writer, eia, data);
         writer.writeEndElement();
       }
 
       writer.writeEndElement();
-
-      writer.flush();
     } catch (XMLStreamException e) {
       throw new EntityProviderException(EntityProviderException.COMMON, e);
     } catch (EdmException e) {
@@ -131,8 +137,7 @@ public class AtomEntryEntityProducer {
     for (String tpName : noneSyndicationTargetPaths) {
       EntityPropertyInfo info = eia.getTargetPathInfo(tpName);
       final String name = info.getName();
-      XmlPropertyEntityProducer aps = new XmlPropertyEntityProducer();
-      aps.appendCustomProperty(writer, name, info, data.get(name));
+      propertyProducer.appendCustomProperty(writer, name, info, data.get(name));
     }
   }
 
@@ -168,21 +173,21 @@ public class AtomEntryEntityProducer {
       NavigationPropertyInfo info = eia.getNavigationPropertyInfo(name);
       boolean isFeed = (info.getMultiplicity() == EdmMultiplicity.MANY);
       String self = createSelfLink(eia, data, info.getName());
-      appendAtomNavigationLink(writer, self, info.getName(), isFeed, eia, data);
+      appendAtomNavigationLink(writer, self, info.getName(), info.getRelation(), isFeed, eia, data);
     }
   }
 
-  private void appendAtomNavigationLink(final XMLStreamWriter writer, final String self, final String navigationPropertyName, final boolean isFeed, final EntityInfoAggregator eia, final Map<String, Object> data) throws EntityProviderException, EdmException, URISyntaxException {
+  private void appendAtomNavigationLink(final XMLStreamWriter writer, final String self, final String navigationPropertyName, final String relation, final boolean isFeed, final EntityInfoAggregator eia, final Map<String, Object> data) throws EntityProviderException, EdmException, URISyntaxException {
     try {
       writer.writeStartElement(FormatXml.ATOM_LINK);
       writer.writeAttribute(FormatXml.ATOM_HREF, self);
-      writer.writeAttribute(FormatXml.ATOM_REL, Edm.NAMESPACE_REL_2007_08 + navigationPropertyName);
+      writer.writeAttribute(FormatXml.ATOM_REL, relation);
       writer.writeAttribute(FormatXml.ATOM_TITLE, navigationPropertyName);
       if (isFeed) {
-        writer.writeAttribute(FormatXml.ATOM_TYPE, ContentType.APPLICATION_ATOM_XML_FEED.toString());
+        writer.writeAttribute(FormatXml.ATOM_TYPE, CONTENT_TYPE_FEED);
         appendInlineFeed(writer, navigationPropertyName, eia, data, self);
       } else {
-        writer.writeAttribute(FormatXml.ATOM_TYPE, ContentType.APPLICATION_ATOM_XML_ENTRY.toString());
+        writer.writeAttribute(FormatXml.ATOM_TYPE, CONTENT_TYPE_ENTRY);
         appendInlineEntry(writer, navigationPropertyName, eia, data);
       }
 
@@ -194,7 +199,7 @@ public class AtomEntryEntityProducer {
 
   private void appendInlineFeed(final XMLStreamWriter writer, final String navigationPropertyName, final EntityInfoAggregator eia, final Map<String, Object> data, final String self) throws EntityProviderException, XMLStreamException, EdmException, URISyntaxException {
 
-    if (eia.getExpandedNavigationPropertyNames().contains(navigationPropertyName)) {
+    if (eia.isExpanded(navigationPropertyName)) {
       if (properties.getCallbacks() != null && properties.getCallbacks().containsKey(navigationPropertyName)) {
         writer.writeStartElement(Edm.NAMESPACE_M_2007_08, FormatXml.M_INLINE);
 
@@ -225,7 +230,7 @@ public class AtomEntryEntityProducer {
         EntityProviderWriteProperties inlineProperties = result.getInlineProperties();
         EdmEntitySet inlineEntitySet = eia.getEntitySet().getRelatedEntitySet(navProp);
         AtomFeedProducer inlineFeedProducer = new AtomFeedProducer(inlineProperties);
-        EntityInfoAggregator inlineEia = EntityInfoAggregator.create(inlineEntitySet, inlineProperties.getExpandSelectTree());
+        EntityInfoAggregator inlineEia = eia.getInlineEntityInfo(navigationPropertyName, inlineEntitySet, inlineProperties.getExpandSelectTree());
         inlineFeedProducer.append(writer, inlineEia, inlineData, true);
 
         writer.writeEndElement();
@@ -235,7 +240,7 @@ public class AtomEntryEntityProducer {
 
   private void appendInlineEntry(final XMLStreamWriter writer, final String navigationPropertyName, final EntityInfoAggregator eia, final Map<String, Object> data) throws EntityProviderException, XMLStreamException, EdmException {
 
-    if (eia.getExpandedNavigationPropertyNames().contains(navigationPropertyName)) {
+    if (eia.isExpanded(navigationPropertyName)) {
       if (properties.getCallbacks() != null && properties.getCallbacks().containsKey(navigationPropertyName)) {
         writer.writeStartElement(Edm.NAMESPACE_M_2007_08, FormatXml.M_INLINE);
 
@@ -262,7 +267,7 @@ public class AtomEntryEntityProducer {
           EntityProviderWriteProperties inlineProperties = result.getInlineProperties();
           EdmEntitySet inlineEntitySet = eia.getEntitySet().getRelatedEntitySet(navProp);
           AtomEntryEntityProducer inlineProducer = new AtomEntryEntityProducer(inlineProperties);
-          EntityInfoAggregator inlineEia = EntityInfoAggregator.create(inlineEntitySet, inlineProperties.getExpandSelectTree());
+          EntityInfoAggregator inlineEia = eia.getInlineEntityInfo(navigationPropertyName, inlineEntitySet, inlineProperties.getExpandSelectTree());
           inlineProducer.append(writer, inlineEia, inlineData, false, false);
         }
 
@@ -293,7 +298,7 @@ public class AtomEntryEntityProducer {
       String self = createSelfLink(eia, data, "$value");
 
       if (mediaResourceMimeType == null) {
-        mediaResourceMimeType = ContentType.APPLICATION_OCTET_STREAM.toString();
+        mediaResourceMimeType = CONTENT_TYPE_OCTET_STREAM;
       }
 
       writer.writeStartElement(FormatXml.ATOM_LINK);
@@ -311,7 +316,7 @@ public class AtomEntryEntityProducer {
       String self = createSelfLink(eia, data, "$value");
 
       if (mediaResourceMimeType == null) {
-        mediaResourceMimeType = ContentType.APPLICATION_OCTET_STREAM.toString();
+        mediaResourceMimeType = CONTENT_TYPE_OCTET_STREAM;
       }
 
       writer.writeStartElement(FormatXml.ATOM_CONTENT);
@@ -420,7 +425,7 @@ public class AtomEntryEntityProducer {
       String published = getTargetPathValue(eia, EdmTargetPath.SYNDICATION_PUBLISHED, data);
       appendAtomOptionalPart(writer, FormatXml.ATOM_PUBLISHED, published, false);
 
-      String term = eia.getEntityType().getNamespace() + Edm.DELIMITER + eia.getEntityType().getName();
+      String term = eia.getEntityTypeName();
       writer.writeStartElement(FormatXml.ATOM_CATEGORY);
       writer.writeAttribute(FormatXml.ATOM_CATEGORY_TERM, term);
       writer.writeAttribute(FormatXml.ATOM_CATEGORY_SCHEME, Edm.NAMESPACE_SCHEME_2007_08);
@@ -448,12 +453,7 @@ public class AtomEntryEntityProducer {
   }
 
   static String createSelfLink(final EntityInfoAggregator eia, final Map<String, Object> data, final String extension) throws EntityProviderException {
-    StringBuilder sb = new StringBuilder();
-    if (!eia.isDefaultEntityContainer()) {
-      sb.append(Encoder.encode(eia.getEntityContainerName())).append(Edm.DELIMITER);
-    }
-    sb.append(Encoder.encode(eia.getEntitySetName()));
-
+    StringBuilder sb = new StringBuilder(eia.getEntitySetPath());
     sb.append("(").append(createEntryKey(eia, data)).append(")").append(extension == null ? "" : ("/" + extension));
     return sb.toString();
   }
@@ -489,13 +489,15 @@ public class AtomEntryEntityProducer {
       if (!propertyNames.isEmpty()) {
         writer.writeStartElement(Edm.NAMESPACE_M_2007_08, FormatXml.M_PROPERTIES);
 
-        for (String propertyName : propertyNames) {
+        final EntityRow row = data instanceof EntityRow ? (EntityRow) data : null;
+        final int[] slots = row == null ? null : rowSlots.getInSelectOrder(row.getLayout(), eia);
+        for (int i = 0; i < propertyNames.size(); i++) {
+          final String propertyName = propertyNames.get(i);
           EntityPropertyInfo propertyInfo = eia.getPropertyInfo(propertyName);
 
           if (isNotMappedViaCustomMapping(propertyInfo)) {
-            Object value = data.get(propertyName);
-            XmlPropertyEntityProducer aps = new XmlPropertyEntityProducer();
-            aps.append(writer, propertyInfo.getName(), propertyInfo, value);
+            Object value = row == null || slots[i] < 0 ? data.get(propertyName) : row.get(slots[i]);
+            propertyProducer.append(writer, propertyInfo.getName(), propertyInfo, value);
           }
         }
 
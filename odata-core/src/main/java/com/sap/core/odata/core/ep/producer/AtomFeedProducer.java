@@ -17,6 +17,7 @@ package com.sap.core.odata.core.ep.producer;
 
 import java.net.URI;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +51,10 @@ public class AtomFeedProducer {
   }
 
   public void append(final XMLStreamWriter writer, final EntityInfoAggregator eia, final List<Map<String, Object>> data, final boolean isInline) throws EntityProviderException {
+    append(writer, eia, data.iterator(), isInline);
+  }
+
+  public void append(final XMLStreamWriter writer, final EntityInfoAggregator eia, final Iterator<Map<String, Object>> data, final boolean isInline) throws EntityProviderException {
     try {
       writer.writeStartElement(FormatXml.ATOM_FEED);
       TombstoneCallback callback = null;
@@ -128,10 +133,20 @@ public class AtomFeedProducer {
     }
   }
 
-  private void appendEntries(final XMLStreamWriter writer, final EntityInfoAggregator eia, final List<Map<String, Object>> data) throws EntityProviderException {
+  private void appendEntries(final XMLStreamWriter writer, final EntityInfoAggregator eia, final Iterator<Map<String, Object>> data) throws EntityProviderException {
     AtomEntryEntityProducer entryProvider = new AtomEntryEntityProducer(properties);
-    for (Map<String, Object> singleEntryData : data) {
-      entryProvider.append(writer, eia, singleEntryData, false, true);
+    final int flushInterval = properties.getFlushInterval();
+    int count = 0;
+    while (data.hasNext()) {
+      entryProvider.append(writer, eia, data.next(), false, true);
+      count++;
+      if (flushInterval > 0 && count % flushInterval == 0) {
+        try {
+          writer.flush();
+        } catch (XMLStreamException e) {
+          throw new EntityProviderException(EntityProviderException.COMMON, e);
+        }
+      }
     }
   }
 
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.ep.producer;
+
+import java.util.List;
+
+import com.sap.core.odata.api.ep.EntityProviderException;
+import com.sap.core.odata.api.ep.EntityRowLayout;
+import com.sap.core.odata.core.ep.aggregator.EntityInfoAggregator;
+import com.sap.core.odata.core.ep.aggregator.EntityPropertyInfo;
+
+/**
+ * Remembers the slot indexes of a list of property names within the
+ * {@link EntityRowLayout} of the rows written last, so that a producer writing
+ * a feed of {@link com.sap.core.odata.api.ep.EntityRow}s resolves the
+ * property names only once.
+ * Instances are not thread-safe; each producer owns its own.
+ * @author SAP AG
+ */
+class EntityRowSlots {
+
+  private EntityRowLayout layout;
+  private EntityInfoAggregator entityInfo;
+  private int[] slots;
+
+  /**
+   * Returns the slot indexes of the selected properties in the order of
+   * {@link EntityInfoAggregator#getSelectedPropertyNames()};
+   * a property not contained in the layout gets the index <code>-1</code>.
+   */
+  int[] getInSelectOrder(final EntityRowLayout layout, final EntityInfoAggregator entityInfo) throws EntityProviderException {
+    if (layout != this.layout || entityInfo != this.entityInfo) {
+      final List<String> propertyNames = entityInfo.getSelectedPropertyNames();
+      int[] indexes = new int[propertyNames.size()];
+      for (int i = 0; i < indexes.length; i++) {
+        indexes[i] = layout.indexOf(propertyNames.get(i));
+      }
+      remember(layout, entityInfo, indexes);
+    }
+    return slots;
+  }
+
+  /**
+   * Returns the slot indexes of the selected properties in the order of
+   * {@link EntityInfoAggregator#getSelectedPropertyInfos()};
+   * a property not contained in the layout gets the index <code>-1</code>.
+   */
+  int[] getInTypeOrder(final EntityRowLayout layout, final EntityInfoAggregator entityInfo) {
+    if (layout != this.layout || entityInfo != this.entityInfo) {
+      final List<EntityPropertyInfo> propertyInfos = entityInfo.getSelectedPropertyInfos();
+      int[] indexes = new int[propertyInfos.size()];
+      for (int i = 0; i < indexes.length; i++) {
+        indexes[i] = layout.indexOf(propertyInfos.get(i).getName());
+      }
+      remember(layout, entityInfo, indexes);
+    }
+    return slots;
+  }
+
+  private void remember(final EntityRowLayout layout, final EntityInfoAggregator entityInfo, final int[] indexes) {
+    this.layout = layout;
+    this.entityInfo = entityInfo;
+    slots = indexes;
+  }
+}
@@ -23,7 +23,6 @@ import java.util.Map;
 
 import com.sap.core.odata.api.ODataCallback;
 import com.sap.core.odata.api.commons.HttpContentType;
-import com.sap.core.odata.api.edm.Edm;
 import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.edm.EdmEntityType;
 import com.sap.core.odata.api.edm.EdmException;
@@ -31,6 +30,7 @@ import com.sap.core.odata.api.edm.EdmMultiplicity;
 import com.sap.core.odata.api.edm.EdmNavigationProperty;
 import com.sap.core.odata.api.ep.EntityProviderException;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
+import com.sap.core.odata.api.ep.EntityRow;
 import com.sap.core.odata.api.ep.callback.OnWriteEntryContent;
 import com.sap.core.odata.api.ep.callback.OnWriteFeedContent;
 import com.sap.core.odata.api.ep.callback.WriteCallbackContext;
@@ -39,8 +39,9 @@ import com.sap.core.odata.api.ep.callback.WriteEntryCallbackResult;
 import com.sap.core.odata.api.ep.callback.WriteFeedCallbackContext;
 import com.sap.core.odata.api.ep.callback.WriteFeedCallbackResult;
 import com.sap.core.odata.api.exception.ODataApplicationException;
-import com.sap.core.odata.core.commons.Encoder;
 import com.sap.core.odata.core.ep.aggregator.EntityInfoAggregator;
+import com.sap.core.odata.core.ep.aggregator.EntityPropertyInfo;
+import com.sap.core.odata.core.ep.aggregator.NavigationPropertyInfo;
 import com.sap.core.odata.core.ep.util.FormatJson;
 import com.sap.core.odata.core.ep.util.JsonStreamWriter;
 
@@ -55,6 +56,7 @@ public class JsonEntryEntityProducer {
   private String eTag;
   private String location;
   private JsonStreamWriter jsonStreamWriter;
+  private final EntityRowSlots rowSlots = new EntityRowSlots();
 
   public JsonEntryEntityProducer(final EntityProviderWriteProperties properties) throws EntityProviderException {
     this.properties = properties == null ? EntityProviderWriteProperties.serviceRoot(null).build() : properties;
@@ -77,8 +79,7 @@ public class JsonEntryEntityProducer {
       location = (properties.getServiceRoot() == null ? "" : properties.getServiceRoot().toASCIIString()) + self;
       jsonStreamWriter.namedStringValue(FormatJson.ID, location).separator()
           .namedStringValue(FormatJson.URI, location).separator()
-          .namedStringValueRaw(FormatJson.TYPE,
-              type.getNamespace() + Edm.DELIMITER + type.getName());
+          .namedStringValueRaw(FormatJson.TYPE, entityInfo.getEntityTypeName());
       eTag = AtomEntryEntityProducer.createETag(entityInfo, data);
       if (eTag != null) {
         jsonStreamWriter.separator()
@@ -97,66 +98,68 @@ public class JsonEntryEntityProducer {
       }
       jsonStreamWriter.endObject();
 
-      for (final String propertyName : type.getPropertyNames()) {
-        if (entityInfo.getSelectedPropertyNames().contains(propertyName)) {
-          jsonStreamWriter.separator()
-              .name(propertyName);
-          JsonPropertyEntityProducer.appendPropertyValue(jsonStreamWriter, entityInfo.getPropertyInfo(propertyName), data.get(propertyName));
-        }
+      final List<EntityPropertyInfo> propertyInfos = entityInfo.getSelectedPropertyInfos();
+      final EntityRow row = data instanceof EntityRow ? (EntityRow) data : null;
+      final int[] slots = row == null ? null : rowSlots.getInTypeOrder(row.getLayout(), entityInfo);
+      for (int i = 0; i < propertyInfos.size(); i++) {
+        final EntityPropertyInfo propertyInfo = propertyInfos.get(i);
+        final String propertyName = propertyInfo.getName();
+        jsonStreamWriter.separator()
+            .name(propertyName);
+        final Object value = row == null || slots[i] < 0 ? data.get(propertyName) : row.get(slots[i]);
+        JsonPropertyEntityProducer.appendPropertyValue(jsonStreamWriter, propertyInfo, value);
       }
 
-      for (final String navigationPropertyName : type.getNavigationPropertyNames()) {
-        if (entityInfo.getSelectedNavigationPropertyNames().contains(navigationPropertyName)) {
-          jsonStreamWriter.separator()
-              .name(navigationPropertyName);
-          if (entityInfo.getExpandedNavigationPropertyNames().contains(navigationPropertyName)) {
-            if (properties.getCallbacks() != null && properties.getCallbacks().containsKey(navigationPropertyName)) {
-              final EdmNavigationProperty navigationProperty = (EdmNavigationProperty) type.getProperty(navigationPropertyName);
-              final boolean isFeed = navigationProperty.getMultiplicity() == EdmMultiplicity.MANY;
-              final EdmEntitySet entitySet = entityInfo.getEntitySet();
-              final EdmEntitySet inlineEntitySet = entitySet.getRelatedEntitySet(navigationProperty);
-
-              WriteCallbackContext context = isFeed ? new WriteFeedCallbackContext() : new WriteEntryCallbackContext();
-              context.setSourceEntitySet(entitySet);
-              context.setNavigationProperty(navigationProperty);
-              context.setEntryData(data);
-              context.setCurrentExpandSelectTreeNode(properties.getExpandSelectTree().getLinks().get(navigationPropertyName));
-
-              ODataCallback callback = properties.getCallbacks().get(navigationPropertyName);
-              if (callback == null) {
-                throw new EntityProviderException(EntityProviderException.EXPANDNOTSUPPORTED);
-              }
-              try {
-                if (isFeed) {
-                  final WriteFeedCallbackResult result = ((OnWriteFeedContent) callback).retrieveFeedResult((WriteFeedCallbackContext) context);
-                  List<Map<String, Object>> inlineData = result.getFeedData();
-                  if (inlineData == null) {
-                    inlineData = new ArrayList<Map<String, Object>>();
-                  }
+      for (final String navigationPropertyName : entityInfo.getSelectedNavigationPropertyNamesInTypeOrder()) {
+        jsonStreamWriter.separator()
+            .name(navigationPropertyName);
+        if (entityInfo.isExpanded(navigationPropertyName)) {
+          if (properties.getCallbacks() != null && properties.getCallbacks().containsKey(navigationPropertyName)) {
+            final EdmNavigationProperty navigationProperty = (EdmNavigationProperty) type.getProperty(navigationPropertyName);
+            final boolean isFeed = navigationProperty.getMultiplicity() == EdmMultiplicity.MANY;
+            final EdmEntitySet entitySet = entityInfo.getEntitySet();
+            final EdmEntitySet inlineEntitySet = entitySet.getRelatedEntitySet(navigationProperty);
+
+            WriteCallbackContext context = isFeed ? new WriteFeedCallbackContext() : new WriteEntryCallbackContext();
+            context.setSourceEntitySet(entitySet);
+            context.setNavigationProperty(navigationProperty);
+            context.setEntryData(data);
+            context.setCurrentExpandSelectTreeNode(properties.getExpandSelectTree().getLinks().get(navigationPropertyName));
+
+            ODataCallback callback = properties.getCallbacks().get(navigationPropertyName);
+            if (callback == null) {
+              throw new EntityProviderException(EntityProviderException.EXPANDNOTSUPPORTED);
+            }
+            try {
+              if (isFeed) {
+                final WriteFeedCallbackResult result = ((OnWriteFeedContent) callback).retrieveFeedResult((WriteFeedCallbackContext) context);
+                List<Map<String, Object>> inlineData = result.getFeedData();
+                if (inlineData == null) {
+                  inlineData = new ArrayList<Map<String, Object>>();
+                }
+                final EntityProviderWriteProperties inlineProperties = result.getInlineProperties();
+                final EntityInfoAggregator inlineEntityInfo = entityInfo.getInlineEntityInfo(navigationPropertyName, inlineEntitySet, inlineProperties.getExpandSelectTree());
+                new JsonFeedEntityProducer(inlineProperties).append(writer, inlineEntityInfo, inlineData, false);
+
+              } else {
+                final WriteEntryCallbackResult result = ((OnWriteEntryContent) callback).retrieveEntryResult((WriteEntryCallbackContext) context);
+                Map<String, Object> inlineData = result.getEntryData();
+                if (inlineData != null && !inlineData.isEmpty()) {
                   final EntityProviderWriteProperties inlineProperties = result.getInlineProperties();
-                  final EntityInfoAggregator inlineEntityInfo = EntityInfoAggregator.create(inlineEntitySet, inlineProperties.getExpandSelectTree());
-                  new JsonFeedEntityProducer(inlineProperties).append(writer, inlineEntityInfo, inlineData, false);
-
+                  final EntityInfoAggregator inlineEntityInfo = entityInfo.getInlineEntityInfo(navigationPropertyName, inlineEntitySet, inlineProperties.getExpandSelectTree());
+                  new JsonEntryEntityProducer(inlineProperties).append(writer, inlineEntityInfo, inlineData, false);
                 } else {
-                  final WriteEntryCallbackResult result = ((OnWriteEntryContent) callback).retrieveEntryResult((WriteEntryCallbackContext) context);
-                  Map<String, Object> inlineData = result.getEntryData();
-                  if (inlineData != null && !inlineData.isEmpty()) {
-                    final EntityProviderWriteProperties inlineProperties = result.getInlineProperties();
-                    final EntityInfoAggregator inlineEntityInfo = EntityInfoAggregator.create(inlineEntitySet, inlineProperties.getExpandSelectTree());
-                    new JsonEntryEntityProducer(inlineProperties).append(writer, inlineEntityInfo, inlineData, false);
-                  } else {
-                    jsonStreamWriter.unquotedValue("null");
-                  }
+                  jsonStreamWriter.unquotedValue("null");
                 }
-              } catch (final ODataApplicationException e) {
-                throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass().getSimpleName()), e);
               }
-            } else {
-              writeDeferredUri(navigationPropertyName);
+            } catch (final ODataApplicationException e) {
+              throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass().getSimpleName()), e);
             }
           } else {
-            writeDeferredUri(navigationPropertyName);
+            writeDeferredUri(entityInfo.getNavigationPropertyInfo(navigationPropertyName));
           }
+        } else {
+          writeDeferredUri(entityInfo.getNavigationPropertyInfo(navigationPropertyName));
         }
       }
 
@@ -166,8 +169,6 @@ public class JsonEntryEntityProducer {
         jsonStreamWriter.endObject();
       }
 
-      writer.flush();
-
     } catch (final IOException e) {
       throw new EntityProviderException(EntityProviderException.EXCEPTION_OCCURRED.addContent(e.getClass().getSimpleName()), e);
     } catch (final EdmException e) {
@@ -175,10 +176,10 @@ public class JsonEntryEntityProducer {
     }
   }
 
-  private void writeDeferredUri(final String navigationPropertyName) throws IOException {
+  private void writeDeferredUri(final NavigationPropertyInfo navigationPropertyInfo) throws IOException {
     jsonStreamWriter.beginObject()
         .name(FormatJson.DEFERRED);
-    JsonLinkEntityProducer.appendUri(jsonStreamWriter, location + "/" + Encoder.encode(navigationPropertyName));
+    JsonLinkEntityProducer.appendUri(jsonStreamWriter, location + "/" + navigationPropertyInfo.getEncodedName());
     jsonStreamWriter.endObject();
   }
 
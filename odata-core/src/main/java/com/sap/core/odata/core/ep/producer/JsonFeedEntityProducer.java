@@ -17,6 +17,7 @@ package com.sap.core.odata.core.ep.producer;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -40,6 +41,10 @@ public class JsonFeedEntityProducer {
   }
 
   public void append(final Writer writer, final EntityInfoAggregator entityInfo, final List<Map<String, Object>> data, final boolean isRootElement) throws EntityProviderException {
+    append(writer, entityInfo, data.iterator(), isRootElement);
+  }
+
+  public void append(final Writer writer, final EntityInfoAggregator entityInfo, final Iterator<Map<String, Object>> data, final boolean isRootElement) throws EntityProviderException {
     JsonStreamWriter jsonStreamWriter = new JsonStreamWriter(writer);
 
     try {
@@ -58,14 +63,17 @@ public class JsonFeedEntityProducer {
       jsonStreamWriter.name(FormatJson.RESULTS)
           .beginArray();
       JsonEntryEntityProducer entryProducer = new JsonEntryEntityProducer(properties);
-      boolean first = true;
-      for (final Map<String, Object> entryData : data) {
-        if (first) {
-          first = false;
-        } else {
+      final int flushInterval = properties.getFlushInterval();
+      int count = 0;
+      while (data.hasNext()) {
+        if (count > 0) {
           jsonStreamWriter.separator();
         }
-        entryProducer.append(writer, entityInfo, entryData, false);
+        entryProducer.append(writer, entityInfo, data.next(), false);
+        count++;
+        if (flushInterval > 0 && count % flushInterval == 0) {
+          writer.flush();
+        }
       }
       jsonStreamWriter.endArray();
 
@@ -19,13 +19,12 @@ import java.io.IOException;
 import java.io.Writer;
 import java.util.Map;
 
-import com.sap.core.odata.api.edm.Edm;
 import com.sap.core.odata.api.edm.EdmException;
 import com.sap.core.odata.api.edm.EdmLiteralKind;
 import com.sap.core.odata.api.edm.EdmSimpleType;
 import com.sap.core.odata.api.edm.EdmSimpleTypeKind;
-import com.sap.core.odata.api.edm.EdmType;
 import com.sap.core.odata.api.ep.EntityProviderException;
+import com.sap.core.odata.core.edm.AbstractSimpleType;
 import com.sap.core.odata.core.ep.aggregator.EntityComplexPropertyInfo;
 import com.sap.core.odata.core.ep.aggregator.EntityPropertyInfo;
 import com.sap.core.odata.core.ep.util.FormatJson;
@@ -62,7 +61,7 @@ public class JsonPropertyEntityProducer {
     if (propertyInfo.isComplex()) {
       if (value == null || value instanceof Map<?, ?>) {
         jsonStreamWriter.beginObject();
-        appendPropertyMetadata(jsonStreamWriter, propertyInfo.getType());
+        appendPropertyMetadata(jsonStreamWriter, (EntityComplexPropertyInfo) propertyInfo);
         for (final EntityPropertyInfo childPropertyInfo : ((EntityComplexPropertyInfo) propertyInfo).getPropertyInfos()) {
           jsonStreamWriter.separator();
           final String name = childPropertyInfo.getName();
@@ -76,36 +75,78 @@ public class JsonPropertyEntityProducer {
     } else {
       final EdmSimpleType type = (EdmSimpleType) propertyInfo.getType();
       final Object contentValue = value instanceof Map ? ((Map<?, ?>) value).get(propertyInfo.getName()) : value;
-      final String valueAsString = type.valueToString(contentValue, EdmLiteralKind.JSON, propertyInfo.getFacets());
-      switch (EdmSimpleTypeKind.valueOf(type.getName())) {
-      case String:
-        jsonStreamWriter.stringValue(valueAsString);
-        break;
-      case Boolean:
-      case Byte:
-      case SByte:
-      case Int16:
-      case Int32:
-        jsonStreamWriter.unquotedValue(valueAsString);
-        break;
-      case DateTime:
-      case DateTimeOffset:
-        // Although JSON escaping is (and should be) done in the JSON
-        // serializer, we backslash-escape the forward slash here explicitly
-        // because it is not required to escape it in JSON but in OData.
-        jsonStreamWriter.stringValueRaw(valueAsString == null ? null : valueAsString.replace("/", "\\/"));
-        break;
-      default:
-        jsonStreamWriter.stringValueRaw(valueAsString);
-        break;
+      final EdmSimpleTypeKind kind = EdmSimpleTypeKind.valueOf(type.getName());
+      if (kind == EdmSimpleTypeKind.String || !(type instanceof AbstractSimpleType)) {
+        appendPropertyValue(jsonStreamWriter, kind, type.valueToString(contentValue, EdmLiteralKind.JSON, propertyInfo.getFacets()));
+      } else {
+        // Format the value into the buffer of the writer to avoid an intermediate String.
+        final StringBuilder buffer = jsonStreamWriter.getValueBuffer();
+        if (((AbstractSimpleType) type).appendValueToString(contentValue, EdmLiteralKind.JSON, propertyInfo.getFacets(), buffer)) {
+          switch (kind) {
+          case Boolean:
+          case Byte:
+          case SByte:
+          case Int16:
+          case Int32:
+            jsonStreamWriter.bufferedValue(false);
+            break;
+          case DateTime:
+          case DateTimeOffset:
+            escapeSlashes(buffer);
+            jsonStreamWriter.bufferedValue(true);
+            break;
+          default:
+            jsonStreamWriter.bufferedValue(true);
+            break;
+          }
+        } else {
+          jsonStreamWriter.unquotedValue(null);
+        }
+      }
+    }
+  }
+
+  private static void appendPropertyValue(final JsonStreamWriter jsonStreamWriter, final EdmSimpleTypeKind kind, final String valueAsString) throws IOException {
+    switch (kind) {
+    case String:
+      jsonStreamWriter.stringValue(valueAsString);
+      break;
+    case Boolean:
+    case Byte:
+    case SByte:
+    case Int16:
+    case Int32:
+      jsonStreamWriter.unquotedValue(valueAsString);
+      break;
+    case DateTime:
+    case DateTimeOffset:
+      // Although JSON escaping is (and should be) done in the JSON
+      // serializer, we backslash-escape the forward slash here explicitly
+      // because it is not required to escape it in JSON but in OData.
+      jsonStreamWriter.stringValueRaw(valueAsString == null ? null : valueAsString.replace("/", "\\/"));
+      break;
+    default:
+      jsonStreamWriter.stringValueRaw(valueAsString);
+      break;
+    }
+  }
+
+  /**
+   * Backslash-escapes all forward slashes in the buffer, see
+   * {@link #appendPropertyValue(JsonStreamWriter, EdmSimpleTypeKind, String)}.
+   */
+  private static void escapeSlashes(final StringBuilder buffer) {
+    for (int i = buffer.length() - 1; i >= 0; i--) {
+      if (buffer.charAt(i) == '/') {
+        buffer.insert(i, '\\');
       }
     }
   }
 
-  protected static void appendPropertyMetadata(final JsonStreamWriter jsonStreamWriter, final EdmType type) throws IOException, EdmException {
+  protected static void appendPropertyMetadata(final JsonStreamWriter jsonStreamWriter, final EntityComplexPropertyInfo propertyInfo) throws IOException, EdmException {
     jsonStreamWriter.name(FormatJson.METADATA)
         .beginObject()
-        .namedStringValueRaw(FormatJson.TYPE, type.getNamespace() + Edm.DELIMITER + type.getName())
+        .namedStringValueRaw(FormatJson.TYPE, propertyInfo.getTypeName())
         .endObject();
   }
 }
@@ -27,6 +27,8 @@ import com.sap.core.odata.api.edm.EdmException;
 import com.sap.core.odata.api.edm.EdmLiteralKind;
 import com.sap.core.odata.api.edm.EdmSimpleType;
 import com.sap.core.odata.api.ep.EntityProviderException;
+import com.sap.core.odata.core.edm.AbstractSimpleType;
+import com.sap.core.odata.core.edm.EdmString;
 import com.sap.core.odata.core.ep.aggregator.EntityComplexPropertyInfo;
 import com.sap.core.odata.core.ep.aggregator.EntityPropertyInfo;
 import com.sap.core.odata.core.ep.util.FormatXml;
@@ -37,6 +39,11 @@ import com.sap.core.odata.core.ep.util.FormatXml;
  */
 public class XmlPropertyEntityProducer {
 
+  // Re-used for all simple values written by this producer
+  // so that formatting a value does not need to allocate a String.
+  private final StringBuilder valueBuffer = new StringBuilder();
+  private char[] characters = new char[32];
+
   /**
    * Append {@link Object} <code>value</code> based on {@link EntityPropertyInfo} to {@link XMLStreamWriter}
    * in an already existing XML structure inside the d namespace.
@@ -137,7 +144,7 @@ public class XmlPropertyEntityProducer {
    * @return Full qualified name
    */
   private String getFqnTypeName(final EntityComplexPropertyInfo propertyInfo) throws EdmException {
-    return propertyInfo.getType().getNamespace() + Edm.DELIMITER + propertyInfo.getType().getName();
+    return propertyInfo.getTypeName();
   }
 
   /**
@@ -179,11 +186,25 @@ public class XmlPropertyEntityProducer {
     }
 
     final EdmSimpleType type = (EdmSimpleType) prop.getType();
-    final String valueAsString = type.valueToString(contentValue, EdmLiteralKind.DEFAULT, prop.getFacets());
-    if (valueAsString == null) {
-      writer.writeAttribute(Edm.NAMESPACE_M_2007_08, FormatXml.ATOM_NULL, FormatXml.ATOM_VALUE_TRUE);
+    if (type instanceof AbstractSimpleType && !(type instanceof EdmString)) {
+      valueBuffer.setLength(0);
+      if (((AbstractSimpleType) type).appendValueToString(contentValue, EdmLiteralKind.DEFAULT, prop.getFacets(), valueBuffer)) {
+        final int length = valueBuffer.length();
+        if (characters.length < length) {
+          characters = new char[Math.max(length, 2 * characters.length)];
+        }
+        valueBuffer.getChars(0, length, characters, 0);
+        writer.writeCharacters(characters, 0, length);
+      } else {
+        writer.writeAttribute(Edm.NAMESPACE_M_2007_08, FormatXml.ATOM_NULL, FormatXml.ATOM_VALUE_TRUE);
+      }
     } else {
-      writer.writeCharacters(valueAsString);
+      final String valueAsString = type.valueToString(contentValue, EdmLiteralKind.DEFAULT, prop.getFacets());
+      if (valueAsString == null) {
+        writer.writeAttribute(Edm.NAMESPACE_M_2007_08, FormatXml.ATOM_NULL, FormatXml.ATOM_VALUE_TRUE);
+      } else {
+        writer.writeCharacters(valueAsString);
+      }
     }
   }
 
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.ep.util;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded and thread-safe pool of {@link ByteBuffer}s which can be shared between
+ * several {@link CircleStreamBuffer} instances (and hence between several requests).
+ * <p>Only buffers with a capacity of {@link #MIN_POOLED_CAPACITY} multiplied with a power of two
+ * (up to {@link #MAX_POOLED_CAPACITY}) are pooled, all other buffers are simply allocated.
+ * Released buffers are kept as long as the sum of their capacities does not exceed
+ * the configured maximum.</p>
+ * 
+ * @author SAP AG
+ */
+public class ByteBufferPool {
+
+  public static final int MIN_POOLED_CAPACITY = 8192;
+  public static final int MAX_POOLED_CAPACITY = MIN_POOLED_CAPACITY * 32;
+  public static final long DEFAULT_MAX_POOLED_BYTES = 16L * 1024 * 1024;
+
+  private static final ByteBufferPool DEFAULT_POOL = new ByteBufferPool(DEFAULT_MAX_POOLED_BYTES, false);
+
+  private final long maxPooledBytes;
+  private final boolean direct;
+  private final Queue<ByteBuffer>[] pools;
+
+  private final AtomicLong pooledBytes = new AtomicLong();
+  private final AtomicLong pooledBuffers = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong discards = new AtomicLong();
+
+  /**
+   * Creates a pool which holds at most <code>maxPooledBytes</code> bytes in released buffers.
+   * @param maxPooledBytes maximum sum of the capacities of all pooled buffers
+   * @param direct whether the allocated buffers are direct buffers (see {@link ByteBuffer#allocateDirect(int)})
+   */
+  @SuppressWarnings("unchecked")
+  public ByteBufferPool(final long maxPooledBytes, final boolean direct) {
+    this.maxPooledBytes = maxPooledBytes;
+    this.direct = direct;
+    pools = new Queue[Integer.numberOfTrailingZeros(MAX_POOLED_CAPACITY / MIN_POOLED_CAPACITY) + 1];
+    for (int i = 0; i < pools.length; i++) {
+      pools[i] = new ConcurrentLinkedQueue<ByteBuffer>();
+    }
+  }
+
+  /**
+   * Gets the pool used by default for all {@link CircleStreamBuffer}s.
+   * @return the default pool (with heap buffers)
+   */
+  public static ByteBufferPool getDefault() {
+    return DEFAULT_POOL;
+  }
+
+  /**
+   * Gets a cleared buffer with exactly the given capacity, from the pool if possible.
+   * @param capacity capacity of the buffer
+   * @return the buffer
+   */
+  public ByteBuffer acquire(final int capacity) {
+    final int index = getPoolIndex(capacity);
+    if (index >= 0) {
+      final ByteBuffer buffer = pools[index].poll();
+      if (buffer != null) {
+        pooledBytes.addAndGet(-capacity);
+        pooledBuffers.decrementAndGet();
+        hits.incrementAndGet();
+        buffer.clear();
+        return buffer;
+      }
+    }
+    misses.incrementAndGet();
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  /**
+   * Returns the buffer into the pool. The buffer must not be used afterwards.
+   * @param buffer the buffer (buffers which do not fit into this pool are ignored)
+   */
+  public void release(final ByteBuffer buffer) {
+    final int capacity = buffer.capacity();
+    final int index = getPoolIndex(capacity);
+    if (index < 0 || buffer.isDirect() != direct || buffer.isReadOnly()) {
+      return;
+    }
+    if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+      pooledBytes.addAndGet(-capacity);
+      discards.incrementAndGet();
+    } else {
+      pooledBuffers.incrementAndGet();
+      pools[index].add(buffer);
+    }
+  }
+
+  private int getPoolIndex(final int capacity) {
+    if (capacity < MIN_POOLED_CAPACITY || capacity > MAX_POOLED_CAPACITY || capacity % MIN_POOLED_CAPACITY != 0) {
+      return -1;
+    }
+    final int factor = capacity / MIN_POOLED_CAPACITY;
+    return Integer.bitCount(factor) == 1 ? Integer.numberOfTrailingZeros(factor) : -1;
+  }
+
+  public boolean isDirect() {
+    return direct;
+  }
+
+  public long getMaxPooledBytes() {
+    return maxPooledBytes;
+  }
+
+  /**
+   * @return number of buffer requests which were served from the pool
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * @return number of buffer requests which required a new allocation
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * @return number of released buffers which were dropped because the pool was full
+   */
+  public long getDiscardCount() {
+    return discards.get();
+  }
+
+  /**
+   * @return number of buffers currently held in the pool
+   */
+  public long getPooledBufferCount() {
+    return pooledBuffers.get();
+  }
+
+  /**
+   * @return sum of the capacities of all buffers currently held in the pool
+   */
+  public long getPooledBytes() {
+    return pooledBytes.get();
+  }
+}
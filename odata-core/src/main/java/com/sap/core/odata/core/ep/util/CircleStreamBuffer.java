@@ -25,6 +25,8 @@ import java.util.concurrent.LinkedBlockingQueue;
 /**
  * Circular stream buffer to write/read into/from one single buffer.
  * With support of {@link InputStream} and {@link OutputStream} access to buffered data.
+ * <p>The internal byte buffers are taken from a {@link ByteBufferPool} and given back
+ * as soon as they are read out completely or the read part is closed.</p>
  * 
  * @author SAP AG
  */
@@ -36,6 +38,7 @@ public class CircleStreamBuffer {
   private static final int MAX_CAPACITY = DEFAULT_CAPACITY * 32;
 
   private int currentAllocateCapacity = DEFAULT_CAPACITY;
+  private final ByteBufferPool pool;
 
   private boolean writeMode = true;
   private boolean writeClosed = false;
@@ -60,6 +63,18 @@ public class CircleStreamBuffer {
    * @param bufferSize
    */
   public CircleStreamBuffer(final int bufferSize) {
+    this(bufferSize, ByteBufferPool.getDefault());
+  }
+
+  /**
+   * Create a {@link CircleStreamBuffer} with given buffer size in bytes
+   * which allocates its buffers from the given pool.
+   * 
+   * @param bufferSize
+   * @param pool
+   */
+  public CircleStreamBuffer(final int bufferSize, final ByteBufferPool pool) {
+    this.pool = pool;
     currentAllocateCapacity = bufferSize;
     createNewWriteBuffer();
     inStream = new InternalInputStream(this);
@@ -104,10 +119,10 @@ public class CircleStreamBuffer {
    */
   public void closeRead() {
     readClosed = true;
-    // clear references to byte buffers
+    // clear references to byte buffers and give them back to the pool
     ByteBuffer buffer = bufferQueue.poll();
     while (buffer != null) {
-      buffer.clear();
+      releaseBuffer(buffer);
       buffer = bufferQueue.poll();
     }
   }
@@ -122,7 +137,7 @@ public class CircleStreamBuffer {
 
   private int remaining() throws IOException {
     if (writeMode) {
-      return currentWriteBuffer.remaining();
+      return currentWriteBuffer == null ? 0 : currentWriteBuffer.remaining();
     } else {
       ByteBuffer toRead = getReadBuffer();
       if (toRead == null) {
@@ -151,7 +166,7 @@ public class CircleStreamBuffer {
     } else {
       tmp = bufferQueue.peek();
       if (tmp != null && !tmp.hasRemaining()) {
-        tmp = bufferQueue.poll();
+        releaseBuffer(bufferQueue.poll());
         next = true;
       }
     }
@@ -206,7 +221,7 @@ public class CircleStreamBuffer {
       throw new IOException("Tried to write into closed stream.");
     }
 
-    if (writeMode) {
+    if (writeMode && currentWriteBuffer != null) {
       if (remaining() < size) {
         createNewWriteBuffer(size);
       }
@@ -254,7 +269,19 @@ public class CircleStreamBuffer {
     }
     // update current
     currentAllocateCapacity = allocateCapacity;
-    return ByteBuffer.allocate(allocateCapacity);
+    return pool.acquire(allocateCapacity);
+  }
+
+  /**
+   * Gives the buffer back to the pool; it must not be referenced afterwards.
+   * 
+   * @param buffer
+   */
+  private void releaseBuffer(final ByteBuffer buffer) {
+    if (buffer == currentWriteBuffer) {
+      currentWriteBuffer = null;
+    }
+    pool.release(buffer);
   }
 
   // #############################################
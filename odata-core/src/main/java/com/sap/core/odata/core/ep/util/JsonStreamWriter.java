@@ -17,13 +17,28 @@ package com.sap.core.odata.core.ep.util;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Writes JSON output.
  * @author SAP AG
  */
 public class JsonStreamWriter {
+  /** Pre-built <code>"name":</code> fragments for the names defined in {@link FormatJson}. */
+  private static final Map<String, String> NAME_FRAGMENTS = new HashMap<String, String>();
+  static {
+    for (final String name : new String[] { FormatJson.D, FormatJson.RESULTS, FormatJson.COUNT,
+        FormatJson.METADATA, FormatJson.DEFERRED, FormatJson.ID, FormatJson.CONTENT_TYPE,
+        FormatJson.MEDIA_SRC, FormatJson.MEDIA_ETAG, FormatJson.EDIT_MEDIA, FormatJson.URI,
+        FormatJson.TYPE, FormatJson.ETAG, FormatJson.NEXT }) {
+      NAME_FRAGMENTS.put(name, '"' + name + "\":");
+    }
+  }
+
   private final Writer writer;
+  private StringBuilder valueBuffer;
+  private char[] characters;
 
   public JsonStreamWriter(final Writer writer) {
     this.writer = writer;
@@ -50,31 +65,77 @@ public class JsonStreamWriter {
   }
 
   public JsonStreamWriter name(final String name) throws IOException {
-    writer.append('"').append(name).append('"').append(':');
+    final String fragment = NAME_FRAGMENTS.get(name);
+    if (fragment == null) {
+      writer.write('"');
+      writer.write(name);
+      writer.write("\":");
+    } else {
+      writer.write(fragment);
+    }
     return this;
   }
 
   public JsonStreamWriter unquotedValue(final String value) throws IOException {
-    writer.append(value == null ? FormatJson.NULL : value);
+    writer.write(value == null ? FormatJson.NULL : value);
     return this;
   }
 
   public JsonStreamWriter stringValueRaw(final String value) throws IOException {
     if (value == null) {
-      writer.append(FormatJson.NULL);
+      writer.write(FormatJson.NULL);
     } else {
-      writer.append('"').append(value).append('"');
+      writer.write('"');
+      writer.write(value);
+      writer.write('"');
     }
     return this;
   }
 
   public JsonStreamWriter stringValue(final String value) throws IOException {
     if (value == null) {
-      writer.append(FormatJson.NULL);
+      writer.write(FormatJson.NULL);
     } else {
-      writer.append('"');
+      writer.write('"');
       escape(value);
-      writer.append('"');
+      writer.write('"');
+    }
+    return this;
+  }
+
+  /**
+   * Returns an empty buffer to format a value into;
+   * write its content with {@link #bufferedValue(boolean)}.
+   * @return the value buffer of this writer
+   */
+  public StringBuilder getValueBuffer() {
+    if (valueBuffer == null) {
+      valueBuffer = new StringBuilder();
+      characters = new char[32];
+    } else {
+      valueBuffer.setLength(0);
+    }
+    return valueBuffer;
+  }
+
+  /**
+   * Writes the content of the value buffer without escaping.
+   * @param quoted whether the value is written as JSON string
+   * @return this writer
+   * @throws IOException if an I/O error occurs
+   */
+  public JsonStreamWriter bufferedValue(final boolean quoted) throws IOException {
+    final int length = valueBuffer.length();
+    if (characters.length < length) {
+      characters = new char[Math.max(length, 2 * characters.length)];
+    }
+    valueBuffer.getChars(0, length, characters, 0);
+    if (quoted) {
+      writer.write('"');
+      writer.write(characters, 0, length);
+      writer.write('"');
+    } else {
+      writer.write(characters, 0, length);
     }
     return this;
   }
@@ -106,10 +167,19 @@ public class JsonStreamWriter {
     // quotation marks except for the characters that must be escaped:
     // quotation mark, reverse solidus, and the control characters
     // (U+0000 through U+001F)."
-    // All output here is done on character basis which should be faster
-    // than writing Strings.
-    for (int i = 0; i < value.length(); i++) {
+    // Runs of characters that need no escaping are written as a whole;
+    // only the characters to be escaped are written one by one.
+    final int length = value.length();
+    int start = 0;
+    for (int i = 0; i < length; i++) {
       final char c = value.charAt(i);
+      if (c >= '\u0020' && c != '"' && c != '\\') {
+        continue;
+      }
+      if (i > start) {
+        writer.write(value, start, i - start);
+      }
+      start = i + 1;
       switch (c) {
       case '\\':
         writer.append('\\').append(c);
@@ -168,5 +238,8 @@ public class JsonStreamWriter {
         writer.append(c);
       }
     }
+    if (start < length) {
+      writer.write(value, start, length - start);
+    }
   }
 }
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.ep.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Immutable, already serialized document (e.g., the metadata document or the
+ * service document) together with a strong entity tag calculated from its content.
+ * The content can be handed out to any number of (concurrent) requests.
+ * @author SAP AG
+ */
+public final class SerializedDocument {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final byte[] content;
+  private final String eTag;
+
+  private SerializedDocument(final byte[] content, final String contentType) {
+    this.content = content;
+    eTag = calculateETag(content, contentType);
+  }
+
+  /**
+   * Reads the given stream completely and closes it.
+   * @param content the document content
+   * @return the serialized document
+   * @throws IOException if the stream could not be read
+   */
+  public static SerializedDocument create(final InputStream content) throws IOException {
+    return create(content, null);
+  }
+
+  /**
+   * Reads the given stream completely and closes it. The content type is part
+   * of the entity tag, so that different representations of the same content
+   * get different entity tags.
+   * @param content the document content
+   * @param contentType the content type of the document; may be <code>null</code>
+   * @return the serialized document
+   * @throws IOException if the stream could not be read
+   */
+  public static SerializedDocument create(final InputStream content, final String contentType) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try {
+      byte[] tmp = new byte[8192];
+      int read;
+      while ((read = content.read(tmp)) != -1) {
+        buffer.write(tmp, 0, read);
+      }
+    } finally {
+      content.close();
+    }
+    return new SerializedDocument(buffer.toByteArray(), contentType);
+  }
+
+  /**
+   * @return a new stream over the document content
+   */
+  public InputStream getContent() {
+    return new ByteArrayInputStream(content);
+  }
+
+  /**
+   * @return the length of the document content in bytes
+   */
+  public int getLength() {
+    return content.length;
+  }
+
+  /**
+   * @return strong entity tag (including the quotes) for the document content
+   */
+  public String getETag() {
+    return eTag;
+  }
+
+  /**
+   * Checks whether the value of an <code>If-None-Match</code> request header
+   * matches the given entity tag.
+   * @param ifNoneMatch header value, a list of entity tags or <code>*</code>; may be <code>null</code>
+   * @param eTag entity tag of the current representation; may be <code>null</code>
+   * @return <code>true</code> if the client's representation is still up to date
+   */
+  public static boolean matches(final String ifNoneMatch, final String eTag) {
+    if (ifNoneMatch == null || eTag == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if ("*".equals(candidate) || eTag.equals(candidate)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String calculateETag(final byte[] content, final String contentType) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+      if (contentType != null) {
+        messageDigest.update(contentType.getBytes("UTF-8"));
+      }
+      final byte[] digest = messageDigest.digest(content);
+      StringBuilder eTag = new StringBuilder(digest.length * 2 + 2).append('"');
+      for (final byte b : digest) {
+        eTag.append(HEX_DIGITS[(b >> 4) & 0x0F]).append(HEX_DIGITS[b & 0x0F]);
+      }
+      return eTag.append('"').toString();
+    } catch (final NoSuchAlgorithmException e) {
+      // every Java platform has to support MD5
+      throw new IllegalStateException(e);
+    } catch (final UnsupportedEncodingException e) {
+      // every Java platform has to support UTF-8
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Histogram of non-negative values, e.g. latencies, with logarithmic
+ * buckets that are linearly subdivided, following the layout of HdrHistogram.</p>
+ * <p>Values below 128 are counted exactly; larger values are counted with a
+ * relative precision of 1/64 (two significant decimal digits), i.e., with 64
+ * buckets per power of two. Recording is constant-time, free of allocation and
+ * lock-free, so one histogram can be shared by concurrent threads. While
+ * recording goes on, the results of the getters are an approximation of the
+ * state at the time of the call.</p>
+ * <p>The load harness of the test utilities has a copy of this class, since
+ * they do not depend on the library core.</p>
+ * @author SAP AG
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+  private static final int BUCKET_COUNT = Long.SIZE - SUB_BUCKET_BITS + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(HALF_SUB_BUCKET_COUNT * (BUCKET_COUNT + 1));
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a value; negative values, e.g. from a clock adjustment,
+   * are recorded as zero.
+   * @param recordedValue the value
+   */
+  public void recordValue(final long recordedValue) {
+    final long value = Math.max(recordedValue, 0);
+    counts.incrementAndGet(getIndex(value));
+    totalCount.incrementAndGet();
+    sum.addAndGet(value);
+    updateMin(value);
+    updateMax(value);
+  }
+
+  /**
+   * Adds all values recorded in another histogram to this one.
+   * @param other another histogram
+   */
+  public void add(final LatencyHistogram other) {
+    for (int index = 0; index < counts.length(); index++) {
+      final long count = other.counts.get(index);
+      if (count != 0) {
+        counts.addAndGet(index, count);
+      }
+    }
+    totalCount.addAndGet(other.totalCount.get());
+    sum.addAndGet(other.sum.get());
+    updateMin(other.min.get());
+    updateMax(other.max.get());
+  }
+
+  /**
+   * Discards all recorded values. Recordings running concurrently
+   * may be partially kept.
+   */
+  public void reset() {
+    for (int index = 0; index < counts.length(); index++) {
+      counts.set(index, 0);
+    }
+    totalCount.set(0);
+    sum.set(0);
+    min.set(Long.MAX_VALUE);
+    max.set(0);
+  }
+
+  public long getTotalCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * @return the sum of all recorded values
+   */
+  public long getSum() {
+    return sum.get();
+  }
+
+  public long getMinValue() {
+    return totalCount.get() == 0 ? 0 : min.get();
+  }
+
+  public long getMaxValue() {
+    return max.get();
+  }
+
+  public double getMean() {
+    final long count = totalCount.get();
+    return count == 0 ? 0 : (double) sum.get() / count;
+  }
+
+  /**
+   * Gets the value below or at which the given percentage of all recorded
+   * values lies. The result is the highest value that is counted in the
+   * same bucket, but never larger than the largest recorded value.
+   * @param percentile percentage between 0 and 100
+   * @return the value at the percentile or 0 if nothing has been recorded
+   */
+  public long getValueAtPercentile(final double percentile) {
+    final long[] snapshot = new long[counts.length()];
+    long total = 0;
+    for (int index = 0; index < snapshot.length; index++) {
+      snapshot[index] = counts.get(index);
+      total += snapshot[index];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final double requested = Math.min(Math.max(percentile, 0.0), 100.0);
+    final long countAtPercentile = Math.max(1, (long) Math.ceil(requested / 100.0 * total));
+    final long maxValue = max.get();
+    long count = 0;
+    for (int index = 0; index < snapshot.length; index++) {
+      count += snapshot[index];
+      if (count >= countAtPercentile) {
+        return Math.min(getHighestEquivalentValue(index), maxValue);
+      }
+    }
+    return maxValue;
+  }
+
+  private void updateMin(final long value) {
+    long current = min.get();
+    while (value < current && !min.compareAndSet(current, value)) {
+      current = min.get();
+    }
+  }
+
+  private void updateMax(final long value) {
+    long current = max.get();
+    while (value > current && !max.compareAndSet(current, value)) {
+      current = max.get();
+    }
+  }
+
+  private static int getIndex(final long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+    return HALF_SUB_BUCKET_COUNT * shift + (int) (value >>> shift);
+  }
+
+  private static long getHighestEquivalentValue(final int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    final int shift = index / HALF_SUB_BUCKET_COUNT - 1;
+    final long subBucket = index - HALF_SUB_BUCKET_COUNT * shift;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
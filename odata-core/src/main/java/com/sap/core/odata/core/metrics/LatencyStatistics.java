@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free aggregation of durations: count, total, maximum, and a
+ * {@link LatencyHistogram} in microseconds for percentiles.
+ * <p>Durations below 128 microseconds are counted exactly, longer ones
+ * with a relative precision of 1/64.</p>
+ * @author SAP AG
+ */
+public class LatencyStatistics {
+
+  private final AtomicLong totalNanos = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  /**
+   * Records a duration.
+   * @param durationNanos the duration in nanoseconds; negative values are treated as zero
+   */
+  public void record(final long durationNanos) {
+    final long duration = Math.max(durationNanos, 0);
+    totalNanos.addAndGet(duration);
+    long max = maxNanos.get();
+    while (duration > max && !maxNanos.compareAndSet(max, duration)) {
+      max = maxNanos.get();
+    }
+    histogram.recordValue(duration / 1000);
+  }
+
+  public long getCount() {
+    return histogram.getTotalCount();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.get();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  /**
+   * @return the mean duration in microseconds or 0 if nothing has been recorded
+   */
+  public double getMeanMicros() {
+    final long recorded = histogram.getTotalCount();
+    return recorded == 0 ? 0 : totalNanos.get() / 1000.0 / recorded;
+  }
+
+  /**
+   * Returns the duration in microseconds below or at which the given
+   * percentage of the recorded durations lies.
+   * <p>Recording may go on concurrently, so the result is an approximation
+   * for the state at the time of the call.</p>
+   * @param percentile the percentile between 0 and 100
+   * @return the duration in microseconds or 0 if nothing has been recorded
+   */
+  public long getPercentileMicros(final double percentile) {
+    return histogram.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * Discards everything recorded so far. Recordings running concurrently
+   * may be partially kept.
+   */
+  public void reset() {
+    totalNanos.set(0);
+    maxNanos.set(0);
+    histogram.reset();
+  }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.sap.core.odata.api.ODataMetricsCallback.Phase;
+import com.sap.core.odata.core.uri.QueryOptionCache;
+
+/**
+ * Always-on runtime metrics of all requests handled in this class loader.
+ * <p>Recording is lock-free and cheap enough to stay enabled in production:
+ * a few atomic updates per measured phase. The aggregates can be read
+ * directly or via JMX after {@link #registerMBean()}.</p>
+ * @author SAP AG
+ */
+public final class ODataMetrics implements ODataMetricsMBean {
+
+  public static final String OBJECT_NAME = "com.sap.core.odata:type=ODataMetrics";
+
+  private static final ODataMetrics INSTANCE = new ODataMetrics();
+
+  private final Map<Phase, LatencyStatistics> phases;
+  private final LatencyStatistics requests = new LatencyStatistics();
+  private final AtomicLong clientErrors = new AtomicLong();
+  private final AtomicLong serverErrors = new AtomicLong();
+
+  private ODataMetrics() {
+    // The map is filled once and only read afterwards.
+    phases = new EnumMap<Phase, LatencyStatistics>(Phase.class);
+    for (final Phase phase : Phase.values()) {
+      phases.put(phase, new LatencyStatistics());
+    }
+  }
+
+  public static ODataMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Registers the metrics at the platform MBean server
+   * under the name {@value #OBJECT_NAME} unless already done.
+   * @throws JMException if the registration fails
+   */
+  public static void registerMBean() throws JMException {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+    } catch (final InstanceAlreadyExistsException e) {
+      // already registered
+    }
+  }
+
+  /**
+   * Removes the registration at the platform MBean server, if any.
+   * @throws JMException if the unregistration fails
+   */
+  public static void unregisterMBean() throws JMException {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = new ObjectName(OBJECT_NAME);
+    if (server.isRegistered(name)) {
+      server.unregisterMBean(name);
+    }
+  }
+
+  public void recordPhase(final Phase phase, final long durationNanos) {
+    phases.get(phase).record(durationNanos);
+  }
+
+  public void recordRequest(final int statusCode, final long durationNanos) {
+    requests.record(durationNanos);
+    if (statusCode >= 500) {
+      serverErrors.incrementAndGet();
+    } else if (statusCode >= 400) {
+      clientErrors.incrementAndGet();
+    }
+  }
+
+  public LatencyStatistics getPhaseStatistics(final Phase phase) {
+    return phases.get(phase);
+  }
+
+  public LatencyStatistics getRequestStatistics() {
+    return requests;
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requests.getCount();
+  }
+
+  @Override
+  public long getClientErrorCount() {
+    return clientErrors.get();
+  }
+
+  @Override
+  public long getServerErrorCount() {
+    return serverErrors.get();
+  }
+
+  @Override
+  public double getRequestMeanMicros() {
+    return requests.getMeanMicros();
+  }
+
+  @Override
+  public long getRequestMaxMicros() {
+    return requests.getMaxNanos() / 1000;
+  }
+
+  @Override
+  public long getRequestPercentileMicros(final double percentile) {
+    return requests.getPercentileMicros(percentile);
+  }
+
+  @Override
+  public String[] getPhaseNames() {
+    final Phase[] values = Phase.values();
+    String[] names = new String[values.length];
+    for (int index = 0; index < values.length; index++) {
+      names[index] = values[index].name();
+    }
+    return names;
+  }
+
+  @Override
+  public long getPhaseCount(final String phase) {
+    return phases.get(Phase.valueOf(phase)).getCount();
+  }
+
+  @Override
+  public double getPhaseMeanMicros(final String phase) {
+    return phases.get(Phase.valueOf(phase)).getMeanMicros();
+  }
+
+  @Override
+  public long getPhaseMaxMicros(final String phase) {
+    return phases.get(Phase.valueOf(phase)).getMaxNanos() / 1000;
+  }
+
+  @Override
+  public long getPhasePercentileMicros(final String phase, final double percentile) {
+    return phases.get(Phase.valueOf(phase)).getPercentileMicros(percentile);
+  }
+
+  @Override
+  public long getQueryOptionCacheHitCount() {
+    return QueryOptionCache.getTotalHitCount();
+  }
+
+  @Override
+  public long getQueryOptionCacheMissCount() {
+    return QueryOptionCache.getTotalMissCount();
+  }
+
+  @Override
+  public long getQueryOptionCacheEvictionCount() {
+    return QueryOptionCache.getTotalEvictionCount();
+  }
+
+  @Override
+  public void reset() {
+    for (final LatencyStatistics statistics : phases.values()) {
+      statistics.reset();
+    }
+    requests.reset();
+    clientErrors.set(0);
+    serverErrors.set(0);
+  }
+}
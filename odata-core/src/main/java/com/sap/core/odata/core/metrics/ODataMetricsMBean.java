@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.metrics;
+
+/**
+ * Management interface of {@link ODataMetrics}.
+ * Durations are in microseconds; phase names are the names of
+ * {@link com.sap.core.odata.api.ODataMetricsCallback.Phase}.
+ * The query-option cache statistics are the totals over all instances of
+ * {@link com.sap.core.odata.core.uri.QueryOptionCache}.
+ * @author SAP AG
+ */
+public interface ODataMetricsMBean {
+
+  long getRequestCount();
+
+  long getClientErrorCount();
+
+  long getServerErrorCount();
+
+  double getRequestMeanMicros();
+
+  long getRequestMaxMicros();
+
+  long getRequestPercentileMicros(double percentile);
+
+  String[] getPhaseNames();
+
+  long getPhaseCount(String phase);
+
+  double getPhaseMeanMicros(String phase);
+
+  long getPhaseMaxMicros(String phase);
+
+  long getPhasePercentileMicros(String phase, double percentile);
+
+  long getQueryOptionCacheHitCount();
+
+  long getQueryOptionCacheMissCount();
+
+  long getQueryOptionCacheEvictionCount();
+
+  void reset();
+}
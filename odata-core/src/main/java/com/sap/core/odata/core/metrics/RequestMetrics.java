@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.metrics;
+
+import com.sap.core.odata.api.ODataMetricsCallback;
+import com.sap.core.odata.api.ODataMetricsCallback.Phase;
+import com.sap.core.odata.api.ODataServiceFactory;
+
+/**
+ * Records the measurements of one request into {@link ODataMetrics}
+ * and forwards them to the {@link ODataMetricsCallback} of the service, if any.
+ * <p>While a request is handled its recorder is bound to the handling thread
+ * so that code without access to the request, e.g., the entity provider,
+ * can report its measurements via {@link #recordCurrent(Phase, long)}.</p>
+ * @author SAP AG
+ */
+public class RequestMetrics {
+
+  private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<RequestMetrics>();
+
+  private final ODataMetricsCallback callback;
+
+  public RequestMetrics(final ODataServiceFactory serviceFactory) {
+    callback = serviceFactory == null ? null : serviceFactory.<ODataMetricsCallback> getCallback(ODataMetricsCallback.class);
+  }
+
+  public void recordPhase(final Phase phase, final long durationNanos) {
+    ODataMetrics.getInstance().recordPhase(phase, durationNanos);
+    if (callback != null) {
+      callback.phaseCompleted(phase, durationNanos);
+    }
+  }
+
+  public void recordRequest(final int statusCode, final long durationNanos) {
+    ODataMetrics.getInstance().recordRequest(statusCode, durationNanos);
+    if (callback != null) {
+      callback.requestCompleted(statusCode, durationNanos);
+    }
+  }
+
+  /**
+   * Binds this recorder to the current thread.
+   * @return the recorder bound before, to be passed to {@link #unbind(RequestMetrics)}
+   */
+  public RequestMetrics bind() {
+    final RequestMetrics previous = CURRENT.get();
+    CURRENT.set(this);
+    return previous;
+  }
+
+  /**
+   * Restores the binding of the current thread as it was before {@link #bind()}.
+   * @param previous the result of {@link #bind()}
+   */
+  public static void unbind(final RequestMetrics previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  /**
+   * Records a phase with the recorder bound to the current thread
+   * or, if there is none, directly into {@link ODataMetrics}.
+   * @param phase the completed phase
+   * @param startNanos the start of the phase as given by {@link System#nanoTime()}
+   */
+  public static void recordCurrent(final Phase phase, final long startNanos) {
+    final long durationNanos = System.nanoTime() - startNanos;
+    final RequestMetrics current = CURRENT.get();
+    if (current == null) {
+      ODataMetrics.getInstance().recordPhase(phase, durationNanos);
+    } else {
+      current.recordPhase(phase, durationNanos);
+    }
+  }
+}
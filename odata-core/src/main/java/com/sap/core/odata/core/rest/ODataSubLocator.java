@@ -141,7 +141,7 @@ public final class ODataSubLocator {
     ODataRequestHandler requestHandler = new ODataRequestHandler(serviceFactory, service, context);
 
     final ODataResponse odataResponse = requestHandler.handle(request);
-    final Response response = RestUtil.convertResponse(odataResponse);
+    final Response response = RestUtil.convertResponse(odataResponse, requestHandler.getMetrics());
 
     return response;
   }
@@ -18,6 +18,7 @@ package com.sap.core.odata.core.rest;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -33,27 +34,42 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 
+import com.sap.core.odata.api.ODataMetricsCallback.Phase;
 import com.sap.core.odata.api.commons.HttpHeaders;
 import com.sap.core.odata.api.exception.ODataBadRequestException;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.exception.ODataNotFoundException;
 import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.processor.ODataStreamingEntity;
 import com.sap.core.odata.api.uri.PathSegment;
 import com.sap.core.odata.core.ODataPathSegmentImpl;
 import com.sap.core.odata.core.PathInfoImpl;
 import com.sap.core.odata.core.commons.ContentType;
 import com.sap.core.odata.core.commons.Decoder;
+import com.sap.core.odata.core.metrics.RequestMetrics;
 
 /**
  * @author SAP AG
  */
 public class RestUtil {
   public static Response convertResponse(final ODataResponse odataResponse) {
+    return convertResponse(odataResponse, null);
+  }
+
+  /**
+   * Converts the response; the writing of streamed content is recorded
+   * as serialization phase with the given metrics recorder.
+   * @param odataResponse the response
+   * @param metrics the recorder of the request or <code>null</code>
+   * @return the JAX-RS response
+   */
+  public static Response convertResponse(final ODataResponse odataResponse, final RequestMetrics metrics) {
     try {
-      ResponseBuilder responseBuilder = Response.noContent().status(odataResponse.getStatus().getStatusCode()).entity(odataResponse.getEntity());
+      ResponseBuilder responseBuilder = Response.noContent().status(odataResponse.getStatus().getStatusCode()).entity(convertEntity(odataResponse.getEntity(), metrics));
 
       for (final String name : odataResponse.getHeaderNames()) {
         responseBuilder = responseBuilder.header(name, odataResponse.getHeader(name));
@@ -73,6 +89,23 @@ public class RestUtil {
     }
   }
 
+  private static Object convertEntity(final Object entity, final RequestMetrics metrics) {
+    if (entity instanceof ODataStreamingEntity) {
+      final ODataStreamingEntity streamingEntity = (ODataStreamingEntity) entity;
+      return new StreamingOutput() {
+        @Override
+        public void write(final OutputStream output) throws IOException {
+          final long startTime = System.nanoTime();
+          streamingEntity.write(output);
+          if (metrics != null) {
+            metrics.recordPhase(Phase.SERIALIZATION, System.nanoTime() - startTime);
+          }
+        }
+      };
+    }
+    return entity;
+  }
+
   public static ContentType extractRequestContentType(final SubLocatorParameter param) throws ODataBadRequestException {
     final String contentType = param.getHttpHeaders().getHeaderString(HttpHeaders.CONTENT_TYPE);
     if (contentType == null || contentType.isEmpty()) {
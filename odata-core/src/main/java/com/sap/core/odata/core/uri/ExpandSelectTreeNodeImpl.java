@@ -61,7 +61,7 @@ public class ExpandSelectTreeNodeImpl implements ExpandSelectTreeNode {
 
   @Override
   public List<EdmProperty> getProperties() {
-    return properties;
+    return Collections.unmodifiableList(properties);
   }
 
   @SuppressWarnings("unchecked")
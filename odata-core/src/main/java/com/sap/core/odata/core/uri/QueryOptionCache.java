@@ -0,0 +1,442 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.uri;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sap.core.odata.api.edm.Edm;
+import com.sap.core.odata.core.edm.EdmImpl;
+
+/**
+ * <p>Cache for system query options parsed against one entity data model.</p>
+ * <p>Clients tend to send the same few <code>$filter</code>, <code>$orderby</code>,
+ * <code>$expand</code>, and <code>$select</code> strings over and over again,
+ * varying only in paging options. The URI parser therefore caches their parse
+ * results, keyed by the target entity type or entity set, the option, and the
+ * raw option string, and {@link UriParserImpl#buildExpandSelectTree(List, List)}
+ * caches the trees built from cached <code>$select</code> and <code>$expand</code>
+ * lists.</p>
+ * <p>There is no process-wide cache: each cache is attached to one entity data
+ * model, see {@link #acquire(Edm)}, and is only created once the model is shared
+ * across requests, e.g., when it is kept in
+ * {@link com.sap.core.odata.api.edm.provider.EdmCache}; targets are compared by
+ * identity and are part of that model, so the cache never outlives it.</p>
+ * <p>Cached results are shared between requests and must not be modified.
+ * Cached lists, including the inner lists of <code>$expand</code>, are
+ * unmodifiable; the nodes of cached <code>$filter</code> and <code>$orderby</code>
+ * trees, however, offer {@link com.sap.core.odata.api.uri.expression.CommonExpression#setEdmType(com.sap.core.odata.api.edm.EdmType)}
+ * which applications must not call on them.</p>
+ * <p>The cache is bounded by the number of entries and by the total length of
+ * the cached option strings. The latter is only an estimate of the memory the
+ * parse results take, which grows roughly linearly with the option length.
+ * The cache evicts with the lock-free CLOCK algorithm, an approximation of
+ * least-recently-used eviction. Hits, misses, and evictions are counted per
+ * cache and in total over all caches.</p>
+ * @author SAP AG
+ */
+public final class QueryOptionCache {
+
+  /** Option name used for trees built from <code>$select</code> and <code>$expand</code>. */
+  static final String EXPAND_SELECT_TREE = "expandSelectTree";
+
+  /** Attached to a model which has been used by one URI parser. */
+  private static final Object PARSED_ONCE = new Object();
+
+  private static final AtomicLong totalHits = new AtomicLong();
+  private static final AtomicLong totalMisses = new AtomicLong();
+  private static final AtomicLong totalEvictions = new AtomicLong();
+
+  private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<Key, Entry>();
+  private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<Entry>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicLong weight = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private volatile int maximumSize = 1000;
+  private volatile long maximumWeight = 1000000;
+  private volatile int maximumValueLength = 4096;
+
+  public QueryOptionCache() {}
+
+  /**
+   * Returns the cache attached to the given model; each URI parser calls this
+   * once. A model built for every request would never get a cache hit, so the
+   * cache is only created once the model is used by a second URI parser,
+   * i.e., when it is shared across requests.
+   * @param edm the entity data model
+   * @return the cache or <code>null</code> if the model has not been shared (yet)
+   */
+  public static QueryOptionCache acquire(final Edm edm) {
+    if (!(edm instanceof EdmImpl)) {
+      return null;
+    }
+    final ConcurrentMap<Object, Object> attachments = ((EdmImpl) edm).getAttachments();
+    Object cache = attachments.get(QueryOptionCache.class);
+    if (cache == null) {
+      cache = attachments.putIfAbsent(QueryOptionCache.class, PARSED_ONCE);
+      if (cache == null) {
+        return null;
+      }
+    }
+    if (cache == PARSED_ONCE) {
+      final QueryOptionCache newCache = new QueryOptionCache();
+      cache = attachments.replace(QueryOptionCache.class, PARSED_ONCE, newCache) ?
+          newCache : attachments.get(QueryOptionCache.class);
+    }
+    return (QueryOptionCache) cache;
+  }
+
+  /**
+   * Returns the cache the list has been created by.
+   * @return the cache or <code>null</code> if the list is not cached
+   */
+  static QueryOptionCache getCache(final List<?> list) {
+    return list instanceof CachedList ? ((CachedList<?>) list).cache : null;
+  }
+
+  /**
+   * Returns the cached parse result.
+   * @param target the entity type or entity set the option refers to
+   * @param option the name of the query option
+   * @param value the raw option string
+   * @return the cached result or <code>null</code>
+   */
+  public Object get(final Object target, final String option, final Object value) {
+    final Entry entry = entries.get(new Key(target, option, value));
+    if (entry == null) {
+      misses.incrementAndGet();
+      totalMisses.incrementAndGet();
+      return null;
+    } else {
+      hits.incrementAndGet();
+      totalHits.incrementAndGet();
+      entry.referenced = true;
+      return entry.result;
+    }
+  }
+
+  /**
+   * Caches a parse result unless the option string is too long.
+   * @param target the entity type or entity set the option refers to
+   * @param option the name of the query option
+   * @param value the raw option string, used as weight if it is a string
+   * @param result the parse result; it must not be modified afterwards
+   * @return the result that is cached for the key now, which is either the given result
+   *         or one cached concurrently before
+   */
+  public <T> T put(final Object target, final String option, final Object value, final T result) {
+    final int entryWeight = value instanceof String ? ((String) value).length() : 1;
+    if (entryWeight > maximumValueLength) {
+      return result;
+    }
+    final Key key = new Key(target, option, value);
+    final Entry entry = new Entry(key, result, entryWeight);
+    final Entry existing = entries.putIfAbsent(key, entry);
+    if (existing != null) {
+      @SuppressWarnings("unchecked")
+      final T existingResult = (T) existing.result;
+      return existingResult;
+    }
+    clock.add(entry);
+    size.incrementAndGet();
+    weight.addAndGet(entryWeight);
+    evict();
+    return result;
+  }
+
+  private void evict() {
+    while (size.get() > maximumSize || weight.get() > maximumWeight) {
+      final Entry candidate = clock.poll();
+      if (candidate == null) {
+        return;
+      }
+      if (candidate.referenced) {
+        // second chance for entries used since the last pass of the clock hand
+        candidate.referenced = false;
+        clock.add(candidate);
+      } else if (entries.remove(candidate.key, candidate)) {
+        size.decrementAndGet();
+        weight.addAndGet(-candidate.weight);
+        evictions.incrementAndGet();
+        totalEvictions.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Wraps a list of parse results as unmodifiable list which
+   * {@link #isCached(List)} recognizes.
+   */
+  <E> List<E> cachedList(final List<E> list) {
+    return new CachedList<E>(this, list);
+  }
+
+  /**
+   * Copies a list of parse results into an unmodifiable {@link ArrayList},
+   * for the inner lists of <code>$expand</code> whose type is fixed by
+   * {@link com.sap.core.odata.api.uri.UriInfo#getExpand()}.
+   */
+  <E> ArrayList<E> cachedArrayList(final List<E> list) {
+    return new UnmodifiableArrayList<E>(list);
+  }
+
+  /**
+   * Determines whether the list has been returned from this cache
+   * and can therefore be used as part of a cache key.
+   */
+  boolean isCached(final List<?> list) {
+    return getCache(list) == this;
+  }
+
+  /**
+   * Removes all entries; the statistics are kept.
+   */
+  public void clear() {
+    for (final Key key : entries.keySet()) {
+      final Entry entry = entries.remove(key);
+      if (entry != null) {
+        size.decrementAndGet();
+        weight.addAndGet(-entry.weight);
+      }
+    }
+    clock.clear();
+  }
+
+  public int getSize() {
+    return size.get();
+  }
+
+  public long getWeight() {
+    return weight.get();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /**
+   * Returns the number of hits of all caches.
+   */
+  public static long getTotalHitCount() {
+    return totalHits.get();
+  }
+
+  /**
+   * Returns the number of misses of all caches.
+   */
+  public static long getTotalMissCount() {
+    return totalMisses.get();
+  }
+
+  /**
+   * Returns the number of evictions of all caches.
+   */
+  public static long getTotalEvictionCount() {
+    return totalEvictions.get();
+  }
+
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Sets the maximum number of entries; 0 disables caching.
+   */
+  public void setMaximumSize(final int maximumSize) {
+    this.maximumSize = maximumSize;
+    evict();
+  }
+
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  /**
+   * Sets the maximum total length of the cached option strings.
+   */
+  public void setMaximumWeight(final long maximumWeight) {
+    this.maximumWeight = maximumWeight;
+    evict();
+  }
+
+  public int getMaximumValueLength() {
+    return maximumValueLength;
+  }
+
+  /**
+   * Sets the maximum length of a single option string to be cached;
+   * longer options are parsed for each request.
+   */
+  public void setMaximumValueLength(final int maximumValueLength) {
+    this.maximumValueLength = maximumValueLength;
+  }
+
+  private static final class Key {
+    private final Object target;
+    private final String option;
+    private final Object value;
+    private final int hash;
+
+    private Key(final Object target, final String option, final Object value) {
+      this.target = target;
+      this.option = option;
+      this.value = value;
+      hash = 31 * (31 * System.identityHashCode(target) + option.hashCode())
+          + (value instanceof String ? value.hashCode() : System.identityHashCode(value));
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return target == other.target && option.equals(other.option)
+          && (value instanceof String ? value.equals(other.value) : value == other.value);
+    }
+  }
+
+  private static final class Entry {
+    private final Key key;
+    private final Object result;
+    private final int weight;
+    private volatile boolean referenced;
+
+    private Entry(final Key key, final Object result, final int weight) {
+      this.key = key;
+      this.result = result;
+      this.weight = weight;
+    }
+  }
+
+  private static final class CachedList<E> extends AbstractList<E> implements RandomAccess {
+    private final QueryOptionCache cache;
+    private final Object[] elements;
+
+    private CachedList(final QueryOptionCache cache, final List<E> list) {
+      this.cache = cache;
+      elements = list.toArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(final int index) {
+      if (index < 0 || index >= elements.length) {
+        throw new IndexOutOfBoundsException(String.valueOf(index));
+      }
+      return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+      return elements.length;
+    }
+  }
+
+  private static final class UnmodifiableArrayList<E> extends ArrayList<E> {
+    private static final long serialVersionUID = 1L;
+
+    private UnmodifiableArrayList(final List<E> list) {
+      super(list);
+    }
+
+    @Override
+    public E set(final int index, final E element) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean add(final E e) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void add(final int index, final E element) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public E remove(final int index) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends E> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(final int index, final Collection<? extends E> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void removeRange(final int fromIndex, final int toIndex) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<E> subList(final int fromIndex, final int toIndex) {
+      // the sub list of ArrayList writes through to the backing array
+      return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+    }
+  }
+}
@@ -73,6 +73,7 @@ public class UriParserImpl extends UriParser {
   private static final Pattern NAMED_VALUE_PATTERN = Pattern.compile("(?:([^=]+)=)?([^=]+)");
 
   private final Edm edm;
+  private final QueryOptionCache cache;
   private final EdmSimpleTypeFacade simpleTypeFacade;
   private List<String> pathSegments;
   private String currentPathSegment;
@@ -82,6 +83,7 @@ public class UriParserImpl extends UriParser {
 
   public UriParserImpl(final Edm edm) {
     this.edm = edm;
+    cache = QueryOptionCache.acquire(edm);
     simpleTypeFacade = new EdmSimpleTypeFacadeImpl();
   }
 
@@ -576,8 +578,14 @@ public class UriParserImpl extends UriParser {
   private void handleSystemQueryOptionFilter(final String filter) throws UriSyntaxException {
     final EdmType targetType = uriResult.getTargetType();
     if (targetType instanceof EdmEntityType) {
+      FilterExpression filterExpression = cache == null ? null : (FilterExpression) cache.get(targetType, SystemQueryOption.$filter.name(), filter);
+      if (filterExpression != null) {
+        uriResult.setFilter(filterExpression);
+        return;
+      }
       try {
-        uriResult.setFilter(new FilterParserImpl((EdmEntityType) targetType).parseFilterString(filter, true));
+        filterExpression = new FilterParserImpl((EdmEntityType) targetType).parseFilterString(filter, true);
+        uriResult.setFilter(cache == null ? filterExpression : cache.put(targetType, SystemQueryOption.$filter.name(), filter, filterExpression));
       } catch (ExpressionParserException e) {
         throw new UriSyntaxException(UriSyntaxException.INVALIDFILTEREXPRESSION.addContent(filter), e);
       } catch (ODataMessageException e) {
@@ -589,8 +597,14 @@ public class UriParserImpl extends UriParser {
   private void handleSystemQueryOptionOrderBy(final String orderBy) throws UriSyntaxException {
     final EdmType targetType = uriResult.getTargetType();
     if (targetType instanceof EdmEntityType) {
+      OrderByExpression orderByExpression = cache == null ? null : (OrderByExpression) cache.get(targetType, SystemQueryOption.$orderby.name(), orderBy);
+      if (orderByExpression != null) {
+        uriResult.setOrderBy(orderByExpression);
+        return;
+      }
       try {
-        uriResult.setOrderBy(parseOrderByString((EdmEntityType) targetType, orderBy));
+        orderByExpression = parseOrderByString((EdmEntityType) targetType, orderBy);
+        uriResult.setOrderBy(cache == null ? orderByExpression : cache.put(targetType, SystemQueryOption.$orderby.name(), orderBy, orderByExpression));
       } catch (ExpressionParserException e) {
         throw new UriSyntaxException(UriSyntaxException.INVALIDORDERBYEXPRESSION.addContent(orderBy), e);
       } catch (ODataMessageException e) {
@@ -641,7 +655,16 @@ public class UriParserImpl extends UriParser {
     }
   }
 
+  @SuppressWarnings("unchecked")
   private void handleSystemQueryOptionExpand(final String expandStatement) throws UriSyntaxException, UriNotMatchingException, EdmException {
+    final EdmEntitySet entitySet = uriResult.getTargetEntitySet();
+    final List<ArrayList<NavigationPropertySegment>> cachedExpand = cache == null ? null :
+        (List<ArrayList<NavigationPropertySegment>>) cache.get(entitySet, SystemQueryOption.$expand.name(), expandStatement);
+    if (cachedExpand != null) {
+      uriResult.setExpand(cachedExpand);
+      return;
+    }
+
     ArrayList<ArrayList<NavigationPropertySegment>> expand = new ArrayList<ArrayList<NavigationPropertySegment>>();
 
     if (expandStatement.startsWith(",") || expandStatement.endsWith(",")) {
@@ -680,12 +703,20 @@ public class UriParserImpl extends UriParser {
           throw new UriSyntaxException(UriSyntaxException.NONAVIGATIONPROPERTY.addContent(expandPropertyName));
         }
       }
-      expand.add(expandNavigationProperties);
+      expand.add(cache == null ? expandNavigationProperties : cache.cachedArrayList(expandNavigationProperties));
     }
-    uriResult.setExpand(expand);
+    uriResult.setExpand(cache == null ? expand : cache.put(entitySet, SystemQueryOption.$expand.name(), expandStatement, cache.cachedList(expand)));
   }
 
+  @SuppressWarnings("unchecked")
   private void handleSystemQueryOptionSelect(final String selectStatement) throws UriSyntaxException, UriNotMatchingException, EdmException {
+    final EdmEntitySet entitySet = uriResult.getTargetEntitySet();
+    final List<SelectItem> cachedSelect = cache == null ? null : (List<SelectItem>) cache.get(entitySet, SystemQueryOption.$select.name(), selectStatement);
+    if (cachedSelect != null) {
+      uriResult.setSelect(cachedSelect);
+      return;
+    }
+
     ArrayList<SelectItem> select = new ArrayList<SelectItem>();
 
     if (selectStatement.startsWith(",") || selectStatement.endsWith(",")) {
@@ -750,7 +781,7 @@ public class UriParserImpl extends UriParser {
       }
       select.add(selectItem);
     }
-    uriResult.setSelect(select);
+    uriResult.setSelect(cache == null ? select : cache.put(entitySet, SystemQueryOption.$select.name(), selectStatement, cache.cachedList(select)));
   }
 
   private void handleOtherQueryParameters() throws UriSyntaxException, EdmException {
@@ -835,6 +866,19 @@ public class UriParserImpl extends UriParser {
 
   @Override
   public ExpandSelectTreeNode buildExpandSelectTree(final List<SelectItem> select, final List<ArrayList<NavigationPropertySegment>> expand) throws EdmException {
-    return new ExpandSelectTreeCreator(select, expand).create();
+    // Lists from a cache are unique per option string and can serve as key;
+    // this parser may not have an entity data model, so the lists tell the cache.
+    final Object selectKey = select == null || select.isEmpty() ? null : select;
+    final Object expandKey = expand == null || expand.isEmpty() ? null : expand;
+    final QueryOptionCache listCache = QueryOptionCache.getCache(selectKey == null ? expand : select);
+    if (listCache == null || selectKey != null && !listCache.isCached(select) || expandKey != null && !listCache.isCached(expand)) {
+      return new ExpandSelectTreeCreator(select, expand).create();
+    }
+    ExpandSelectTreeNode expandSelectTree = (ExpandSelectTreeNode) listCache.get(selectKey, QueryOptionCache.EXPAND_SELECT_TREE, expandKey);
+    if (expandSelectTree == null) {
+      expandSelectTree = listCache.put(selectKey, QueryOptionCache.EXPAND_SELECT_TREE, expandKey,
+          new ExpandSelectTreeCreator(select, expand).create());
+    }
+    return expandSelectTree;
   }
 }
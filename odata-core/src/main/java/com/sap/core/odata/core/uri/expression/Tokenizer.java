@@ -15,9 +15,6 @@
  ******************************************************************************/
 package com.sap.core.odata.core.uri.expression;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import com.sap.core.odata.api.edm.EdmLiteral;
 import com.sap.core.odata.api.edm.EdmLiteralException;
 import com.sap.core.odata.api.edm.EdmSimpleTypeFacade;
@@ -31,12 +28,28 @@ import com.sap.core.odata.core.edm.EdmSimpleTypeFacadeImpl;
  */
 public class Tokenizer {
 
-  //Pattern OTHER_LIT = Pattern.compile("^([[A-Za-z0-9]._~%!$&*+;:@-]+)");
-  private static final Pattern OTHER_LIT = Pattern.compile("(?:\\p{L}|\\p{Digit}|[-._~%!$&*+;:@])+");
-  private static final Pattern FUNK = Pattern.compile("^(startswith|endswith|substring|substring|substringof|indexof|replace|tolower|toupper|trim|concat|length|year|mounth|day|hour|minute|second|round|ceiling|floor)( *)\\(");
-  private static final Pattern AND_SUB1 = Pattern.compile("^(add|sub|mul|div|mod|not) ");
-  private static final Pattern AND_SUB = Pattern.compile("^(and|or|eq|ne|lt|gt|le|ge) ");
-  private static final Pattern prefix = Pattern.compile("^(X|binary|guid|datetime|datetimeoffset|time)'");
+  private static final String[] METHODS = { "startswith", "endswith", "substring", "substringof", "indexof", "replace", "tolower", "toupper", "trim", "concat", "length", "year", "mounth", "day", "hour", "minute", "second", "round", "ceiling", "floor" };
+  private static final String[] MATH_OPERATORS = { "add", "sub", "mul", "div", "mod", "not" };
+  private static final String[] BINARY_OPERATORS = { "and", "or", "eq", "ne", "lt", "gt", "le", "ge" };
+  private static final String[] PREFIXES = { "X", "binary", "guid", "datetime", "datetimeoffset", "time" };
+
+  /** ASCII characters which may be part of an untyped literal besides letters and digits */
+  private static final String LITERAL_SYMBOLS = "-._~%!$&*+;:@";
+  private static final boolean[] LITERAL_CHARACTERS = new boolean[128];
+
+  static {
+    for (char c = 'A'; c <= 'Z'; c++) {
+      LITERAL_CHARACTERS[c] = true;
+      LITERAL_CHARACTERS[Character.toLowerCase(c)] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      LITERAL_CHARACTERS[c] = true;
+    }
+    for (int i = 0; i < LITERAL_SYMBOLS.length(); i++) {
+      LITERAL_CHARACTERS[LITERAL_SYMBOLS.charAt(i)] = true;
+    }
+  }
+
   private boolean flagIncludeWhitespace = false;
   private EdmSimpleTypeFacade typeDectector = null;
 
@@ -114,37 +127,38 @@ public class Tokenizer {
         break;
 
       default:
-        String rem_expr = expression.substring(curPosition); //remaining expression
+        //keywords consist of ASCII letters only and are terminated by a blank, a quote or a parenthesis
+        final int wordEnd = scanAsciiLetters(curPosition);
 
-        boolean isBinary = checkForBinary(oldPosition, rem_expr);
+        boolean isBinary = checkForBinary(oldPosition, wordEnd);
         if (isBinary) {
           break;
         }
 
         //check for prefixes like X, binary, guid, datetime
-        boolean isPrefix = checkForPrefix(rem_expr);
+        boolean isPrefix = checkForPrefix(wordEnd);
         if (isPrefix) {
           break;
         }
 
         //check for math
-        boolean isMath = checkForMath(oldPosition, rem_expr);
+        boolean isMath = checkForMath(oldPosition, wordEnd);
         if (isMath) {
           break;
         }
 
         //check for function
-        boolean isFunction = checkForMethod(oldPosition, rem_expr);
+        boolean isFunction = checkForMethod(oldPosition, wordEnd);
         if (isFunction) {
           break;
         }
 
-        boolean isBoolean = checkForBoolean(oldPosition, rem_expr);
+        boolean isBoolean = checkForBoolean(oldPosition);
         if (isBoolean) {
           break;
         }
 
-        boolean isLiteral = checkForLiteral(oldPosition, curCharacter, rem_expr);
+        boolean isLiteral = checkForLiteral(oldPosition, curCharacter);
         if (isLiteral) {
           break;
         }
@@ -156,11 +170,66 @@ public class Tokenizer {
     return tokens;
   }
 
-  private boolean checkForLiteral(final int oldPosition, final char curCharacter, final String rem_expr) {
-    final Matcher matcher = OTHER_LIT.matcher(rem_expr);
+  private int scanAsciiLetters(final int position) {
+    int end = position;
+    while (end < expressionLength) {
+      final char c = expression.charAt(end);
+      if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z')) {
+        break;
+      }
+      end++;
+    }
+    return end;
+  }
+
+  /**
+   * Returns the end of the untyped literal starting at <code>position</code>,
+   * i.e., of the longest sequence of letters, digits, and the characters
+   * <code>-._~%!$&amp;*+;:@</code>.
+   */
+  private int scanLiteral(final int position) {
+    int end = position;
+    while (end < expressionLength) {
+      final char c = expression.charAt(end);
+      if (c < LITERAL_CHARACTERS.length) {
+        if (!LITERAL_CHARACTERS[c]) {
+          break;
+        }
+        end++;
+      } else {
+        final int codePoint = expression.codePointAt(end);
+        if (!Character.isLetter(codePoint)) {
+          break;
+        }
+        end += Character.charCount(codePoint);
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Returns the keyword out of <code>keywords</code> which equals the expression
+   * between <code>curPosition</code> and <code>wordEnd</code>, or <code>null</code>.
+   */
+  private String matchKeyword(final String[] keywords, final int wordEnd) {
+    final int length = wordEnd - curPosition;
+    for (final String keyword : keywords) {
+      if (keyword.length() == length && expression.regionMatches(curPosition, keyword, 0, length)) {
+        return keyword;
+      }
+    }
+    return null;
+  }
+
+  private boolean isCharacterAt(final int position, final char character) {
+    return position < expressionLength && expression.charAt(position) == character;
+  }
+
+  private boolean checkForLiteral(final int oldPosition, final char curCharacter) {
+    final int literalEnd = scanLiteral(curPosition);
     boolean isLiteral = false;
-    if (matcher.lookingAt()) {
-      String token = matcher.group();
+    if (literalEnd > curPosition) {
+      String token = expression.substring(curPosition, literalEnd);
       try {
         EdmLiteral edmLiteral = typeDectector.parseUriLiteral(token);
         curPosition = curPosition + token.length();
@@ -186,11 +255,14 @@ public class Tokenizer {
     return isLiteral;
   }
 
-  private boolean checkForBoolean(final int oldPosition, final String rem_expr) {
+  private boolean checkForBoolean(final int oldPosition) {
     boolean isBoolean = false;
-    if (rem_expr.equals("true") || rem_expr.equals("false")) {
-      curPosition = curPosition + rem_expr.length();
-      tokens.appendEdmTypedToken(oldPosition, TokenKind.SIMPLE_TYPE, rem_expr, new EdmLiteral(EdmSimpleTypeFacadeImpl.getEdmSimpleType(EdmSimpleTypeKind.Boolean), rem_expr));
+    final int remainingLength = expressionLength - curPosition;
+    if (remainingLength == 4 && expression.startsWith("true", curPosition)
+        || remainingLength == 5 && expression.startsWith("false", curPosition)) {
+      final String token = expression.substring(curPosition);
+      curPosition = expressionLength;
+      tokens.appendEdmTypedToken(oldPosition, TokenKind.SIMPLE_TYPE, token, new EdmLiteral(EdmSimpleTypeFacadeImpl.getEdmSimpleType(EdmSimpleTypeKind.Boolean), token));
       isBoolean = true;
     }
     return isBoolean;
@@ -214,54 +286,58 @@ public class Tokenizer {
     }
   }
 
-  private boolean checkForMethod(final int oldPosition, final String rem_expr) {
+  private boolean checkForMethod(final int oldPosition, final int wordEnd) {
     boolean isMethod = false;
-    Matcher matcher = FUNK.matcher(rem_expr);
-    if (matcher.find()) {
-      String token = matcher.group(1);
-      curPosition = curPosition + token.length();
-      tokens.appendToken(oldPosition, TokenKind.LITERAL, token);
-      isMethod = true;
+    int parenthesisPosition = wordEnd;
+    while (isCharacterAt(parenthesisPosition, ' ')) {
+      parenthesisPosition++;
+    }
+    if (isCharacterAt(parenthesisPosition, '(')) {
+      String token = matchKeyword(METHODS, wordEnd);
+      if (token != null) {
+        curPosition = curPosition + token.length();
+        tokens.appendToken(oldPosition, TokenKind.LITERAL, token);
+        isMethod = true;
+      }
     }
     return isMethod;
   }
 
-  private boolean checkForMath(final int oldPosition, final String rem_expr) {
+  private boolean checkForMath(final int oldPosition, final int wordEnd) {
     boolean isMath = false;
-    Matcher matcher1 = AND_SUB1.matcher(rem_expr);
-    if (matcher1.find()) {
-      String token = matcher1.group(1);
-      curPosition = curPosition + token.length();
-      tokens.appendToken(oldPosition, TokenKind.LITERAL, token);
-      isMath = true;
+    if (isCharacterAt(wordEnd, ' ')) {
+      String token = matchKeyword(MATH_OPERATORS, wordEnd);
+      if (token != null) {
+        curPosition = curPosition + token.length();
+        tokens.appendToken(oldPosition, TokenKind.LITERAL, token);
+        isMath = true;
+      }
     }
     return isMath;
   }
 
-  private boolean checkForBinary(final int oldPosition, final String rem_expr) {
+  private boolean checkForBinary(final int oldPosition, final int wordEnd) {
     boolean isBinary = false;
-    Matcher matcher1 = AND_SUB.matcher(rem_expr);
-    if (matcher1.find()) {
-      String token = matcher1.group(1);
-      curPosition = curPosition + token.length();
-      tokens.appendToken(oldPosition, TokenKind.LITERAL, token);
-      isBinary = true;
+    if (isCharacterAt(wordEnd, ' ')) {
+      String token = matchKeyword(BINARY_OPERATORS, wordEnd);
+      if (token != null) {
+        curPosition = curPosition + token.length();
+        tokens.appendToken(oldPosition, TokenKind.LITERAL, token);
+        isBinary = true;
+      }
     }
     return isBinary;
   }
 
-  private boolean checkForPrefix(final String rem_expr) throws ExpressionParserException, TokenizerException {
+  private boolean checkForPrefix(final int wordEnd) throws ExpressionParserException, TokenizerException {
     boolean isPrefix = false;
-    Matcher matcher = prefix.matcher(rem_expr);
-    String token = "";
-    char curCharacter;
-
-    if (matcher.find()) {
-      token = matcher.group(1);
-      curPosition = curPosition + token.length();
-      curCharacter = expression.charAt(curPosition); //"should  be '
-      readLiteral(curCharacter, token);
-      isPrefix = true;
+    if (isCharacterAt(wordEnd, '\'')) {
+      String token = matchKeyword(PREFIXES, wordEnd);
+      if (token != null) {
+        curPosition = curPosition + token.length();
+        readLiteral(expression.charAt(curPosition), token); //"should  be '
+        isPrefix = true;
+      }
     }
     return isPrefix;
   }
@@ -273,14 +349,14 @@ public class Tokenizer {
   /**
    * Read up to single ' and move pointer to the following char and tries a type detection
    * @param curCharacter
-   * @param token
+   * @param prefix
    * @throws ExpressionParserException
    * @throws TokenizerException
    */
-  private void readLiteral(char curCharacter, String token) throws ExpressionParserException, TokenizerException {
-    int offsetPos = -token.length();
+  private void readLiteral(char curCharacter, final String prefix) throws ExpressionParserException, TokenizerException {
+    int offsetPos = -prefix.length();
     int oldPosition = curPosition;
-    token = token + Character.toString(curCharacter);
+    StringBuilder builder = new StringBuilder(prefix).append(curCharacter);
     curPosition = curPosition + 1;
 
     boolean wasApostroph = false; //leading ' does not count
@@ -292,14 +368,14 @@ public class Tokenizer {
           break;
         }
 
-        token = token + curCharacter;
+        builder.append(curCharacter);
         wasApostroph = false;
       } else {
         if (wasApostroph) {
           wasApostroph = false; //a double ' is a normal character '
         } else {
           wasApostroph = true;
-          token = token + curCharacter;
+          builder.append(curCharacter);
         }
       }
       curPosition = curPosition + 1;
@@ -310,6 +386,7 @@ public class Tokenizer {
       throw FilterParserExceptionImpl.createTOKEN_UNDETERMINATED_STRING(oldPosition, expression);
     }
 
+    final String token = builder.toString();
     try {
       EdmLiteral edmLiteral = typeDectector.parseUriLiteral(token);
       tokens.appendEdmTypedToken(oldPosition + offsetPos, TokenKind.SIMPLE_TYPE, token, edmLiteral);
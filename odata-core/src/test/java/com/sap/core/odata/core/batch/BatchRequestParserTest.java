@@ -15,12 +15,14 @@
  ******************************************************************************/
 package com.sap.core.odata.core.batch;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -573,6 +575,38 @@ public class BatchRequestParserTest {
     }
   }
 
+  @Test
+  public void testBinaryContent() throws Exception {
+    final byte[] content = new byte[] { (byte) 0xFF, (byte) 0xD8, '\r', '\n', '\r', '\n', '-', '-', 'x', '\n', 0, (byte) 0x80, '\n' };
+    final String start = "--batch_8194-cf13-1f56" + "\r\n"
+        + "Content-Type: multipart/mixed; boundary=changeset_f980-1cb6-94dd" + "\r\n"
+        + "\r\n"
+        + "--changeset_f980-1cb6-94dd" + "\r\n"
+        + MIME_HEADERS
+        + "\r\n"
+        + "POST Employees HTTP/1.1" + "\r\n"
+        + "Content-Type: application/octet-stream" + "\r\n"
+        + "\r\n";
+    final String end = "\r\n"
+        + "--changeset_f980-1cb6-94dd--" + "\r\n"
+        + "\r\n"
+        + "--batch_8194-cf13-1f56--";
+    final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    batch.write(start.getBytes("UTF-8"));
+    batch.write(content);
+    batch.write(end.getBytes("UTF-8"));
+
+    final List<BatchPart> batchParts = new BatchRequestParser(contentType, batchProperties).parse(new ByteArrayInputStream(batch.toByteArray()));
+    assertEquals(1, batchParts.size());
+    final InputStream body = batchParts.get(0).getRequests().get(0).getBody();
+    final ByteArrayOutputStream result = new ByteArrayOutputStream();
+    int b;
+    while ((b = body.read()) >= 0) {
+      result.write(b);
+    }
+    assertArrayEquals(content, result.toByteArray());
+  }
+
   private List<BatchPart> parse(final String batch) throws BatchException {
     InputStream in = new ByteArrayInputStream(batch.getBytes());
     BatchRequestParser parser = new BatchRequestParser(contentType, batchProperties);
@@ -20,7 +20,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -30,6 +33,7 @@ import com.sap.core.odata.api.batch.BatchException;
 import com.sap.core.odata.api.batch.BatchResponsePart;
 import com.sap.core.odata.api.commons.HttpStatusCodes;
 import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.processor.ODataStreamingEntity;
 
 public class BatchResponseWriterTest {
 
@@ -54,7 +58,7 @@ public class BatchResponseWriterTest {
 
     assertEquals(202, batchResponse.getStatus().getStatusCode());
     assertNotNull(batchResponse.getEntity());
-    String body = (String) batchResponse.getEntity();
+    String body = getBody(batchResponse);
 
     assertTrue(body.contains("--batch"));
     assertTrue(body.contains("--changeset"));
@@ -67,6 +71,26 @@ public class BatchResponseWriterTest {
 
   }
 
+  @Test
+  public void testStreamingEntity() throws BatchException, IOException {
+    List<BatchResponsePart> parts = new ArrayList<BatchResponsePart>();
+    ODataStreamingEntity entity = new ODataStreamingEntity() {
+      @Override
+      public void write(final OutputStream out) throws IOException {
+        out.write("Walter Winter".getBytes("UTF-8"));
+      }
+    };
+    ODataResponse response = ODataResponse.entity(entity).status(HttpStatusCodes.OK).contentHeader("application/json").build();
+    List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
+    responses.add(response);
+    parts.add(BatchResponsePart.responses(responses).changeSet(false).build());
+    ODataResponse batchResponse = new BatchResponseWriter().writeResponse(parts);
+
+    String body = getBody(batchResponse);
+    assertTrue(body.contains("HTTP/1.1 200 OK"));
+    assertTrue(body.contains("Walter Winter"));
+  }
+
   @Test
   public void testResponse() throws BatchException, IOException {
     List<BatchResponsePart> parts = new ArrayList<BatchResponsePart>();
@@ -79,7 +103,7 @@ public class BatchResponseWriterTest {
 
     assertEquals(202, batchResponse.getStatus().getStatusCode());
     assertNotNull(batchResponse.getEntity());
-    String body = (String) batchResponse.getEntity();
+    String body = getBody(batchResponse);
 
     assertTrue(body.contains("--batch"));
     assertFalse(body.contains("--changeset"));
@@ -104,7 +128,7 @@ public class BatchResponseWriterTest {
 
     assertEquals(202, batchResponse.getStatus().getStatusCode());
     assertNotNull(batchResponse.getEntity());
-    String body = (String) batchResponse.getEntity();
+    String body = getBody(batchResponse);
     assertTrue(body.contains("--batch"));
     assertTrue(body.contains("--changeset"));
     assertTrue(body.indexOf("--changeset") != body.lastIndexOf("--changeset"));
@@ -133,7 +157,7 @@ public class BatchResponseWriterTest {
 
     assertEquals(202, batchResponse.getStatus().getStatusCode());
     assertNotNull(batchResponse.getEntity());
-    String body = (String) batchResponse.getEntity();
+    String body = getBody(batchResponse);
 
     String mimeHeader = "Content-Type: application/http" + "\r\n"
         + "Content-Transfer-Encoding: binary" + "\r\n"
@@ -147,4 +171,56 @@ public class BatchResponseWriterTest {
     assertTrue(body.contains(requestHeader));
   }
 
+  @Test
+  public void testBinaryEntity() throws BatchException, IOException {
+    final byte[] content = new byte[] { (byte) 0xFF, (byte) 0xD8, 0, '\r', '\n', (byte) 0x80 };
+    List<BatchResponsePart> parts = new ArrayList<BatchResponsePart>();
+    ODataResponse response = ODataResponse.entity(new ByteArrayInputStream(content)).status(HttpStatusCodes.OK).contentHeader("image/jpeg").build();
+    List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
+    responses.add(response);
+    parts.add(BatchResponsePart.responses(responses).changeSet(false).build());
+    ODataResponse batchResponse = new BatchResponseWriter().writeResponse(parts);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((ODataStreamingEntity) batchResponse.getEntity()).write(out);
+    final byte[] body = out.toByteArray();
+    final byte[] header = ("Content-Length: " + content.length + "\r\n\r\n").getBytes("UTF-8");
+    final int start = indexOf(body, header) + header.length;
+    assertTrue(start >= header.length);
+    for (int i = 0; i < content.length; i++) {
+      assertEquals(content[i], body[start + i]);
+    }
+  }
+
+  @Test
+  public void testContentLengthInBytes() throws BatchException, IOException {
+    List<BatchResponsePart> parts = new ArrayList<BatchResponsePart>();
+    ODataResponse response = ODataResponse.entity("W\u00e4lter").status(HttpStatusCodes.OK).contentHeader("text/plain").build();
+    List<ODataResponse> responses = new ArrayList<ODataResponse>(1);
+    responses.add(response);
+    parts.add(BatchResponsePart.responses(responses).changeSet(false).build());
+
+    String body = getBody(new BatchResponseWriter().writeResponse(parts));
+    assertTrue(body.contains("Content-Length: 7" + "\r\n"));
+    assertTrue(body.contains("W\u00e4lter"));
+  }
+
+  private static String getBody(final ODataResponse batchResponse) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((ODataStreamingEntity) batchResponse.getEntity()).write(out);
+    return new String(out.toByteArray(), "UTF-8");
+  }
+
+  private static int indexOf(final byte[] data, final byte[] pattern) {
+    for (int i = 0; i + pattern.length <= data.length; i++) {
+      int j = 0;
+      while (j < pattern.length && data[i + j] == pattern[j]) {
+        j++;
+      }
+      if (j == pattern.length) {
+        return i;
+      }
+    }
+    return -1;
+  }
 }
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.Test;
+
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * Tests for the shared StAX factories.
+ * @author SAP AG
+ */
+public class XmlHelperTest extends BaseTest {
+
+  @Test
+  public void sharedFactories() {
+    assertSame(XmlHelper.getXMLInputFactory(), XmlHelper.getXMLInputFactory());
+    assertSame(XmlHelper.getXMLOutputFactory(), XmlHelper.getXMLOutputFactory());
+    assertEquals(Boolean.FALSE, XmlHelper.getXMLInputFactory().getProperty(XMLInputFactory.IS_VALIDATING));
+    assertEquals(Boolean.TRUE, XmlHelper.getXMLInputFactory().getProperty(XMLInputFactory.IS_NAMESPACE_AWARE));
+  }
+
+  @Test
+  public void namespaceAwareReader() throws Exception {
+    final XMLStreamReader reader = XmlHelper.getXMLInputFactory().createXMLStreamReader(
+        new ByteArrayInputStream("<a:b xmlns:a=\"urn:test\"/>".getBytes("UTF-8")));
+    assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+    assertEquals("urn:test", reader.getNamespaceURI());
+    assertEquals("b", reader.getLocalName());
+    reader.close();
+  }
+}
@@ -26,9 +26,11 @@ import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Random;
 import java.util.TimeZone;
 import java.util.UUID;
 
@@ -814,6 +816,64 @@ public class EdmSimpleTypeTest extends BaseTest {
     expectErrorInValueToString(instance, dateTime, null, null, EdmSimpleTypeException.LITERAL_KIND_MISSING);
   }
 
+  @Test
+  public void appendValueToString() throws Exception {
+    final Calendar dateTime = Calendar.getInstance(TimeZone.getTimeZone("GMT+01:30"));
+    dateTime.clear();
+    dateTime.set(2012, 1, 29, 23, 32, 3);
+    final Object[][] values = {
+        { EdmSimpleTypeKind.DateTime, dateTime },
+        { EdmSimpleTypeKind.DateTime, 1330558323007L },
+        { EdmSimpleTypeKind.DateTimeOffset, dateTime },
+        { EdmSimpleTypeKind.DateTimeOffset, new Date(1330558323007L) },
+        { EdmSimpleTypeKind.Time, dateTime },
+        { EdmSimpleTypeKind.Time, -1L },
+        { EdmSimpleTypeKind.Byte, 255 },
+        { EdmSimpleTypeKind.SByte, (byte) -128 },
+        { EdmSimpleTypeKind.Int16, Short.MIN_VALUE },
+        { EdmSimpleTypeKind.Int32, -42L },
+        { EdmSimpleTypeKind.Int64, Long.MIN_VALUE },
+        { EdmSimpleTypeKind.Int64, BigInteger.TEN },
+        { EdmSimpleTypeKind.Decimal, new BigDecimal("-1.5") },
+        { EdmSimpleTypeKind.String, "abc" } };
+    for (final Object[] value : values) {
+      final AbstractSimpleType instance = (AbstractSimpleType) ((EdmSimpleTypeKind) value[0]).getEdmSimpleTypeInstance();
+      for (final EdmLiteralKind literalKind : EdmLiteralKind.values()) {
+        StringBuilder result = new StringBuilder("x");
+        assertTrue(instance.appendValueToString(value[1], literalKind, null, result));
+        assertEquals("x" + instance.valueToString(value[1], literalKind, null), result.toString());
+      }
+    }
+
+    StringBuilder result = new StringBuilder();
+    assertFalse(EdmDateTime.getInstance().appendValueToString(null, EdmLiteralKind.DEFAULT, null, result));
+    assertEquals(0, result.length());
+    try {
+      EdmInt32.getInstance().appendValueToString(Long.MAX_VALUE, EdmLiteralKind.DEFAULT, null, result);
+      fail("Expected exception not thrown");
+    } catch (final EdmSimpleTypeException e) {
+      assertEquals(EdmSimpleTypeException.VALUE_ILLEGAL_CONTENT.getKey(), e.getMessageReference().getKey());
+    }
+  }
+
+  @Test
+  public void valueToStringDateTimeWithoutCalendar() throws Exception {
+    final EdmSimpleType instance = EdmSimpleTypeKind.DateTime.getEdmSimpleTypeInstance();
+    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+
+    final long[] millis = { 0, -1, -2000, 951782400000L, 951868799999L, 4102444800000L,
+        -12219292800000L, -12219292800001L, -62135596800000L, 253402300799999L };
+    for (final long value : millis) {
+      assertEquals(format.format(new Date(value)), instance.valueToString(value, EdmLiteralKind.DEFAULT, null).substring(0, 19));
+    }
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      final long value = (long) (random.nextDouble() * 253402300799999L);
+      assertEquals(format.format(new Date(value)), instance.valueToString(value, EdmLiteralKind.DEFAULT, null).substring(0, 19));
+    }
+  }
+
   private void expectErrorInValueOfString(final EdmSimpleType instance, final String value, final EdmLiteralKind literalKind, final EdmFacets facets, final MessageReference messageReference) {
     try {
       instance.valueOfString(value, literalKind, facets, instance.getDefaultType());
@@ -1355,6 +1415,99 @@ public class EdmSimpleTypeTest extends BaseTest {
     expectTypeErrorInValueOfString(instance, "PT0S", EdmLiteralKind.DEFAULT);
   }
 
+  @Test
+  public void valueOfStringDateTimeWithoutCalendar() throws Exception {
+    final EdmSimpleType instance = EdmSimpleTypeKind.DateTime.getEdmSimpleTypeInstance();
+    final EdmSimpleType offsetInstance = EdmSimpleTypeKind.DateTimeOffset.getEdmSimpleTypeInstance();
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      final long value = (long) (random.nextDouble() * 253402300799999L);
+      final String literal = instance.valueToString(value, EdmLiteralKind.DEFAULT, null);
+      assertEquals(Long.valueOf(value), instance.valueOfString(literal, EdmLiteralKind.DEFAULT, null, Long.class));
+      assertEquals(instance.valueOfString(literal, EdmLiteralKind.DEFAULT, null, Calendar.class).getTime(),
+          instance.valueOfString(literal, EdmLiteralKind.DEFAULT, null, Date.class));
+      assertEquals(offsetInstance.valueOfString(literal + "-05:30", EdmLiteralKind.DEFAULT, null, Calendar.class).getTime(),
+          offsetInstance.valueOfString(literal + "-05:30", EdmLiteralKind.DEFAULT, null, Date.class));
+    }
+
+    expectErrorInValueOfString(instance, "2011-02-29T00:00", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(instance, "2012-13-01T00:00", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(instance, "2012-04-31T00:00", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(instance, "2012-01-01T24:00", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(instance, "2012-01-01T00:00:60", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(instance, "2012-01-01T00:00:00.", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(instance, "2012-01-01T00:00:00.00010", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(instance, "2012-01-01T00:00:00.10000000", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(instance, "12012-01-01T00:00", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(instance, "2012-1-1T0:0:", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    assertEquals(Long.valueOf(1325376000100L), instance.valueOfString("2012-1-1T0:0:0.1000000", EdmLiteralKind.DEFAULT, null, Long.class));
+    assertEquals(Long.valueOf(951782400000L), instance.valueOfString("2000-02-29T00:00", EdmLiteralKind.DEFAULT, null, Long.class));
+    assertEquals(Long.valueOf(-12212553600000L), instance.valueOfString("1583-01-01T00:00", EdmLiteralKind.DEFAULT, null, Long.class));
+    assertEquals(Long.valueOf(-12219292800000L), instance.valueOfString("1582-10-15T00:00", EdmLiteralKind.DEFAULT, null, Long.class));
+
+    expectErrorInValueOfString(offsetInstance, "2012-01-01T00:00+1:0", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(offsetInstance, "2012-01-01T00:00+01:60", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(offsetInstance, "2012-01-01T00:00+123:00", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    expectErrorInValueOfString(offsetInstance, "2012-01-01T00:00+00:00Z", EdmLiteralKind.DEFAULT, null, EdmSimpleTypeException.LITERAL_ILLEGAL_CONTENT);
+    assertEquals(Long.valueOf(1325376000000L), offsetInstance.valueOfString("2012-01-01T00:00-00:00", EdmLiteralKind.DEFAULT, null, Long.class));
+    assertEquals(Long.valueOf(1325394000000L), offsetInstance.valueOfString("2012-01-01T00:00-5:00", EdmLiteralKind.DEFAULT, null, Long.class));
+    assertEquals(Long.valueOf(1325394000000L), offsetInstance.valueOfString("/Date(1325376000000-0300)/", EdmLiteralKind.JSON, null, Long.class));
+  }
+
+  @Test
+  public void validateNumberLiterals() throws Exception {
+    final EdmSimpleType decimal = EdmSimpleTypeKind.Decimal.getEdmSimpleTypeInstance();
+    assertTrue(decimal.validate("+0001.1000", EdmLiteralKind.DEFAULT, getPrecisionScaleFacets(2, 1)));
+    assertTrue(decimal.validate("-0", EdmLiteralKind.DEFAULT, getPrecisionScaleFacets(0, null)));
+    assertTrue(decimal.validate("0.0", EdmLiteralKind.DEFAULT, getPrecisionScaleFacets(1, 1)));
+    assertFalse(decimal.validate("0.0", EdmLiteralKind.DEFAULT, getPrecisionScaleFacets(1, 0)));
+    assertTrue(decimal.validate("12345678901234567890123456789", EdmLiteralKind.DEFAULT, null));
+    assertTrue(decimal.validate("00012345678901234567890123456789", EdmLiteralKind.DEFAULT, null));
+    assertFalse(decimal.validate("123456789012345678901234567890", EdmLiteralKind.DEFAULT, null));
+    assertTrue(decimal.validate("0.1234567890123456789012345678900", EdmLiteralKind.DEFAULT, null));
+    assertFalse(decimal.validate("0.123456789012345678901234567891", EdmLiteralKind.DEFAULT, null));
+    assertTrue(decimal.validate("1.5m", EdmLiteralKind.URI, null));
+    assertFalse(decimal.validate("1.5m", EdmLiteralKind.DEFAULT, null));
+    assertFalse(decimal.validate("1.5", EdmLiteralKind.URI, null));
+    assertFalse(decimal.validate("M", EdmLiteralKind.URI, null));
+    assertFalse(decimal.validate(".5", EdmLiteralKind.DEFAULT, null));
+    assertFalse(decimal.validate("5.", EdmLiteralKind.DEFAULT, null));
+    assertFalse(decimal.validate("+", EdmLiteralKind.DEFAULT, null));
+    assertFalse(decimal.validate("1e5", EdmLiteralKind.DEFAULT, null));
+
+    final EdmSimpleType doubleType = EdmSimpleTypeKind.Double.getEdmSimpleTypeInstance();
+    assertTrue(doubleType.validate("-123456789012345.123456789012345E+292", EdmLiteralKind.DEFAULT, null));
+    assertFalse(doubleType.validate("1234567890123456", EdmLiteralKind.DEFAULT, null));
+    assertFalse(doubleType.validate("1.5E1234", EdmLiteralKind.DEFAULT, null));
+    assertTrue(doubleType.validate("1.5e-12d", EdmLiteralKind.URI, null));
+    assertFalse(doubleType.validate("1.5e-12f", EdmLiteralKind.URI, null));
+    assertFalse(doubleType.validate("1.5D", EdmLiteralKind.DEFAULT, null));
+    assertFalse(doubleType.validate("1.E5", EdmLiteralKind.DEFAULT, null));
+    assertFalse(doubleType.validate("1E", EdmLiteralKind.DEFAULT, null));
+    assertFalse(doubleType.validate("D", EdmLiteralKind.URI, null));
+
+    final EdmSimpleType single = EdmSimpleTypeKind.Single.getEdmSimpleTypeInstance();
+    assertTrue(single.validate("1234567.1234567e-38F", EdmLiteralKind.URI, null));
+    assertFalse(single.validate("12345678", EdmLiteralKind.DEFAULT, null));
+    assertFalse(single.validate("1e123", EdmLiteralKind.DEFAULT, null));
+    assertFalse(single.validate("1d", EdmLiteralKind.URI, null));
+
+    final EdmSimpleType guid = EdmSimpleTypeKind.Guid.getEdmSimpleTypeInstance();
+    assertTrue(guid.validate("aabbccdd-aabb-ccdd-eeff-AABBCCDDEEFF", EdmLiteralKind.DEFAULT, null));
+    assertFalse(guid.validate("aabbccdd-aabb-ccdd-eeff-AABBCCDDEEFG", EdmLiteralKind.DEFAULT, null));
+    assertFalse(guid.validate("aabbccdd-aabb-ccdd-eeffAAABBCCDDEEFF", EdmLiteralKind.DEFAULT, null));
+    assertTrue(guid.validate("guid'aabbccdd-aabb-ccdd-eeff-AABBCCDDEEFF'", EdmLiteralKind.URI, null));
+    assertFalse(guid.validate("guid'aabbccdd-aabb-ccdd-eeff-AABBCCDDEEFF", EdmLiteralKind.URI, null));
+
+    final EdmSimpleType binary = EdmSimpleTypeKind.Binary.getEdmSimpleTypeInstance();
+    assertTrue(binary.validate("X''", EdmLiteralKind.URI, null));
+    assertTrue(binary.validate("binary'0aF9'", EdmLiteralKind.URI, null));
+    assertFalse(binary.validate("binary'0aF'", EdmLiteralKind.URI, null));
+    assertFalse(binary.validate("X'0G'", EdmLiteralKind.URI, null));
+    assertFalse(binary.validate("X'", EdmLiteralKind.URI, null));
+    assertFalse(binary.validate("Y'00'", EdmLiteralKind.URI, null));
+  }
+
   @Test
   public void validate() throws Exception {
     for (EdmSimpleTypeKind kind : EdmSimpleTypeKind.values()) {
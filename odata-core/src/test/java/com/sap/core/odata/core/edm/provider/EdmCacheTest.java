@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.edm.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.sap.core.odata.api.edm.Edm;
+import com.sap.core.odata.api.edm.EdmEntityContainer;
+import com.sap.core.odata.api.edm.FullQualifiedName;
+import com.sap.core.odata.api.edm.provider.EdmCache;
+import com.sap.core.odata.api.edm.provider.EdmProvider;
+import com.sap.core.odata.api.edm.provider.EntityContainerInfo;
+import com.sap.core.odata.api.edm.provider.EntityType;
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * @author SAP AG
+ */
+public class EdmCacheTest extends BaseTest {
+
+  private static final String KEY = EdmCacheTest.class.getName();
+
+  @After
+  public void invalidate() {
+    EdmCache.invalidateAll();
+  }
+
+  @Test
+  public void cachedPerKey() throws Exception {
+    assertNull(EdmCache.getEdm(KEY));
+
+    final Edm edm = EdmCache.getEdm(KEY, mock(EdmProvider.class));
+    assertNotNull(edm);
+    assertSame(edm, EdmCache.getEdm(KEY));
+    assertSame(edm, EdmCache.getEdm(KEY, mock(EdmProvider.class)));
+    assertNotSame(edm, EdmCache.getEdm(KEY + "2", mock(EdmProvider.class)));
+  }
+
+  @Test
+  public void invalidateKey() throws Exception {
+    final Edm edm = EdmCache.getEdm(KEY, mock(EdmProvider.class));
+    EdmCache.invalidate(KEY);
+    assertNull(EdmCache.getEdm(KEY));
+    assertNotSame(edm, EdmCache.getEdm(KEY, mock(EdmProvider.class)));
+  }
+
+  @Test
+  public void concurrentAccess() throws Exception {
+    final EdmProvider edmProvider = mock(EdmProvider.class);
+    final FullQualifiedName entityTypeName = new FullQualifiedName("Namespace1", "EntityType1");
+    when(edmProvider.getEntityType(entityTypeName)).thenReturn(new EntityType().setName("EntityType1"));
+    final EntityContainerInfo container = new EntityContainerInfo().setName("Container1").setDefaultEntityContainer(true);
+    when(edmProvider.getEntityContainerInfo(null)).thenReturn(container);
+    when(edmProvider.getEntityContainerInfo("Container1")).thenReturn(container);
+
+    final Edm edm = EdmCache.getEdm(KEY, edmProvider);
+    final EdmEntityContainer defaultContainer = edm.getDefaultEntityContainer();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<EdmEntityContainer>> results = new ArrayList<Future<EdmEntityContainer>>();
+    for (int i = 0; i < 100; i++) {
+      results.add(executor.submit(new Callable<EdmEntityContainer>() {
+        @Override
+        public EdmEntityContainer call() throws Exception {
+          final Edm cachedEdm = EdmCache.getEdm(KEY, edmProvider);
+          assertEquals("EntityType1", cachedEdm.getEntityType("Namespace1", "EntityType1").getName());
+          return cachedEdm.getEntityContainer("Container1");
+        }
+      }));
+    }
+    for (Future<EdmEntityContainer> result : results) {
+      assertSame(defaultContainer, result.get());
+    }
+    executor.shutdown();
+
+    verify(edmProvider, times(1)).getEntityContainerInfo(null);
+  }
+}
@@ -18,9 +18,12 @@ package com.sap.core.odata.core.ep;
 import java.util.Arrays;
 import java.util.List;
 
+import javax.xml.stream.XMLOutputFactory;
+
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import com.sap.core.odata.core.commons.XmlHelper;
 import com.sap.core.odata.testutil.fit.BaseTest;
 
 @RunWith(Parameterized.class)
@@ -43,6 +46,7 @@ public abstract class AbstractXmlProducerTestHelper extends BaseTest {
       System.setProperty("javax.xml.stream.XMLOutputFactory", "com.sun.xml.internal.stream.XMLOutputFactoryImpl"); //NOSONAR
       break;
     }
+    XmlHelper.setXMLOutputFactory(XMLOutputFactory.newInstance());
   }
 
   // CHECKSTYLE:On
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.ep;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.sap.core.odata.api.ep.EntityRow;
+import com.sap.core.odata.api.ep.EntityRowLayout;
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * @author SAP AG
+ */
+public class EntityRowTest extends BaseTest {
+
+  private static final EntityRowLayout LAYOUT = EntityRowLayout.create("Id", "Name");
+
+  @Test
+  public void slotsAndMapView() {
+    EntityRow row = LAYOUT.createRow().set(LAYOUT.indexOf("Id"), "1");
+    row.put("Name", "Team 1");
+
+    assertEquals("1", row.get("Id"));
+    assertEquals("Team 1", row.get(LAYOUT.indexOf("Name")));
+    assertEquals(2, row.size());
+    Map<String, Object> expected = new HashMap<String, Object>();
+    expected.put("Id", "1");
+    expected.put("Name", "Team 1");
+    assertEquals(expected, row);
+  }
+
+  @Test
+  public void putUnknownProperty() {
+    EntityRow row = LAYOUT.createRow();
+    assertNull(row.put("Extra", "value"));
+
+    assertTrue(row.containsKey("Extra"));
+    assertEquals("value", row.get("Extra"));
+    assertEquals(3, row.size());
+    assertEquals("value", row.remove("Extra"));
+    assertFalse(row.containsKey("Extra"));
+    assertEquals(2, row.size());
+  }
+
+  @Test
+  public void removeLayoutProperty() {
+    EntityRow row = LAYOUT.createRow().set(LAYOUT.indexOf("Id"), "1");
+
+    assertEquals("1", row.remove("Id"));
+    assertFalse(row.containsKey("Id"));
+    assertNull(row.get(LAYOUT.indexOf("Id")));
+    assertEquals(1, row.size());
+    assertEquals("Name", row.keySet().iterator().next());
+
+    row.put("Id", "2");
+    assertTrue(row.containsKey("Id"));
+    assertEquals(2, row.size());
+  }
+
+  @Test
+  public void removeThroughIterator() {
+    EntityRow row = LAYOUT.createRow();
+    row.put("Extra", "value");
+
+    for (Iterator<String> iterator = row.keySet().iterator(); iterator.hasNext();) {
+      if (!"Name".equals(iterator.next())) {
+        iterator.remove();
+      }
+    }
+    assertEquals(1, row.size());
+    assertTrue(row.containsKey("Name"));
+
+    row.clear();
+    assertTrue(row.isEmpty());
+  }
+}
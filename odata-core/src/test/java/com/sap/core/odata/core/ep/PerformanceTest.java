@@ -39,6 +39,7 @@ import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.uri.ExpandSelectTreeNode;
+import com.sap.core.odata.core.commons.XmlHelper;
 import com.sap.core.odata.core.ep.aggregator.EntityInfoAggregator;
 import com.sap.core.odata.core.ep.producer.AtomEntryEntityProducer;
 import com.sap.core.odata.core.ep.util.CircleStreamBuffer;
@@ -164,6 +165,38 @@ public class PerformanceTest extends AbstractProviderTest {
     stopTimer(t, "readAtomEntryOptimizedCsb");
   }
 
+  @Test
+  public void createStreamWriterNewFactory() throws Exception {
+    long t = startTimer();
+
+    for (int i = 0; i < TIMES; i++) {
+      XMLStreamWriter streamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(new ByteArrayOutputStream(), "utf-8");
+      streamWriter.writeStartDocument();
+      streamWriter.writeEmptyElement("junit");
+      streamWriter.writeEndDocument();
+      streamWriter.close();
+    }
+    stopTimer(t, "createStreamWriterNewFactory");
+  }
+
+  /**
+   * Compare StAX implementations by running this test with the system property
+   * {@link XmlHelper#XML_OUTPUT_FACTORY} set to different factory classes.
+   */
+  @Test
+  public void createStreamWriterSharedFactory() throws Exception {
+    long t = startTimer();
+
+    for (int i = 0; i < TIMES; i++) {
+      XMLStreamWriter streamWriter = XmlHelper.getXMLOutputFactory().createXMLStreamWriter(new ByteArrayOutputStream(), "utf-8");
+      streamWriter.writeStartDocument();
+      streamWriter.writeEmptyElement("junit");
+      streamWriter.writeEndDocument();
+      streamWriter.close();
+    }
+    stopTimer(t, "createStreamWriterSharedFactory (" + XmlHelper.getXMLOutputFactory().getClass().getName() + ")");
+  }
+
   private void stopTimer(long t, final String msg) {
     t = (System.nanoTime() - t) / TIMES;
 
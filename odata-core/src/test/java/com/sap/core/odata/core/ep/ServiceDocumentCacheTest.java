@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.ep;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.core.odata.api.commons.HttpContentType;
+import com.sap.core.odata.api.edm.provider.EdmCache;
+import com.sap.core.odata.api.edm.provider.EdmProvider;
+import com.sap.core.odata.api.edm.provider.EntityContainerInfo;
+import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.core.edm.provider.EdmImplProv;
+import com.sap.core.odata.testutil.fit.BaseTest;
+import com.sap.core.odata.testutil.helper.StringHelper;
+
+/**
+ * @author SAP AG
+ */
+public class ServiceDocumentCacheTest extends BaseTest {
+
+  private EdmImplProv edm;
+
+  @Before
+  public void before() throws Exception {
+    EdmProvider edmProvider = mock(EdmProvider.class);
+    EntityContainerInfo defaultEntityContainer = new EntityContainerInfo().setName("Container1");
+    when(edmProvider.getEntityContainerInfo(null)).thenReturn(defaultEntityContainer);
+    when(edmProvider.getEntityContainerInfo("Container1")).thenReturn(defaultEntityContainer);
+    edm = new EdmImplProv(edmProvider);
+  }
+
+  @Test
+  public void notCachedForFirstRequest() throws Exception {
+    final ODataResponse response = write("http://localhost/");
+    assertNull(response.getETag());
+    assertFalse(edm.getAttachments().get(ServiceDocumentCache.class) instanceof Map);
+  }
+
+  @Test
+  public void cachedForSharedModel() throws Exception {
+    final String expected = StringHelper.inputStreamToString((InputStream) write("http://localhost/").getEntity());
+
+    final ODataResponse response = write("http://localhost/");
+    assertNotNull(response.getETag());
+    assertEquals(expected, StringHelper.inputStreamToString((InputStream) response.getEntity()));
+    assertEquals(1, getDocuments().size());
+
+    final ODataResponse cachedResponse = write("http://localhost/");
+    assertEquals(response.getETag(), cachedResponse.getETag());
+    assertEquals(expected, StringHelper.inputStreamToString((InputStream) cachedResponse.getEntity()));
+    assertEquals(1, getDocuments().size());
+  }
+
+  @Test
+  public void cachedForModelFromEdmCache() throws Exception {
+    final String serviceKey = ServiceDocumentCacheTest.class.getName();
+    EdmCache.invalidate(serviceKey);
+    edm = (EdmImplProv) EdmCache.getEdm(serviceKey, edm.getEdmProvider());
+    try {
+      assertNotNull(write("http://localhost/").getETag());
+      assertEquals(1, getDocuments().size());
+    } finally {
+      EdmCache.invalidate(serviceKey);
+    }
+  }
+
+  @Test
+  public void manyServiceRootsKeepCaching() throws Exception {
+    write("http://localhost/");
+    for (int i = 0; i <= ServiceDocumentCache.MAX_ENTRIES_PER_EDM; i++) {
+      write("http://localhost/" + i + "/");
+    }
+    assertEquals(ServiceDocumentCache.MAX_ENTRIES_PER_EDM, getDocuments().size());
+
+    final String serviceRoot = "http://localhost/new/";
+    write(serviceRoot);
+    assertTrue(getDocuments().containsKey(HttpContentType.APPLICATION_ATOM_SVC_UTF8 + ' ' + serviceRoot));
+    assertFalse(getDocuments().containsKey(HttpContentType.APPLICATION_ATOM_SVC_UTF8 + ' ' + "http://localhost/0/"));
+    assertEquals(ServiceDocumentCache.MAX_ENTRIES_PER_EDM, getDocuments().size());
+  }
+
+  private ODataResponse write(final String serviceRoot) throws Exception {
+    return new ProviderFacadeImpl().writeServiceDocument(HttpContentType.APPLICATION_ATOM_SVC_UTF8, edm, serviceRoot);
+  }
+
+  private Map<?, ?> getDocuments() {
+    final Object documents = edm.getAttachments().get(ServiceDocumentCache.class);
+    assertTrue(documents instanceof Map);
+    return (Map<?, ?>) documents;
+  }
+}
@@ -17,8 +17,10 @@ package com.sap.core.odata.core.ep.aggregator;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -73,4 +75,23 @@ public class EntityInfoAggregatorTest extends AbstractProviderTest {
     assertFalse(cityInfo.getPropertyInfo("PostalCode").isComplex());
     assertEquals("String", cityInfo.getPropertyInfo("PostalCode").getType().getName());
   }
+
+  @Test
+  public void testSerializationData() throws Exception {
+    EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Employees");
+    EntityInfoAggregator eia = EntityInfoAggregator.create(entitySet, null);
+
+    assertEquals("Employees", eia.getEntitySetPath());
+    assertEquals("RefScenario.Employee", eia.getEntityTypeName());
+    assertEquals(eia.getPropertyNames().size(), eia.getSelectedPropertyInfos().size());
+    assertEquals(eia.getPropertyNames().get(0), eia.getSelectedPropertyInfos().get(0).getName());
+    assertEquals(eia.getNavigationPropertyNames(), eia.getSelectedNavigationPropertyNamesInTypeOrder());
+    assertFalse(eia.isExpanded("ne_Manager"));
+
+    EdmEntitySet managers = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Managers");
+    EntityInfoAggregator inlineEia = eia.getInlineEntityInfo("ne_Manager", managers, null);
+    assertEquals("Managers", inlineEia.getEntitySetName());
+    assertSame(inlineEia, eia.getInlineEntityInfo("ne_Manager", managers, null));
+    assertNotSame(inlineEia, eia.getInlineEntityInfo("ne_Manager", entitySet, null));
+  }
 }
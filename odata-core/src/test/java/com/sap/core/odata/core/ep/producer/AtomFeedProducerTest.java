@@ -20,12 +20,19 @@ import static org.custommonkey.xmlunit.XMLAssert.assertXpathExists;
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathNotExists;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -34,7 +41,9 @@ import com.sap.core.odata.api.commons.InlineCount;
 import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.ep.EntityProviderException;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
+import com.sap.core.odata.api.ep.EntityRowLayout;
 import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.processor.ODataStreamingEntity;
 import com.sap.core.odata.api.uri.info.GetEntitySetUriInfo;
 import com.sap.core.odata.core.commons.ContentType;
 import com.sap.core.odata.core.ep.AbstractProviderTest;
@@ -118,6 +127,27 @@ public class AtomFeedProducerTest extends AbstractProviderTest {
     assertXpathExists("/a:feed/a:author/a:name", xmlString);
   }
 
+  @Test
+  public void testFeedOfEntityRows() throws Exception {
+    initializeRoomData(3);
+    final EntityRowLayout layout = EntityRowLayout.create("Version", "Seats", "Name", "Id");
+    List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+    for (Map<String, Object> room : roomsData) {
+      rows.add(layout.createRow(room));
+    }
+
+    AtomEntityProvider ser = createAtomEntityProvider();
+    EntityProviderWriteProperties properties = EntityProviderWriteProperties.serviceRoot(BASE_URI).build();
+    ODataResponse response = ser.writeFeed(view.getTargetEntitySet(), rows, properties);
+    String xmlString = verifyResponse(response);
+
+    assertXpathEvaluatesTo("3", "count(/a:feed/a:entry)", xmlString);
+    assertXpathEvaluatesTo("2", "/a:feed/a:entry[2]//m:properties/d:Id/text()", xmlString);
+    assertXpathEvaluatesTo("Neu Schwanstein2", "/a:feed/a:entry[2]//m:properties/d:Name/text()", xmlString);
+    assertXpathEvaluatesTo("20", "/a:feed/a:entry[3]//m:properties/d:Seats/text()", xmlString);
+    assertXpathEvaluatesTo(BASE_URI.toASCIIString() + "Rooms('3')", "/a:feed/a:entry[3]/a:id/text()", xmlString);
+  }
+
   private String verifyResponse(final ODataResponse response) throws IOException {
     assertNotNull(response);
     assertNotNull(response.getEntity());
@@ -192,4 +222,60 @@ public class AtomFeedProducerTest extends AbstractProviderTest {
     assertXpathExists("/a:feed/a:entry[103]", xmlString);
   }
 
+  @Test
+  public void testStreamingFeed() throws Exception {
+    initializeRoomData(3);
+
+    AtomEntityProvider ser = createAtomEntityProvider();
+    EntityProviderWriteProperties properties = EntityProviderWriteProperties.serviceRoot(BASE_URI).mediaResourceMimeType("mediatype").streaming(true).build();
+    ODataResponse response = ser.writeFeed(view.getTargetEntitySet(), roomsData, properties);
+    assertNotNull(response);
+    assertEquals(ContentType.APPLICATION_ATOM_XML_FEED_CS_UTF_8.toContentTypeString(), response.getContentHeader());
+    assertTrue(response.getEntity() instanceof ODataStreamingEntity);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((ODataStreamingEntity) response.getEntity()).write(out);
+    String xmlString = out.toString("UTF-8");
+
+    assertXpathExists("/a:feed/a:entry[3]", xmlString);
+    assertXpathNotExists("/a:feed/a:entry[4]", xmlString);
+  }
+
+  @Test
+  public void testEntriesFromIterator() throws Exception {
+    final Iterator<Map<String, Object>> rooms = new Iterator<Map<String, Object>>() {
+      private int count = 0;
+
+      @Override
+      public boolean hasNext() {
+        return count < 103;
+      }
+
+      @Override
+      public Map<String, Object> next() {
+        count++;
+        Map<String, Object> room = new HashMap<String, Object>();
+        room.put("Id", String.valueOf(count));
+        room.put("Seats", count);
+        room.put("Version", count);
+        return room;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    AtomEntityProvider ser = createAtomEntityProvider();
+    EntityProviderWriteProperties properties = EntityProviderWriteProperties.serviceRoot(BASE_URI).mediaResourceMimeType("mediatype").build();
+    ODataResponse response = ser.writeFeed(view.getTargetEntitySet(), rooms, properties);
+    String xmlString = verifyResponse(response);
+
+    assertXpathExists("/a:feed/a:entry[1]", xmlString);
+    assertXpathExists("/a:feed/a:entry[103]", xmlString);
+    assertXpathNotExists("/a:feed/a:entry[104]", xmlString);
+    assertXpathEvaluatesTo(BASE_URI.toASCIIString() + "Rooms('103')", "/a:feed/a:entry[103]/a:id/text()", xmlString);
+  }
+
 }
@@ -17,11 +17,15 @@ package com.sap.core.odata.core.ep.producer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -32,7 +36,9 @@ import com.sap.core.odata.api.commons.InlineCount;
 import com.sap.core.odata.api.edm.EdmEntitySet;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
 import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.processor.ODataStreamingEntity;
 import com.sap.core.odata.core.ep.JsonEntityProvider;
+import com.sap.core.odata.core.ep.aggregator.EntityInfoAggregator;
 import com.sap.core.odata.testutil.fit.BaseTest;
 import com.sap.core.odata.testutil.helper.StringHelper;
 import com.sap.core.odata.testutil.mock.MockFacade;
@@ -76,6 +82,72 @@ public class JsonFeedEntityProducerTest extends BaseTest {
         json);
   }
 
+  @Test
+  public void feedFromIterator() throws Exception {
+    final EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
+    final Iterator<Map<String, Object>> teamsData = new Iterator<Map<String, Object>>() {
+      private int count = 0;
+
+      @Override
+      public boolean hasNext() {
+        return count < 2;
+      }
+
+      @Override
+      public Map<String, Object> next() {
+        count++;
+        Map<String, Object> teamData = new HashMap<String, Object>();
+        teamData.put("Id", String.valueOf(count));
+        teamData.put("isScrumTeam", count == 1);
+        return teamData;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    final ODataResponse response = new JsonEntityProvider().writeFeed(entitySet, teamsData, DEFAULT_PROPERTIES);
+    assertNotNull(response);
+    assertEquals(HttpContentType.APPLICATION_JSON, response.getContentHeader());
+
+    final String json = StringHelper.inputStreamToString((InputStream) response.getEntity());
+    assertEquals("{\"d\":{\"results\":[{\"__metadata\":{\"id\":\"" + BASE_URI + "Teams('1')\","
+        + "\"uri\":\"" + BASE_URI + "Teams('1')\",\"type\":\"RefScenario.Team\"},"
+        + "\"Id\":\"1\",\"Name\":null,\"isScrumTeam\":true,"
+        + "\"nt_Employees\":{\"__deferred\":{\"uri\":\"" + BASE_URI + "Teams('1')/nt_Employees\"}}},"
+        + "{\"__metadata\":{\"id\":\"" + BASE_URI + "Teams('2')\","
+        + "\"uri\":\"" + BASE_URI + "Teams('2')\",\"type\":\"RefScenario.Team\"},"
+        + "\"Id\":\"2\",\"Name\":null,\"isScrumTeam\":false,"
+        + "\"nt_Employees\":{\"__deferred\":{\"uri\":\"" + BASE_URI + "Teams('2')/nt_Employees\"}}}]}}",
+        json);
+  }
+
+  @Test
+  public void streamingFeed() throws Exception {
+    final EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
+    Map<String, Object> teamData = new HashMap<String, Object>();
+    teamData.put("Id", "1");
+    teamData.put("isScrumTeam", true);
+    List<Map<String, Object>> teamsData = new ArrayList<Map<String, Object>>();
+    teamsData.add(teamData);
+
+    final ODataResponse response = new JsonEntityProvider().writeFeed(entitySet, teamsData,
+        EntityProviderWriteProperties.serviceRoot(URI.create(BASE_URI)).streaming(true).build());
+    assertNotNull(response);
+    assertEquals(HttpContentType.APPLICATION_JSON, response.getContentHeader());
+    assertTrue(response.getEntity() instanceof ODataStreamingEntity);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((ODataStreamingEntity) response.getEntity()).write(out);
+    assertEquals("{\"d\":{\"results\":[{\"__metadata\":{\"id\":\"" + BASE_URI + "Teams('1')\","
+        + "\"uri\":\"" + BASE_URI + "Teams('1')\",\"type\":\"RefScenario.Team\"},"
+        + "\"Id\":\"1\",\"Name\":null,\"isScrumTeam\":true,"
+        + "\"nt_Employees\":{\"__deferred\":{\"uri\":\"" + BASE_URI + "Teams('1')/nt_Employees\"}}}]}}",
+        out.toString("UTF-8"));
+  }
+
   @Test
   public void inlineCount() throws Exception {
     final EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Buildings");
@@ -118,4 +190,36 @@ public class JsonFeedEntityProducerTest extends BaseTest {
         + "\"__next\":\"Rooms?$skiptoken=2\"}}",
         json);
   }
+
+  @Test
+  public void flushInterval() throws Exception {
+    final EdmEntitySet entitySet = MockFacade.getMockEdm().getDefaultEntityContainer().getEntitySet("Teams");
+    final EntityInfoAggregator entityInfo = EntityInfoAggregator.create(entitySet, null);
+    List<Map<String, Object>> teamsData = new ArrayList<Map<String, Object>>();
+    for (int i = 1; i <= 5; i++) {
+      Map<String, Object> teamData = new HashMap<String, Object>();
+      teamData.put("Id", String.valueOf(i));
+      teamsData.add(teamData);
+    }
+
+    FlushCountingWriter writer = new FlushCountingWriter();
+    new JsonFeedEntityProducer(DEFAULT_PROPERTIES).append(writer, entityInfo, teamsData, true);
+    assertEquals(0, writer.flushes);
+
+    writer = new FlushCountingWriter();
+    final EntityProviderWriteProperties properties = EntityProviderWriteProperties.fromProperties(DEFAULT_PROPERTIES).flushInterval(2).build();
+    new JsonFeedEntityProducer(properties).append(writer, entityInfo, teamsData, true);
+    assertEquals(2, writer.flushes);
+    assertTrue(writer.toString().endsWith("Teams('5')/nt_Employees\"}}}]}}"));
+  }
+
+  private static class FlushCountingWriter extends StringWriter {
+    private int flushes = 0;
+
+    @Override
+    public void flush() {
+      flushes++;
+      super.flush();
+    }
+  }
 }
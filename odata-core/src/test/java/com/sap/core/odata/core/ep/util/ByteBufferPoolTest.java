@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.ep.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * @author SAP AG
+ */
+public class ByteBufferPoolTest extends BaseTest {
+
+  @Test
+  public void reuseReleasedBuffer() {
+    ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.DEFAULT_MAX_POOLED_BYTES, false);
+    ByteBuffer buffer = pool.acquire(8192);
+    buffer.put((byte) 1);
+    assertEquals(0, pool.getHitCount());
+    assertEquals(1, pool.getMissCount());
+
+    pool.release(buffer);
+    assertEquals(1, pool.getPooledBufferCount());
+    assertEquals(8192, pool.getPooledBytes());
+
+    ByteBuffer reused = pool.acquire(8192);
+    assertSame(buffer, reused);
+    assertEquals(0, reused.position());
+    assertEquals(8192, reused.limit());
+    assertEquals(1, pool.getHitCount());
+    assertEquals(0, pool.getPooledBufferCount());
+    assertEquals(0, pool.getPooledBytes());
+  }
+
+  @Test
+  public void sizeClasses() {
+    ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.DEFAULT_MAX_POOLED_BYTES, false);
+    pool.release(pool.acquire(16384));
+    assertEquals(8192, pool.acquire(8192).capacity());
+    assertEquals(1, pool.getPooledBufferCount());
+    assertEquals(16384, pool.acquire(16384).capacity());
+    assertEquals(0, pool.getPooledBufferCount());
+  }
+
+  @Test
+  public void unpooledCapacities() {
+    ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.DEFAULT_MAX_POOLED_BYTES, false);
+    pool.release(pool.acquire(128));
+    pool.release(pool.acquire(3 * 8192));
+    pool.release(pool.acquire(ByteBufferPool.MAX_POOLED_CAPACITY * 2));
+    assertEquals(0, pool.getPooledBufferCount());
+    pool.release(ByteBuffer.allocateDirect(8192));
+    assertEquals(0, pool.getPooledBufferCount());
+  }
+
+  @Test
+  public void bounded() {
+    ByteBufferPool pool = new ByteBufferPool(2 * 8192, false);
+    ByteBuffer first = pool.acquire(8192);
+    ByteBuffer second = pool.acquire(8192);
+    ByteBuffer third = pool.acquire(8192);
+    pool.release(first);
+    pool.release(second);
+    pool.release(third);
+    assertEquals(2, pool.getPooledBufferCount());
+    assertEquals(2 * 8192, pool.getPooledBytes());
+    assertEquals(1, pool.getDiscardCount());
+  }
+
+  @Test
+  public void direct() {
+    ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.DEFAULT_MAX_POOLED_BYTES, true);
+    ByteBuffer buffer = pool.acquire(8192);
+    assertTrue(buffer.isDirect());
+    pool.release(buffer);
+    assertEquals(1, pool.getPooledBufferCount());
+    pool.release(ByteBuffer.allocate(8192));
+    assertEquals(1, pool.getPooledBufferCount());
+  }
+
+  @Test
+  public void circleStreamBufferReleasesBuffers() throws Exception {
+    ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.DEFAULT_MAX_POOLED_BYTES, false);
+    CircleStreamBuffer csb = new CircleStreamBuffer(8192, pool);
+    OutputStream outStream = csb.getOutputStream();
+    outStream.write(new byte[20000]);
+    csb.closeWrite();
+    assertEquals(0, pool.getPooledBufferCount());
+
+    InputStream inStream = csb.getInputStream();
+    byte[] data = new byte[1024];
+    int count = 0;
+    int read = inStream.read(data);
+    while (read >= 0) {
+      count += read;
+      read = inStream.read(data);
+    }
+    assertEquals(20000, count);
+    assertTrue(pool.getPooledBufferCount() > 0);
+    inStream.close();
+    final long pooled = pool.getPooledBufferCount();
+
+    CircleStreamBuffer second = new CircleStreamBuffer(8192, pool);
+    assertFalse(pool.getHitCount() == 0);
+    second.close();
+    assertEquals(pooled, pool.getPooledBufferCount());
+  }
+
+  @Test
+  public void circleStreamBufferClose() throws Exception {
+    ByteBufferPool pool = new ByteBufferPool(ByteBufferPool.DEFAULT_MAX_POOLED_BYTES, false);
+    CircleStreamBuffer csb = new CircleStreamBuffer(8192, pool);
+    csb.getOutputStream().write("Test".getBytes("UTF-8"));
+    csb.close();
+    assertEquals(1, pool.getPooledBufferCount());
+  }
+}
@@ -78,4 +78,18 @@ public class JsonStreamWriterTest extends BaseTest {
         + "\"escaped\":\"\\\"\\\\\"}",
         writer.toString());
   }
+
+  @Test
+  public void predefinedNames() throws Exception {
+    StringWriter writer = new StringWriter();
+    JsonStreamWriter jsonStreamWriter = new JsonStreamWriter(writer);
+    jsonStreamWriter.beginObject()
+        .name(FormatJson.METADATA).beginObject()
+        .namedStringValue(FormatJson.URI, "a\"b\nc").separator()
+        .namedStringValueRaw(FormatJson.TYPE, "T")
+        .endObject()
+        .endObject();
+    writer.flush();
+    assertEquals("{\"__metadata\":{\"uri\":\"a\\\"b\\nc\",\"type\":\"T\"}}", writer.toString());
+  }
 }
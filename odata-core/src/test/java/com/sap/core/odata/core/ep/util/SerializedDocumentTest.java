@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.ep.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import com.sap.core.odata.testutil.fit.BaseTest;
+import com.sap.core.odata.testutil.helper.StringHelper;
+
+/**
+ * @author SAP AG
+ */
+public class SerializedDocumentTest extends BaseTest {
+
+  private static SerializedDocument create(final String content, final String contentType) throws Exception {
+    return SerializedDocument.create(new ByteArrayInputStream(content.getBytes("UTF-8")), contentType);
+  }
+
+  @Test
+  public void contentCanBeReadRepeatedly() throws Exception {
+    final SerializedDocument document = create("<doc/>", null);
+    final InputStream first = document.getContent();
+    final InputStream second = document.getContent();
+    assertNotSame(first, second);
+    assertEquals("<doc/>", StringHelper.inputStreamToString(first));
+    assertEquals("<doc/>", StringHelper.inputStreamToString(second));
+    assertEquals(6, document.getLength());
+  }
+
+  @Test
+  public void eTag() throws Exception {
+    final String eTag = create("<doc/>", null).getETag();
+    assertTrue(eTag.matches("\"[0-9a-f]{32}\""));
+    assertEquals(eTag, create("<doc/>", null).getETag());
+    assertFalse(eTag.equals(create("<doc />", null).getETag()));
+    assertFalse(eTag.equals(create("<doc/>", "application/xml").getETag()));
+  }
+
+  @Test
+  public void ifNoneMatch() throws Exception {
+    final String eTag = create("<doc/>", null).getETag();
+    assertTrue(SerializedDocument.matches(eTag, eTag));
+    assertTrue(SerializedDocument.matches("\"a\", " + eTag, eTag));
+    assertTrue(SerializedDocument.matches("W/" + eTag, eTag));
+    assertTrue(SerializedDocument.matches("*", eTag));
+    assertFalse(SerializedDocument.matches("\"a\"", eTag));
+    assertFalse(SerializedDocument.matches(null, eTag));
+    assertFalse(SerializedDocument.matches(eTag, null));
+  }
+}
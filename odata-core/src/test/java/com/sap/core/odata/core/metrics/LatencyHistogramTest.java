@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * @author SAP AG
+ */
+public class LatencyHistogramTest extends BaseTest {
+
+  @Test
+  public void addHistograms() {
+    final LatencyHistogram first = new LatencyHistogram();
+    first.recordValue(10);
+    first.recordValue(200);
+    final LatencyHistogram second = new LatencyHistogram();
+    second.recordValue(3);
+    second.recordValue(5000);
+
+    first.add(second);
+    assertEquals(4, first.getTotalCount());
+    assertEquals(5213, first.getSum());
+    assertEquals(3, first.getMinValue());
+    assertEquals(5000, first.getMaxValue());
+    assertEquals(10, first.getValueAtPercentile(50));
+    assertEquals(5000, first.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void precision() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    histogram.recordValue(127);
+    histogram.recordValue(1000000);
+    histogram.recordValue(2000000);
+    assertEquals(127, histogram.getValueAtPercentile(0));
+    assertTrue(Math.abs(histogram.getValueAtPercentile(50) - 1000000) <= 1000000 / 64);
+    assertEquals(2000000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void negativeValue() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    histogram.recordValue(-1);
+    histogram.recordValue(5);
+    assertEquals(2, histogram.getTotalCount());
+    assertEquals(5, histogram.getSum());
+    assertEquals(0, histogram.getMinValue());
+    assertEquals(0, histogram.getValueAtPercentile(50));
+  }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * @author SAP AG
+ */
+public class LatencyStatisticsTest extends BaseTest {
+
+  @Test
+  public void empty() {
+    final LatencyStatistics statistics = new LatencyStatistics();
+    assertEquals(0, statistics.getCount());
+    assertEquals(0, statistics.getMeanMicros(), 0);
+    assertEquals(0, statistics.getPercentileMicros(50));
+  }
+
+  @Test
+  public void countMeanAndMax() {
+    final LatencyStatistics statistics = new LatencyStatistics();
+    statistics.record(1000);
+    statistics.record(2000);
+    statistics.record(6000);
+    statistics.record(-5);
+    assertEquals(4, statistics.getCount());
+    assertEquals(9000, statistics.getTotalNanos());
+    assertEquals(6000, statistics.getMaxNanos());
+    assertEquals(2.25, statistics.getMeanMicros(), 0.001);
+  }
+
+  @Test
+  public void exactSmallValues() {
+    final LatencyStatistics statistics = new LatencyStatistics();
+    for (int micros = 1; micros <= 50; micros++) {
+      statistics.record(micros * 1000L);
+    }
+    assertEquals(25, statistics.getPercentileMicros(50));
+    assertEquals(50, statistics.getPercentileMicros(100));
+    assertEquals(1, statistics.getPercentileMicros(0));
+  }
+
+  @Test
+  public void percentilesWithinPrecision() {
+    final LatencyStatistics statistics = new LatencyStatistics();
+    for (long micros = 1; micros <= 100000; micros++) {
+      statistics.record(micros * 1000);
+    }
+    assertWithinPrecision(50000, statistics.getPercentileMicros(50));
+    assertWithinPrecision(90000, statistics.getPercentileMicros(90));
+    assertWithinPrecision(99000, statistics.getPercentileMicros(99));
+    assertEquals(100000, statistics.getPercentileMicros(100));
+  }
+
+  @Test
+  public void hugeValue() {
+    final LatencyStatistics statistics = new LatencyStatistics();
+    statistics.record(Long.MAX_VALUE);
+    assertEquals(1, statistics.getCount());
+    assertTrue(statistics.getPercentileMicros(50) > 0);
+  }
+
+  @Test
+  public void reset() {
+    final LatencyStatistics statistics = new LatencyStatistics();
+    statistics.record(1000);
+    statistics.reset();
+    assertEquals(0, statistics.getCount());
+    assertEquals(0, statistics.getMaxNanos());
+    assertEquals(0, statistics.getPercentileMicros(99));
+  }
+
+  @Test
+  public void concurrentRecording() throws Exception {
+    final LatencyStatistics statistics = new LatencyStatistics();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 4; i++) {
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          for (int value = 1; value <= 10000; value++) {
+            statistics.record(value * 1000L);
+          }
+        }
+      });
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(40000, statistics.getCount());
+    assertEquals(4 * 10000L * 10001 / 2 * 1000, statistics.getTotalNanos());
+    assertEquals(10000000, statistics.getMaxNanos());
+    assertEquals(10000, statistics.getPercentileMicros(100));
+  }
+
+  private static void assertWithinPrecision(final long expected, final long actual) {
+    assertTrue(expected + " expected but was " + actual, Math.abs(actual - expected) <= expected * 0.04);
+  }
+}
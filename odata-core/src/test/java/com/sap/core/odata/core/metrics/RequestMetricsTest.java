@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.core.odata.api.ODataMetricsCallback;
+import com.sap.core.odata.api.ODataMetricsCallback.Phase;
+import com.sap.core.odata.api.ODataServiceFactory;
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * @author SAP AG
+ */
+public class RequestMetricsTest extends BaseTest {
+
+  private ODataMetricsCallback callback;
+  private RequestMetrics metrics;
+
+  @Before
+  public void createMetrics() {
+    callback = mock(ODataMetricsCallback.class);
+    ODataServiceFactory serviceFactory = mock(ODataServiceFactory.class);
+    when(serviceFactory.<ODataMetricsCallback> getCallback(ODataMetricsCallback.class)).thenReturn(callback);
+    metrics = new RequestMetrics(serviceFactory);
+  }
+
+  @Test
+  public void recordPhase() {
+    final long count = getPhaseCount(Phase.URI_PARSING);
+    metrics.recordPhase(Phase.URI_PARSING, 1234);
+    assertEquals(count + 1, getPhaseCount(Phase.URI_PARSING));
+    verify(callback).phaseCompleted(Phase.URI_PARSING, 1234);
+  }
+
+  @Test
+  public void recordRequest() {
+    final ODataMetrics global = ODataMetrics.getInstance();
+    final long requests = global.getRequestCount();
+    final long clientErrors = global.getClientErrorCount();
+    final long serverErrors = global.getServerErrorCount();
+    metrics.recordRequest(200, 1000);
+    metrics.recordRequest(404, 1000);
+    metrics.recordRequest(500, 1000);
+    assertEquals(requests + 3, global.getRequestCount());
+    assertEquals(clientErrors + 1, global.getClientErrorCount());
+    assertEquals(serverErrors + 1, global.getServerErrorCount());
+    verify(callback).requestCompleted(404, 1000);
+  }
+
+  @Test
+  public void recordCurrent() {
+    final RequestMetrics previous = metrics.bind();
+    try {
+      RequestMetrics.recordCurrent(Phase.SERIALIZATION, System.nanoTime());
+    } finally {
+      RequestMetrics.unbind(previous);
+    }
+    verify(callback).phaseCompleted(eq(Phase.SERIALIZATION), anyLong());
+
+    // without bound recorder only the global metrics are updated
+    final long count = getPhaseCount(Phase.SERIALIZATION);
+    RequestMetrics.recordCurrent(Phase.SERIALIZATION, System.nanoTime());
+    assertEquals(count + 1, getPhaseCount(Phase.SERIALIZATION));
+    verify(callback).phaseCompleted(eq(Phase.SERIALIZATION), anyLong());
+  }
+
+  @Test
+  public void withoutCallback() {
+    final long count = getPhaseCount(Phase.BATCH_PART);
+    new RequestMetrics(mock(ODataServiceFactory.class)).recordPhase(Phase.BATCH_PART, 1);
+    new RequestMetrics(null).recordPhase(Phase.BATCH_PART, 1);
+    assertEquals(count + 2, getPhaseCount(Phase.BATCH_PART));
+  }
+
+  @Test
+  public void mbeanAccess() throws Exception {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = new ObjectName(ODataMetrics.OBJECT_NAME);
+    ODataMetrics.registerMBean();
+    ODataMetrics.registerMBean();
+    try {
+      assertTrue(server.isRegistered(name));
+      metrics.recordPhase(Phase.PROCESSING, 5000000);
+      final ODataMetrics global = ODataMetrics.getInstance();
+      assertEquals(Phase.values().length, ((String[]) server.getAttribute(name, "PhaseNames")).length);
+      assertEquals(Long.valueOf(global.getRequestCount()), server.getAttribute(name, "RequestCount"));
+      assertEquals(Long.valueOf(getPhaseCount(Phase.PROCESSING)),
+          server.invoke(name, "getPhaseCount", new Object[] { "PROCESSING" }, new String[] { String.class.getName() }));
+      assertEquals(Long.valueOf(global.getPhaseStatistics(Phase.PROCESSING).getPercentileMicros(99)),
+          server.invoke(name, "getPhasePercentileMicros", new Object[] { "PROCESSING", 99.0 },
+              new String[] { String.class.getName(), double.class.getName() }));
+    } finally {
+      ODataMetrics.unregisterMBean();
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  private static long getPhaseCount(final Phase phase) {
+    return ODataMetrics.getInstance().getPhaseStatistics(phase).getCount();
+  }
+}
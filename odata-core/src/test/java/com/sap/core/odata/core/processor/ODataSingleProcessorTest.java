@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Test;
+
+import com.sap.core.odata.api.ODataService;
+import com.sap.core.odata.api.edm.Edm;
+import com.sap.core.odata.api.edm.EdmServiceMetadata;
+import com.sap.core.odata.api.edm.EdmTaggedServiceMetadata;
+import com.sap.core.odata.api.processor.ODataContext;
+import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.processor.ODataSingleProcessor;
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * @author SAP AG
+ */
+public class ODataSingleProcessorTest extends BaseTest {
+
+  private static ODataSingleProcessor createProcessor(final EdmServiceMetadata serviceMetadata) throws Exception {
+    Edm edm = mock(Edm.class);
+    when(edm.getServiceMetadata()).thenReturn(serviceMetadata);
+    ODataService service = mock(ODataService.class);
+    when(service.getEntityDataModel()).thenReturn(edm);
+    ODataContext context = mock(ODataContext.class);
+    when(context.getService()).thenReturn(service);
+
+    ODataSingleProcessor processor = new ODataSingleProcessor() {};
+    processor.setContext(context);
+    return processor;
+  }
+
+  @Test
+  public void readTaggedMetadata() throws Exception {
+    EdmTaggedServiceMetadata serviceMetadata = mock(EdmTaggedServiceMetadata.class);
+    when(serviceMetadata.getMetadata()).thenReturn(new ByteArrayInputStream(new byte[0]));
+    when(serviceMetadata.getMetadataETag()).thenReturn("\"1\"");
+
+    final ODataResponse response = createProcessor(serviceMetadata).readMetadata(null, "application/xml");
+    assertEquals("\"1\"", response.getETag());
+  }
+
+  @Test
+  public void readMetadataWithoutETag() throws Exception {
+    EdmServiceMetadata serviceMetadata = mock(EdmServiceMetadata.class);
+    when(serviceMetadata.getMetadata()).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+    final ODataResponse response = createProcessor(serviceMetadata).readMetadata(null, "application/xml");
+    assertNull(response.getETag());
+    assertEquals("application/xml", response.getContentHeader());
+  }
+}
@@ -78,6 +78,17 @@ public class ExpandSelectTreeCreatorImplTest extends BaseTest {
     assertTrue(actual.getLinks().isEmpty());
   }
 
+  @Test
+  public void propertiesAreUnmodifiable() throws Exception {
+    final ExpandSelectTreeNode actual = getExpandSelectTree("Age", null);
+    try {
+      actual.getProperties().clear();
+      fail("Expected UnsupportedOperationException not thrown");
+    } catch (final UnsupportedOperationException e) {
+      assertEquals(1, actual.getProperties().size());
+    }
+  }
+
   @Test
   public void onlyPropertyAndExpandLink() throws Exception {
     //{"all":false,"properties":["Age"],"links":[]}
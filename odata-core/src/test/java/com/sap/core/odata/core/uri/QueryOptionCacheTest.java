@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.core.uri;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.core.odata.api.edm.Edm;
+import com.sap.core.odata.api.edm.provider.EdmProvider;
+import com.sap.core.odata.core.edm.provider.EdmImplProv;
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * @author SAP AG
+ */
+public class QueryOptionCacheTest extends BaseTest {
+
+  private static final Object TARGET = new Object();
+  private static final String FILTER = "$filter";
+
+  private QueryOptionCache cache;
+
+  @Before
+  public void createCache() {
+    cache = new QueryOptionCache();
+  }
+
+  @Test
+  public void hitAndMiss() {
+    assertNull(cache.get(TARGET, FILTER, "a eq 1"));
+    final Object result = new Object();
+    assertSame(result, cache.put(TARGET, FILTER, "a eq 1", result));
+    assertSame(result, cache.get(TARGET, FILTER, new String("a eq 1")));
+    assertNull(cache.get(new Object(), FILTER, "a eq 1"));
+    assertNull(cache.get(TARGET, "$orderby", "a eq 1"));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(1, cache.getSize());
+    assertEquals(6, cache.getWeight());
+  }
+
+  @Test
+  public void firstPutWins() {
+    final Object first = new Object();
+    cache.put(TARGET, FILTER, "a", first);
+    assertSame(first, cache.put(TARGET, FILTER, "a", new Object()));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void identityValues() {
+    final List<String> list = cache.cachedList(Arrays.asList("x"));
+    final Object result = new Object();
+    cache.put(list, QueryOptionCache.EXPAND_SELECT_TREE, null, result);
+    assertSame(result, cache.get(list, QueryOptionCache.EXPAND_SELECT_TREE, null));
+    assertNull(cache.get(cache.cachedList(Arrays.asList("x")), QueryOptionCache.EXPAND_SELECT_TREE, null));
+  }
+
+  @Test
+  public void evictionBySize() {
+    cache.setMaximumSize(2);
+    cache.put(TARGET, FILTER, "a", "A");
+    cache.put(TARGET, FILTER, "b", "B");
+    cache.get(TARGET, FILTER, "a");
+    cache.put(TARGET, FILTER, "c", "C");
+    assertEquals(2, cache.getSize());
+    assertEquals(1, cache.getEvictionCount());
+    // the recently used entry gets a second chance
+    assertEquals("A", cache.get(TARGET, FILTER, "a"));
+    assertNull(cache.get(TARGET, FILTER, "b"));
+    assertEquals("C", cache.get(TARGET, FILTER, "c"));
+  }
+
+  @Test
+  public void evictionByWeight() {
+    cache.setMaximumWeight(10);
+    cache.put(TARGET, FILTER, "12345", "first");
+    cache.put(TARGET, FILTER, "67890", "second");
+    assertEquals(10, cache.getWeight());
+    cache.put(TARGET, FILTER, "x", "third");
+    assertEquals(6, cache.getWeight());
+    assertNull(cache.get(TARGET, FILTER, "12345"));
+  }
+
+  @Test
+  public void tooLongValueIsNotCached() {
+    cache.setMaximumValueLength(3);
+    final Object result = new Object();
+    assertSame(result, cache.put(TARGET, FILTER, "long value", result));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void disabled() {
+    cache.setMaximumSize(0);
+    cache.put(TARGET, FILTER, "a", "A");
+    assertEquals(0, cache.getSize());
+    assertNull(cache.get(TARGET, FILTER, "a"));
+  }
+
+  @Test
+  public void clear() {
+    cache.put(TARGET, FILTER, "a", "A");
+    cache.clear();
+    assertEquals(0, cache.getSize());
+    assertEquals(0, cache.getWeight());
+    assertNull(cache.get(TARGET, FILTER, "a"));
+  }
+
+  @Test
+  public void acquiredForSharedModel() {
+    final Edm edm = new EdmImplProv(mock(EdmProvider.class));
+    assertNull(QueryOptionCache.acquire(edm));
+    final QueryOptionCache sharedCache = QueryOptionCache.acquire(edm);
+    assertNotNull(sharedCache);
+    assertSame(sharedCache, QueryOptionCache.acquire(edm));
+    assertNull(QueryOptionCache.acquire(new EdmImplProv(mock(EdmProvider.class))));
+    assertNull(QueryOptionCache.acquire(mock(Edm.class)));
+    assertNull(QueryOptionCache.acquire(null));
+  }
+
+  @Test
+  public void cachedListsBelongToTheirCache() {
+    final List<String> list = cache.cachedList(Arrays.asList("a"));
+    assertSame(cache, QueryOptionCache.getCache(list));
+    assertFalse(new QueryOptionCache().isCached(list));
+    assertNull(QueryOptionCache.getCache(Arrays.asList("a")));
+  }
+
+  @Test
+  public void totalStatistics() {
+    final long hits = QueryOptionCache.getTotalHitCount();
+    final long misses = QueryOptionCache.getTotalMissCount();
+    cache.get(TARGET, FILTER, "a");
+    cache.put(TARGET, FILTER, "a", "A");
+    new QueryOptionCache().get(TARGET, FILTER, "a");
+    cache.get(TARGET, FILTER, "a");
+    assertTrue(QueryOptionCache.getTotalHitCount() >= hits + 1);
+    assertTrue(QueryOptionCache.getTotalMissCount() >= misses + 2);
+  }
+
+  @Test
+  public void cachedArrayListIsUnmodifiable() {
+    final ArrayList<String> list = cache.cachedArrayList(Arrays.asList("a", "b"));
+    assertEquals(Arrays.asList("a", "b"), list);
+    try {
+      list.add("c");
+      fail("Expected UnsupportedOperationException not thrown");
+    } catch (final UnsupportedOperationException e) {
+      assertEquals(2, list.size());
+    }
+    try {
+      list.subList(0, 1).set(0, "c");
+      fail("Expected UnsupportedOperationException not thrown");
+    } catch (final UnsupportedOperationException e) {
+      assertEquals("a", list.get(0));
+    }
+    try {
+      final Iterator<String> iterator = list.iterator();
+      iterator.next();
+      iterator.remove();
+      fail("Expected UnsupportedOperationException not thrown");
+    } catch (final UnsupportedOperationException e) {
+      assertEquals(2, list.size());
+    }
+  }
+
+  @Test
+  public void cachedListIsUnmodifiable() {
+    final List<String> list = cache.cachedList(Arrays.asList("a", "b"));
+    assertTrue(cache.isCached(list));
+    assertEquals(Arrays.asList("a", "b"), list);
+    try {
+      list.add("c");
+      fail("Expected UnsupportedOperationException not thrown");
+    } catch (final UnsupportedOperationException e) {
+      assertEquals(2, list.size());
+    }
+  }
+}
@@ -17,7 +17,9 @@ package com.sap.core.odata.core.uri;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.when;
@@ -42,12 +44,14 @@ import com.sap.core.odata.api.edm.EdmTypeKind;
 import com.sap.core.odata.api.exception.MessageReference;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.exception.ODataMessageException;
+import com.sap.core.odata.api.rt.RuntimeDelegate;
 import com.sap.core.odata.api.uri.PathSegment;
 import com.sap.core.odata.api.uri.UriInfo;
 import com.sap.core.odata.api.uri.UriNotMatchingException;
 import com.sap.core.odata.api.uri.UriSyntaxException;
 import com.sap.core.odata.core.ODataPathSegmentImpl;
 import com.sap.core.odata.testutil.fit.BaseTest;
+import com.sap.core.odata.testutil.mock.EdmTestProvider;
 import com.sap.core.odata.testutil.mock.MockFacade;
 
 /**
@@ -70,6 +74,10 @@ public class UriParserTest extends BaseTest {
     * @return a {@link UriInfoImpl} instance containing the parsed information
     */
   private UriInfoImpl parse(final String uri) throws UriSyntaxException, UriNotMatchingException, EdmException {
+    return parse(edm, uri);
+  }
+
+  private UriInfoImpl parse(final Edm edm, final String uri) throws UriSyntaxException, UriNotMatchingException, EdmException {
     final String[] path = uri.split("\\?", -1);
     if (path.length > 2) {
       throw new UriSyntaxException(UriSyntaxException.URISYNTAX);
@@ -786,6 +794,40 @@ public class UriParserTest extends BaseTest {
     assertEquals("true", result.getCustomQueryOptions().get("odata-debug"));
   }
 
+  @Test
+  public void parsedSystemQueryOptionsAreShared() throws Exception {
+    final Edm sharedEdm = RuntimeDelegate.createEdm(new EdmTestProvider());
+    final String options = "?$filter=Age%20gt%2020&$orderby=EmployeeName&$select=EmployeeName,ne_Manager&$expand=ne_Manager";
+    // the model is not known to be shared before a second parser uses it
+    final UriInfoImpl first = parse(sharedEdm, "Employees" + options);
+    final UriInfoImpl second = parse(sharedEdm, "Employees" + options + "&$skip=5");
+    assertNotSame(first.getFilter(), second.getFilter());
+    final UriInfoImpl third = parse(sharedEdm, "Employees" + options + "&$top=5");
+    assertSame(second.getFilter(), third.getFilter());
+    assertSame(second.getOrderBy(), third.getOrderBy());
+    assertSame(second.getSelect(), third.getSelect());
+    assertSame(second.getExpand(), third.getExpand());
+
+    final UriParserImpl parser = new UriParserImpl(null);
+    assertSame(parser.buildExpandSelectTree(second.getSelect(), second.getExpand()),
+        parser.buildExpandSelectTree(third.getSelect(), third.getExpand()));
+    assertNotSame(parser.buildExpandSelectTree(first.getSelect(), first.getExpand()),
+        parser.buildExpandSelectTree(first.getSelect(), first.getExpand()));
+
+    try {
+      third.getExpand().get(0).clear();
+      fail("Expected UnsupportedOperationException not thrown");
+    } catch (final UnsupportedOperationException e) {
+      assertEquals(1, third.getExpand().get(0).size());
+    }
+  }
+
+  @Test
+  public void parsedSystemQueryOptionsAreNotSharedWithoutEdmImpl() throws Exception {
+    final String options = "?$filter=Age%20gt%2020&$expand=ne_Manager";
+    assertNotSame(parse("Employees" + options).getFilter(), parse("Employees" + options).getFilter());
+  }
+
   @Test
   public void parseSystemQueryOptionSelectSingle() throws Exception {
     UriInfoImpl result = parse("Employees?$select=EmployeeName");
@@ -156,6 +156,37 @@ public class TestTokenizer
     getTT("a eqotto b").at(1).aKind(TokenKind.LITERAL).aUriLiteral("eqotto");
   }
 
+  @Test
+  public void tokenizeKeywordBoundaries() throws Exception
+  {
+    //keywords must be followed by their delimiter
+    getTT("order eq 1")
+        .at(0).aKind(TokenKind.LITERAL).aUriLiteral("order").aPosition(0)
+        .at(1).aKind(TokenKind.LITERAL).aUriLiteral("eq").aPosition(6)
+        .at(2).aKind(TokenKind.SIMPLE_TYPE).aUriLiteral("1").aPosition(9);
+    getTT("a or not b")
+        .at(1).aKind(TokenKind.LITERAL).aUriLiteral("or").aPosition(2)
+        .at(2).aKind(TokenKind.LITERAL).aUriLiteral("not").aPosition(5);
+    getTT("tolower (Name)")
+        .at(0).aKind(TokenKind.LITERAL).aUriLiteral("tolower").aPosition(0)
+        .at(1).aKind(TokenKind.OPENPAREN).aPosition(8);
+    getTT("lengthx(a)").at(0).aKind(TokenKind.LITERAL).aUriLiteral("lengthx");
+
+    //prefixes
+    getTT("datetimeoffset'2002-10-10T17:00:00Z'")
+        .aKind(TokenKind.SIMPLE_TYPE).aUriLiteral("datetimeoffset'2002-10-10T17:00:00Z'").aPosition(0);
+    getTT("guids eq X'00'")
+        .at(0).aKind(TokenKind.LITERAL).aUriLiteral("guids")
+        .at(2).aKind(TokenKind.SIMPLE_TYPE).aUriLiteral("X'00'").aPosition(9);
+
+    //booleans, escaped quotes and non-ASCII letters
+    getTT("a eq true").at(2).aKind(TokenKind.SIMPLE_TYPE).aUriLiteral("true").aPosition(5);
+    getTT("'it''s'").aKind(TokenKind.SIMPLE_TYPE).aUriLiteral("'it's'").aPosition(0);
+    getTT("Straße eq 'a'")
+        .at(0).aKind(TokenKind.LITERAL).aUriLiteral("Straße").aPosition(0)
+        .at(1).aKind(TokenKind.LITERAL).aUriLiteral("eq").aPosition(7);
+  }
+
   @Test
   public void testExceptions() throws Exception
   {
@@ -112,7 +112,7 @@ public class BasicBatchTest extends AbstractBasicTest {
     assertNotNull(response);
     assertEquals(202, response.getStatusLine().getStatusCode());
     assertEquals("HTTP/1.1", response.getProtocolVersion().toString());
-    assertTrue(response.containsHeader("Content-Length"));
+    assertTrue(response.containsHeader("Transfer-Encoding"));
     assertTrue(response.containsHeader("Content-Type"));
     assertTrue(response.containsHeader("DataServiceVersion"));
     assertTrue(response.getEntity().getContentType().getValue().matches(REG_EX));
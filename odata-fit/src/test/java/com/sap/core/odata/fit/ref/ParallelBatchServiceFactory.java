@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.fit.ref;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sap.core.odata.api.ODataCallback;
+import com.sap.core.odata.api.ODataService;
+import com.sap.core.odata.api.ODataServiceFactory;
+import com.sap.core.odata.api.batch.BatchParallelCallback;
+import com.sap.core.odata.api.edm.provider.EdmCache;
+import com.sap.core.odata.api.exception.ODataException;
+import com.sap.core.odata.api.processor.ODataContext;
+import com.sap.core.odata.ref.edm.ScenarioEdmProvider;
+import com.sap.core.odata.ref.model.DataContainer;
+import com.sap.core.odata.ref.processor.ListsProcessor;
+import com.sap.core.odata.ref.processor.ScenarioDataSource;
+
+/**
+ * Creates reference scenario services working on the same data
+ * and executes query operations of batch requests on a thread pool.
+ * @author SAP AG
+ */
+public class ParallelBatchServiceFactory extends ODataServiceFactory {
+
+  private static DataContainer dataContainer;
+  private static ExecutorService executorService;
+  private static final AtomicInteger executedParts = new AtomicInteger();
+
+  public static void init(final ExecutorService executor) {
+    dataContainer = new DataContainer();
+    dataContainer.reset();
+    executorService = executor;
+    executedParts.set(0);
+  }
+
+  public static void shutdown() {
+    executorService.shutdown();
+  }
+
+  public static int getExecutedParts() {
+    return executedParts.get();
+  }
+
+  @Override
+  public ODataService createService(final ODataContext ctx) throws ODataException {
+    return createODataSingleProcessorService(
+        EdmCache.getEdm(ParallelBatchServiceFactory.class.getName(), new ScenarioEdmProvider()),
+        new ListsProcessor(new ScenarioDataSource(dataContainer)));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T extends ODataCallback> T getCallback(final Class<? extends ODataCallback> callbackInterface) {
+    if (callbackInterface.isAssignableFrom(BatchParallelCallback.class)) {
+      return (T) new BatchParallelCallback() {
+        @Override
+        public Executor getExecutor() {
+          return new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+              executedParts.incrementAndGet();
+              executorService.execute(command);
+            }
+          };
+        }
+
+        @Override
+        public int getMaxParallelParts() {
+          return 2;
+        }
+      };
+    }
+    return super.getCallback(callbackInterface);
+  }
+}
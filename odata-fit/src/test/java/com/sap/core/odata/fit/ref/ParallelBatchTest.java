@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.fit.ref;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.concurrent.Executors;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sap.core.odata.testutil.fit.BaseTest;
+import com.sap.core.odata.testutil.helper.StringHelper;
+import com.sap.core.odata.testutil.server.TestServer;
+
+/**
+ * Tests employing the reference scenario with concurrently executed query operations in batch requests
+ * @author SAP AG
+ */
+public class ParallelBatchTest extends BaseTest {
+
+  private static final String LF = "\r\n";
+
+  private final TestServer server = new TestServer(ParallelBatchTest.class.getSimpleName());
+
+  @Before
+  public void before() {
+    ParallelBatchServiceFactory.init(Executors.newFixedThreadPool(4));
+    server.startServer(ParallelBatchServiceFactory.class);
+  }
+
+  @After
+  public void after() {
+    server.stopServer();
+    ParallelBatchServiceFactory.shutdown();
+  }
+
+  private static String queryPart(final String uri) {
+    return "--batch_123" + LF
+        + "Content-Type: application/http" + LF
+        + "Content-Transfer-Encoding: binary" + LF
+        + LF
+        + "GET " + uri + " HTTP/1.1" + LF
+        + "Accept: application/json" + LF
+        + LF
+        + LF;
+  }
+
+  @Test
+  public void queryOperationsAroundChangeSet() throws Exception {
+    final String body = queryPart("Employees('1')/EmployeeName")
+        + queryPart("Employees('2')/EmployeeName")
+        + queryPart("Employees('3')/EmployeeName")
+        + "--batch_123" + LF
+        + "Content-Type: multipart/mixed; boundary=changeset_1" + LF
+        + LF
+        + "--changeset_1" + LF
+        + "Content-Type: application/http" + LF
+        + "Content-Transfer-Encoding: binary" + LF
+        + LF
+        + "PUT Employees('2')/EmployeeName HTTP/1.1" + LF
+        + "Content-Type: application/json" + LF
+        + LF
+        + "{\"EmployeeName\":\"Frederic Fall MODIFIED\"}" + LF
+        + LF
+        + "--changeset_1--" + LF
+        + LF
+        + queryPart("Employees('2')/EmployeeName")
+        + "--batch_123--";
+
+    final HttpPost post = new HttpPost(URI.create(server.getEndpoint().toString() + "$batch"));
+    post.setHeader("Content-Type", "multipart/mixed;boundary=batch_123");
+    post.setEntity(new StringEntity(body));
+    final HttpResponse response = new DefaultHttpClient().execute(post);
+    assertEquals(202, response.getStatusLine().getStatusCode());
+
+    final String responseBody = StringHelper.inputStreamToString(response.getEntity().getContent());
+    final int first = responseBody.indexOf("Walter Winter");
+    final int second = responseBody.indexOf("\"Frederic Fall\"");
+    final int third = responseBody.indexOf("Jonathan Smith");
+    final int changeSet = responseBody.indexOf("204 No Content");
+    final int modified = responseBody.indexOf("Frederic Fall MODIFIED");
+    assertTrue(0 < first && first < second && second < third && third < changeSet && changeSet < modified);
+
+    assertEquals(4, ParallelBatchServiceFactory.getExecutedParts());
+  }
+}
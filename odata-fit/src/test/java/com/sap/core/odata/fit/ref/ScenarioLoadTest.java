@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.fit.ref;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileWriter;
+import java.io.Writer;
+
+import org.junit.Test;
+
+import com.sap.core.odata.api.commons.HttpContentType;
+import com.sap.core.odata.ref.processor.ScenarioServiceFactory;
+import com.sap.core.odata.testutil.fit.BaseTest;
+import com.sap.core.odata.testutil.helper.StringHelper;
+import com.sap.core.odata.testutil.load.LatencyHistogram;
+import com.sap.core.odata.testutil.load.LoadHarness;
+import com.sap.core.odata.testutil.load.LoadReport;
+import com.sap.core.odata.testutil.load.LoadRequest;
+
+/**
+ * Runs a mix of reading and changing requests concurrently against the
+ * reference scenario.
+ * The report is logged and, if the system property {@value #REPORT_FILE_PROPERTY}
+ * is set, written to the file it names.
+ * @author SAP AG
+ */
+public class ScenarioLoadTest extends BaseTest {
+
+  private static final String REPORT_FILE_PROPERTY = "loadReportFile";
+
+  /*
+   * increase for load analysis, e.g., 8 threads for 60 seconds
+   */
+  private static final int THREADS = 4;
+  private static final long WARMUP_MILLIS = 500;
+  private static final long DURATION_MILLIS = 1000;
+
+  @Test
+  public void mixedLoad() throws Exception {
+    final String batchBody = StringHelper.inputStreamToString(getClass().getResourceAsStream("/changeset.batch"), true);
+
+    final LoadReport report = new LoadHarness()
+        .addRequest(LoadRequest.get("feed", "Employees"), 4)
+        .addRequest(LoadRequest.get("feedJson", "Employees?$format=json"), 2)
+        .addRequest(LoadRequest.get("expand", "Rooms?$expand=nr_Employees/ne_Team,nr_Building"), 2)
+        .addRequest(LoadRequest.get("filter", "Employees?$filter=Age gt 30 and Location/City/CityName eq 'Walldorf'&$orderby=EmployeeName&$top=3"), 2)
+        .addRequest(LoadRequest.post("batch", "$batch", "multipart/mixed;boundary=batch_123", batchBody), 1)
+        .addRequest(LoadRequest.post("create", "Rooms", HttpContentType.APPLICATION_JSON,
+            "{\"Id\":\"99\",\"Name\":\"new room\",\"Seats\":19,\"Version\":42}"), 1)
+        .addRequest(LoadRequest.merge("merge", "Employees('2')", HttpContentType.APPLICATION_JSON,
+            "{\"EmployeeName\":\"Frederic Fall MODIFIED\"}"), 1)
+        .setThreads(THREADS)
+        .setWarmupMillis(WARMUP_MILLIS)
+        .setDurationMillis(DURATION_MILLIS)
+        .run(ScenarioServiceFactory.class);
+
+    log.debug("load report\n" + report);
+    final String reportFile = System.getProperty(REPORT_FILE_PROPERTY);
+    if (reportFile != null) {
+      final Writer writer = new FileWriter(reportFile);
+      try {
+        report.write(writer);
+      } finally {
+        writer.close();
+      }
+    }
+
+    assertEquals(8, report.getRequestStatistics().size());
+    for (final LoadReport.RequestStatistics statistics : report.getRequestStatistics()) {
+      assertEquals(statistics.getName(), 0, statistics.getErrors());
+      final LatencyHistogram histogram = statistics.getHistogram();
+      assertTrue(histogram.getValueAtPercentile(50) <= histogram.getValueAtPercentile(99));
+      assertTrue(histogram.getValueAtPercentile(99) <= histogram.getMaxValue());
+    }
+    final LoadReport.RequestStatistics total = report.getRequestStatistics(LoadReport.TOTAL);
+    assertNotNull(total);
+    assertTrue(total.getCount() > 0);
+  }
+}
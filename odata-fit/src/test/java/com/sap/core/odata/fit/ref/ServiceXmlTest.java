@@ -17,6 +17,8 @@ package com.sap.core.odata.fit.ref;
 
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathEvaluatesTo;
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathExists;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 
 import java.io.IOException;
 
@@ -50,6 +52,21 @@ public class ServiceXmlTest extends AbstractRefXmlTest {
     notFound("invalid.svc");
   }
 
+  @Test
+  public void serviceDocumentNotModified() throws Exception {
+    // the entity data model of the test service is known to be shared only from the second request on
+    final HttpResponse firstResponse = callUri("");
+    assertNull(firstResponse.getFirstHeader(HttpHeaders.ETAG));
+    getBody(firstResponse);
+    final HttpResponse response = callUri("");
+    final String eTag = response.getFirstHeader(HttpHeaders.ETAG).getValue();
+    validateXmlServiceDocument(getBody(response));
+
+    checkEtag(callUri("", HttpHeaders.IF_NONE_MATCH, eTag, HttpStatusCodes.NOT_MODIFIED), eTag);
+    final HttpResponse xmlResponse = callUri("?$format=xml", HttpHeaders.IF_NONE_MATCH, eTag, HttpStatusCodes.OK);
+    assertFalse(eTag.equals(xmlResponse.getFirstHeader(HttpHeaders.ETAG).getValue()));
+  }
+
   @Test
   public void serviceDocumentDefault() throws Exception {
     final HttpResponse response = callUri("");
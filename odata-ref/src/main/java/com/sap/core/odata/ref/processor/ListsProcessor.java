@@ -31,6 +31,7 @@ import java.util.Map;
 import com.sap.core.odata.api.ODataCallback;
 import com.sap.core.odata.api.batch.BatchHandler;
 import com.sap.core.odata.api.batch.BatchPart;
+import com.sap.core.odata.api.batch.BatchPartsHandler;
 import com.sap.core.odata.api.batch.BatchResponsePart;
 import com.sap.core.odata.api.commons.HttpContentType;
 import com.sap.core.odata.api.commons.HttpStatusCodes;
@@ -58,6 +59,8 @@ import com.sap.core.odata.api.ep.EntityProviderBatchProperties;
 import com.sap.core.odata.api.ep.EntityProviderException;
 import com.sap.core.odata.api.ep.EntityProviderReadProperties;
 import com.sap.core.odata.api.ep.EntityProviderWriteProperties;
+import com.sap.core.odata.api.ep.EntityRow;
+import com.sap.core.odata.api.ep.EntityRowLayout;
 import com.sap.core.odata.api.ep.callback.OnWriteEntryContent;
 import com.sap.core.odata.api.ep.callback.OnWriteFeedContent;
 import com.sap.core.odata.api.ep.callback.WriteCallbackContext;
@@ -187,8 +190,9 @@ public class ListsProcessor extends ODataSingleProcessor {
 
     final EdmEntityType entityType = entitySet.getEntityType();
     List<Map<String, Object>> values = new ArrayList<Map<String, Object>>();
+    final EntityRowLayout rowLayout = getRowLayout(entityType);
     for (final Object entryData : data) {
-      values.add(getStructuralTypeValueMap(entryData, entityType));
+      values.add(getEntityRow(entryData, entityType, rowLayout));
     }
 
     final EntityProviderWriteProperties feedProperties = EntityProviderWriteProperties
@@ -924,8 +928,9 @@ public class ListsProcessor extends ODataSingleProcessor {
         Object relatedData = null;
         try {
           relatedData = readRelatedData(context);
+          final EntityRowLayout rowLayout = getRowLayout(entityType);
           for (final Object entryData : (List<?>) relatedData) {
-            values.add(getStructuralTypeValueMap(entryData, entityType));
+            values.add(getEntityRow(entryData, entityType, rowLayout));
           }
         } catch (final ODataNotFoundException e) {
           values.clear();
@@ -1477,11 +1482,30 @@ public class ListsProcessor extends ODataSingleProcessor {
   }
 
   private <T> Map<String, Object> getStructuralTypeValueMap(final T data, final EdmStructuralType type) throws ODataException {
+    Map<String, Object> valueMap = new HashMap<String, Object>();
+    setStructuralTypeValues(data, type, valueMap);
+    return valueMap;
+  }
+
+  private EntityRowLayout getRowLayout(final EdmStructuralType type) throws EdmException {
+    List<String> names = new ArrayList<String>();
+    if (type.getMapping() != null && type.getMapping().getMimeType() != null) {
+      names.add(type.getMapping().getMimeType());
+    }
+    names.addAll(type.getPropertyNames());
+    return EntityRowLayout.create(names);
+  }
+
+  private <T> EntityRow getEntityRow(final T data, final EdmStructuralType type, final EntityRowLayout layout) throws ODataException {
+    EntityRow row = layout.createRow();
+    setStructuralTypeValues(data, type, row);
+    return row;
+  }
+
+  private <T> void setStructuralTypeValues(final T data, final EdmStructuralType type, final Map<String, Object> valueMap) throws ODataException {
     ODataContext context = getContext();
     final int timingHandle = context.startRuntimeMeasurement(getClass().getSimpleName(), "getStructuralTypeValueMap");
 
-    Map<String, Object> valueMap = new HashMap<String, Object>();
-
     if (type.getMapping() != null && type.getMapping().getMimeType() != null) {
       final String methodName = type.getMapping().getMimeType();
       valueMap.put(methodName, getValue(data, methodName));
@@ -1504,8 +1528,6 @@ public class ListsProcessor extends ODataSingleProcessor {
     }
 
     context.stopRuntimeMeasurement(timingHandle);
-
-    return valueMap;
   }
 
   private <T> Map<String, Object> getStructuralTypeTypeMap(final T data, final EdmStructuralType type) throws ODataException {
@@ -1656,8 +1678,12 @@ public class ListsProcessor extends ODataSingleProcessor {
     PathInfo pathInfo = getContext().getPathInfo();
     EntityProviderBatchProperties batchProperties = EntityProviderBatchProperties.init().pathInfo(pathInfo).build();
     List<BatchPart> batchParts = EntityProvider.parseBatchRequest(contentType, content, batchProperties);
-    for (BatchPart batchPart : batchParts) {
-      batchResponseParts.add(handler.handleBatchPart(batchPart));
+    if (handler instanceof BatchPartsHandler) {
+      batchResponseParts.addAll(((BatchPartsHandler) handler).handleBatchParts(batchParts));
+    } else {
+      for (BatchPart batchPart : batchParts) {
+        batchResponseParts.add(handler.handleBatchPart(batchPart));
+      }
     }
     batchResponse = EntityProvider.writeBatchResponse(batchResponseParts);
     return batchResponse;
@@ -19,6 +19,7 @@ import com.sap.core.odata.api.ODataCallback;
 import com.sap.core.odata.api.ODataDebugCallback;
 import com.sap.core.odata.api.ODataService;
 import com.sap.core.odata.api.ODataServiceFactory;
+import com.sap.core.odata.api.edm.provider.EdmCache;
 import com.sap.core.odata.api.exception.ODataException;
 import com.sap.core.odata.api.processor.ODataContext;
 import com.sap.core.odata.ref.edm.ScenarioEdmProvider;
@@ -35,7 +36,7 @@ public class ScenarioServiceFactory extends ODataServiceFactory {
     dataContainer.reset();
 
     return createODataSingleProcessorService(
-        new ScenarioEdmProvider(),
+        EdmCache.getEdm(ScenarioServiceFactory.class.getName(), new ScenarioEdmProvider()),
         new ListsProcessor(new ScenarioDataSource(dataContainer)));
   }
 
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.ref.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.sap.core.odata.api.batch.BatchHandler;
+import com.sap.core.odata.api.batch.BatchPart;
+import com.sap.core.odata.api.batch.BatchResponsePart;
+import com.sap.core.odata.api.commons.HttpStatusCodes;
+import com.sap.core.odata.api.processor.ODataContext;
+import com.sap.core.odata.api.processor.ODataResponse;
+import com.sap.core.odata.api.uri.PathInfo;
+import com.sap.core.odata.api.uri.PathSegment;
+import com.sap.core.odata.ref.model.DataContainer;
+import com.sap.core.odata.testutil.fit.BaseTest;
+
+/**
+ * @author SAP AG
+ */
+public class ListsProcessorBatchTest extends BaseTest {
+
+  private static final String BATCH_REQUEST = "--batch_1\r\n"
+      + "Content-Type: application/http\r\n"
+      + "Content-Transfer-Encoding: binary\r\n"
+      + "\r\n"
+      + "GET Employees('1') HTTP/1.1\r\n"
+      + "\r\n"
+      + "\r\n"
+      + "--batch_1--";
+
+  @Test
+  public void batchPartsAreHandledOneByOne() throws Exception {
+    ODataContext context = mock(ODataContext.class);
+    PathInfo pathInfo = mock(PathInfo.class);
+    when(pathInfo.getServiceRoot()).thenReturn(new URI("http://localhost/"));
+    when(pathInfo.getPrecedingSegments()).thenReturn(Collections.<PathSegment> emptyList());
+    when(context.getPathInfo()).thenReturn(pathInfo);
+    ListsProcessor processor = new ListsProcessor(new ScenarioDataSource(new DataContainer()));
+    processor.setContext(context);
+
+    BatchHandler handler = mock(BatchHandler.class);
+    when(handler.handleBatchPart(any(BatchPart.class))).thenReturn(
+        BatchResponsePart.responses(Collections.singletonList(ODataResponse.status(HttpStatusCodes.NO_CONTENT).build())).build());
+
+    final ODataResponse response = processor.executeBatch(handler, "multipart/mixed;boundary=batch_1",
+        new ByteArrayInputStream(BATCH_REQUEST.getBytes("UTF-8")));
+    assertEquals(HttpStatusCodes.ACCEPTED, response.getStatus());
+    verify(handler, times(1)).handleBatchPart(any(BatchPart.class));
+  }
+}
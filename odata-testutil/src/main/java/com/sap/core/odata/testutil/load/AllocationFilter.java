@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.testutil.load;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Servlet filter that measures the heap memory allocated by the server thread
+ * while it handles a request, per request type given in the
+ * {@link LoadRequest#HEADER_NAME} header.
+ * Allocation is only measured between {@link #start()} and {@link #stop()}
+ * and only on Java VMs that support thread allocation accounting.
+ * @author SAP AG
+ */
+public class AllocationFilter implements Filter {
+
+  private final com.sun.management.ThreadMXBean threadBean;
+  private final ConcurrentMap<String, Allocation> allocations = new ConcurrentHashMap<String, Allocation>();
+  private volatile boolean active;
+
+  public AllocationFilter() {
+    final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+      threadBean = (com.sun.management.ThreadMXBean) bean;
+      threadBean.setThreadAllocatedMemoryEnabled(true);
+    } else {
+      threadBean = null;
+    }
+  }
+
+  public boolean isSupported() {
+    return threadBean != null;
+  }
+
+  public void start() {
+    allocations.clear();
+    active = true;
+  }
+
+  public void stop() {
+    active = false;
+  }
+
+  /**
+   * @param requestName name of the request type
+   * @return average number of bytes allocated while handling a request of
+   * this type or -1 if allocation is not measured
+   */
+  public long getAllocatedBytesPerRequest(final String requestName) {
+    if (threadBean == null) {
+      return -1;
+    }
+    final Allocation allocation = allocations.get(requestName);
+    return allocation == null || allocation.requests.get() == 0 ?
+        0 : allocation.bytes.get() / allocation.requests.get();
+  }
+
+  @Override
+  public void init(final FilterConfig filterConfig) throws ServletException {}
+
+  @Override
+  public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain) throws IOException, ServletException {
+    final String requestName = request instanceof HttpServletRequest ?
+        ((HttpServletRequest) request).getHeader(LoadRequest.HEADER_NAME) : null;
+    if (!active || threadBean == null || requestName == null) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    final long threadId = Thread.currentThread().getId();
+    final long before = threadBean.getThreadAllocatedBytes(threadId);
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      final long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+      Allocation allocation = allocations.get(requestName);
+      if (allocation == null) {
+        final Allocation newAllocation = new Allocation();
+        allocation = allocations.putIfAbsent(requestName, newAllocation);
+        if (allocation == null) {
+          allocation = newAllocation;
+        }
+      }
+      allocation.requests.incrementAndGet();
+      allocation.bytes.addAndGet(allocated);
+    }
+  }
+
+  @Override
+  public void destroy() {}
+
+  private static class Allocation {
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+  }
+}
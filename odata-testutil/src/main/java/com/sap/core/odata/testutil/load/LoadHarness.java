@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.testutil.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.apache.log4j.Logger;
+
+import com.sap.core.odata.api.ODataServiceFactory;
+import com.sap.core.odata.testutil.TestUtilRuntimeException;
+import com.sap.core.odata.testutil.server.TestServer;
+
+/**
+ * <p>Generates load against an OData service with a configurable number of
+ * concurrent client threads. Each thread repeatedly sends one of the added
+ * {@link LoadRequest}s, chosen at random according to its weight, for the
+ * warm-up time and then for the measurement time.</p>
+ * <p>Latencies are recorded per request type on the client and include
+ * reading the complete response; when the harness starts the server itself,
+ * the heap memory allocated on the server per request is measured as well
+ * (see {@link AllocationFilter}).</p>
+ * @author SAP AG
+ */
+public class LoadHarness {
+  private static final Logger log = Logger.getLogger(LoadHarness.class);
+
+  private static final String SERVER_PATH = "load";
+
+  private final List<LoadRequest> requests = new ArrayList<LoadRequest>();
+  private final List<Integer> weights = new ArrayList<Integer>();
+  private int threads = 1;
+  private long warmupMillis = 1000;
+  private long durationMillis = 10000;
+  private long seed = 4711;
+
+  /**
+   * Adds a request type to the mix.
+   * @param request the request
+   * @param weight relative frequency of the request within the mix
+   * @return this harness
+   */
+  public LoadHarness addRequest(final LoadRequest request, final int weight) {
+    if (weight <= 0) {
+      throw new IllegalArgumentException("weight must be positive");
+    }
+    for (final LoadRequest existing : requests) {
+      if (existing.getName().equals(request.getName())) {
+        throw new IllegalArgumentException("duplicate request name " + request.getName());
+      }
+    }
+    requests.add(request);
+    weights.add(weight);
+    return this;
+  }
+
+  public LoadHarness setThreads(final int threads) {
+    this.threads = threads;
+    return this;
+  }
+
+  public LoadHarness setWarmupMillis(final long warmupMillis) {
+    this.warmupMillis = warmupMillis;
+    return this;
+  }
+
+  public LoadHarness setDurationMillis(final long durationMillis) {
+    this.durationMillis = durationMillis;
+    return this;
+  }
+
+  /**
+   * Sets the seed for the random choice of requests so that runs can be
+   * repeated with the same sequence of requests per thread.
+   */
+  public LoadHarness setSeed(final long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Starts a {@link TestServer} for the given service factory, runs the load
+   * against it, and stops the server.
+   * @param factoryClass the service factory
+   * @return the report
+   */
+  public LoadReport run(final Class<? extends ODataServiceFactory> factoryClass) {
+    final AllocationFilter allocationFilter = new AllocationFilter();
+    final TestServer server = new TestServer(SERVER_PATH);
+    server.addFilter(allocationFilter);
+    server.startServer(factoryClass);
+    try {
+      return run(server.getEndpoint(), allocationFilter);
+    } finally {
+      server.stopServer();
+    }
+  }
+
+  /**
+   * Runs the load against an already running service; allocation is not measured.
+   * @param serviceRoot the service root URI (ending with a slash)
+   * @return the report
+   */
+  public LoadReport run(final URI serviceRoot) {
+    return run(serviceRoot, null);
+  }
+
+  private LoadReport run(final URI serviceRoot, final AllocationFilter allocationFilter) {
+    if (requests.isEmpty()) {
+      throw new IllegalStateException("no requests added");
+    }
+
+    PoolingClientConnectionManager connectionManager = new PoolingClientConnectionManager();
+    connectionManager.setMaxTotal(threads);
+    connectionManager.setDefaultMaxPerRoute(threads);
+    final HttpClient httpClient = new DefaultHttpClient(connectionManager);
+
+    final long start = System.nanoTime();
+    final long measurementStart = start + warmupMillis * 1000000L;
+    final long end = measurementStart + durationMillis * 1000000L;
+
+    List<Worker> workers = new ArrayList<Worker>(threads);
+    List<Thread> workerThreads = new ArrayList<Thread>(threads);
+    for (int index = 0; index < threads; index++) {
+      final Worker worker = new Worker(httpClient, serviceRoot, new Random(seed + index), measurementStart, end);
+      workers.add(worker);
+      final Thread thread = new Thread(worker, "load-" + index);
+      workerThreads.add(thread);
+      thread.start();
+    }
+
+    try {
+      sleepUntil(measurementStart);
+      if (allocationFilter != null) {
+        allocationFilter.start();
+      }
+      for (final Thread thread : workerThreads) {
+        thread.join();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TestUtilRuntimeException(e);
+    } finally {
+      if (allocationFilter != null) {
+        allocationFilter.stop();
+      }
+      httpClient.getConnectionManager().shutdown();
+    }
+
+    return createReport(workers, allocationFilter);
+  }
+
+  private LoadReport createReport(final List<Worker> workers, final AllocationFilter allocationFilter) {
+    List<LoadReport.RequestStatistics> statistics = new ArrayList<LoadReport.RequestStatistics>();
+    LatencyHistogram total = new LatencyHistogram();
+    long totalErrors = 0;
+    for (int index = 0; index < requests.size(); index++) {
+      LatencyHistogram histogram = new LatencyHistogram();
+      long errors = 0;
+      for (final Worker worker : workers) {
+        histogram.add(worker.histograms[index]);
+        errors += worker.errors[index];
+      }
+      final String name = requests.get(index).getName();
+      statistics.add(new LoadReport.RequestStatistics(name, histogram, errors,
+          allocationFilter == null ? -1 : allocationFilter.getAllocatedBytesPerRequest(name)));
+      total.add(histogram);
+      totalErrors += errors;
+    }
+    statistics.add(new LoadReport.RequestStatistics(LoadReport.TOTAL, total, totalErrors, -1));
+    return new LoadReport(threads, durationMillis, statistics);
+  }
+
+  private static void sleepUntil(final long nanoTime) throws InterruptedException {
+    final long millis = (nanoTime - System.nanoTime()) / 1000000L;
+    if (millis > 0) {
+      Thread.sleep(millis);
+    }
+  }
+
+  private class Worker implements Runnable {
+    private final HttpClient httpClient;
+    private final URI serviceRoot;
+    private final Random random;
+    private final long measurementStart;
+    private final long end;
+    private final int[] cumulatedWeights;
+    private final LatencyHistogram[] histograms;
+    private final long[] errors;
+
+    public Worker(final HttpClient httpClient, final URI serviceRoot, final Random random, final long measurementStart, final long end) {
+      this.httpClient = httpClient;
+      this.serviceRoot = serviceRoot;
+      this.random = random;
+      this.measurementStart = measurementStart;
+      this.end = end;
+      cumulatedWeights = new int[weights.size()];
+      int sum = 0;
+      for (int index = 0; index < cumulatedWeights.length; index++) {
+        sum += weights.get(index);
+        cumulatedWeights[index] = sum;
+      }
+      histograms = new LatencyHistogram[requests.size()];
+      for (int index = 0; index < histograms.length; index++) {
+        histograms[index] = new LatencyHistogram();
+      }
+      errors = new long[requests.size()];
+    }
+
+    @Override
+    public void run() {
+      long now;
+      while ((now = System.nanoTime()) < end) {
+        final int index = nextRequestIndex();
+        final boolean success = execute(requests.get(index));
+        if (now >= measurementStart) {
+          if (success) {
+            histograms[index].recordValue(System.nanoTime() - now);
+          } else {
+            errors[index]++;
+          }
+        }
+      }
+    }
+
+    private int nextRequestIndex() {
+      final int value = random.nextInt(cumulatedWeights[cumulatedWeights.length - 1]);
+      int index = 0;
+      while (value >= cumulatedWeights[index]) {
+        index++;
+      }
+      return index;
+    }
+
+    private boolean execute(final LoadRequest request) {
+      HttpRequestBase httpRequest = null;
+      try {
+        httpRequest = request.createHttpRequest(serviceRoot);
+        final HttpResponse response = httpClient.execute(httpRequest);
+        EntityUtils.consume(response.getEntity());
+        final int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode >= 400) {
+          log.debug(request + " failed with status " + statusCode);
+          return false;
+        }
+        return true;
+      } catch (final IOException e) {
+        log.debug(request + " failed", e);
+        if (httpRequest != null) {
+          httpRequest.abort();
+        }
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.testutil.load;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of a {@link LoadHarness} run: count, errors, throughput, latency
+ * percentiles and server-side allocation per request type.
+ * {@link #write(Writer)} writes the report as tab-separated table with one
+ * line per request type in the configured order, so that reports of two
+ * builds can be compared with a diff or a spreadsheet.
+ * @author SAP AG
+ */
+public class LoadReport {
+
+  /** Name of the line that summarizes all request types. */
+  public static final String TOTAL = "total";
+
+  private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9 };
+
+  private final int threads;
+  private final long durationMillis;
+  private final List<RequestStatistics> statistics;
+
+  LoadReport(final int threads, final long durationMillis, final List<RequestStatistics> statistics) {
+    this.threads = threads;
+    this.durationMillis = durationMillis;
+    this.statistics = Collections.unmodifiableList(statistics);
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  /**
+   * @return statistics per request type in the configured order;
+   * the last element summarizes all request types
+   */
+  public List<RequestStatistics> getRequestStatistics() {
+    return statistics;
+  }
+
+  /**
+   * @param name name of a request type or {@link #TOTAL}
+   * @return the statistics for this request type or <code>null</code>
+   */
+  public RequestStatistics getRequestStatistics(final String name) {
+    for (final RequestStatistics requestStatistics : statistics) {
+      if (requestStatistics.getName().equals(name)) {
+        return requestStatistics;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Writes the report. Times are in microseconds, allocation is in bytes per
+   * request (-1 if not measured).
+   * @param writer the writer; it is flushed but not closed
+   */
+  public void write(final Writer writer) throws IOException {
+    writer.write("# threads=" + threads + " duration=" + durationMillis + "ms\n");
+    writer.write("request\tcount\terrors\tthroughput/s\tmean/us");
+    for (final double percentile : PERCENTILES) {
+      writer.write("\tp" + format(percentile) + "/us");
+    }
+    writer.write("\tmax/us\talloc/request\n");
+    for (final RequestStatistics requestStatistics : statistics) {
+      final LatencyHistogram histogram = requestStatistics.getHistogram();
+      writer.write(requestStatistics.getName()
+          + "\t" + requestStatistics.getCount()
+          + "\t" + requestStatistics.getErrors()
+          + "\t" + format(requestStatistics.getCount() * 1000.0 / durationMillis)
+          + "\t" + format(histogram.getMean() / 1000.0));
+      for (final double percentile : PERCENTILES) {
+        writer.write("\t" + format(histogram.getValueAtPercentile(percentile) / 1000.0));
+      }
+      writer.write("\t" + format(histogram.getMaxValue() / 1000.0)
+          + "\t" + requestStatistics.getAllocatedBytesPerRequest() + "\n");
+    }
+    writer.flush();
+  }
+
+  private static String format(final double value) {
+    return String.format(Locale.ROOT, "%.1f", value);
+  }
+
+  @Override
+  public String toString() {
+    StringWriter writer = new StringWriter();
+    try {
+      write(writer);
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Measurements for one request type.
+   */
+  public static class RequestStatistics {
+    private final String name;
+    private final LatencyHistogram histogram;
+    private final long errors;
+    private final long allocatedBytesPerRequest;
+
+    RequestStatistics(final String name, final LatencyHistogram histogram, final long errors, final long allocatedBytesPerRequest) {
+      this.name = name;
+      this.histogram = histogram;
+      this.errors = errors;
+      this.allocatedBytesPerRequest = allocatedBytesPerRequest;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return number of successful requests
+     */
+    public long getCount() {
+      return histogram.getTotalCount();
+    }
+
+    /**
+     * @return number of requests that failed with an I/O error or
+     * an HTTP status code of 400 or above
+     */
+    public long getErrors() {
+      return errors;
+    }
+
+    /**
+     * @return latencies of the successful requests in nanoseconds
+     */
+    public LatencyHistogram getHistogram() {
+      return histogram;
+    }
+
+    public long getAllocatedBytesPerRequest() {
+      return allocatedBytesPerRequest;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright 2013 SAP AG
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package com.sap.core.odata.testutil.load;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.StringEntity;
+
+import com.sap.core.odata.api.commons.ODataHttpMethod;
+
+/**
+ * A named request that the {@link LoadHarness} sends repeatedly.
+ * The name identifies the request type in the {@link LoadReport}.
+ * @author SAP AG
+ */
+public class LoadRequest {
+
+  /** Request header carrying the name of the request type to the server. */
+  public static final String HEADER_NAME = "X-Load-Request";
+
+  private final String name;
+  private final ODataHttpMethod method;
+  private final String uri;
+  private final String contentType;
+  private final String body;
+
+  /**
+   * @param name name of the request type
+   * @param method HTTP method
+   * @param uri request URI relative to the service root, e.g. <code>Employees?$top=2</code>
+   * @param contentType content type of the request body or <code>null</code>
+   * @param body request body or <code>null</code>
+   */
+  public LoadRequest(final String name, final ODataHttpMethod method, final String uri, final String contentType, final String body) {
+    this.name = name;
+    this.method = method;
+    this.uri = uri;
+    this.contentType = contentType;
+    this.body = body;
+  }
+
+  public static LoadRequest get(final String name, final String uri) {
+    return new LoadRequest(name, ODataHttpMethod.GET, uri, null, null);
+  }
+
+  public static LoadRequest post(final String name, final String uri, final String contentType, final String body) {
+    return new LoadRequest(name, ODataHttpMethod.POST, uri, contentType, body);
+  }
+
+  public static LoadRequest merge(final String name, final String uri, final String contentType, final String body) {
+    return new LoadRequest(name, ODataHttpMethod.MERGE, uri, contentType, body);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public ODataHttpMethod getMethod() {
+    return method;
+  }
+
+  public String getUri() {
+    return uri;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  /**
+   * Creates a new HTTP request for this request type.
+   * @param serviceRoot service root URI (ending with a slash)
+   * @return a new HTTP request
+   */
+  HttpRequestBase createHttpRequest(final URI serviceRoot) throws UnsupportedEncodingException {
+    final URI requestUri = URI.create(serviceRoot + uri.replace(" ", "%20"));
+    HttpRequestBase request;
+    if (method == ODataHttpMethod.GET) {
+      request = new HttpGet(requestUri);
+    } else {
+      final HttpEntityEnclosingRequestBase entityRequest = new EntityEnclosingRequest(method.name());
+      entityRequest.setURI(requestUri);
+      if (body != null) {
+        entityRequest.setEntity(new StringEntity(body, "UTF-8"));
+        entityRequest.setHeader(HttpHeaders.CONTENT_TYPE, contentType);
+      }
+      request = entityRequest;
+    }
+    request.setHeader(HEADER_NAME, name);
+    return request;
+  }
+
+  @Override
+  public String toString() {
+    return name + " (" + method + " " + uri + ")";
+  }
+
+  private static class EntityEnclosingRequest extends HttpEntityEnclosingRequestBase {
+    private final String methodName;
+
+    public EntityEnclosingRequest(final String methodName) {
+      this.methodName = methodName;
+    }
+
+    @Override
+    public String getMethod() {
+      return methodName;
+    }
+  }
+}
@@ -18,10 +18,17 @@ package com.sap.core.odata.testutil.server;
 import java.net.BindException;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import javax.servlet.Filter;
 
 import org.apache.cxf.jaxrs.servlet.CXFNonSpringJaxrsServlet;
 import org.apache.log4j.Logger;
+import org.eclipse.jetty.server.DispatcherType;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 
@@ -48,6 +55,8 @@ public class TestServer {
 
   private int pathSplit = 0;
 
+  private final List<Filter> filters = new ArrayList<Filter>();
+
   public TestServer() {
     this(DEFAULT_PATH);
   }
@@ -68,6 +77,15 @@ public class TestServer {
     this.pathSplit = pathSplit;
   }
 
+  /**
+   * Adds a servlet filter for all requests to the OData servlet;
+   * must be called before the server is started.
+   * @param filter the filter
+   */
+  public void addFilter(final Filter filter) {
+    filters.add(filter);
+  }
+
   public URI getEndpoint() {
     return URI.create(endpoint + "/");
   }
@@ -88,6 +106,9 @@ public class TestServer {
 
         final ServletContextHandler contextHandler = new ServletContextHandler(ServletContextHandler.SESSIONS);
         contextHandler.addServlet(odataServletHolder, path + "/*");
+        for (final Filter filter : filters) {
+          contextHandler.addFilter(new FilterHolder(filter), path + "/*", EnumSet.of(DispatcherType.REQUEST));
+        }
 
         try {
           final InetSocketAddress isa = new InetSocketAddress(DEFAULT_HOST, port);